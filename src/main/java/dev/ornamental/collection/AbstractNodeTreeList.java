@@ -0,0 +1,458 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.function.Supplier;
+
+/**
+ * This class is the common base of the {@link java.util.List} implementations storing their values
+ * in the nodes of a {@link RankedRedBlackTree} of a custom node type, such as the lists of primitive values
+ * or the lists keeping additional data in their nodes. It provides the same time complexities
+ * as {@link TreeList} does; the concrete implementations define how the values are stored in the nodes
+ * and add their specific methods. The tree may be augmented (see {@link RankedRedBlackTree#isAugmented()}),
+ * in which case the nodes are refreshed whenever their payloads change.
+ * @param <E> the (boxed) type of the values stored by the list
+ * @param <N> the type of the tree nodes holding the values
+ */
+abstract class AbstractNodeTreeList<E, N extends WeightedNode<N>> extends AbstractList<E> {
+
+	/**
+	 * This class implements a {@link ListIterator} over the boxed values stored by the list
+	 * and is based on a tree node list iterator.
+	 */
+	protected class ListIteratorImpl implements ListIterator<E> {
+
+		/**
+		 * The underlying list iterator over the nodes of the tree
+		 */
+		protected final TreeNodeListIterator<N> nodeListIterator;
+
+		/**
+		 * The modification counter used to detect the list modifications performed
+		 * without using this iterator
+		 */
+		protected int expectedModCount;
+
+		/**
+		 * Creates a new list iterator based on the supplied tree node iterator.
+		 * @param nodeListIterator the underlying list iterator over the nodes of a tree
+		 */
+		public ListIteratorImpl(TreeNodeListIterator<N> nodeListIterator) {
+			this.nodeListIterator = nodeListIterator;
+			this.expectedModCount = AbstractNodeTreeList.this.modCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nodeListIterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			checkModCount();
+			return getValue(nodeListIterator.next());
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nodeListIterator.hasPrevious();
+		}
+
+		@Override
+		public E previous() {
+			checkModCount();
+			return getValue(nodeListIterator.previous());
+		}
+
+		@Override
+		public int nextIndex() {
+			return nodeListIterator.nextIndex();
+		}
+
+		@Override
+		public int previousIndex() {
+			return nodeListIterator.previousIndex();
+		}
+
+		@Override
+		public void set(E value) {
+			checkModCount();
+			if (!nodeListIterator.isModificationPossible()) {
+				throw new IllegalStateException();
+			}
+
+			setValue(nodeListIterator.getCurrentNode(), value);
+			RankedRedBlackTree.NodeBuffer<N> path = nodeListIterator.getCurrentPath();
+			tree.refreshPath(path, path.size() - 1);
+		}
+
+		@Override
+		public void remove() {
+			checkModCount();
+			nodeListIterator.remove();
+			updateModCount();
+		}
+
+		@Override
+		public void add(E value) {
+			checkModCount();
+			tree.checkSizeLimit(); // before the value is attached to a node which might not be inserted
+			N node = tree.produceNode(RED);
+			setValue(node, value);
+			nodeListIterator.add(node);
+			updateModCount();
+		}
+
+		/**
+		 * Tries to detect a modification made to the list being iterated over,
+		 * not using this iterator.
+		 * @throws ConcurrentModificationException if an external modification is detected
+		 */
+		protected void checkModCount() {
+			if (expectedModCount != AbstractNodeTreeList.this.modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		/**
+		 * Increases the expected modification identifier after a modification operation
+		 * performed using this iterator.
+		 */
+		private void updateModCount() {
+			expectedModCount = ++AbstractNodeTreeList.this.modCount;
+		}
+	}
+
+	/**
+	 * The initial size of the node stack buffer
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+
+	/**
+	 * The underlying ranked red-black tree
+	 */
+	protected final RankedRedBlackTree<N> tree;
+
+	/**
+	 * Pre-allocated node list used in modification operations (see {@link TreeList})
+	 */
+	private final RankedRedBlackTree.NodeBuffer<N> nodeBuffer;
+
+	/**
+	 * Creates a list with the specified underlying {@link RankedRedBlackTree} instance.
+	 * @param tree the backing tree for the new list
+	 */
+	protected AbstractNodeTreeList(RankedRedBlackTree<N> tree) {
+		this.tree = tree;
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(
+			1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight()));
+	}
+
+	/**
+	 * Creates a new empty tree of the type used by the concrete implementation.
+	 * @return a new empty tree
+	 */
+	protected abstract RankedRedBlackTree<N> produceTree();
+
+	/**
+	 * Returns the value held by a node as a boxed object.
+	 * @param node the node to get the value of
+	 * @return the boxed value of the node
+	 */
+	protected abstract E getValue(N node);
+
+	/**
+	 * Replaces the value held by a node.
+	 * @param node the node to set the value of
+	 * @param value the new boxed value; must not be {@code null}
+	 */
+	protected abstract void setValue(N node, E value);
+
+	/**
+	 * Handles the nodes of a subtree removed from the list in bulk (by {@link #clear()}
+	 * or {@link #removeRange(int, int)}); the nodes removed one by one drop their payloads instead
+	 * (see {@link WeightedNode#dropPayload()}). This implementation does nothing.
+	 * @param root the root of the removed subtree
+	 */
+	protected void discard(N root) { }
+
+	@Override
+	public E get(int index) {
+		return getValue(findNode(index));
+	}
+
+	@Override
+	public E set(int index, E element) {
+		// the path to the node is only needed to update the augmented data of the tree
+		N node = tree.isAugmented() ? findNodeForRemoval(index) : findNode(index);
+		E oldValue = getValue(node);
+		setValue(node, element);
+		refreshFoundPath();
+		return oldValue;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		N node = tree.produceNode(RED);
+		setValue(node, element);
+		insertNode(index, node);
+	}
+
+	@Override
+	public E remove(int index) {
+		E value = getValue(findNodeForRemoval(index));
+		removeFoundNode();
+		return value;
+	}
+
+	@Override
+	public int size() {
+		return tree.root.getWeight();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tree.root == tree.nil;
+	}
+
+	@Override
+	public void clear() {
+		if (tree.root != tree.nil) {
+			discard(tree.root);
+		}
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+	}
+
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		return new ListIteratorImpl(nodeListIterator(index));
+	}
+
+	/**
+	 * Removes the elements having indices from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive,
+	 * in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * @param fromIndex the index of the first element to be removed
+	 * @param toIndex the index after the last element to be removed
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > tree.root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (fromIndex == toIndex) {
+			return;
+		}
+
+		RankedRedBlackTree<N> prefixTree = produceTree();
+		RankedRedBlackTree<N> remainderTree = produceTree();
+		RankedRedBlackTree.split(tree, fromIndex, prefixTree, remainderTree);
+		RankedRedBlackTree<N> removedTree = produceTree();
+		RankedRedBlackTree<N> suffixTree = produceTree();
+		RankedRedBlackTree.split(remainderTree, toIndex - fromIndex, removedTree, suffixTree);
+		RankedRedBlackTree.merge(prefixTree, suffixTree, tree);
+		discard(removedTree.root);
+
+		modCount++;
+	}
+
+	/**
+	 * Finds the node having the specified index.
+	 * @param index the index of the node
+	 * @return the node having the specified index
+	 */
+	protected N findNode(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		return tree.find(index, null);
+	}
+
+	/**
+	 * Finds the node having the specified index memorizing the path to it
+	 * for {@link #removeFoundNode()} or {@link #refreshFoundPath()} to be invoked afterwards.
+	 * @param index the index of the node
+	 * @return the node having the specified index
+	 */
+	protected N findNodeForRemoval(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		return tree.find(index, nodeBuffer);
+	}
+
+	/**
+	 * Removes the node located by the last invocation of {@link #findNodeForRemoval(int)}.
+	 */
+	protected void removeFoundNode() {
+		tree.remove(nodeBuffer);
+		modCount++;
+	}
+
+	/**
+	 * Recomputes the augmented data of the tree (see {@link RankedRedBlackTree#isAugmented()})
+	 * for the nodes on the path found by the last invocation of {@link #findNodeForRemoval(int)}
+	 * after the payload of the found node has been changed.
+	 */
+	protected void refreshFoundPath() {
+		tree.refreshPath(nodeBuffer, nodeBuffer.size() - 1);
+	}
+
+	/**
+	 * Inserts a new node into the tree so that it has the specified index.
+	 * @param index the index of the new node
+	 * @param node a new red node having no child references
+	 */
+	protected void insertNode(int index, N node) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+		tree.checkSizeLimit();
+
+		node.withLeft(tree.nil).withRight(tree.nil);
+		if (tree.root == tree.nil) {
+			node.makeBlack();
+			tree.refresh(node);
+			tree.root = node;
+		} else {
+			// search for the insertion point (nil leaf to substitute with the new node)
+			nodeBuffer.clear();
+			N current = tree.root;
+			while (current != tree.nil) {
+				nodeBuffer.add(current);
+				N left = current.getLeft();
+				int leftWeight = left.getWeight();
+				if (index <= leftWeight) {
+					if (left == tree.nil) {
+						current.withLeft(node);
+					}
+					current = left;
+				} else {
+					index -= leftWeight + 1;
+					N right = current.getRight();
+					if (right == tree.nil) {
+						current.withRight(node);
+					}
+					current = right;
+				}
+			}
+
+			nodeBuffer.add(node);
+			tree.afterInsert(nodeBuffer);
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Creates a list iterator over the nodes of the tree.
+	 * @param index the index of the first node to be returned by {@link TreeNodeListIterator#next()}
+	 * @return the new node list iterator
+	 */
+	protected TreeNodeListIterator<N> nodeListIterator(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		RankedRedBlackTree.NodeBuffer<N> cursor =
+			new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
+		boolean before = true;
+		if (tree.root != tree.nil) {
+			if (index == tree.root.getWeight()) {
+				before = false;
+				index--;
+			}
+			tree.find(index, cursor);
+		}
+
+		return new TreeNodeListIterator<>(tree, cursor, before);
+	}
+
+	/**
+	 * Creates a spliterator prototype over all the nodes of the tree.
+	 * @return the spliterator prototype, or {@code null} if the list is empty
+	 */
+	protected TreeNodeSpliteratorPrototype<N> nodeSpliterator() {
+		if (tree.root == tree.nil) {
+			return null;
+		}
+
+		RankedRedBlackTree.NodeBuffer<N> buffer = new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
+		tree.find(0, buffer);
+		return new TreeNodeSpliteratorPrototype<>(buffer, tree.root.getWeight());
+	}
+
+	/**
+	 * Detaches the elements starting from the specified index from this list
+	 * in <em>O(log(n))</em> time.
+	 * @param index the index of the first element to be detached
+	 * @return the tree containing the detached elements
+	 */
+	protected RankedRedBlackTree<N> splitTree(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		RankedRedBlackTree<N> prefixTree = produceTree();
+		RankedRedBlackTree<N> suffixTree = produceTree();
+		RankedRedBlackTree.split(tree, index, prefixTree, suffixTree);
+		tree.root = prefixTree.root;
+
+		modCount++;
+		return suffixTree;
+	}
+
+	/**
+	 * Appends the elements of another list to this one in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em>
+	 * time, clearing the other list.
+	 * @param suffix the list whose elements are to be appended
+	 */
+	protected void append(AbstractNodeTreeList<E, N> suffix) {
+		if (suffix == this) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+
+		RankedRedBlackTree<N> prefixTree = produceTree();
+		prefixTree.root = tree.root;
+		RankedRedBlackTree.merge(prefixTree, suffix.tree, tree);
+		suffix.nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		suffix.modCount++;
+
+		ensureBufferCapacity();
+		modCount++;
+	}
+
+	/**
+	 * Bulk-loads the given number of nodes into the tree of this list replacing its contents
+	 * in <em>O(n)</em> time.
+	 * @param nodes the source of the black nodes with their payloads set, in the list order
+	 * @param length the number of nodes to fetch from the source
+	 */
+	protected void load(Supplier<N> nodes, int length) {
+		if (length > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		tree.root = RankedRedBlackTree.buildTree(nodes, length, tree.nil, tree::refresh);
+
+		ensureBufferCapacity();
+		modCount++;
+	}
+
+	/**
+	 * Makes sure the node buffer is sufficient to store a path from the root to any node of the tree.
+	 */
+	private void ensureBufferCapacity() {
+		int bufferCapacity = 1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight());
+		if (bufferCapacity > nodeBuffer.getCapacity()) {
+			nodeBuffer.reinitialize(bufferCapacity);
+		}
+	}
+}
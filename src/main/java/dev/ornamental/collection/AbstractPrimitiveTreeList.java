@@ -0,0 +1,212 @@
+package dev.ornamental.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Function;
+
+/**
+ * This class is the common base of the {@link java.util.List} implementations storing primitive values
+ * without boxing them ({@link IntTreeList}, {@link LongTreeList} and {@link DoubleTreeList}).
+ * It implements the tree, the iteration over the nodes and the spliteration shared by them; the concrete
+ * implementations only define the nodes holding the values and the methods accessing the values
+ * of their primitive type.
+ * @param <E> the boxed type of the values stored by the list
+ * @param <N> the type of the tree nodes holding the values
+ */
+abstract class AbstractPrimitiveTreeList<E, N extends WeightedNode<N>> extends AbstractNodeTreeList<E, N> {
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification producing the nodes of a primitive list.
+	 * @param <N> the type of the tree nodes
+	 */
+	protected static final class Tree<N extends WeightedNode<N>> extends RankedRedBlackTree<N> {
+
+		/**
+		 * The function creating a node of the specified colour ({@code true} for red)
+		 */
+		private final Function<Boolean, N> nodes;
+
+		/**
+		 * Creates a new empty tree.
+		 * @param nil the NIL node of the tree
+		 * @param nodes the function creating a node of the specified colour ({@code true} for red)
+		 */
+		protected Tree(N nil, Function<Boolean, N> nodes) {
+			super(nil);
+			this.nodes = nodes;
+		}
+
+		@Override
+		protected N produceNode(boolean isRed) {
+			return nodes.apply(isRed);
+		}
+	}
+
+	/**
+	 * This class is the base of the primitive iterators over the values stored by the list;
+	 * the concrete iterators read the values of the nodes returned by {@link #nextNode()}.
+	 */
+	protected abstract class PrimitiveIteratorBase {
+
+		/**
+		 * The underlying list iterator over the nodes of the tree
+		 */
+		protected final TreeNodeListIterator<N> nodeListIterator;
+
+		/**
+		 * The modification counter used to detect the list modifications performed
+		 * without using this iterator
+		 */
+		protected int expectedModCount;
+
+		/**
+		 * Creates a new iterator based on the supplied tree node iterator.
+		 * @param nodeListIterator the underlying list iterator over the nodes of a tree
+		 */
+		protected PrimitiveIteratorBase(TreeNodeListIterator<N> nodeListIterator) {
+			this.nodeListIterator = nodeListIterator;
+			this.expectedModCount = AbstractPrimitiveTreeList.this.modCount;
+		}
+
+		/**
+		 * Checks if the iteration has more values.
+		 * @return {@code true} if and only if the iteration has more values
+		 */
+		public boolean hasNext() {
+			return nodeListIterator.hasNext();
+		}
+
+		/**
+		 * Removes the last value returned by the iterator from the list.
+		 */
+		public void remove() {
+			if (expectedModCount != AbstractPrimitiveTreeList.this.modCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			nodeListIterator.remove();
+			expectedModCount = ++AbstractPrimitiveTreeList.this.modCount;
+		}
+
+		/**
+		 * Advances the iterator.
+		 * @return the node holding the next value
+		 */
+		protected N nextNode() {
+			if (expectedModCount != AbstractPrimitiveTreeList.this.modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!nodeListIterator.hasNext()) {
+				throw new NoSuchElementException("The iteration has reached the end of the list.");
+			}
+
+			return nodeListIterator.next();
+		}
+	}
+
+	/**
+	 * This class is the base of the primitive spliterators over the values stored by the list;
+	 * the concrete spliterators pass the values of the nodes returned by {@link #tryAdvanceNode()}
+	 * to the actions and wrap the prototypes returned by {@link #trySplitNodes()}.
+	 */
+	protected abstract class PrimitiveSpliteratorBase {
+
+		/**
+		 * The underlying pseudo-spliterator over the sequence of tree nodes
+		 */
+		protected final TreeNodeSpliteratorPrototype<N> nodeSpliterator;
+
+		/**
+		 * The modification counter used to detect the list modifications performed
+		 * without using this iterator
+		 */
+		protected final int expectedModCount;
+
+		/**
+		 * Creates a spliterator based on the specified node pseudo-spliterator.
+		 * @param nodeSpliterator the underlying node pseudo-spliterator
+		 * @param expectedModCount the last tree modification identifier
+		 */
+		protected PrimitiveSpliteratorBase(TreeNodeSpliteratorPrototype<N> nodeSpliterator, int expectedModCount) {
+			this.nodeSpliterator = nodeSpliterator;
+			this.expectedModCount = expectedModCount;
+		}
+
+		/**
+		 * Returns an estimate of the number of values remaining to be traversed.
+		 * @return the estimated number of the remaining values
+		 */
+		public long estimateSize() {
+			return nodeSpliterator.estimateSize();
+		}
+
+		/**
+		 * Returns the exact number of values remaining to be traversed.
+		 * @return the number of the remaining values
+		 */
+		public long getExactSizeIfKnown() {
+			return nodeSpliterator.getExactSizeIfKnown();
+		}
+
+		/**
+		 * Returns the characteristics of the spliterator.
+		 * @return the characteristics of the spliterator
+		 */
+		public int characteristics() {
+			return nodeSpliterator.characteristics() | Spliterator.NONNULL;
+		}
+
+		/**
+		 * Advances the spliterator.
+		 * @return the node holding the next value or {@code null} if there are no values remaining
+		 */
+		protected N tryAdvanceNode() {
+			checkModCount();
+			return nodeSpliterator.tryAdvance();
+		}
+
+		/**
+		 * Splits off the prefix of the remaining nodes.
+		 * @return the pseudo-spliterator over the prefix or {@code null} if the nodes cannot be split
+		 */
+		protected TreeNodeSpliteratorPrototype<N> trySplitNodes() {
+			checkModCount();
+			return nodeSpliterator.trySplit();
+		}
+
+		/**
+		 * Tries to detect a modification made to the list being spliterated.
+		 * @throws ConcurrentModificationException if a modification is detected
+		 */
+		private void checkModCount() {
+			if (expectedModCount != AbstractPrimitiveTreeList.this.modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Creates a list with the specified underlying tree.
+	 * @param tree the backing tree for the new list
+	 */
+	protected AbstractPrimitiveTreeList(Tree<N> tree) {
+		super(tree);
+	}
+
+	/**
+	 * Returns the number of the values of a sized spliterator as the length to be passed
+	 * to {@link #load(java.util.function.Supplier, int)}, which rejects the lengths exceeding
+	 * the size limit of the list.
+	 * @param source the spliterator reporting its exact size
+	 * @return the number of the values, or {@link Integer#MAX_VALUE} if it is greater
+	 */
+	protected static int sizeOf(Spliterator<?> source) {
+		return (int)Math.min(source.getExactSizeIfKnown(), Integer.MAX_VALUE);
+	}
+
+	@Override
+	protected RankedRedBlackTree<N> produceTree() {
+		return new Tree<>(tree.nil, ((Tree<N>)tree).nodes);
+	}
+}
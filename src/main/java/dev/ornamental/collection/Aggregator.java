@@ -0,0 +1,73 @@
+package dev.ornamental.collection;
+
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * This interface defines an associative summary of a sequence of values (e.g., a sum, a minimum
+ * or a number of values satisfying a condition) maintained by an augmented {@link TreeList}
+ * for each of its subtrees, which allows aggregating any range of the list in <em>O(log(n))</em> time
+ * (see {@link TreeList#aggregate(Aggregator, int, int)}).<br>
+ * The {@link #combine(Object, Object)} operation must be associative, and the {@link #identity()}
+ * summary must be its neutral element; the operation need not be commutative. Neither of the methods
+ * may modify the summaries passed to them, as these are shared by the subtrees.
+ * @param <T> the type of the summarized values
+ * @param <A> the type of the summary
+ */
+public interface Aggregator<T, A> {
+
+	/**
+	 * Returns the summary of an empty sequence of values.
+	 * @return the neutral summary
+	 */
+	A identity();
+
+	/**
+	 * Returns the summary of a single value.
+	 * @param value the value
+	 * @return the summary of a sequence consisting of the value only
+	 */
+	A summarize(T value);
+
+	/**
+	 * Returns the summary of the concatenation of two sequences of values.
+	 * @param left the summary of the first sequence
+	 * @param right the summary of the second sequence
+	 * @return the summary of the first sequence followed by the second one
+	 */
+	A combine(A left, A right);
+
+	/**
+	 * Creates an aggregator from the given functions.
+	 * @param identity the summary of an empty sequence of values
+	 * @param summarizer the function returning the summary of a single value
+	 * @param combiner the associative function combining the summaries of two consecutive sequences
+	 * @param <T> the type of the summarized values
+	 * @param <A> the type of the summary
+	 * @return the new aggregator
+	 */
+	static <T, A> Aggregator<T, A> of(
+		A identity, Function<? super T, ? extends A> summarizer, BinaryOperator<A> combiner) {
+
+		Objects.requireNonNull(summarizer);
+		Objects.requireNonNull(combiner);
+		return new Aggregator<T, A>() {
+
+			@Override
+			public A identity() {
+				return identity;
+			}
+
+			@Override
+			public A summarize(T value) {
+				return summarizer.apply(value);
+			}
+
+			@Override
+			public A combine(A left, A right) {
+				return combiner.apply(left, right);
+			}
+		};
+	}
+}
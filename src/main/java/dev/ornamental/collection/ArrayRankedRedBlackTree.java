@@ -0,0 +1,227 @@
+package dev.ornamental.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class represents a red-black tree storing a subtree size with each node, having the same
+ * semantics as {@link RankedRedBlackTree}, but storing its nodes as slots of parallel arrays
+ * rather than as separate objects. The slots of the removed nodes are linked into
+ * a free slot list and reused by the subsequent insertions.
+ */
+final class ArrayRankedRedBlackTree extends SlotRankedRedBlackTree {
+
+	/**
+	 * The initial number of slots, including the {@link #NIL} one
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The maximum number of slots, including the {@link #NIL} one (the greatest array length
+	 * reliably supported by the virtual machines)
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The left child node indices; for the free slots, the index of the next free slot
+	 */
+	private int[] left;
+
+	/**
+	 * The right child node indices
+	 */
+	private int[] right;
+
+	/**
+	 * The numbers indicating both colour of the nodes and their weights;
+	 * the red nodes have positive markers, the black ones have negative markers
+	 */
+	private int[] marker;
+
+	/**
+	 * The values held by the nodes
+	 */
+	private Object[] values;
+
+	/**
+	 * The index of the first free slot, or {@link #NIL} if all the slots below {@link #usedSlots} are occupied
+	 */
+	private int freeSlot = NIL;
+
+	/**
+	 * The number of slots ever occupied, including the {@link #NIL} one
+	 */
+	private int usedSlots;
+
+	/**
+	 * Creates a new empty tree.
+	 */
+	public ArrayRankedRedBlackTree() {
+		resetStorage(0);
+	}
+
+	/**
+	 * Returns the value of the node having the specified rank.
+	 * @param rank the rank of the node
+	 * @return the value of the node
+	 */
+	public Object get(int rank) {
+		return values[find(rank)];
+	}
+
+	/**
+	 * Replaces the value of the node having the specified rank.
+	 * @param rank the rank of the node
+	 * @param value the new value of the node
+	 * @return the previous value of the node
+	 */
+	public Object set(int rank, Object value) {
+		int node = find(rank);
+		Object oldValue = values[node];
+		values[node] = value;
+		return oldValue;
+	}
+
+	/**
+	 * Inserts a new node so that it has the specified rank.
+	 * @param rank the rank of the new node
+	 * @param value the value of the new node
+	 */
+	public void insert(int rank, Object value) {
+		int node = newNode();
+		values[node] = value;
+		insert(rank, node);
+	}
+
+	/**
+	 * Removes the node having the specified rank.
+	 * @param rank the rank of the node to remove
+	 * @return the value of the removed node
+	 */
+	public Object remove(int rank) {
+		int node = unlink(rank);
+		Object value = values[node];
+		releaseSlot(node);
+		return value;
+	}
+
+	/**
+	 * Replaces the contents of the tree with the given number of iterator elements
+	 * in <em>O(n)</em> time so that any two of its leave nodes have depths differing by no more than 1.
+	 * @param source the value source
+	 * @param length the number of elements to fetch from the source
+	 */
+	public void load(Iterator<?> source, int length) {
+		load(node -> values[node] = source.next(), length);
+	}
+
+	/**
+	 * Returns an iterator over the values of the nodes starting from the specified rank.
+	 * The iterator does not detect any modifications of the tree.
+	 * @param rank the rank of the first node to be visited
+	 * @return the in-order iterator over the node values
+	 */
+	public Iterator<Object> valueIterator(int rank) {
+		PrimitiveIterator.OfInt nodes = iterator(rank);
+		return new Iterator<Object>() {
+
+			@Override
+			public boolean hasNext() {
+				return nodes.hasNext();
+			}
+
+			@Override
+			public Object next() {
+				return values[nodes.nextInt()];
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of allocated slots (the footprint of the tree).
+	 * @return the number of allocated slots including the {@link #NIL} one
+	 */
+	public int getCapacity() {
+		return left.length;
+	}
+
+	@Override
+	public void releaseSlot(int slot) {
+		values[slot] = null;
+		left[slot] = freeSlot;
+		freeSlot = slot;
+	}
+
+	@Override
+	protected int getLeft(int node) {
+		return left[node];
+	}
+
+	@Override
+	protected void setLeft(int node, int child) {
+		left[node] = child;
+	}
+
+	@Override
+	protected int getRight(int node) {
+		return right[node];
+	}
+
+	@Override
+	protected void setRight(int node, int child) {
+		right[node] = child;
+	}
+
+	@Override
+	protected int getMarker(int node) {
+		return marker[node];
+	}
+
+	@Override
+	protected void setMarker(int node, int marker) {
+		this.marker[node] = marker;
+	}
+
+	@Override
+	protected int allocateSlot() {
+		int slot;
+		if (freeSlot != NIL) {
+			slot = freeSlot;
+			freeSlot = left[slot];
+		} else {
+			if (usedSlots == left.length) {
+				int capacity = (int)Math.min(MAX_CAPACITY, left.length + (long)(left.length >> 1));
+				if (capacity == left.length) {
+					throw new IllegalStateException(
+						String.format("The collection size limit of %s is reached.", MAX_CAPACITY - 1));
+				}
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				marker = Arrays.copyOf(marker, capacity);
+				values = Arrays.copyOf(values, capacity);
+			}
+			slot = usedSlots++;
+		}
+		return slot;
+	}
+
+	@Override
+	protected void swapPayloads(int first, int second) {
+		Object value = values[first];
+		values[first] = values[second];
+		values[second] = value;
+	}
+
+	@Override
+	protected void resetStorage(int expectedSize) {
+		int capacity = Math.max(DEFAULT_CAPACITY, expectedSize + 1);
+		left = new int[capacity];
+		right = new int[capacity];
+		marker = new int[capacity];
+		values = new Object[capacity];
+		marker[NIL] = NIL_MARKER;
+		usedSlots = 1;
+		freeSlot = NIL;
+	}
+}
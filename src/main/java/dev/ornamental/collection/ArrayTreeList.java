@@ -0,0 +1,129 @@
+package dev.ornamental.collection;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+/**
+ * This class is a random access {@link java.util.List} implementation having the same time complexities
+ * of the single-element operations as {@link TreeList}, but backed by an {@link ArrayRankedRedBlackTree}:
+ * the nodes of the tree are the slots of several parallel arrays rather than separate objects.
+ * This reduces the memory footprint of the list and the number of objects the garbage collector
+ * has to trace, at the cost of the arrays being reallocated as the list grows; the arrays never shrink
+ * unless the list is cleared.<br>
+ * The list may be bulk-loaded from another collection in <em>O(n)</em> time upon construction.
+ * @param <T> the type of values stored by the list
+ */
+public class ArrayTreeList<T> extends AbstractList<T> {
+
+	/**
+	 * The underlying array-based ranked red-black tree
+	 */
+	protected final ArrayRankedRedBlackTree tree = new ArrayRankedRedBlackTree();
+
+	/**
+	 * Creates an empty {@link ArrayTreeList} instance.
+	 */
+	public ArrayTreeList() { }
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link ArrayTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection
+	 */
+	public ArrayTreeList(Collection<? extends T> source) {
+		int size = source.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		tree.load(source.iterator(), size);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		return (T)tree.get(index);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T set(int index, T element) {
+		return (T)tree.set(index, element);
+	}
+
+	@Override
+	public void add(int index, T element) {
+		tree.insert(index, element);
+		modCount++;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T remove(int index) {
+		T value = (T)tree.remove(index);
+		modCount++;
+		return value;
+	}
+
+	@Override
+	public int size() {
+		return tree.size();
+	}
+
+	@Override
+	public void clear() {
+		tree.clear();
+		modCount++;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private Iterator<Object> values = tree.valueIterator(0);
+
+			private int nextIndex = 0;
+
+			private boolean removalPossible = false;
+
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return values.hasNext();
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T next() {
+				checkModCount();
+				T value = (T)values.next();
+				nextIndex++;
+				removalPossible = true;
+				return value;
+			}
+
+			@Override
+			public void remove() {
+				checkModCount();
+				if (!removalPossible) {
+					throw new IllegalStateException();
+				}
+
+				ArrayTreeList.this.remove(--nextIndex);
+				values = tree.valueIterator(nextIndex); // the removal may have restructured the tree
+				removalPossible = false;
+				expectedModCount = modCount;
+			}
+
+			private void checkModCount() {
+				if (expectedModCount != modCount) {
+					throw new ConcurrentModificationException();
+				}
+			}
+		};
+	}
+}
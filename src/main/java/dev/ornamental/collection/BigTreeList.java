@@ -0,0 +1,654 @@
+package dev.ornamental.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a sequence of elements accessible by {@code long} indices, which may hold more than
+ * {@link Integer#MAX_VALUE} elements. The elements are stored in chunks of up to {@link #CHUNK_CAPACITY}
+ * consecutive elements; the chunks are held by a {@link WeightedTreeList}, the weight of a chunk being
+ * its number of elements, so that the index of an element is an offset in that list.
+ * Thus, the positional operations run in <em>O(log(n))</em> time, <em>n</em> being the number
+ * of chunks, and the size of the sequence is only limited by the number of chunks
+ * ({@link RankedRedBlackTree#MAX_TREE_SIZE}).<br>
+ * A full chunk is split in two when an element is inserted into it (unless the element is appended
+ * to the chunk, in which case a new chunk is started); a chunk whose size falls below a quarter
+ * of the capacity is merged with (or borrows elements from) an adjacent chunk. This keeps
+ * the per-element memory footprint close to that of an array.<br>
+ * As the size of the sequence may exceed the range of {@code int}, this class does not implement
+ * {@link java.util.List}; its {@link #spliterator()} reports the {@code long} size.
+ * @param <T> the type of values stored by the sequence
+ */
+public class BigTreeList<T> implements Iterable<T> {
+
+	/**
+	 * This class is a chunk of consecutive elements of the sequence.
+	 */
+	protected static final class Chunk {
+
+		/**
+		 * The elements held by the chunk, followed by {@code null}s
+		 */
+		private final Object[] values = new Object[CHUNK_CAPACITY];
+
+		/**
+		 * The number of elements held by the chunk
+		 */
+		private int size;
+
+		/**
+		 * Returns the number of elements held by the chunk.
+		 * @return the number of elements
+		 */
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * This class is the location of an element: the chunk holding it, the index of the chunk
+	 * and the position of the element within the chunk.
+	 */
+	private static final class Location {
+
+		/**
+		 * The chunk holding the element
+		 */
+		private final Chunk chunk;
+
+		/**
+		 * The index of the chunk in the list of chunks
+		 */
+		private final int index;
+
+		/**
+		 * The position of the element within the chunk
+		 */
+		private final int position;
+
+		/**
+		 * Creates a new element location.
+		 * @param chunk the chunk holding the element
+		 * @param index the index of the chunk in the list of chunks
+		 * @param position the position of the element within the chunk
+		 */
+		private Location(Chunk chunk, int index, int position) {
+			this.chunk = chunk;
+			this.index = index;
+			this.position = position;
+		}
+	}
+
+	/**
+	 * This class is the base of the iterators and spliterators walking the elements of the sequence
+	 * chunk by chunk.
+	 */
+	protected class Cursor {
+
+		/**
+		 * The iterator over the chunks following {@link #chunk} or {@code null} if the cursor
+		 * has to be positioned before it is advanced
+		 */
+		private ListIterator<Chunk> chunkIterator;
+
+		/**
+		 * The chunk holding the element to be returned next
+		 */
+		private Chunk chunk;
+
+		/**
+		 * The position of the next element in {@link #chunk}
+		 */
+		private int position;
+
+		/**
+		 * The index of the next element in the sequence
+		 */
+		protected long nextIndex;
+
+		/**
+		 * The modification counter value expected by the cursor
+		 */
+		protected int expectedModCount = modCount;
+
+		/**
+		 * Creates a cursor positioned before the element having the specified index.
+		 * @param index the index of the next element
+		 */
+		protected Cursor(long index) {
+			seek(index);
+		}
+
+		/**
+		 * Positions the cursor before the element having the specified index; the chunk holding
+		 * the element is only located when the cursor is advanced.
+		 * @param index the index of the next element
+		 */
+		protected void seek(long index) {
+			nextIndex = index;
+			chunkIterator = null;
+		}
+
+		/**
+		 * Returns the next element and advances the cursor. The next element must exist.
+		 * @return the next element
+		 */
+		protected T nextValue() {
+			if (chunkIterator == null) {
+				Location location = locate(nextIndex, false);
+				chunkIterator = chunks.listIterator(location.index + 1);
+				chunk = location.chunk;
+				position = location.position;
+			} else if (position == chunk.size) {
+				chunk = chunkIterator.next();
+				position = 0;
+			}
+
+			@SuppressWarnings("unchecked")
+			T value = (T)chunk.values[position++];
+			nextIndex++;
+			return value;
+		}
+
+		/**
+		 * Tries to detect a modification of the sequence not made using this cursor.
+		 * @throws ConcurrentModificationException if a modification is detected
+		 */
+		protected void checkModCount() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * This class implements an {@link Iterator} over the elements of the sequence.
+	 */
+	protected class IteratorImpl extends Cursor implements Iterator<T> {
+
+		/**
+		 * The flag showing if the last element returned by {@link #next()} may be removed
+		 */
+		private boolean removalPossible;
+
+		/**
+		 * Creates an iterator positioned before the element having the specified index.
+		 * @param index the index of the first element to be returned
+		 */
+		protected IteratorImpl(long index) {
+			super(index);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size();
+		}
+
+		@Override
+		public T next() {
+			checkModCount();
+			if (!hasNext()) {
+				throw new NoSuchElementException("The iteration has reached the end of the sequence.");
+			}
+
+			T value = nextValue();
+			removalPossible = true;
+			return value;
+		}
+
+		@Override
+		public void remove() {
+			checkModCount();
+			if (!removalPossible) {
+				throw new IllegalStateException();
+			}
+
+			BigTreeList.this.remove(nextIndex - 1);
+			seek(nextIndex - 1); // the removal may have moved the elements between the chunks
+			removalPossible = false;
+			expectedModCount = modCount;
+		}
+	}
+
+	/**
+	 * This class implements a {@link Spliterator} over a range of the elements of the sequence.
+	 */
+	protected class SpliteratorImpl extends Cursor implements Spliterator<T> {
+
+		/**
+		 * The index after the last element to be traversed
+		 */
+		private final long end;
+
+		/**
+		 * Creates a spliterator over a range of the elements.
+		 * @param start the index of the first element to be traversed
+		 * @param end the index after the last element to be traversed
+		 */
+		protected SpliteratorImpl(long start, long end) {
+			super(start);
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			checkModCount();
+			if (nextIndex == end) {
+				return false;
+			}
+
+			action.accept(nextValue());
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			checkModCount();
+			while (nextIndex < end) {
+				action.accept(nextValue());
+			}
+			checkModCount();
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			long middle = (nextIndex + end) >>> 1;
+			if (middle - nextIndex < CHUNK_CAPACITY) {
+				return null;
+			}
+
+			SpliteratorImpl prefix = new SpliteratorImpl(nextIndex, middle);
+			prefix.expectedModCount = expectedModCount;
+			seek(middle);
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - nextIndex;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+
+	/**
+	 * The maximum number of elements in a chunk
+	 */
+	public static final int CHUNK_CAPACITY = 256;
+
+	/**
+	 * The chunk size below which a chunk is merged with an adjacent one
+	 */
+	private static final int MIN_CHUNK_SIZE = CHUNK_CAPACITY / 4;
+
+	/**
+	 * The list of the chunks weighted by their sizes
+	 */
+	protected final WeightedTreeList<Chunk> chunks;
+
+	/**
+	 * The modification counter used to detect the concurrent modifications
+	 */
+	private int modCount;
+
+	/**
+	 * Creates an empty {@link BigTreeList} instance.
+	 */
+	public BigTreeList() {
+		this(new WeightedTreeList<>(Chunk::size));
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link BigTreeList}
+	 * in <em>O(n)</em> time, filling the chunks up to their capacity.
+	 * @param source the source collection
+	 */
+	public BigTreeList(Collection<? extends T> source) {
+		this(loadChunks(source));
+	}
+
+	/**
+	 * Creates a {@link BigTreeList} with the specified list of chunks.
+	 * @param chunks the chunks of the new sequence
+	 */
+	protected BigTreeList(WeightedTreeList<Chunk> chunks) {
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Concatenates two different {@link BigTreeList} instances in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em>
+	 * time, where <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the numbers of chunks of the two
+	 * sequences. Both original sequences are cleared; the chunks adjacent to the concatenation location
+	 * are not merged, so they may remain underfilled.
+	 * @param prefix the sequence containing the head portion of the expected result
+	 * @param suffix the sequence containing the tail portion of the expected result
+	 * @param <Q> the output sequence generic type argument
+	 * @return the new sequence being a concatenation of the two original ones
+	 */
+	public static <Q> BigTreeList<Q> concat(BigTreeList<Q> prefix, BigTreeList<Q> suffix) {
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+
+		BigTreeList<Q> result = new BigTreeList<>(WeightedTreeList.concat(prefix.chunks, suffix.chunks));
+		prefix.modCount++;
+		suffix.modCount++;
+		return result;
+	}
+
+	/**
+	 * Returns the number of elements in the sequence in <em>O(1)</em> time.
+	 * @return the size of the sequence
+	 */
+	public long size() {
+		return chunks.totalWeight();
+	}
+
+	/**
+	 * Checks if the sequence contains no elements.
+	 * @return {@code true} if and only if the sequence is empty
+	 */
+	public boolean isEmpty() {
+		return chunks.isEmpty();
+	}
+
+	/**
+	 * Returns the element at the specified position of the sequence.
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(long index) {
+		checkIndex(index, false);
+		Location location = locate(index, false);
+		return (T)location.chunk.values[location.position];
+	}
+
+	/**
+	 * Replaces the element at the specified position of the sequence.
+	 * @param index the index of the element
+	 * @param value the new element
+	 * @return the previous element at the specified position
+	 */
+	public T set(long index, T value) {
+		checkIndex(index, false);
+		Location location = locate(index, false);
+		Object[] values = location.chunk.values;
+		@SuppressWarnings("unchecked")
+		T oldValue = (T)values[location.position];
+		values[location.position] = value;
+		return oldValue;
+	}
+
+	/**
+	 * Appends an element to the end of the sequence.
+	 * @param value the element to append
+	 */
+	public void add(T value) {
+		add(size(), value);
+	}
+
+	/**
+	 * Inserts an element into the specified position of the sequence.
+	 * @param index the index of the new element; may be equal to the size of the sequence
+	 * @param value the element to insert
+	 */
+	public void add(long index, T value) {
+		checkIndex(index, true);
+
+		Location location = chunks.isEmpty() ? new Location(insertChunk(0), 0, 0) : locate(index, true);
+		if (location.chunk.size == CHUNK_CAPACITY) {
+			if (location.position == CHUNK_CAPACITY) { // appending to the chunk
+				location = new Location(insertChunk(location.index + 1), location.index + 1, 0);
+			} else {
+				splitChunk(location.index, location.chunk, CHUNK_CAPACITY / 2);
+				location = locate(index, true);
+			}
+		}
+
+		Chunk chunk = location.chunk;
+		int position = location.position;
+		System.arraycopy(chunk.values, position, chunk.values, position + 1, chunk.size - position);
+		chunk.values[position] = value;
+		chunk.size++;
+		chunks.setWeight(location.index, chunk.size);
+		modCount++;
+	}
+
+	/**
+	 * Removes the element at the specified position of the sequence.
+	 * @param index the index of the element
+	 * @return the removed element
+	 */
+	public T remove(long index) {
+		checkIndex(index, false);
+
+		Location location = locate(index, false);
+		Chunk chunk = location.chunk;
+		int position = location.position;
+		@SuppressWarnings("unchecked")
+		T value = (T)chunk.values[position];
+		System.arraycopy(chunk.values, position + 1, chunk.values, position, chunk.size - position - 1);
+		chunk.values[--chunk.size] = null;
+		chunks.setWeight(location.index, chunk.size);
+
+		if (chunk.size < MIN_CHUNK_SIZE) {
+			rebalance(location.index, chunk);
+		}
+
+		modCount++;
+		return value;
+	}
+
+	/**
+	 * Removes all the elements from the sequence.
+	 */
+	public void clear() {
+		chunks.clear();
+		modCount++;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new IteratorImpl(0);
+	}
+
+	/**
+	 * Creates an iterator over the elements of the sequence starting from the specified position.
+	 * @param index the index of the first element to be returned by the iterator
+	 * @return the new iterator
+	 */
+	public Iterator<T> iterator(long index) {
+		checkIndex(index, true);
+		return new IteratorImpl(index);
+	}
+
+	/**
+	 * Creates a {@link Spliterator} over the elements of the sequence reporting its {@code long} size.
+	 * The spliterator splits at the middle of its index range in <em>O(1)</em> time.
+	 * @return the new spliterator
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new SpliteratorImpl(0, size());
+	}
+
+	/**
+	 * Creates a sequential {@link Stream} of the elements of the sequence.
+	 * @return the new stream
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Creates a parallel {@link Stream} of the elements of the sequence.
+	 * @return the new stream
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Splits this sequence in two in <em>O(log(n))</em> time, where <em>n</em> is the number of chunks.
+	 * This sequence retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new sequence. This is the inverse of {@link #concat(BigTreeList, BigTreeList)}.
+	 * @param index the index of the first element to be moved to the returned sequence;
+	 * may be equal to the size of the sequence, in which case the returned sequence is empty
+	 * @return the new sequence containing the elements of this one starting from the specified index
+	 */
+	public BigTreeList<T> split(long index) {
+		checkIndex(index, true);
+
+		int splitChunkIndex = chunks.size();
+		if (index < size()) {
+			// the split location must be at a chunk boundary
+			Location location = locate(index, false);
+			splitChunkIndex = location.index;
+			if (location.position > 0) {
+				splitChunk(location.index, location.chunk, location.position);
+				splitChunkIndex++;
+			}
+		}
+
+		modCount++;
+		return new BigTreeList<>(chunks.split(splitChunkIndex));
+	}
+
+	/**
+	 * Makes sure the index is within the bounds of the sequence.
+	 * @param index the index to check
+	 * @param inclusiveEnd the flag showing if the index may be equal to the size of the sequence
+	 */
+	private void checkIndex(long index, boolean inclusiveEnd) {
+		long size = size();
+		if (index < 0 || index > size || index == size && !inclusiveEnd) {
+			throw new IndexOutOfBoundsException(String.format(
+				"The index %s is out of the range from 0 to %s.", index, inclusiveEnd ? size : size - 1));
+		}
+	}
+
+	/**
+	 * Finds the chunk holding the element having the specified index and the position of the element
+	 * within the chunk. The sequence must not be empty.
+	 * @param index the index of the element
+	 * @param inclusiveEnd the flag showing if the index may be equal to the size of the sequence
+	 * (which is needed to find the insertion location); in this case, the end of the sequence
+	 * resolves to the end of the last chunk, so the element position is equal to the size of the chunk
+	 * @return the location of the element
+	 */
+	private Location locate(long index, boolean inclusiveEnd) {
+		if (inclusiveEnd && index == size()) {
+			int chunkIndex = chunks.size() - 1;
+			Chunk chunk = chunks.get(chunkIndex);
+			return new Location(chunk, chunkIndex, chunk.size);
+		}
+
+		int chunkIndex = chunks.indexOfOffset(index);
+		int position = (int)(index - chunks.offsetOf(chunkIndex));
+		return new Location(chunks.get(chunkIndex), chunkIndex, position);
+	}
+
+	/**
+	 * Inserts a new empty chunk into the list of chunks.
+	 * @param index the index of the new chunk
+	 * @return the new chunk
+	 */
+	private Chunk insertChunk(int index) {
+		Chunk chunk = new Chunk();
+		chunks.add(index, chunk, 0);
+		return chunk;
+	}
+
+	/**
+	 * Moves the elements of a chunk starting from the specified position to a new chunk inserted
+	 * right after it.
+	 * @param index the index of the chunk to split
+	 * @param chunk the chunk to split
+	 * @param position the position of the first element to move to the new chunk
+	 */
+	private void splitChunk(int index, Chunk chunk, int position) {
+		int moved = chunk.size - position;
+		Chunk upper = insertChunk(index + 1);
+		System.arraycopy(chunk.values, position, upper.values, 0, moved);
+		Arrays.fill(chunk.values, position, chunk.size, null);
+		chunk.size = position;
+		upper.size = moved;
+		chunks.setWeight(index, chunk.size);
+		chunks.setWeight(index + 1, upper.size);
+	}
+
+	/**
+	 * Merges an underfilled chunk with an adjacent one, or moves some elements from the adjacent
+	 * chunk to the underfilled one if they do not fit into a single chunk.
+	 * @param index the index of the underfilled chunk
+	 * @param chunk the underfilled chunk
+	 */
+	private void rebalance(int index, Chunk chunk) {
+		if (chunks.size() == 1) {
+			if (chunk.size == 0) {
+				chunks.clear();
+			}
+			return;
+		}
+
+		int leftIndex = index + 1 < chunks.size() ? index : index - 1;
+		Chunk left = leftIndex == index ? chunk : chunks.get(leftIndex);
+		Chunk right = leftIndex == index ? chunks.get(index + 1) : chunk;
+
+		int total = left.size + right.size;
+		int leftSize = total <= CHUNK_CAPACITY ? total : total / 2;
+		int moved = leftSize - left.size;
+		if (moved > 0) {
+			System.arraycopy(right.values, 0, left.values, left.size, moved);
+			System.arraycopy(right.values, moved, right.values, 0, right.size - moved);
+			Arrays.fill(right.values, right.size - moved, right.size, null);
+		} else {
+			System.arraycopy(right.values, 0, right.values, -moved, right.size);
+			System.arraycopy(left.values, leftSize, right.values, 0, -moved);
+			Arrays.fill(left.values, leftSize, left.size, null);
+		}
+		left.size = leftSize;
+		right.size = total - leftSize;
+		chunks.setWeight(leftIndex, left.size);
+
+		if (right.size == 0) {
+			chunks.remove(leftIndex + 1);
+		} else {
+			chunks.setWeight(leftIndex + 1, right.size);
+		}
+	}
+
+	/**
+	 * Distributes the elements of a collection between full chunks and bulk-loads them
+	 * into a new list of chunks.
+	 * @param source the source collection
+	 * @param <Q> the type of the elements
+	 * @return the list of chunks holding the elements
+	 */
+	private static <Q> WeightedTreeList<Chunk> loadChunks(Collection<? extends Q> source) {
+		List<Chunk> loaded = new ArrayList<>(source.size() / CHUNK_CAPACITY + 1);
+		Chunk chunk = null;
+		for (Q value : source) {
+			if (chunk == null || chunk.size == CHUNK_CAPACITY) {
+				chunk = new Chunk();
+				loaded.add(chunk);
+			}
+			chunk.values[chunk.size++] = value;
+		}
+		return new WeightedTreeList<>(loaded, Chunk::size);
+	}
+}
@@ -0,0 +1,644 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * This class is a random access {@link java.util.List} implementation having the same time complexities
+ * of the positional operations as {@link TreeList}, but storing the elements in blocks of up to
+ * {@link #BLOCK_CAPACITY} consecutive elements. The nodes of the backing red-black tree are the blocks,
+ * each of them contributing its number of elements to the weights of the subtrees it belongs to.<br>
+ * A full block is split in two when an element is inserted into it; a block whose size falls
+ * below a quarter of the capacity is merged with (or borrows elements from) an adjacent block.
+ * Compared to {@link TreeList}, this reduces the per-element memory footprint and the number of objects
+ * traced by the garbage collector several times, and makes the iteration almost as fast as that of
+ * an array, at the cost of moving up to {@link #BLOCK_CAPACITY} element references per modification.<br>
+ * The list may be bulk-loaded from another collection in <em>O(n)</em> time upon construction.
+ * Two different {@link ChunkedTreeList} instances may be concatenated
+ * in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, and a list may be split in two in <em>O(log(n))</em>
+ * time; the blocks adjacent to the concatenation or split location are not merged, so they may remain
+ * underfilled.
+ * @param <T> the type of values stored by the list
+ */
+public class ChunkedTreeList<T> extends AbstractList<T> {
+
+	/**
+	 * This is the node class used by {@link ChunkedTreeList}: a block of consecutive elements.
+	 */
+	protected static final class Block extends WeightedNode<Block> {
+
+		/**
+		 * The elements held by the block, followed by {@code null}s
+		 */
+		private Object[] values;
+
+		/**
+		 * The number of elements held by the block
+		 */
+		private int size;
+
+		/**
+		 * Creates a new empty block with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Block(boolean isRed) {
+			super(isRed);
+		}
+
+		@Override
+		public int getOwnWeight() {
+			return size;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Block> source) {
+			values = ((Block)source).values;
+			size = ((Block)source).size;
+		}
+
+		@Override
+		public void dropPayload() {
+			values = null;
+			size = 0;
+		}
+	}
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification for the custom {@link Block} type.
+	 */
+	protected static final class Tree extends RankedRedBlackTree<Block> {
+
+		protected Tree() {
+			super(COMMON_NIL);
+		}
+
+		@Override
+		protected Block produceNode(boolean isRed) {
+			return new Block(isRed);
+		}
+	}
+
+	/**
+	 * This class implements an {@link Iterator} walking the blocks of the tree in order.
+	 */
+	protected class IteratorImpl implements Iterator<T> {
+
+		/**
+		 * The blocks to be visited after the current one, the next one on the top
+		 */
+		private final RankedRedBlackTree.NodeBuffer<Block> stack = new RankedRedBlackTree.NodeBuffer<>(
+			DEFAULT_BUFFER_SIZE);
+
+		/**
+		 * The block holding the element to be returned next
+		 */
+		private Block block;
+
+		/**
+		 * The position of the next element in {@link #block}
+		 */
+		private int position;
+
+		/**
+		 * The index of the next element in the list
+		 */
+		private int nextIndex;
+
+		/**
+		 * The flag showing if the element returned last may be removed
+		 */
+		private boolean removalPossible = false;
+
+		/**
+		 * The modification count of the list the iterator is consistent with
+		 */
+		private int expectedModCount = modCount;
+
+		/**
+		 * Creates an iterator positioned before the element having the specified index.
+		 * @param index the index of the first element to be returned
+		 */
+		protected IteratorImpl(int index) {
+			seek(index);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < tree.root.getWeight();
+		}
+
+		@Override
+		public T next() {
+			checkModCount();
+			if (!hasNext()) {
+				throw new NoSuchElementException("The iteration has reached the end of the list.");
+			}
+
+			if (position == block.size) {
+				block = stack.get(stack.size() - 1);
+				stack.removeLast();
+				pushLeftSpine(block.getRight());
+				position = 0;
+			}
+
+			@SuppressWarnings("unchecked")
+			T value = (T)block.values[position++];
+			nextIndex++;
+			removalPossible = true;
+			return value;
+		}
+
+		@Override
+		public void remove() {
+			checkModCount();
+			if (!removalPossible) {
+				throw new IllegalStateException();
+			}
+
+			ChunkedTreeList.this.remove(nextIndex - 1);
+			seek(nextIndex - 1); // the removal may have restructured the tree
+			removalPossible = false;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Positions the iterator before the element having the specified index.
+		 * @param index the index of the next element
+		 */
+		private void seek(int index) {
+			stack.clear();
+			nextIndex = index;
+			block = tree.nil;
+			position = 0;
+
+			Block current = tree.root;
+			int rank = index;
+			while (current != tree.nil) {
+				int leftWeight = current.getLeft().getWeight();
+				if (rank < leftWeight) {
+					stack.add(current);
+					current = current.getLeft();
+				} else if (rank < leftWeight + current.size) {
+					block = current;
+					position = rank - leftWeight;
+					pushLeftSpine(current.getRight());
+					return;
+				} else {
+					rank -= leftWeight + current.size;
+					current = current.getRight();
+				}
+			}
+		}
+
+		/**
+		 * Pushes the leftmost path of a subtree to the stack.
+		 * @param subtreeRoot the root of the subtree
+		 */
+		private void pushLeftSpine(Block subtreeRoot) {
+			for (Block current = subtreeRoot; current != tree.nil; current = current.getLeft()) {
+				stack.add(current);
+			}
+		}
+
+		private void checkModCount() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * This class is the location of an element: the block holding it and its position within the block.
+	 */
+	private static final class Location {
+
+		/**
+		 * The block holding the element
+		 */
+		private final Block block;
+
+		/**
+		 * The position of the element within the block
+		 */
+		private final int offset;
+
+		/**
+		 * Creates a new element location.
+		 * @param block the block holding the element
+		 * @param offset the position of the element within the block
+		 */
+		private Location(Block block, int offset) {
+			this.block = block;
+			this.offset = offset;
+		}
+	}
+
+	/**
+	 * The maximum number of elements in a block
+	 */
+	public static final int BLOCK_CAPACITY = 64;
+
+	/**
+	 * The common NIL node used across all the instances of {@link ChunkedTreeList}
+	 */
+	protected static final Block COMMON_NIL = new Block(BLACK).withWeight(0);
+
+	/**
+	 * The block size below which a block is merged with an adjacent one
+	 */
+	private static final int MIN_BLOCK_SIZE = BLOCK_CAPACITY / 4;
+
+	/**
+	 * The initial size of the node stack buffers
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+
+	/**
+	 * The underlying ranked red-black tree
+	 */
+	protected final Tree tree;
+
+	/**
+	 * Pre-allocated node list storing the path to the block being modified
+	 */
+	private final RankedRedBlackTree.NodeBuffer<Block> nodeBuffer =
+		new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+
+	/**
+	 * Pre-allocated node list storing the path to the block adjacent to the one being modified
+	 */
+	private final RankedRedBlackTree.NodeBuffer<Block> neighbourBuffer =
+		new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+
+	/**
+	 * Creates an empty {@link ChunkedTreeList} instance.
+	 */
+	public ChunkedTreeList() {
+		this.tree = new Tree();
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link ChunkedTreeList}
+	 * in <em>O(n)</em> time. The elements are distributed evenly between the minimum number of blocks.
+	 * @param source the source collection
+	 */
+	public ChunkedTreeList(Collection<? extends T> source) {
+		int size = source.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		this.tree = new Tree();
+		this.tree.root = buildTree(source.iterator(), size);
+	}
+
+	/**
+	 * Creates a {@link ChunkedTreeList} with the specified underlying {@link RankedRedBlackTree} instance.
+	 * @param tree the backing tree for the new list
+	 */
+	protected ChunkedTreeList(Tree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * Concatenates two different {@link ChunkedTreeList} instances in
+	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists.
+	 * Both original lists are cleared.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @param <Q> the output list generic type argument
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static <Q> ChunkedTreeList<Q> concat(
+		ChunkedTreeList<? extends Q> prefix, ChunkedTreeList<? extends Q> suffix) {
+
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+
+		Tree mergedTree = new Tree();
+		RankedRedBlackTree.merge(prefix.tree, suffix.tree, mergedTree);
+		prefix.modCount++;
+		suffix.modCount++;
+		return new ChunkedTreeList<>(mergedTree);
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Location location = locate(index, false, null);
+		@SuppressWarnings("unchecked")
+		T value = (T)location.block.values[location.offset];
+		return value;
+	}
+
+	@Override
+	public T set(int index, T element) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Location location = locate(index, false, null);
+		@SuppressWarnings("unchecked")
+		T oldValue = (T)location.block.values[location.offset];
+		location.block.values[location.offset] = element;
+		return oldValue;
+	}
+
+	@Override
+	public int size() {
+		return tree.root.getWeight();
+	}
+
+	@Override
+	public void add(int index, T element) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+		tree.checkSizeLimit();
+
+		if (tree.root == tree.nil) {
+			tree.root = produceBlock(BLACK);
+			tree.root.values[0] = element;
+			tree.root.size = 1;
+			tree.root.withWeight(1);
+		} else {
+			Location location = locate(index, true, nodeBuffer);
+			if (location.block.size == BLOCK_CAPACITY) {
+				splitBlock(location.block, BLOCK_CAPACITY / 2);
+				location = locate(index, true, nodeBuffer);
+			}
+
+			Block block = location.block;
+			int offset = location.offset;
+			System.arraycopy(block.values, offset, block.values, offset + 1, block.size - offset);
+			block.values[offset] = element;
+			block.size++;
+			adjustWeights(nodeBuffer, 1);
+		}
+
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Location location = locate(index, false, nodeBuffer);
+		Block block = location.block;
+		int offset = location.offset;
+		@SuppressWarnings("unchecked")
+		T value = (T)block.values[offset];
+		System.arraycopy(block.values, offset + 1, block.values, offset, block.size - offset - 1);
+		block.values[--block.size] = null;
+		adjustWeights(nodeBuffer, -1);
+
+		if (block.size < MIN_BLOCK_SIZE) {
+			rebalance(block, index - offset);
+		}
+
+		modCount++;
+		return value;
+	}
+
+	@Override
+	public void clear() {
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		neighbourBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new IteratorImpl(0);
+	}
+
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list. This is the inverse of {@link #concat(ChunkedTreeList, ChunkedTreeList)}.
+	 * @param index the index of the first element to be moved to the returned list;
+	 * may be equal to the size of the list, in which case the returned list is empty
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public ChunkedTreeList<T> split(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		if (index < tree.root.getWeight()) {
+			// the split location must be at a block boundary
+			Location location = locate(index, false, nodeBuffer);
+			if (location.offset > 0) {
+				splitBlock(location.block, location.offset);
+			}
+		}
+
+		Tree prefixTree = new Tree();
+		Tree suffixTree = new Tree();
+		RankedRedBlackTree.split(tree, index, prefixTree, suffixTree);
+		tree.root = prefixTree.root;
+
+		modCount++;
+		return new ChunkedTreeList<>(suffixTree);
+	}
+
+	/**
+	 * Finds the block holding the element having the specified rank and the position of the element
+	 * within the block. The tree must not be empty.
+	 * @param rank the rank of the element
+	 * @param inclusiveEnd the flag showing if the rank may be equal to the size of the list
+	 * (which is needed to find the insertion location); in this case, a rank at a block boundary
+	 * always resolves to the end of the preceding block, so the element position may be
+	 * equal to the size of the returned block
+	 * @param path either a node buffer to store the path to the block or {@code null} if
+	 * there is no need to store the path
+	 * @return the location of the element
+	 */
+	private Location locate(int rank, boolean inclusiveEnd, RankedRedBlackTree.NodeBuffer<Block> path) {
+		if (path != null) {
+			path.clear();
+		}
+
+		Block current = tree.root;
+		while (true) {
+			if (path != null) {
+				path.add(current);
+			}
+
+			int leftWeight = current.getLeft().getWeight();
+			if (rank < leftWeight || inclusiveEnd && rank == leftWeight && leftWeight > 0) {
+				current = current.getLeft();
+			} else {
+				rank -= leftWeight;
+				if (rank < current.size || inclusiveEnd && rank == current.size) {
+					return new Location(current, rank);
+				}
+				rank -= current.size;
+				current = current.getRight();
+			}
+		}
+	}
+
+	/**
+	 * Moves the elements of a block starting from the specified position to a new block inserted
+	 * into the tree right after it.
+	 * @param block the block to split; {@link #nodeBuffer} must contain the path to it
+	 * @param position the position of the first element to move to the new block
+	 */
+	private void splitBlock(Block block, int position) {
+		int moved = block.size - position;
+		Block upper = produceBlock(RED);
+		System.arraycopy(block.values, position, upper.values, 0, moved);
+		Arrays.fill(block.values, position, block.size, null);
+		block.size = position;
+		adjustWeights(nodeBuffer, -moved);
+		upper.size = moved;
+		upper.withWeight(moved);
+
+		// the new block becomes the successor of the split one
+		if (block.getRight() == tree.nil) {
+			block.withRight(upper);
+		} else {
+			Block current = block.getRight();
+			nodeBuffer.add(current);
+			while (current.getLeft() != tree.nil) {
+				current = current.getLeft();
+				nodeBuffer.add(current);
+			}
+			current.withLeft(upper);
+		}
+		nodeBuffer.add(upper);
+		tree.afterInsert(nodeBuffer);
+	}
+
+	/**
+	 * Merges an underfilled block with an adjacent one, or moves some elements from the adjacent
+	 * block to the underfilled one if they do not fit into a single block.
+	 * @param block the underfilled block; {@link #nodeBuffer} must contain the path to it
+	 * @param start the index of the first element of the block in the list
+	 */
+	private void rebalance(Block block, int start) {
+		int size = tree.root.getWeight();
+		if (block.size == size) { // the only block
+			if (size == 0) {
+				tree.root = tree.nil;
+			}
+			return;
+		}
+
+		Block left;
+		Block right;
+		RankedRedBlackTree.NodeBuffer<Block> leftPath;
+		RankedRedBlackTree.NodeBuffer<Block> rightPath;
+		if (start + block.size < size) {
+			left = block;
+			leftPath = nodeBuffer;
+			right = locate(start + block.size, false, neighbourBuffer).block;
+			rightPath = neighbourBuffer;
+		} else {
+			left = locate(start - 1, false, neighbourBuffer).block;
+			leftPath = neighbourBuffer;
+			right = block;
+			rightPath = nodeBuffer;
+		}
+
+		int total = left.size + right.size;
+		int leftSize = total <= BLOCK_CAPACITY ? total : total / 2;
+		int moved = leftSize - left.size;
+		if (moved > 0) {
+			System.arraycopy(right.values, 0, left.values, left.size, moved);
+			System.arraycopy(right.values, moved, right.values, 0, right.size - moved);
+			Arrays.fill(right.values, right.size - moved, right.size, null);
+		} else {
+			System.arraycopy(right.values, 0, right.values, -moved, right.size);
+			System.arraycopy(left.values, leftSize, right.values, 0, -moved);
+			Arrays.fill(left.values, leftSize, left.size, null);
+		}
+		left.size = leftSize;
+		right.size = total - leftSize;
+		adjustWeights(leftPath, moved);
+		adjustWeights(rightPath, -moved);
+
+		if (right.size == 0) {
+			tree.remove(rightPath);
+		}
+	}
+
+	/**
+	 * Changes the weights of all the nodes on the path by the same amount.
+	 * @param path the path from the root
+	 * @param delta the weight change
+	 */
+	private static void adjustWeights(RankedRedBlackTree.NodeBuffer<Block> path, int delta) {
+		for (int i = 0; i < path.size(); i++) {
+			Block node = path.get(i);
+			node.withWeight(node.getWeight() + delta);
+		}
+	}
+
+	/**
+	 * Bulk-loads the given number of iterator elements into a new tree of blocks so that any two
+	 * of its leave nodes have depths differing by no more than 1.
+	 * @param values the value source
+	 * @param length the number of elements to fetch from the source
+	 * @return the root node of the new tree ({@link Tree#nil} if the length is zero)
+	 */
+	private Block buildTree(Iterator<? extends T> values, int length) {
+		if (length == 0) {
+			return tree.nil;
+		}
+
+		int blockCount = (length - 1) / BLOCK_CAPACITY + 1;
+		int blockSize = length / blockCount;
+		int largerBlocks = length % blockCount;
+		PrimitiveIterator.OfInt blockSizes = IntStream.range(0, blockCount)
+			.map(i -> i < largerBlocks ? blockSize + 1 : blockSize)
+			.iterator();
+		return RankedRedBlackTree.buildTree(
+			() -> loadBlock(values, blockSizes.nextInt()), blockCount, tree.nil, null);
+	}
+
+	/**
+	 * Creates a new black leaf block holding the specified number of elements taken from the iterator.
+	 * @param values the value source
+	 * @param size the number of elements to take
+	 * @return the new block
+	 */
+	private Block loadBlock(Iterator<? extends T> values, int size) {
+		Block block = produceBlock(BLACK);
+		for (int i = 0; i < size; i++) {
+			block.values[i] = values.next();
+		}
+		block.size = size;
+		return block.withWeight(size);
+	}
+
+	/**
+	 * Creates a new empty leaf block.
+	 * @param isRed the flag showing if the block must be red
+	 * @return the new block
+	 */
+	private Block produceBlock(boolean isRed) {
+		Block block = tree.produceNode(isRed).withLeft(tree.nil).withRight(tree.nil);
+		block.values = new Object[BLOCK_CAPACITY];
+		return block;
+	}
+}
@@ -0,0 +1,515 @@
+package dev.ornamental.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class is a thread-safe random access {@link java.util.List} backed by a {@link TreeList}
+ * and guarded by a {@link StampedLock}. The modification operations hold the write lock.
+ * The positional reads ({@link #get(int)}, {@link #size()}, {@link #getRange(int, int)}) are first
+ * attempted without locking, as optimistic reads validated against the lock stamp; a read overlapping
+ * with a modification (including one failing because of the inconsistent state it has observed)
+ * is repeated holding the read lock. Thus, the readers do not block one another, nor do they write
+ * to the shared memory unless they contend with a writer.<br>
+ * The consistency of the composite operations is as follows:
+ * <ul>
+ *     <li>{@link #addAll(Collection)}, {@link #addAll(int, Collection)}, {@link #removeIf(Predicate)},
+ *     {@link #removeAll(Collection)}, {@link #retainAll(Collection)}, {@link #split(int)}
+ *     and {@link #concat(ConcurrentTreeList, ConcurrentTreeList)} are atomic; the collection passed
+ *     to {@code addAll} is copied before the lock is acquired;</li>
+ *     <li>{@link #getRange(int, int)}, {@link #toArray()}, {@link #snapshot()}, {@link #indexOf(Object)},
+ *     {@link #lastIndexOf(Object)} and {@link #contains(Object)} observe a consistent state of the list;</li>
+ *     <li>{@link #iterator()} (as well as {@link #forEach}) is weakly consistent: it never throws
+ *     {@link ConcurrentModificationException} and reads the elements by index in batches of
+ *     {@link #ITERATION_BATCH_SIZE}, each batch being read atomically, so an element moved across
+ *     the iteration position by a concurrent modification may be skipped or returned twice;</li>
+ *     <li>{@link #listIterator(int)} and {@link #spliterator()} (hence the streams), as well as
+ *     {@link #equals(Object)} and {@link #hashCode()}, traverse a {@link #snapshot()} of the list,
+ *     which takes <em>O(n)</em> time and memory;</li>
+ *     <li>each operation of a {@link #subList(int, int)} view is atomic, but the view assumes that
+ *     the list is not structurally modified by other threads while the view is in use.</li>
+ * </ul>
+ * The iterators do not support modifications.
+ * @param <T> the type of values stored by the list
+ */
+public class ConcurrentTreeList<T> extends AbstractList<T> implements RandomAccess {
+
+	/**
+	 * This class implements an {@link Iterator} reading the elements of the list in batches.
+	 */
+	protected class IteratorImpl implements Iterator<T> {
+
+		/**
+		 * The batch of elements being returned
+		 */
+		private Object[] batch = new Object[0];
+
+		/**
+		 * The position of the next element in {@link #batch}
+		 */
+		private int position;
+
+		/**
+		 * The index of the element following the batch in the list
+		 */
+		private int nextBatchIndex;
+
+		@Override
+		public boolean hasNext() {
+			if (position == batch.length) {
+				batch = read(() -> {
+					int size = list.size();
+					return nextBatchIndex >= size ? new Object[0]
+						: readRange(nextBatchIndex, Math.min(size, nextBatchIndex + ITERATION_BATCH_SIZE));
+				});
+				position = 0;
+				nextBatchIndex += batch.length;
+			}
+			return position < batch.length;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("The iteration has reached the end of the list.");
+			}
+
+			@SuppressWarnings("unchecked")
+			T value = (T)batch[position];
+			batch[position++] = null;
+			return value;
+		}
+	}
+
+	/**
+	 * The maximum number of elements read atomically by an {@link #iterator()}
+	 */
+	public static final int ITERATION_BATCH_SIZE = 256;
+
+	/**
+	 * The maximum depth of a tree, bounding the number of steps of an optimistic read
+	 * which might otherwise not terminate while observing an inconsistent state
+	 */
+	private static final int MAX_DEPTH = 1 + RankedRedBlackTree.maxTreeDepth(RankedRedBlackTree.MAX_TREE_SIZE);
+
+	/**
+	 * The lock used to order the concurrent operations on a pair of lists having the same identity hash codes
+	 */
+	private static final Object TIE_LOCK = new Object();
+
+	/**
+	 * The underlying list
+	 */
+	protected final TreeList<T> list;
+
+	/**
+	 * The lock guarding the underlying list
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * Creates an empty {@link ConcurrentTreeList} instance.
+	 */
+	public ConcurrentTreeList() {
+		this(new TreeList<>());
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link ConcurrentTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection
+	 */
+	public ConcurrentTreeList(Collection<? extends T> source) {
+		this(new TreeList<>(source));
+	}
+
+	/**
+	 * Creates a {@link ConcurrentTreeList} backed by the specified list, which must not be accessed
+	 * other than through the new instance afterwards.
+	 * @param list the backing list
+	 */
+	protected ConcurrentTreeList(TreeList<T> list) {
+		this.list = list;
+	}
+
+	/**
+	 * Concatenates two different {@link ConcurrentTreeList} instances in
+	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists.
+	 * Both original lists are cleared atomically, holding the write locks of both.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @param <Q> the output list generic type argument
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static <Q> ConcurrentTreeList<Q> concat(
+		ConcurrentTreeList<? extends Q> prefix, ConcurrentTreeList<? extends Q> suffix) {
+
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+
+		int prefixHash = System.identityHashCode(prefix);
+		int suffixHash = System.identityHashCode(suffix);
+		if (prefixHash == suffixHash) {
+			synchronized (TIE_LOCK) {
+				return concatLocked(prefix, suffix, prefix, suffix);
+			}
+		}
+		return prefixHash < suffixHash ? concatLocked(prefix, suffix, prefix, suffix)
+			: concatLocked(prefix, suffix, suffix, prefix);
+	}
+
+	@Override
+	public T get(int index) {
+		@SuppressWarnings("unchecked")
+		T value = (T)read(() -> find(index));
+		return value;
+	}
+
+	@Override
+	public int size() {
+		return read(list::size);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns a copy of a range of the elements of the list, read atomically.
+	 * The read is attempted optimistically and runs in <em>O(log(n) + k)</em> time,
+	 * <em>k</em> being the length of the range.
+	 * @param fromIndex the index of the first element of the range
+	 * @param toIndex the index after the last element of the range
+	 * @return the new list containing the elements of the range
+	 */
+	public List<T> getRange(int fromIndex, int toIndex) {
+		@SuppressWarnings("unchecked")
+		T[] values = (T[])read(() -> {
+			if (fromIndex < 0 || toIndex > list.size() || fromIndex > toIndex) {
+				throw new IndexOutOfBoundsException();
+			}
+			return readRange(fromIndex, toIndex);
+		});
+		return Arrays.asList(values);
+	}
+
+	@Override
+	public Object[] toArray() {
+		return read(() -> readRange(0, list.size()));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <E> E[] toArray(E[] a) {
+		Object[] values = toArray();
+		if (a.length < values.length) {
+			return (E[])Arrays.copyOf(values, values.length, a.getClass());
+		}
+
+		System.arraycopy(values, 0, a, 0, values.length);
+		if (a.length > values.length) {
+			a[values.length] = null;
+		}
+		return a;
+	}
+
+	/**
+	 * Copies the list into a new {@link TreeList} in <em>O(n)</em> time, holding the read lock.
+	 * @return the copy of the list
+	 */
+	public TreeList<T> snapshot() {
+		long stamp = lock.readLock();
+		try {
+			return new TreeList<>(list);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		return readLocked(() -> list.indexOf(o));
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return readLocked(() -> list.lastIndexOf(o));
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return readLocked(() -> list.contains(o));
+	}
+
+	@Override
+	public T set(int index, T element) {
+		return write(() -> list.set(index, element));
+	}
+
+	@Override
+	public void add(int index, T element) {
+		write(() -> {
+			list.add(index, element);
+			return null;
+		});
+	}
+
+	@Override
+	public T remove(int index) {
+		return write(() -> list.remove(index));
+	}
+
+	@Override
+	public void clear() {
+		write(() -> {
+			list.clear();
+			return null;
+		});
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		List<?> values = Arrays.asList(c.toArray());
+		@SuppressWarnings("unchecked")
+		Collection<? extends T> copy = (Collection<? extends T>)values;
+		return write(() -> list.addAll(copy));
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c) {
+		List<?> values = Arrays.asList(c.toArray());
+		@SuppressWarnings("unchecked")
+		Collection<? extends T> copy = (Collection<? extends T>)values;
+		return write(() -> list.addAll(index, copy));
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		return write(() -> list.removeIf(filter));
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return write(() -> list.removeAll(c));
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return write(() -> list.retainAll(c));
+	}
+
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, holding the write lock.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list.
+	 * @param index the index of the first element to be moved to the returned list
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public ConcurrentTreeList<T> split(int index) {
+		return new ConcurrentTreeList<>(write(() -> list.split(index)));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new IteratorImpl();
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		return Collections.unmodifiableList(snapshot()).listIterator(index);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return snapshot().spliterator();
+	}
+
+	@Override
+	public int hashCode() {
+		return snapshot().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o == this || snapshot().equals(o);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		write(() -> {
+			list.subList(fromIndex, toIndex).clear();
+			return null;
+		});
+	}
+
+	/**
+	 * Concatenates two lists holding their write locks, which are acquired in the specified order.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @param first the list to lock first
+	 * @param second the list to lock second
+	 * @param <Q> the output list generic type argument
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	private static <Q> ConcurrentTreeList<Q> concatLocked(
+		ConcurrentTreeList<? extends Q> prefix, ConcurrentTreeList<? extends Q> suffix,
+		ConcurrentTreeList<?> first, ConcurrentTreeList<?> second) {
+
+		long firstStamp = first.lock.writeLock();
+		try {
+			long secondStamp = second.lock.writeLock();
+			try {
+				return new ConcurrentTreeList<>(TreeList.concat(prefix.list, suffix.list));
+			} finally {
+				second.lock.unlockWrite(secondStamp);
+			}
+		} finally {
+			first.lock.unlockWrite(firstStamp);
+		}
+	}
+
+	/**
+	 * Performs a read operation optimistically, repeating it holding the read lock if the list
+	 * has been modified meanwhile. The operation must terminate and must not modify anything
+	 * even if it observes an inconsistent state of the list.
+	 * @param reader the read operation
+	 * @param <R> the type of the result
+	 * @return the result of the read operation
+	 */
+	private <R> R read(Supplier<R> reader) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				R result = reader.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException e) {
+				if (lock.validate(stamp)) { // the failure is not caused by a concurrent modification
+					throw e;
+				}
+			}
+		}
+
+		return readLocked(reader);
+	}
+
+	/**
+	 * Performs a read operation holding the read lock.
+	 * @param reader the read operation
+	 * @param <R> the type of the result
+	 * @return the result of the read operation
+	 */
+	private <R> R readLocked(Supplier<R> reader) {
+		long stamp = lock.readLock();
+		try {
+			return reader.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Performs a modification operation holding the write lock.
+	 * @param writer the modification operation
+	 * @param <R> the type of the result
+	 * @return the result of the modification operation
+	 */
+	private <R> R write(Supplier<R> writer) {
+		long stamp = lock.writeLock();
+		try {
+			return writer.get();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Finds the value having the specified index in the underlying tree, making no more steps
+	 * than a consistent tree requires (see {@link #read(Supplier)}).
+	 * @param index the index of the value
+	 * @return the value
+	 */
+	private Object find(int index) {
+		TreeList.Node current = list.tree.root;
+		if (index < 0 || index >= current.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		for (int depth = 0; depth < MAX_DEPTH; depth++) {
+			int leftWeight = current.getLeft().getWeight();
+			if (index < leftWeight) {
+				current = current.getLeft();
+			} else if (index == leftWeight) {
+				return current.getValue();
+			} else {
+				index -= leftWeight + 1;
+				current = current.getRight();
+			}
+		}
+		throw new ConcurrentModificationException(); // an inconsistent state has been observed
+	}
+
+	/**
+	 * Copies a range of the values of the underlying tree using an in-order traversal
+	 * whose number of steps is bounded as required by {@link #read(Supplier)}.
+	 * @param fromIndex the index of the first value; must be valid
+	 * @param toIndex the index after the last value; must be valid
+	 * @return the array of the values
+	 */
+	private Object[] readRange(int fromIndex, int toIndex) {
+		Object[] values = new Object[toIndex - fromIndex];
+		if (values.length == 0) {
+			return values;
+		}
+
+		// the stack of the nodes whose left subtrees are being traversed, the next node on the top
+		TreeList.Node[] stack = new TreeList.Node[MAX_DEPTH];
+		int top = 0;
+		TreeList.Node current = list.tree.root;
+		int index = fromIndex;
+		int depth = 0;
+		while (true) {
+			if (depth++ == MAX_DEPTH) {
+				throw new ConcurrentModificationException();
+			}
+
+			int leftWeight = current.getLeft().getWeight();
+			if (index <= leftWeight) {
+				stack[top++] = current;
+				if (index == leftWeight) {
+					break;
+				}
+				current = current.getLeft();
+			} else {
+				index -= leftWeight + 1;
+				current = current.getRight();
+			}
+		}
+
+		TreeList.Node nil = list.tree.nil;
+		for (int i = 0; i < values.length; i++) {
+			TreeList.Node node = stack[--top];
+			values[i] = node.getValue();
+			for (current = node.getRight(); current != nil; current = current.getLeft()) {
+				stack[top++] = current;
+			}
+		}
+		return values;
+	}
+}
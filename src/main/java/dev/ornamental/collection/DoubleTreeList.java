@@ -0,0 +1,311 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a random access {@link java.util.List} implementation storing {@code double} values
+ * without boxing them; it provides the same time complexities as {@link TreeList} does.<br>
+ * Apart from the {@link java.util.List} methods operating on boxed values, it provides their
+ * unboxed counterparts: {@link #getDouble(int)}, {@link #setDouble(int, double)}, {@link #addDouble(double)},
+ * {@link #addDouble(int, double)}, {@link #removeDouble(int)}, the primitive iterator and spliterator, and the
+ * <em>O(n)</em> bulk-loading from {@code double[]} arrays and {@link DoubleStream} instances.
+ */
+public class DoubleTreeList extends AbstractPrimitiveTreeList<Double, DoubleTreeList.Node> {
+
+	/**
+	 * This is the node class used by {@link DoubleTreeList}.
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The value held by the node
+		 */
+		private double value;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the value held by the node.
+		 * @return the node's value
+		 */
+		public double getValue() {
+			return value;
+		}
+
+		/**
+		 * Replaces the value of the node.
+		 * @param value the new value
+		 * @return this node
+		 */
+		public Node withValue(double value) {
+			this.value = value;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			value = ((Node)source).value;
+		}
+
+		@Override
+		public void dropPayload() {
+			// the primitive value does not prevent any objects from being GC-ed
+		}
+	}
+
+	/**
+	 * This class implements a {@link PrimitiveIterator.OfDouble} over the values stored by the list.
+	 */
+	protected class DoubleIteratorImpl extends PrimitiveIteratorBase implements PrimitiveIterator.OfDouble {
+
+		/**
+		 * Creates a new iterator based on the supplied tree node iterator.
+		 * @param nodeListIterator the underlying list iterator over the nodes of a tree
+		 */
+		public DoubleIteratorImpl(TreeNodeListIterator<Node> nodeListIterator) {
+			super(nodeListIterator);
+		}
+
+		@Override
+		public double nextDouble() {
+			return nextNode().value;
+		}
+	}
+
+	/**
+	 * This class is a {@link Spliterator.OfDouble} implementation for the tree-based list.
+	 */
+	protected class SpliteratorImpl extends PrimitiveSpliteratorBase implements Spliterator.OfDouble {
+
+		/**
+		 * Creates a spliterator based on the specified node pseudo-spliterator.
+		 * @param nodeSpliterator the underlying node pseudo-spliterator
+		 * @param expectedModCount the last tree modification identifier
+		 */
+		public SpliteratorImpl(TreeNodeSpliteratorPrototype<Node> nodeSpliterator, int expectedModCount) {
+			super(nodeSpliterator, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(DoubleConsumer action) {
+			Node node = tryAdvanceNode();
+			if (node != null) {
+				action.accept(node.value);
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public Spliterator.OfDouble trySplit() {
+			TreeNodeSpliteratorPrototype<Node> prefixSpliterator = trySplitNodes();
+			return prefixSpliterator == null
+				? null : new SpliteratorImpl(prefixSpliterator, expectedModCount);
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link DoubleTreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * Creates an empty {@link DoubleTreeList} instance.
+	 */
+	public DoubleTreeList() {
+		super(new Tree<>(COMMON_NIL, Node::new));
+	}
+
+	/**
+	 * Bulk-loads the elements of the given array into a new {@link DoubleTreeList} in <em>O(n)</em> time.
+	 * @param values the source array
+	 */
+	public DoubleTreeList(double[] values) {
+		this();
+		PrimitiveIterator.OfDouble source = Arrays.stream(values).iterator();
+		load(() -> new Node(BLACK).withValue(source.nextDouble()), values.length);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link DoubleTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection; must not contain {@code null} elements
+	 */
+	public DoubleTreeList(Collection<? extends Double> source) {
+		this();
+		Iterator<? extends Double> values = source.iterator();
+		load(() -> new Node(BLACK).withValue(values.next()), source.size());
+	}
+
+	/**
+	 * Creates a {@link DoubleTreeList} with the specified underlying tree.
+	 * @param tree the backing tree for the new list
+	 */
+	protected DoubleTreeList(Tree<Node> tree) {
+		super(tree);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given stream into a new {@link DoubleTreeList} in <em>O(n)</em> time.
+	 * The elements of a stream of a known size are loaded into the tree directly; as the shape
+	 * of the tree depends on the number of the elements, a stream of an unknown size is first
+	 * collected to an array.
+	 * @param values the source stream
+	 * @return the new list containing the stream elements in the encounter order
+	 */
+	public static DoubleTreeList of(DoubleStream values) {
+		Spliterator.OfDouble source = values.spliterator();
+		if (!source.hasCharacteristics(Spliterator.SIZED)) {
+			return new DoubleTreeList(StreamSupport.doubleStream(source, false).toArray());
+		}
+
+		DoubleTreeList result = new DoubleTreeList();
+		PrimitiveIterator.OfDouble iterator = Spliterators.iterator(source);
+		result.load(() -> new Node(BLACK).withValue(iterator.nextDouble()), sizeOf(source));
+		return result;
+	}
+
+	/**
+	 * Returns the value at the specified position of the list without boxing it.
+	 * @param index the index of the value
+	 * @return the value at the specified position
+	 */
+	public double getDouble(int index) {
+		return findNode(index).value;
+	}
+
+	/**
+	 * Replaces the value at the specified position of the list.
+	 * @param index the index of the value
+	 * @param value the new value
+	 * @return the previous value at the specified position
+	 */
+	public double setDouble(int index, double value) {
+		Node node = findNode(index);
+		double oldValue = node.value;
+		node.value = value;
+		return oldValue;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 * @param value the value to append
+	 */
+	public void addDouble(double value) {
+		insertNode(size(), new Node(RED).withValue(value));
+	}
+
+	/**
+	 * Inserts a value into the specified position of the list.
+	 * @param index the index of the new value
+	 * @param value the value to insert
+	 */
+	public void addDouble(int index, double value) {
+		insertNode(index, new Node(RED).withValue(value));
+	}
+
+	/**
+	 * Removes the value at the specified position of the list.
+	 * @param index the index of the value to remove
+	 * @return the removed value
+	 */
+	public double removeDouble(int index) {
+		double value = findNodeForRemoval(index).value;
+		removeFoundNode();
+		return value;
+	}
+
+	/**
+	 * Returns an iterator over the values of the list which does not box them.
+	 * @return the primitive iterator over the values of the list
+	 */
+	public PrimitiveIterator.OfDouble doubleIterator() {
+		return new DoubleIteratorImpl(nodeListIterator(0));
+	}
+
+	@Override
+	public Spliterator.OfDouble spliterator() {
+		TreeNodeSpliteratorPrototype<Node> nodeSpliterator = nodeSpliterator();
+		return nodeSpliterator == null
+			? Spliterators.emptyDoubleSpliterator() : new SpliteratorImpl(nodeSpliterator, modCount);
+	}
+
+	/**
+	 * Returns a sequential stream of the values of the list.
+	 * @return the stream of the values of the list
+	 */
+	public DoubleStream doubleStream() {
+		return StreamSupport.doubleStream(spliterator(), false);
+	}
+
+	/**
+	 * Copies the values of the list to a new array.
+	 * @return the array containing the values of the list in the list order
+	 */
+	public double[] toDoubleArray() {
+		double[] result = new double[size()];
+		PrimitiveIterator.OfDouble values = doubleIterator();
+		for (int i = 0; i < result.length; i++) {
+			result[i] = values.nextDouble();
+		}
+		return result;
+	}
+
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list.
+	 * @param index the index of the first element to be moved to the returned list
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public DoubleTreeList split(int index) {
+		return new DoubleTreeList((Tree<Node>)splitTree(index));
+	}
+
+	/**
+	 * Concatenates two different {@link DoubleTreeList} instances in
+	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists.
+	 * Both original lists are cleared.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static DoubleTreeList concat(DoubleTreeList prefix, DoubleTreeList suffix) {
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+		DoubleTreeList result = new DoubleTreeList();
+		result.append(prefix);
+		result.append(suffix);
+		return result;
+	}
+
+	@Override
+	protected Double getValue(Node node) {
+		return node.value;
+	}
+
+	@Override
+	protected void setValue(Node node, Double value) {
+		node.value = value;
+	}
+}
@@ -0,0 +1,177 @@
+package dev.ornamental.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a sequence of positional modifications to be applied to a {@link TreeList}
+ * at once using {@link TreeList#applyEdits(EditBatch)}.<br>
+ * All the indices refer to the positions of the elements in the list before the batch is applied.
+ * The modifications must be added in the order of non-decreasing indices; at any single index,
+ * any number of insertions may be followed by at most one removal or replacement of the element
+ * originally located at that index.
+ * @param <T> the type of values stored by the list
+ */
+public final class EditBatch<T> {
+
+	/**
+	 * The kinds of the positional modifications
+	 */
+	enum Operation {
+
+		/**
+		 * Insertion of a value before the element having the specified index
+		 */
+		INSERT,
+
+		/**
+		 * Removal of the element having the specified index
+		 */
+		REMOVE,
+
+		/**
+		 * Replacement of the element having the specified index
+		 */
+		SET
+	}
+
+	/**
+	 * This class represents a single positional modification.
+	 */
+	static final class Edit {
+
+		/**
+		 * The index of the element in the original list
+		 */
+		private final int index;
+
+		/**
+		 * The kind of the modification
+		 */
+		private final Operation operation;
+
+		/**
+		 * The inserted or the new value ({@code null} for removals)
+		 */
+		private final Object value;
+
+		/**
+		 * Creates a new positional modification.
+		 * @param index the index of the element in the original list
+		 * @param operation the kind of the modification
+		 * @param value the inserted or the new value
+		 */
+		Edit(int index, Operation operation, Object value) {
+			this.index = index;
+			this.operation = operation;
+			this.value = value;
+		}
+
+		/**
+		 * Returns the index of the modified element in the original list.
+		 * @return the index of the modified element in the original list
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the kind of the modification.
+		 * @return the kind of the modification
+		 */
+		public Operation getOperation() {
+			return operation;
+		}
+
+		/**
+		 * Returns the inserted or the new value.
+		 * @return the inserted or the new value; {@code null} for removals
+		 */
+		public Object getValue() {
+			return value;
+		}
+	}
+
+	/**
+	 * The modifications in the order they were added
+	 */
+	private final List<Edit> edits = new ArrayList<>();
+
+	/**
+	 * The flag set if and only if the last added modification is a removal or a replacement,
+	 * in which case no more modifications are accepted for the same index
+	 */
+	private boolean lastIndexClosed = false;
+
+	/**
+	 * Adds an insertion of a value before the element having the specified index
+	 * (or at the end of the list if the index is equal to the size of the list).
+	 * @param index the index of the element in the original list
+	 * @param value the value to insert
+	 * @return this batch
+	 */
+	public EditBatch<T> insert(int index, T value) {
+		add(new Edit(index, Operation.INSERT, value));
+		return this;
+	}
+
+	/**
+	 * Adds a removal of the element having the specified index.
+	 * @param index the index of the element in the original list
+	 * @return this batch
+	 */
+	public EditBatch<T> remove(int index) {
+		add(new Edit(index, Operation.REMOVE, null));
+		return this;
+	}
+
+	/**
+	 * Adds a replacement of the element having the specified index.
+	 * @param index the index of the element in the original list
+	 * @param value the new value of the element
+	 * @return this batch
+	 */
+	public EditBatch<T> set(int index, T value) {
+		add(new Edit(index, Operation.SET, value));
+		return this;
+	}
+
+	/**
+	 * Returns the number of modifications in this batch.
+	 * @return the number of modifications in this batch
+	 */
+	public int size() {
+		return edits.size();
+	}
+
+	/**
+	 * Returns the modifications in the order they were added.
+	 * @return the unmodifiable list of modifications
+	 */
+	List<Edit> getEdits() {
+		return Collections.unmodifiableList(edits);
+	}
+
+	/**
+	 * Checks the ordering constraints and appends a modification to the batch.
+	 * @param edit the modification to append
+	 */
+	private void add(Edit edit) {
+		if (edit.index < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		if (!edits.isEmpty()) {
+			int lastIndex = edits.get(edits.size() - 1).index;
+			if (edit.index < lastIndex || edit.index == lastIndex && lastIndexClosed) {
+				throw new IllegalArgumentException(String.format(
+					"The modification of the element at %s must not follow the modification at %s.",
+					edit.index, lastIndex));
+			}
+		}
+
+		edits.add(edit);
+		lastIndexClosed = edit.operation != Operation.INSERT;
+	}
+}
@@ -0,0 +1,435 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class is a random access {@link java.util.List} implementation where each element is accompanied
+ * by a stable {@link Handle}: {@link #addHandle(int, Object)} returns the handle of the inserted element,
+ * and {@link Handle#index()} finds the current index of the element in <em>O(log(n))</em> time, however
+ * the list has been modified since. To this end, each tree node keeps a reference to its parent,
+ * which is updated whenever the node is set as a child of another one, including the rotations.<br>
+ * Optionally (see {@link #HandleTreeList(boolean)}), the list maintains a hash index from the values
+ * to their handles, so that {@link #indexOf(Object)}, {@link #lastIndexOf(Object)}, {@link #contains(Object)}
+ * and {@link #remove(Object)} run in <em>O(k log(n))</em> time instead of <em>O(n)</em>, <em>k</em> being
+ * the number of occurrences of the value (i.e., in <em>O(log(n))</em> time for distinct values).
+ * The values must then have consistent {@link Object#hashCode()} and {@link Object#equals(Object)}
+ * and must not be mutated while on the list.<br>
+ * The single-element operations run in <em>O(log(n))</em> time; removing a range of <em>k</em> elements
+ * takes <em>O(log(n) + k)</em> time, as the handles of the removed elements are invalidated.
+ * @param <T> the type of values stored by the list
+ */
+public class HandleTreeList<T> extends AbstractNodeTreeList<T, HandleTreeList.Node> {
+
+	/**
+	 * This class is a stable reference to an element of a {@link HandleTreeList}, which allows finding
+	 * the current index of the element. A handle is invalidated when its element is removed from the list.
+	 * @param <T> the type of the element
+	 */
+	public static final class Handle<T> {
+
+		/**
+		 * The list holding the element
+		 */
+		private final HandleTreeList<T> list;
+
+		/**
+		 * The element
+		 */
+		private T value;
+
+		/**
+		 * The tree node currently holding the element or {@code null} if the element has been removed
+		 */
+		private Node node;
+
+		/**
+		 * Creates a new handle of an element of the specified list.
+		 * @param list the list holding the element
+		 * @param value the element
+		 */
+		private Handle(HandleTreeList<T> list, T value) {
+			this.list = list;
+			this.value = value;
+		}
+
+		/**
+		 * Returns the element referenced by the handle.
+		 * @return the element
+		 */
+		public T get() {
+			return value;
+		}
+
+		/**
+		 * Checks if the element referenced by the handle is still on the list.
+		 * @return {@code true} if and only if the element has not been removed
+		 */
+		public boolean isValid() {
+			return node != null;
+		}
+
+		/**
+		 * Returns the current index of the element on the list in <em>O(log(n))</em> time.
+		 * @return the index of the element or {@code -1} if the element has been removed
+		 */
+		public int index() {
+			if (node == null) {
+				return -1;
+			}
+
+			Node current = node;
+			int index = current.getLeft().getWeight();
+			while (current != list.tree.root) {
+				Node parent = current.getParent();
+				if (parent.getRight() == current) {
+					index += parent.getLeft().getWeight() + 1;
+				}
+				current = parent;
+			}
+			return index;
+		}
+
+		/**
+		 * Removes the element from the list in <em>O(log(n))</em> time.
+		 * @return {@code true} if the element has been removed, {@code false} if it has been removed before
+		 */
+		public boolean remove() {
+			if (node == null) {
+				return false;
+			}
+			list.remove(index());
+			return true;
+		}
+	}
+
+	/**
+	 * This is the node class used by {@link HandleTreeList}. Besides the handle of the element,
+	 * the node keeps a reference to its parent (the reference of the root node is not meaningful).
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The handle of the element held by the node
+		 */
+		private Handle<?> handle;
+
+		/**
+		 * The parent of the node
+		 */
+		private Node parent;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the parent of the node.
+		 * @return the parent of the node; undefined for the root node
+		 */
+		public Node getParent() {
+			return parent;
+		}
+
+		@Override
+		public Node withLeft(Node left) {
+			if (left != COMMON_NIL) {
+				left.parent = this;
+			}
+			return super.withLeft(left);
+		}
+
+		@Override
+		public Node withRight(Node right) {
+			if (right != COMMON_NIL) {
+				right.parent = this;
+			}
+			return super.withRight(right);
+		}
+
+		/**
+		 * Makes the node hold the element referenced by the specified handle.
+		 * @param handle the handle of the element
+		 * @return this node
+		 */
+		public Node withHandle(Handle<?> handle) {
+			this.handle = handle;
+			handle.node = this;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			// the element held by this node is being removed from the list
+			if (handle != null && handle.node == this) {
+				handle.list.invalidate(handle);
+			}
+			withHandle(((Node)source).handle);
+		}
+
+		@Override
+		public void dropPayload() {
+			// the payload may have been moved to another node beforehand
+			if (handle.node == this) {
+				handle.list.invalidate(handle);
+			}
+			handle = null;
+			parent = null;
+		}
+	}
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification for the custom {@link Node} type.
+	 */
+	protected static final class Tree extends RankedRedBlackTree<Node> {
+
+		protected Tree() {
+			super(COMMON_NIL);
+		}
+
+		@Override
+		protected Node produceNode(boolean isRed) {
+			return new Node(isRed);
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link HandleTreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The index from the values to the handles of their occurrences or {@code null} if the list
+	 * does not maintain the value index; as the handles are compared by identity, each of them
+	 * is added to and removed from the index in <em>O(1)</em> expected time
+	 */
+	private final HashMap<Object, Set<Handle<T>>> valueIndex;
+
+	/**
+	 * Creates an empty {@link HandleTreeList} instance not maintaining the value index.
+	 */
+	public HandleTreeList() {
+		this(false);
+	}
+
+	/**
+	 * Creates an empty {@link HandleTreeList} instance.
+	 * @param valueIndexEnabled the flag showing if the list maintains the index from the values
+	 * to their handles
+	 */
+	public HandleTreeList(boolean valueIndexEnabled) {
+		super(new Tree());
+		this.valueIndex = valueIndexEnabled ? new HashMap<>() : null;
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link HandleTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection
+	 * @param valueIndexEnabled the flag showing if the list maintains the index from the values
+	 * to their handles
+	 */
+	public HandleTreeList(Collection<? extends T> source, boolean valueIndexEnabled) {
+		this(valueIndexEnabled);
+		Iterator<? extends T> values = source.iterator();
+		load(() -> produceNode(BLACK, values.next()), source.size());
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public void add(int index, T element) {
+		addHandle(index, element);
+	}
+
+	/**
+	 * Inserts a value into the specified position of the list in <em>O(log(n))</em> time.
+	 * @param index the index of the value
+	 * @param value the value to insert
+	 * @return the handle of the inserted value
+	 */
+	public Handle<T> addHandle(int index, T value) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+		tree.checkSizeLimit(); // the handle must not be indexed unless the node can be inserted
+		Node node = produceNode(RED, value);
+		insertNode(index, node);
+		@SuppressWarnings("unchecked")
+		Handle<T> handle = (Handle<T>)node.handle;
+		return handle;
+	}
+
+	/**
+	 * Appends a value to the end of the list in <em>O(log(n))</em> time.
+	 * @param value the value to append
+	 * @return the handle of the appended value
+	 */
+	public Handle<T> addHandle(T value) {
+		return addHandle(tree.root.getWeight(), value);
+	}
+
+	/**
+	 * Returns the handle of the value at the specified position of the list in <em>O(log(n))</em> time.
+	 * @param index the index of the value
+	 * @return the handle of the value
+	 */
+	@SuppressWarnings("unchecked")
+	public Handle<T> handleAt(int index) {
+		return (Handle<T>)findNode(index).handle;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the value; runs in <em>O(k log(n))</em> time
+	 * if the list maintains the value index (see {@link HandleTreeList}), and in <em>O(n)</em> time otherwise.
+	 * @param o the value to search for
+	 * @return the index of the first occurrence of the value or {@code -1} if there is none
+	 */
+	@Override
+	public int indexOf(Object o) {
+		if (valueIndex == null) {
+			return super.indexOf(o);
+		}
+
+		Set<Handle<T>> handles = valueIndex.get(o);
+		if (handles == null) {
+			return -1;
+		}
+		int result = Integer.MAX_VALUE;
+		for (Handle<T> handle : handles) {
+			result = Math.min(result, handle.index());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the value; runs in <em>O(k log(n))</em> time
+	 * if the list maintains the value index (see {@link HandleTreeList}), and in <em>O(n)</em> time otherwise.
+	 * @param o the value to search for
+	 * @return the index of the last occurrence of the value or {@code -1} if there is none
+	 */
+	@Override
+	public int lastIndexOf(Object o) {
+		if (valueIndex == null) {
+			return super.lastIndexOf(o);
+		}
+
+		Set<Handle<T>> handles = valueIndex.get(o);
+		int result = -1;
+		if (handles != null) {
+			for (Handle<T> handle : handles) {
+				result = Math.max(result, handle.index());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return valueIndex == null ? super.contains(o) : valueIndex.containsKey(o);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	@Override
+	protected RankedRedBlackTree<Node> produceTree() {
+		return new Tree();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T getValue(Node node) {
+		return ((Handle<T>)node.handle).value;
+	}
+
+	@Override
+	protected void setValue(Node node, T value) {
+		if (node.handle == null) { // a new node, see AbstractNodeTreeList
+			node.withHandle(new Handle<>(this, value));
+			addToIndex(value, node.handle);
+		} else {
+			@SuppressWarnings("unchecked")
+			Handle<T> handle = (Handle<T>)node.handle;
+			removeFromIndex(handle);
+			handle.value = value;
+			addToIndex(value, handle);
+		}
+	}
+
+	@Override
+	protected void discard(Node root) {
+		while (root != tree.nil) {
+			discard(root.getLeft());
+			invalidate(root.handle);
+			root = root.getRight();
+		}
+	}
+
+	/**
+	 * Creates a new node holding the value.
+	 * @param isRed the flag showing if the node is red
+	 * @param value the value
+	 * @return the new node
+	 */
+	private Node produceNode(boolean isRed, T value) {
+		Node node = new Node(isRed);
+		setValue(node, value);
+		return node;
+	}
+
+	/**
+	 * Invalidates the handle of an element removed from the list.
+	 * @param handle the handle of the removed element
+	 */
+	private void invalidate(Handle<?> handle) {
+		handle.node = null;
+		removeFromIndex(handle);
+	}
+
+	/**
+	 * Adds a handle to the value index, if it is maintained.
+	 * @param value the value referenced by the handle
+	 * @param handle the handle
+	 */
+	@SuppressWarnings("unchecked")
+	private void addToIndex(Object value, Handle<?> handle) {
+		if (valueIndex != null) {
+			valueIndex.computeIfAbsent(value, v -> new LinkedHashSet<>(2)).add((Handle<T>)handle);
+		}
+	}
+
+	/**
+	 * Removes a handle from the value index, if it is maintained.
+	 * @param handle the handle
+	 */
+	private void removeFromIndex(Handle<?> handle) {
+		if (valueIndex != null) {
+			Set<Handle<T>> handles = valueIndex.get(handle.value);
+			handles.remove(handle);
+			if (handles.isEmpty()) {
+				valueIndex.remove(handle.value);
+			}
+		}
+	}
+}
@@ -0,0 +1,565 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a {@link Map} implementation keeping its entries in a user-defined order, like
+ * {@link java.util.LinkedHashMap}, which additionally allows inserting the entries at arbitrary positions
+ * and finding the positions of the keys. The entries are indexed by a {@link HashMap} from the keys
+ * to the nodes of a {@link RankedRedBlackTree} ordering the entries, each tree node keeping a reference
+ * to its parent. Thus, {@link #get(Object)} and {@link #containsKey(Object)} run in <em>O(1)</em>
+ * expected time, while {@link #indexOf(Object)} (climbing from the node of the key to the root),
+ * {@link #getAt(int)}, {@link #putAt(int, Object, Object)}, {@link #removeAt(int)}, {@link #put(Object, Object)}
+ * and {@link #remove(Object)} run in <em>O(log(n))</em> time.<br>
+ * The iteration order is the order of the positions; {@link #put(Object, Object)} appends the entries
+ * having new keys and does not move the existing ones.
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ */
+public class IndexedLinkedHashMap<K, V> extends AbstractMap<K, V> {
+
+	/**
+	 * This class is an entry of the map, referenced both by the hash index and by a tree node.
+	 * @param <K> the type of the key
+	 * @param <V> the type of the value
+	 */
+	private static final class Entry<K, V> implements Map.Entry<K, V> {
+
+		/**
+		 * The key of the entry
+		 */
+		private final K key;
+
+		/**
+		 * The value of the entry
+		 */
+		private V value;
+
+		/**
+		 * The tree node currently holding the entry or {@code null} if the entry has been removed
+		 */
+		private Node node;
+
+		/**
+		 * Creates a new entry.
+		 * @param key the key of the entry
+		 * @param value the value of the entry
+		 */
+		public Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			V oldValue = this.value;
+			this.value = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * This is the node class used by {@link IndexedLinkedHashMap}. Besides the entry, the node keeps
+	 * a reference to its parent, which is updated whenever the node is set as a child of another one
+	 * (the reference of the root node is not meaningful).
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The entry held by the node
+		 */
+		private Entry<?, ?> entry;
+
+		/**
+		 * The parent of the node
+		 */
+		private Node parent;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the parent of the node.
+		 * @return the parent of the node; undefined for the root node
+		 */
+		public Node getParent() {
+			return parent;
+		}
+
+		@Override
+		public Node withLeft(Node left) {
+			if (left != COMMON_NIL) {
+				left.parent = this;
+			}
+			return super.withLeft(left);
+		}
+
+		@Override
+		public Node withRight(Node right) {
+			if (right != COMMON_NIL) {
+				right.parent = this;
+			}
+			return super.withRight(right);
+		}
+
+		/**
+		 * Makes the node hold the specified entry.
+		 * @param entry the entry
+		 * @return this node
+		 */
+		public Node withEntry(Entry<?, ?> entry) {
+			this.entry = entry;
+			entry.node = this;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			withEntry(((Node)source).entry);
+		}
+
+		@Override
+		public void dropPayload() {
+			entry = null;
+			parent = null;
+		}
+	}
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification for the custom {@link Node} type.
+	 */
+	protected static final class Tree extends RankedRedBlackTree<Node> {
+
+		protected Tree() {
+			super(COMMON_NIL);
+		}
+
+		@Override
+		protected Node produceNode(boolean isRed) {
+			return new Node(isRed);
+		}
+	}
+
+	/**
+	 * This class is the entry set view of the map.
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return index.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			Entry<K, V> found = index.get(entry.getKey());
+			return found != null && Objects.equals(found.value, entry.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o)) {
+				return false;
+			}
+			IndexedLinkedHashMap.this.remove(((Map.Entry<?, ?>)o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			IndexedLinkedHashMap.this.clear();
+		}
+	}
+
+	/**
+	 * This class is an iterator over the entries of the map in the order of their positions.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		/**
+		 * The underlying iterator over the nodes of the tree
+		 */
+		private final TreeNodeListIterator<Node> nodes = new TreeNodeListIterator<>(tree, iteratorPath(0), true);
+
+		/**
+		 * The last entry returned by the iterator or {@code null} if it cannot be removed
+		 */
+		private Entry<K, V> last;
+
+		/**
+		 * The modification counter used to detect the map modifications performed
+		 * without using this iterator
+		 */
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return nodes.hasNext();
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			last = entryOf(nodes.next());
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			nodes.remove();
+			index.remove(last.key);
+			last.node = null;
+			last = null;
+			expectedModCount = ++modCount;
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link IndexedLinkedHashMap}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The initial size of the node stack buffer
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+
+	/**
+	 * The underlying ranked red-black tree ordering the entries
+	 */
+	protected final Tree tree;
+
+	/**
+	 * The index of the entries by their keys
+	 */
+	private final HashMap<Object, Entry<K, V>> index;
+
+	/**
+	 * Pre-allocated node list used in modification operations (see {@link TreeList})
+	 */
+	private final RankedRedBlackTree.NodeBuffer<Node> nodeBuffer;
+
+	/**
+	 * The number of structural modifications of the map, used to detect concurrent modifications
+	 * during the iteration
+	 */
+	private int modCount = 0;
+
+	/**
+	 * Creates an empty {@link IndexedLinkedHashMap} instance.
+	 */
+	public IndexedLinkedHashMap() {
+		this.tree = new Tree();
+		this.index = new HashMap<>();
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates an {@link IndexedLinkedHashMap} instance holding the entries of the specified map
+	 * in its iteration order.
+	 * @param source the source map
+	 */
+	public IndexedLinkedHashMap(Map<? extends K, ? extends V> source) {
+		this();
+		putAll(source);
+	}
+
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return index.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return index.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		Entry<K, V> entry = index.get(key);
+		return entry == null ? null : entry.value;
+	}
+
+	@Override
+	public void clear() {
+		for (Entry<K, V> entry : index.values()) {
+			entry.node = null;
+		}
+		index.clear();
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+	}
+
+	/**
+	 * Associates the value with the key. The entry having a new key is appended to the end of the map;
+	 * the position of an existing entry does not change.
+	 * @param key the key
+	 * @param value the value
+	 * @return the previous value associated with the key or {@code null} if there was no mapping for the key
+	 */
+	@Override
+	public V put(K key, V value) {
+		Entry<K, V> entry = index.get(key);
+		if (entry != null) {
+			return entry.setValue(value);
+		}
+
+		insert(tree.root.getWeight(), new Entry<>(key, value));
+		return null;
+	}
+
+	/**
+	 * Inserts the entry into the specified position of the map in <em>O(log(n))</em> time,
+	 * shifting the entries at the subsequent positions. If the map already contains the key,
+	 * its entry is moved to the specified position (which is then expected to be less than the size
+	 * of the map) and its value is replaced.
+	 * @param index the position of the entry
+	 * @param key the key
+	 * @param value the value
+	 * @return the previous value associated with the key or {@code null} if there was no mapping for the key
+	 */
+	public V putAt(int index, K key, V value) {
+		Entry<K, V> entry = this.index.get(key);
+		int size = tree.root.getWeight() - (entry == null ? 0 : 1);
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException(
+				String.format("The index %s is out of the range from 0 to %s.", index, size));
+		}
+
+		V oldValue = null;
+		if (entry != null) {
+			oldValue = entry.value;
+			removeNode(entry.node);
+			this.index.remove(key);
+		}
+		insert(index, new Entry<>(key, value));
+		return oldValue;
+	}
+
+	@Override
+	public V remove(Object key) {
+		Entry<K, V> entry = index.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		removeNode(entry.node);
+		return entry.value;
+	}
+
+	/**
+	 * Returns the entry at the specified position of the map in <em>O(log(n))</em> time.
+	 * @param index the position of the entry
+	 * @return the entry at the position
+	 */
+	public Map.Entry<K, V> getAt(int index) {
+		return entryOf(tree.find(index, null));
+	}
+
+	/**
+	 * Removes the entry at the specified position of the map in <em>O(log(n))</em> time.
+	 * @param index the position of the entry
+	 * @return the removed entry
+	 */
+	public Map.Entry<K, V> removeAt(int index) {
+		Entry<K, V> entry = entryOf(tree.find(index, null));
+		this.index.remove(entry.key);
+		removeNode(entry.node);
+		return entry;
+	}
+
+	/**
+	 * Returns the position of the specified key in <em>O(log(n))</em> time.
+	 * @param key the key to find
+	 * @return the position of the key or {@code -1} if the map does not contain the key
+	 */
+	public int indexOf(Object key) {
+		Entry<K, V> entry = index.get(key);
+		return entry == null ? -1 : rankOf(entry.node);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * Inserts a new entry into the tree and the index.
+	 * @param rank the position of the entry
+	 * @param entry the entry
+	 */
+	private void insert(int rank, Entry<K, V> entry) {
+		tree.checkSizeLimit();
+		if (tree.root == tree.nil) {
+			tree.root = new Node(BLACK).withLeft(tree.nil).withRight(tree.nil).withEntry(entry);
+		} else {
+			Node node = new Node(RED).withLeft(tree.nil).withRight(tree.nil).withEntry(entry);
+
+			// search for the insertion point (nil leaf to substitute with a value-node)
+			nodeBuffer.clear();
+			Node current = tree.root;
+			while (current != tree.nil) {
+				nodeBuffer.add(current);
+				Node left = current.getLeft();
+				int leftWeight = left.getWeight();
+				if (rank <= leftWeight) {
+					if (left == tree.nil) {
+						current.withLeft(node);
+					}
+					current = left;
+				} else {
+					rank -= leftWeight + 1;
+					Node right = current.getRight();
+					if (right == tree.nil) {
+						current.withRight(node);
+					}
+					current = right;
+				}
+			}
+
+			nodeBuffer.add(node);
+			tree.afterInsert(nodeBuffer);
+		}
+
+		index.put(entry.key, entry);
+		modCount++;
+	}
+
+	/**
+	 * Removes a node from the tree; the entry held by the node is detached from the tree.
+	 * @param node the node to remove
+	 */
+	private void removeNode(Node node) {
+		Entry<?, ?> entry = node.entry;
+		findPath(node);
+		tree.remove(nodeBuffer);
+		entry.node = null;
+		modCount++;
+	}
+
+	/**
+	 * Computes the rank of a node by climbing from the node to the root.
+	 * @param node the node
+	 * @return the rank of the node
+	 */
+	private int rankOf(Node node) {
+		int rank = node.getLeft().getWeight();
+		while (node != tree.root) {
+			Node parent = node.getParent();
+			if (parent.getRight() == node) {
+				rank += parent.getLeft().getWeight() + 1;
+			}
+			node = parent;
+		}
+		return rank;
+	}
+
+	/**
+	 * Fills the {@link #nodeBuffer} with the path from the root to the specified node.
+	 * @param node the node
+	 */
+	private void findPath(Node node) {
+		nodeBuffer.clear();
+		for (Node current = node; current != tree.root; current = current.getParent()) {
+			nodeBuffer.add(current);
+		}
+		nodeBuffer.add(tree.root);
+
+		// reverse the path to start from the root
+		for (int i = 0, j = nodeBuffer.size() - 1; i < j; i++, j--) {
+			Node swapped = nodeBuffer.get(i);
+			nodeBuffer.set(i, nodeBuffer.get(j));
+			nodeBuffer.set(j, swapped);
+		}
+	}
+
+	/**
+	 * Creates a path from the root to the node of the specified rank, suitable for
+	 * an iterator positioned before the node.
+	 * @param rank the rank of the node
+	 * @return the path to the node (empty if the map is empty)
+	 */
+	private RankedRedBlackTree.NodeBuffer<Node> iteratorPath(int rank) {
+		RankedRedBlackTree.NodeBuffer<Node> path = new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
+		if (tree.root != tree.nil) {
+			tree.find(rank, path);
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the entry held by a node.
+	 * @param node the node
+	 * @return the entry
+	 */
+	@SuppressWarnings("unchecked")
+	private Entry<K, V> entryOf(Node node) {
+		return (Entry<K, V>)node.entry;
+	}
+}
@@ -0,0 +1,1209 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import dev.ornamental.collection.OrderedKeys.Bound;
+
+/**
+ * This class is a {@link NavigableMap} implementation ordered by a {@link Comparator} (or by the natural
+ * ordering of the keys) and backed by a {@link RankedRedBlackTree} holding the entries in ascending
+ * key order. Besides the {@link NavigableMap} operations running in <em>O(log(n))</em> time, the map
+ * provides the positional access to its entries: {@link #entryAt(int)}, {@link #indexOfKey(Object)},
+ * {@link #rank(Object)} and {@link #removeAt(int)} run in <em>O(log(n))</em> time, as does
+ * {@link #removeRange(int, int)}, which cuts a range of positions out of the tree. The range views
+ * (including the positional ones, see {@link #subMapByIndex(int, int)}) recompute their positional
+ * bounds on each operation, so their {@code size()} is found in <em>O(log(n))</em> time,
+ * and iterating over <em>k</em> entries of a view takes <em>O(log(n) + k)</em> time.<br>
+ * A map may be bulk-loaded from a {@link SortedMap} in <em>O(n)</em> time
+ * (see {@link #IndexedTreeMap(SortedMap)}).<br>
+ * The navigation methods return immutable snapshots of the entries, while the entries returned
+ * by the iterators of the entry set views support {@link Map.Entry#setValue(Object)}.
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ */
+public class IndexedTreeMap<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+	/**
+	 * This is the node class used by {@link IndexedTreeMap}.
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The key held by the node
+		 */
+		private Object key;
+
+		/**
+		 * The value held by the node
+		 */
+		private Object value;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Replaces the key and the value of the node.
+		 * @param key the new key
+		 * @param value the new value
+		 * @return this node
+		 */
+		public Node withEntry(Object key, Object value) {
+			this.key = key;
+			this.value = value;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			key = ((Node)source).key;
+			value = ((Node)source).value;
+		}
+
+		@Override
+		public void dropPayload() {
+			key = null;
+			value = null;
+		}
+	}
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification for the custom {@link Node} type.
+	 */
+	protected static final class Tree extends RankedRedBlackTree<Node> {
+
+		protected Tree() {
+			super(COMMON_NIL);
+		}
+
+		@Override
+		protected Node produceNode(boolean isRed) {
+			return new Node(isRed);
+		}
+	}
+
+	/**
+	 * This class is a map entry backed by a tree node.
+	 */
+	private final class EntryImpl implements Map.Entry<K, V> {
+
+		/**
+		 * The node holding the entry
+		 */
+		private final Node node;
+
+		/**
+		 * Creates a new entry backed by the specified node.
+		 * @param node the node holding the entry
+		 */
+		public EntryImpl(Node node) {
+			this.node = node;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public K getKey() {
+			return (K)node.key;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V getValue() {
+			return (V)node.value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			V oldValue = getValue();
+			node.value = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			return Objects.equals(node.key, entry.getKey()) && Objects.equals(node.value, entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(node.key) ^ Objects.hashCode(node.value);
+		}
+
+		@Override
+		public String toString() {
+			return node.key + "=" + node.value;
+		}
+	}
+
+	/**
+	 * This class is an iterator over the entries having the positions within a range.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		/**
+		 * The underlying iterator over the nodes of the tree
+		 */
+		private final TreeNodeListIterator<Node> nodes;
+
+		/**
+		 * The flag showing if the iteration runs in descending order
+		 */
+		private final boolean descending;
+
+		/**
+		 * The number of entries not yet returned by the iterator
+		 */
+		private int remaining;
+
+		/**
+		 * The modification counter used to detect the map modifications performed
+		 * without using this iterator
+		 */
+		private int expectedModCount = modCount;
+
+		/**
+		 * Creates a new iterator over the entries having the positions within the specified range.
+		 * @param from the position of the first entry of the range
+		 * @param to the position following the last entry of the range
+		 * @param descending the flag showing if the iteration runs in descending order
+		 */
+		public EntryIterator(int from, int to, boolean descending) {
+			this.nodes = nodeIterator(descending ? to : from);
+			this.descending = descending;
+			this.remaining = to - from;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0) {
+				throw new NoSuchElementException();
+			}
+			remaining--;
+			return new EntryImpl(descending ? nodes.previous() : nodes.next());
+		}
+
+		@Override
+		public void remove() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			nodes.remove();
+			expectedModCount = ++modCount;
+		}
+	}
+
+	/**
+	 * This class is the entry set view of a key range of the map.
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		/**
+		 * The lower bound of the range or {@code null} if the range is not bounded from below
+		 */
+		private final Bound<K> low;
+
+		/**
+		 * The upper bound of the range or {@code null} if the range is not bounded from above
+		 */
+		private final Bound<K> high;
+
+		/**
+		 * The flag showing if the view iterates over the range in descending order
+		 */
+		private final boolean descending;
+
+		/**
+		 * Creates a new entry set view of a key range.
+		 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+		 * @param high the upper bound of the range or {@code null} if the range is not bounded from above
+		 * @param descending the flag showing if the view is descending
+		 */
+		public EntrySet(Bound<K> low, Bound<K> high, boolean descending) {
+			this.low = low;
+			this.high = high;
+			this.descending = descending;
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator(order.startRank(low), order.endRank(low, high), descending);
+		}
+
+		@Override
+		public int size() {
+			return order.endRank(low, high) - order.startRank(low);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+			if (!order.inRange(entry.getKey(), low, high)) {
+				return false;
+			}
+			Node node = findNode(entry.getKey(), null);
+			return node != null && Objects.equals(node.value, entry.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o)) {
+				return false;
+			}
+			IndexedTreeMap.this.remove(((Map.Entry<?, ?>)o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			removeRange(order.startRank(low), order.endRank(low, high));
+		}
+	}
+
+	/**
+	 * This class is the navigable key set view of a {@link NavigableMap}.
+	 * @param <K> the type of the keys
+	 */
+	private static final class KeySet<K> extends AbstractSet<K> implements NavigableSet<K> {
+
+		/**
+		 * The map backing the key set
+		 */
+		private final NavigableMap<K, ?> map;
+
+		/**
+		 * Creates a new key set view of the specified map.
+		 * @param map the map backing the key set
+		 */
+		public KeySet(NavigableMap<K, ?> map) {
+			this.map = map;
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			Iterator<? extends Map.Entry<K, ?>> entries = map.entrySet().iterator();
+			return new Iterator<K>() {
+
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+
+				@Override
+				public K next() {
+					return entries.next().getKey();
+				}
+
+				@Override
+				public void remove() {
+					entries.remove();
+				}
+			};
+		}
+
+		@Override
+		public Iterator<K> descendingIterator() {
+			return descendingSet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return map.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return map.containsKey(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			int size = map.size();
+			map.remove(o);
+			return map.size() != size;
+		}
+
+		@Override
+		public void clear() {
+			map.clear();
+		}
+
+		@Override
+		public Comparator<? super K> comparator() {
+			return map.comparator();
+		}
+
+		@Override
+		public K first() {
+			return map.firstKey();
+		}
+
+		@Override
+		public K last() {
+			return map.lastKey();
+		}
+
+		@Override
+		public K lower(K k) {
+			return map.lowerKey(k);
+		}
+
+		@Override
+		public K floor(K k) {
+			return map.floorKey(k);
+		}
+
+		@Override
+		public K ceiling(K k) {
+			return map.ceilingKey(k);
+		}
+
+		@Override
+		public K higher(K k) {
+			return map.higherKey(k);
+		}
+
+		@Override
+		public K pollFirst() {
+			return keyOrNull(map.pollFirstEntry());
+		}
+
+		@Override
+		public K pollLast() {
+			return keyOrNull(map.pollLastEntry());
+		}
+
+		@Override
+		public NavigableSet<K> descendingSet() {
+			return new KeySet<>(map.descendingMap());
+		}
+
+		@Override
+		public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+			return new KeySet<>(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+		}
+
+		@Override
+		public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+			return new KeySet<>(map.headMap(toElement, inclusive));
+		}
+
+		@Override
+		public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+			return new KeySet<>(map.tailMap(fromElement, inclusive));
+		}
+
+		@Override
+		public SortedSet<K> subSet(K fromElement, K toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		@Override
+		public SortedSet<K> headSet(K toElement) {
+			return headSet(toElement, false);
+		}
+
+		@Override
+		public SortedSet<K> tailSet(K fromElement) {
+			return tailSet(fromElement, true);
+		}
+	}
+
+	/**
+	 * This class is a key range view of the map, ascending or descending.
+	 * The bounds of the view are always expressed in the ascending order of the backing map.
+	 */
+	private final class SubMap extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+		/**
+		 * The lower bound of the range or {@code null} if the range is not bounded from below
+		 */
+		private final Bound<K> low;
+
+		/**
+		 * The upper bound of the range or {@code null} if the range is not bounded from above
+		 */
+		private final Bound<K> high;
+
+		/**
+		 * The flag showing if the view iterates over the range in descending order
+		 */
+		private final boolean descending;
+
+		/**
+		 * Creates a new range view of the map.
+		 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+		 * @param high the upper bound of the range or {@code null} if the range is not bounded from above
+		 * @param descending the flag showing if the view is descending
+		 */
+		public SubMap(Bound<K> low, Bound<K> high, boolean descending) {
+			this.low = low;
+			this.high = high;
+			this.descending = descending;
+		}
+
+		@Override
+		public Comparator<? super K> comparator() {
+			return descending ? Collections.reverseOrder(order.comparator()) : order.comparator();
+		}
+
+		@Override
+		public int size() {
+			return order.endRank(low, high) - order.startRank(low);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size() == 0;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return order.inRange(key, low, high) && IndexedTreeMap.this.containsKey(key);
+		}
+
+		@Override
+		public V get(Object key) {
+			return order.inRange(key, low, high) ? IndexedTreeMap.this.get(key) : null;
+		}
+
+		@Override
+		public V put(K key, V value) {
+			if (!order.inRange(key, low, high)) {
+				throw new IllegalArgumentException("The key is out of the range of the view.");
+			}
+			return IndexedTreeMap.this.put(key, value);
+		}
+
+		@Override
+		public V remove(Object key) {
+			return order.inRange(key, low, high) ? IndexedTreeMap.this.remove(key) : null;
+		}
+
+		/**
+		 * Removes all the entries of the range in <em>O(log(n))</em> time.
+		 */
+		@Override
+		public void clear() {
+			removeRange(order.startRank(low), order.endRank(low, high));
+		}
+
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new EntrySet(low, high, descending);
+		}
+
+		@Override
+		public NavigableSet<K> keySet() {
+			return navigableKeySet();
+		}
+
+		@Override
+		public NavigableSet<K> navigableKeySet() {
+			return new KeySet<>(this);
+		}
+
+		@Override
+		public NavigableSet<K> descendingKeySet() {
+			return new KeySet<>(descendingMap());
+		}
+
+		@Override
+		public Map.Entry<K, V> firstEntry() {
+			return exportEntry(descending ? lastRank() : firstRank());
+		}
+
+		@Override
+		public Map.Entry<K, V> lastEntry() {
+			return exportEntry(descending ? firstRank() : lastRank());
+		}
+
+		@Override
+		public K firstKey() {
+			return keyAtRank(descending ? lastRank() : firstRank());
+		}
+
+		@Override
+		public K lastKey() {
+			return keyAtRank(descending ? firstRank() : lastRank());
+		}
+
+		@Override
+		public Map.Entry<K, V> pollFirstEntry() {
+			return removeAtRank(descending ? lastRank() : firstRank());
+		}
+
+		@Override
+		public Map.Entry<K, V> pollLastEntry() {
+			return removeAtRank(descending ? firstRank() : lastRank());
+		}
+
+		@Override
+		public Map.Entry<K, V> lowerEntry(K key) {
+			return exportEntry(lowerRank(key, false));
+		}
+
+		@Override
+		public K lowerKey(K key) {
+			return keyOrNull(lowerEntry(key));
+		}
+
+		@Override
+		public Map.Entry<K, V> floorEntry(K key) {
+			return exportEntry(lowerRank(key, true));
+		}
+
+		@Override
+		public K floorKey(K key) {
+			return keyOrNull(floorEntry(key));
+		}
+
+		@Override
+		public Map.Entry<K, V> ceilingEntry(K key) {
+			return exportEntry(higherRank(key, true));
+		}
+
+		@Override
+		public K ceilingKey(K key) {
+			return keyOrNull(ceilingEntry(key));
+		}
+
+		@Override
+		public Map.Entry<K, V> higherEntry(K key) {
+			return exportEntry(higherRank(key, false));
+		}
+
+		@Override
+		public K higherKey(K key) {
+			return keyOrNull(higherEntry(key));
+		}
+
+		@Override
+		public NavigableMap<K, V> descendingMap() {
+			return new SubMap(low, high, !descending);
+		}
+
+		@Override
+		public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+			if (descending) {
+				order.checkBounds(toKey, fromKey);
+				return new SubMap(
+					checkBound(new Bound<>(toKey, toInclusive)), checkBound(new Bound<>(fromKey, fromInclusive)), true);
+			}
+
+			order.checkBounds(fromKey, toKey);
+			return new SubMap(
+				checkBound(new Bound<>(fromKey, fromInclusive)), checkBound(new Bound<>(toKey, toInclusive)), false);
+		}
+
+		@Override
+		public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+			Bound<K> bound = checkBound(new Bound<>(toKey, inclusive));
+			return descending ? new SubMap(bound, high, true) : new SubMap(low, bound, false);
+		}
+
+		@Override
+		public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+			Bound<K> bound = checkBound(new Bound<>(fromKey, inclusive));
+			return descending ? new SubMap(low, bound, true) : new SubMap(bound, high, false);
+		}
+
+		@Override
+		public SortedMap<K, V> subMap(K fromKey, K toKey) {
+			return subMap(fromKey, true, toKey, false);
+		}
+
+		@Override
+		public SortedMap<K, V> headMap(K toKey) {
+			return headMap(toKey, false);
+		}
+
+		@Override
+		public SortedMap<K, V> tailMap(K fromKey) {
+			return tailMap(fromKey, true);
+		}
+
+		/**
+		 * Returns the position of the least entry of the range.
+		 * @return the position of the least entry or {@code -1} if the range is empty
+		 */
+		private int firstRank() {
+			int start = order.startRank(low);
+			return start < order.endRank(low, high) ? start : -1;
+		}
+
+		/**
+		 * Returns the position of the greatest entry of the range.
+		 * @return the position of the greatest entry or {@code -1} if the range is empty
+		 */
+		private int lastRank() {
+			int end = order.endRank(low, high);
+			return order.startRank(low) < end ? end - 1 : -1;
+		}
+
+		/**
+		 * Returns the position of the entry preceding the specified key in the order of the view.
+		 * @param key the key to search for
+		 * @param inclusive the flag showing if the entry having the key itself may be found
+		 * @return the position of the found entry or {@code -1} if there is no such entry
+		 */
+		private int lowerRank(K key, boolean inclusive) {
+			return descending
+				? order.ceilingRank(key, inclusive, order.startRank(low), order.endRank(low, high))
+				: order.floorRank(key, inclusive, order.startRank(low), order.endRank(low, high));
+		}
+
+		/**
+		 * Returns the position of the entry following the specified key in the order of the view.
+		 * @param key the key to search for
+		 * @param inclusive the flag showing if the entry having the key itself may be found
+		 * @return the position of the found entry or {@code -1} if there is no such entry
+		 */
+		private int higherRank(K key, boolean inclusive) {
+			return descending
+				? order.floorRank(key, inclusive, order.startRank(low), order.endRank(low, high))
+				: order.ceilingRank(key, inclusive, order.startRank(low), order.endRank(low, high));
+		}
+
+		/**
+		 * Makes sure a bound of a nested view does not extend the range of this view.
+		 * @param bound the bound of the nested view
+		 * @return the bound
+		 */
+		private Bound<K> checkBound(Bound<K> bound) {
+			return order.checkNestedBound(bound, low, high);
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link IndexedTreeMap}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The initial size of the node stack buffer
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+
+	/**
+	 * The underlying ranked red-black tree
+	 */
+	protected final Tree tree;
+
+	/**
+	 * Pre-allocated node list used in modification operations (see {@link TreeList})
+	 */
+	private final RankedRedBlackTree.NodeBuffer<Node> nodeBuffer;
+
+	/**
+	 * The ordering of the keys and the rank queries on the tree
+	 */
+	private final OrderedKeys<K, Node> order;
+
+	/**
+	 * The number of structural modifications of the map, used to detect concurrent modifications
+	 * during the iteration
+	 */
+	private int modCount = 0;
+
+	/**
+	 * Creates an empty {@link IndexedTreeMap} ordered according to the natural ordering of its keys.
+	 */
+	public IndexedTreeMap() {
+		this((Comparator<? super K>)null);
+	}
+
+	/**
+	 * Creates an empty {@link IndexedTreeMap} ordered according to the specified comparator.
+	 * @param comparator the comparator ordering the map or {@code null} if the natural ordering
+	 * of the keys is to be used
+	 */
+	public IndexedTreeMap(Comparator<? super K> comparator) {
+		this.tree = new Tree();
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+		this.order = new OrderedKeys<>(tree, node -> node.key, comparator);
+	}
+
+	/**
+	 * Bulk-loads the entries of the given {@link SortedMap} into a new {@link IndexedTreeMap}
+	 * using the same ordering in <em>O(n)</em> time.
+	 * @param source the source map
+	 */
+	public IndexedTreeMap(SortedMap<K, ? extends V> source) {
+		this(source.comparator());
+		int size = source.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source map must not contain more than %s entries.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+		Iterator<? extends Map.Entry<K, ? extends V>> entries = source.entrySet().iterator();
+		tree.root = RankedRedBlackTree.buildTree(() -> produceNode(entries), size, tree.nil, null);
+	}
+
+	@Override
+	public Comparator<? super K> comparator() {
+		return order.comparator();
+	}
+
+	@Override
+	public int size() {
+		return tree.root.getWeight();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tree.root == tree.nil;
+	}
+
+	@Override
+	public void clear() {
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findNode(key, null) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		Node node = findNode(key, null);
+		return node == null ? null : (V)node.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (tree.root == tree.nil) {
+			order.compare(key, key); // type (and possibly null) check
+			tree.root = new Node(BLACK).withLeft(tree.nil).withRight(tree.nil).withEntry(key, value);
+			modCount++;
+			return null;
+		}
+
+		nodeBuffer.clear();
+		Node current = tree.root;
+		while (true) {
+			nodeBuffer.add(current);
+			int comparison = order.compare(key, current.key);
+			if (comparison == 0) {
+				@SuppressWarnings("unchecked")
+				V oldValue = (V)current.value;
+				current.value = value;
+				return oldValue;
+			}
+
+			Node child = comparison < 0 ? current.getLeft() : current.getRight();
+			if (child == tree.nil) {
+				tree.checkSizeLimit();
+				Node node = new Node(RED).withLeft(tree.nil).withRight(tree.nil).withEntry(key, value);
+				if (comparison < 0) {
+					current.withLeft(node);
+				} else {
+					current.withRight(node);
+				}
+				nodeBuffer.add(node);
+				tree.afterInsert(nodeBuffer);
+				modCount++;
+				return null;
+			}
+			current = child;
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		Node node = findNode(key, nodeBuffer);
+		if (node == null) {
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		V value = (V)node.value;
+		tree.remove(nodeBuffer);
+		modCount++;
+		return value;
+	}
+
+	/**
+	 * Returns an immutable snapshot of the entry at the specified position of the map
+	 * (in ascending key order) in <em>O(log(n))</em> time.
+	 * @param index the position of the entry
+	 * @return the entry at the position
+	 */
+	public Map.Entry<K, V> entryAt(int index) {
+		return exportEntry(tree.find(index, null));
+	}
+
+	/**
+	 * Returns the key at the specified position of the map (in ascending key order)
+	 * in <em>O(log(n))</em> time.
+	 * @param index the position of the key
+	 * @return the key at the position
+	 */
+	@SuppressWarnings("unchecked")
+	public K keyAt(int index) {
+		return (K)tree.find(index, null).key;
+	}
+
+	/**
+	 * Returns the position of the specified key in the map in <em>O(log(n))</em> time.
+	 * @param key the key to find
+	 * @return the position of the key or {@code -1} if the map does not contain the key
+	 */
+	public int indexOfKey(Object key) {
+		int rank = rank(key);
+		return rank < size() && order.compare(key, tree.find(rank, null).key) == 0 ? rank : -1;
+	}
+
+	/**
+	 * Returns the number of keys of the map less than the specified one in <em>O(log(n))</em> time.
+	 * The key need not belong to the map. This is the size of {@link #headMap(Object)}.
+	 * @param key the key to find the rank of
+	 * @return the rank of the key
+	 */
+	public int rank(Object key) {
+		return order.countLess(key, false);
+	}
+
+	/**
+	 * Removes the entry at the specified position of the map in <em>O(log(n))</em> time.
+	 * @param index the position of the entry
+	 * @return an immutable snapshot of the removed entry
+	 */
+	public Map.Entry<K, V> removeAt(int index) {
+		Map.Entry<K, V> entry = exportEntry(tree.find(index, nodeBuffer));
+		tree.remove(nodeBuffer);
+		modCount++;
+		return entry;
+	}
+
+	/**
+	 * Removes the entries having the positions from {@code fromIndex}, inclusive, to {@code toIndex},
+	 * exclusive, in <em>O(log(n))</em> time: the range is cut out of the tree and the remaining parts
+	 * are concatenated.
+	 * @param fromIndex the position of the first entry to be removed
+	 * @param toIndex the position following the last entry to be removed
+	 */
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > tree.root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (fromIndex == toIndex) {
+			return;
+		}
+
+		Tree prefixTree = new Tree();
+		Tree remainderTree = new Tree();
+		RankedRedBlackTree.split(tree, fromIndex, prefixTree, remainderTree);
+		Tree removedTree = new Tree();
+		Tree suffixTree = new Tree();
+		RankedRedBlackTree.split(remainderTree, toIndex - fromIndex, removedTree, suffixTree);
+		// the nodes of the removed tree are simply dropped
+		RankedRedBlackTree.merge(prefixTree, suffixTree, tree);
+
+		modCount++;
+	}
+
+	/**
+	 * Returns a view of the portion of the map holding the entries having the positions from
+	 * {@code fromIndex}, inclusive, to {@code toIndex}, exclusive. The view is bounded by the keys
+	 * found at these positions at the moment of the call (the view is not bounded from above
+	 * if {@code toIndex} is equal to the size of the map), so it keeps tracking the same key range
+	 * when the map is modified. Iterating over the <em>k</em> entries of the view takes
+	 * <em>O(log(n) + k)</em> time.
+	 * @param fromIndex the position of the first entry of the view
+	 * @param toIndex the position following the last entry of the view
+	 * @return the view of the portion of the map
+	 */
+	@SuppressWarnings("unchecked")
+	public NavigableMap<K, V> subMapByIndex(int fromIndex, int toIndex) {
+		int size = tree.root.getWeight();
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Bound<K> low;
+		if (fromIndex < size) {
+			low = new Bound<>((K)tree.find(fromIndex, null).key, true);
+		} else {
+			low = size == 0 ? null : new Bound<>((K)tree.find(size - 1, null).key, false);
+		}
+		Bound<K> high = toIndex < size ? new Bound<>((K)tree.find(toIndex, null).key, false) : null;
+		return new SubMap(low, high, false);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet(null, null, false);
+	}
+
+	@Override
+	public NavigableSet<K> keySet() {
+		return navigableKeySet();
+	}
+
+	@Override
+	public NavigableSet<K> navigableKeySet() {
+		return new KeySet<>(this);
+	}
+
+	@Override
+	public NavigableSet<K> descendingKeySet() {
+		return new KeySet<>(descendingMap());
+	}
+
+	@Override
+	public Map.Entry<K, V> firstEntry() {
+		return isEmpty() ? null : exportEntry(0);
+	}
+
+	@Override
+	public Map.Entry<K, V> lastEntry() {
+		return isEmpty() ? null : exportEntry(size() - 1);
+	}
+
+	@Override
+	public K firstKey() {
+		return keyAtRank(isEmpty() ? -1 : 0);
+	}
+
+	@Override
+	public K lastKey() {
+		return keyAtRank(size() - 1);
+	}
+
+	@Override
+	public Map.Entry<K, V> pollFirstEntry() {
+		return removeAtRank(isEmpty() ? -1 : 0);
+	}
+
+	@Override
+	public Map.Entry<K, V> pollLastEntry() {
+		return removeAtRank(size() - 1);
+	}
+
+	@Override
+	public Map.Entry<K, V> lowerEntry(K key) {
+		return exportEntry(order.floorRank(key, false, 0, size()));
+	}
+
+	@Override
+	public K lowerKey(K key) {
+		return keyOrNull(lowerEntry(key));
+	}
+
+	@Override
+	public Map.Entry<K, V> floorEntry(K key) {
+		return exportEntry(order.floorRank(key, true, 0, size()));
+	}
+
+	@Override
+	public K floorKey(K key) {
+		return keyOrNull(floorEntry(key));
+	}
+
+	@Override
+	public Map.Entry<K, V> ceilingEntry(K key) {
+		return exportEntry(order.ceilingRank(key, true, 0, size()));
+	}
+
+	@Override
+	public K ceilingKey(K key) {
+		return keyOrNull(ceilingEntry(key));
+	}
+
+	@Override
+	public Map.Entry<K, V> higherEntry(K key) {
+		return exportEntry(order.ceilingRank(key, false, 0, size()));
+	}
+
+	@Override
+	public K higherKey(K key) {
+		return keyOrNull(higherEntry(key));
+	}
+
+	@Override
+	public NavigableMap<K, V> descendingMap() {
+		return new SubMap(null, null, true);
+	}
+
+	@Override
+	public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		order.checkBounds(fromKey, toKey);
+		return new SubMap(new Bound<>(fromKey, fromInclusive), new Bound<>(toKey, toInclusive), false);
+	}
+
+	@Override
+	public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+		order.compare(toKey, toKey);
+		return new SubMap(null, new Bound<>(toKey, inclusive), false);
+	}
+
+	@Override
+	public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+		order.compare(fromKey, fromKey);
+		return new SubMap(new Bound<>(fromKey, inclusive), null, false);
+	}
+
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		return subMap(fromKey, true, toKey, false);
+	}
+
+	@Override
+	public SortedMap<K, V> headMap(K toKey) {
+		return headMap(toKey, false);
+	}
+
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey) {
+		return tailMap(fromKey, true);
+	}
+
+	/**
+	 * Returns the key of an entry.
+	 * @param entry the entry or {@code null}
+	 * @param <Q> the type of the key
+	 * @return the key of the entry or {@code null} if the entry is {@code null}
+	 */
+	private static <Q> Q keyOrNull(Map.Entry<Q, ?> entry) {
+		return entry == null ? null : entry.getKey();
+	}
+
+	/**
+	 * Creates a new black node holding the next entry of the source.
+	 * @param entries the entry source
+	 * @return the new node
+	 */
+	private static Node produceNode(Iterator<? extends Map.Entry<?, ?>> entries) {
+		Map.Entry<?, ?> entry = entries.next();
+		return new Node(BLACK).withEntry(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * Finds the node holding the specified key, optionally storing the path to the node.
+	 * @param key the key to find
+	 * @param path the node buffer to store the path to the node or {@code null}
+	 * @return the node holding the key or {@code null} if the map does not contain the key
+	 */
+	private Node findNode(Object key, RankedRedBlackTree.NodeBuffer<Node> path) {
+		if (path != null) {
+			path.clear();
+		}
+
+		Node current = tree.root;
+		while (current != tree.nil) {
+			if (path != null) {
+				path.add(current);
+			}
+			int comparison = order.compare(key, current.key);
+			if (comparison == 0) {
+				return current;
+			}
+			current = comparison < 0 ? current.getLeft() : current.getRight();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates an immutable snapshot of the entry at the specified position.
+	 * @param rank the position of the entry or {@code -1}
+	 * @return the snapshot of the entry or {@code null} if the position is {@code -1}
+	 */
+	private Map.Entry<K, V> exportEntry(int rank) {
+		return rank < 0 ? null : exportEntry(tree.find(rank, null));
+	}
+
+	/**
+	 * Creates an immutable snapshot of the entry held by a node.
+	 * @param node the node
+	 * @return the snapshot of the entry
+	 */
+	@SuppressWarnings("unchecked")
+	private Map.Entry<K, V> exportEntry(Node node) {
+		return new AbstractMap.SimpleImmutableEntry<>((K)node.key, (V)node.value);
+	}
+
+	/**
+	 * Returns the key at the specified position, which is expected to be the first or the last one of a range.
+	 * @param rank the position of the key or {@code -1} if the range is empty
+	 * @return the key
+	 * @throws NoSuchElementException if the range is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private K keyAtRank(int rank) {
+		if (rank < 0) {
+			throw new NoSuchElementException();
+		}
+		return (K)tree.find(rank, null).key;
+	}
+
+	/**
+	 * Removes the entry at the specified position, which is expected to be the first or the last one of a range.
+	 * @param rank the position of the entry or {@code -1} if the range is empty
+	 * @return the snapshot of the removed entry or {@code null} if the range is empty
+	 */
+	private Map.Entry<K, V> removeAtRank(int rank) {
+		return rank < 0 ? null : removeAt(rank);
+	}
+
+	/**
+	 * Creates an iterator over the nodes of the tree positioned before the node of the specified rank.
+	 * @param rank the rank of the node; may be equal to the size of the map
+	 * @return the new iterator
+	 */
+	private TreeNodeListIterator<Node> nodeIterator(int rank) {
+		RankedRedBlackTree.NodeBuffer<Node> cursor = new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
+		boolean before = true;
+		if (tree.root != tree.nil) {
+			if (rank == tree.root.getWeight()) {
+				before = false;
+				rank--;
+			}
+			tree.find(rank, cursor);
+		}
+		return new TreeNodeListIterator<>(tree, cursor, before);
+	}
+}
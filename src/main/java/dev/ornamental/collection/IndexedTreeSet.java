@@ -0,0 +1,726 @@
+package dev.ornamental.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import dev.ornamental.collection.OrderedKeys.Bound;
+
+/**
+ * This class is a {@link NavigableSet} implementation ordered by a {@link Comparator} (or by the natural
+ * ordering of the elements) and backed by a {@link TreeList} holding the elements in ascending order.
+ * Since the underlying tree is an order-statistic one, besides the {@link NavigableSet} operations
+ * running in <em>O(log(n))</em> time, the set provides the positional queries: the {@link #rank(Object)}
+ * of an element, the element of a given rank ({@link #get(int)}) and the sizes of the ranges
+ * ({@link #headSetSize(Object, boolean)}; the {@code size()} of any range view) in <em>O(log(n))</em> time.
+ * A set may be bulk-loaded from sorted input in <em>O(n)</em> time (see {@link #IndexedTreeSet(SortedSet)}
+ * and {@link #fromSorted(Collection, Comparator)}).<br>
+ * An instance created by {@link #multiset(Comparator)} allows duplicates (i.e., the elements equal
+ * according to the comparator): each occurrence counts towards the size of the set, the rank queries
+ * and the views, the new occurrence of an element is placed after the existing ones, and
+ * {@link #remove(Object)} removes a single occurrence. Such an instance violates the general contract
+ * of {@link java.util.Set}.<br>
+ * The range views returned by the {@link #subSet(Object, boolean, Object, boolean)},
+ * {@link #headSet(Object, boolean)}, {@link #tailSet(Object, boolean)} and {@link #descendingSet()}
+ * methods are backed by the set; their positional bounds are recomputed on each operation, so
+ * any operation of a view runs in <em>O(log(n))</em> time except for iteration.
+ * @param <E> the type of elements maintained by the set
+ */
+public class IndexedTreeSet<E> extends AbstractSet<E> implements NavigableSet<E> {
+
+	/**
+	 * This class is a range view of the set, ascending or descending.
+	 * The bounds of the view are always expressed in the ascending order of the backing set.
+	 */
+	private final class SubSet extends AbstractSet<E> implements NavigableSet<E> {
+
+		/**
+		 * The lower bound of the range or {@code null} if the range is not bounded from below
+		 */
+		private final Bound<E> low;
+
+		/**
+		 * The upper bound of the range or {@code null} if the range is not bounded from above
+		 */
+		private final Bound<E> high;
+
+		/**
+		 * The flag showing if the view iterates over the range in descending order
+		 */
+		private final boolean descending;
+
+		/**
+		 * Creates a new range view of the set.
+		 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+		 * @param high the upper bound of the range or {@code null} if the range is not bounded from above
+		 * @param descending the flag showing if the view is descending
+		 */
+		public SubSet(Bound<E> low, Bound<E> high, boolean descending) {
+			this.low = low;
+			this.high = high;
+			this.descending = descending;
+		}
+
+		@Override
+		public Comparator<? super E> comparator() {
+			return descending ? Collections.reverseOrder(order.comparator()) : order.comparator();
+		}
+
+		@Override
+		public int size() {
+			return end() - start();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return end() == start();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return inRange(o) && IndexedTreeSet.this.contains(o);
+		}
+
+		@Override
+		public boolean add(E e) {
+			if (!inRange(e)) {
+				throw new IllegalArgumentException("The element is out of the range of the view.");
+			}
+			return IndexedTreeSet.this.add(e);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return inRange(o) && IndexedTreeSet.this.remove(o);
+		}
+
+		/**
+		 * Removes all the elements of the range in <em>O(log(n))</em> time.
+		 */
+		@Override
+		public void clear() {
+			elements.subList(start(), end()).clear();
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new RangeIterator(start(), end(), descending);
+		}
+
+		@Override
+		public Iterator<E> descendingIterator() {
+			return new RangeIterator(start(), end(), !descending);
+		}
+
+		@Override
+		public E first() {
+			return descending ? lastElement() : firstElement();
+		}
+
+		@Override
+		public E last() {
+			return descending ? firstElement() : lastElement();
+		}
+
+		@Override
+		public E lower(E e) {
+			return descending ? ceilingInRange(e, false, start(), end()) : floorInRange(e, false, start(), end());
+		}
+
+		@Override
+		public E floor(E e) {
+			return descending ? ceilingInRange(e, true, start(), end()) : floorInRange(e, true, start(), end());
+		}
+
+		@Override
+		public E ceiling(E e) {
+			return descending ? floorInRange(e, true, start(), end()) : ceilingInRange(e, true, start(), end());
+		}
+
+		@Override
+		public E higher(E e) {
+			return descending ? floorInRange(e, false, start(), end()) : ceilingInRange(e, false, start(), end());
+		}
+
+		@Override
+		public E pollFirst() {
+			return isEmpty() ? null : elements.remove(descending ? end() - 1 : start());
+		}
+
+		@Override
+		public E pollLast() {
+			return isEmpty() ? null : elements.remove(descending ? start() : end() - 1);
+		}
+
+		@Override
+		public NavigableSet<E> descendingSet() {
+			return new SubSet(low, high, !descending);
+		}
+
+		@Override
+		public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+			if (descending) {
+				order.checkBounds(toElement, fromElement);
+				return new SubSet(
+					checkBound(new Bound<>(toElement, toInclusive)),
+					checkBound(new Bound<>(fromElement, fromInclusive)), true);
+			}
+
+			order.checkBounds(fromElement, toElement);
+			return new SubSet(
+				checkBound(new Bound<>(fromElement, fromInclusive)),
+				checkBound(new Bound<>(toElement, toInclusive)), false);
+		}
+
+		@Override
+		public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+			Bound<E> bound = checkBound(new Bound<>(toElement, inclusive));
+			return descending ? new SubSet(bound, high, true) : new SubSet(low, bound, false);
+		}
+
+		@Override
+		public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+			Bound<E> bound = checkBound(new Bound<>(fromElement, inclusive));
+			return descending ? new SubSet(low, bound, true) : new SubSet(bound, high, false);
+		}
+
+		@Override
+		public SortedSet<E> subSet(E fromElement, E toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		@Override
+		public SortedSet<E> headSet(E toElement) {
+			return headSet(toElement, false);
+		}
+
+		@Override
+		public SortedSet<E> tailSet(E fromElement) {
+			return tailSet(fromElement, true);
+		}
+
+		/**
+		 * Returns the least element of the range.
+		 * @return the least element of the range
+		 * @throws NoSuchElementException if the range is empty
+		 */
+		private E firstElement() {
+			int start = start();
+			if (start == end()) {
+				throw new NoSuchElementException();
+			}
+			return elements.get(start);
+		}
+
+		/**
+		 * Returns the greatest element of the range.
+		 * @return the greatest element of the range
+		 * @throws NoSuchElementException if the range is empty
+		 */
+		private E lastElement() {
+			int end = end();
+			if (start() == end) {
+				throw new NoSuchElementException();
+			}
+			return elements.get(end - 1);
+		}
+
+		/**
+		 * Returns the rank in the backing set of the first element of the range.
+		 * @return the rank of the first element of the range
+		 */
+		private int start() {
+			return order.startRank(low);
+		}
+
+		/**
+		 * Returns the rank in the backing set following the last element of the range.
+		 * @return the rank following the last element of the range
+		 */
+		private int end() {
+			return order.endRank(low, high);
+		}
+
+		/**
+		 * Checks if an element lies within the bounds of the view.
+		 * @param o the element to check
+		 * @return {@code true} if and only if the element lies within the range
+		 */
+		private boolean inRange(Object o) {
+			return order.inRange(o, low, high);
+		}
+
+		/**
+		 * Makes sure a bound of a nested view does not extend the range of this view.
+		 * @param bound the bound of the nested view
+		 * @return the bound
+		 */
+		private Bound<E> checkBound(Bound<E> bound) {
+			return order.checkNestedBound(bound, low, high);
+		}
+	}
+
+	/**
+	 * This class is an iterator over a range of ranks of the set.
+	 */
+	private final class RangeIterator implements Iterator<E> {
+
+		/**
+		 * The underlying iterator over the list of the elements
+		 */
+		private final ListIterator<E> iterator;
+
+		/**
+		 * The flag showing if the iteration runs in descending order
+		 */
+		private final boolean descending;
+
+		/**
+		 * The number of elements not yet returned by the iterator
+		 */
+		private int remaining;
+
+		/**
+		 * Creates a new iterator over the elements having the ranks within the specified range.
+		 * @param from the rank of the first element of the range
+		 * @param to the rank following the last element of the range
+		 * @param descending the flag showing if the iteration runs in descending order
+		 */
+		public RangeIterator(int from, int to, boolean descending) {
+			this.iterator = elements.listIterator(descending ? to : from);
+			this.descending = descending;
+			this.remaining = to - from;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public E next() {
+			if (remaining == 0) {
+				throw new NoSuchElementException();
+			}
+			remaining--;
+			return descending ? iterator.previous() : iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * The list holding the elements of the set in ascending order
+	 */
+	protected final TreeList<E> elements;
+
+	/**
+	 * The ordering of the elements and the rank queries on the tree
+	 */
+	private final OrderedKeys<E, TreeList.Node> order;
+
+	/**
+	 * The flag showing if the set is a multiset, i.e., it allows duplicates
+	 */
+	private final boolean allowsDuplicates;
+
+	/**
+	 * Creates an empty {@link IndexedTreeSet} ordered according to the natural ordering of its elements.
+	 */
+	public IndexedTreeSet() {
+		this((Comparator<? super E>)null);
+	}
+
+	/**
+	 * Creates an empty {@link IndexedTreeSet} ordered according to the specified comparator.
+	 * @param comparator the comparator ordering the set or {@code null} if the natural ordering
+	 * of the elements is to be used
+	 */
+	public IndexedTreeSet(Comparator<? super E> comparator) {
+		this(new TreeList<>(), comparator, false);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link SortedSet} into a new {@link IndexedTreeSet}
+	 * using the same ordering in <em>O(n)</em> time.
+	 * @param source the source set
+	 */
+	public IndexedTreeSet(SortedSet<E> source) {
+		this(new TreeList<>(source), source.comparator(), false);
+	}
+
+	/**
+	 * Creates an {@link IndexedTreeSet} with the specified list of elements.
+	 * @param elements the list holding the elements in ascending order
+	 * @param comparator the comparator ordering the set or {@code null} if the natural ordering is used
+	 * @param allowsDuplicates the flag showing if the set is a multiset
+	 */
+	protected IndexedTreeSet(TreeList<E> elements, Comparator<? super E> comparator, boolean allowsDuplicates) {
+		this.elements = elements;
+		this.order = new OrderedKeys<>(elements.tree, TreeList.Node::getValue, comparator);
+		this.allowsDuplicates = allowsDuplicates;
+	}
+
+	/**
+	 * Creates an empty multiset (see {@link IndexedTreeSet}) ordered according to the specified comparator.
+	 * @param comparator the comparator ordering the multiset or {@code null} if the natural ordering
+	 * of the elements is to be used
+	 * @param <Q> the type of elements maintained by the multiset
+	 * @return the new multiset
+	 */
+	public static <Q> IndexedTreeSet<Q> multiset(Comparator<? super Q> comparator) {
+		return new IndexedTreeSet<>(new TreeList<>(), comparator, true);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} sorted in strictly ascending order
+	 * into a new {@link IndexedTreeSet} in <em>O(n)</em> time.
+	 * @param source the source collection
+	 * @param comparator the comparator ordering the set or {@code null} if the natural ordering
+	 * of the elements is to be used
+	 * @param <Q> the type of elements maintained by the set
+	 * @return the new set
+	 * @throws IllegalArgumentException if the elements are not in strictly ascending order
+	 */
+	public static <Q> IndexedTreeSet<Q> fromSorted(Collection<? extends Q> source, Comparator<? super Q> comparator) {
+		return fromSorted(source, comparator, false);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} sorted in non-descending order
+	 * into a new multiset (see {@link IndexedTreeSet}) in <em>O(n)</em> time.
+	 * @param source the source collection
+	 * @param comparator the comparator ordering the multiset or {@code null} if the natural ordering
+	 * of the elements is to be used
+	 * @param <Q> the type of elements maintained by the multiset
+	 * @return the new multiset
+	 * @throws IllegalArgumentException if the elements are not in non-descending order
+	 */
+	public static <Q> IndexedTreeSet<Q> multisetFromSorted(
+		Collection<? extends Q> source, Comparator<? super Q> comparator) {
+
+		return fromSorted(source, comparator, true);
+	}
+
+	/**
+	 * Returns the flag showing if the set is a multiset, i.e., it allows duplicates.
+	 * @return {@code true} if and only if the set allows duplicates
+	 */
+	public boolean allowsDuplicates() {
+		return allowsDuplicates;
+	}
+
+	@Override
+	public Comparator<? super E> comparator() {
+		return order.comparator();
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return elements.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * Adds the element to the set unless the set already contains it and is not a multiset.
+	 * An occurrence of an element added to a multiset is placed after the equal elements.
+	 * @param e the element to add
+	 * @return {@code true} if the set has been modified
+	 */
+	@Override
+	public boolean add(E e) {
+		if (elements.isEmpty()) {
+			order.compare(e, e); // type (and possibly null) check
+		}
+
+		int rank = order.countLess(e, true);
+		if (!allowsDuplicates && rank > 0 && order.compare(e, elements.get(rank - 1)) == 0) {
+			return false;
+		}
+		elements.add(rank, e);
+		return true;
+	}
+
+	/**
+	 * Removes the element from the set; a multiset loses one occurrence of the element.
+	 * @param o the element to remove
+	 * @return {@code true} if the set has been modified
+	 */
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		elements.remove(index);
+		return true;
+	}
+
+	/**
+	 * Returns the element having the specified rank, i.e., the {@code (index + 1)}-th smallest element,
+	 * in <em>O(log(n))</em> time.
+	 * @param index the rank of the element
+	 * @return the element having the rank
+	 */
+	public E get(int index) {
+		return elements.get(index);
+	}
+
+	/**
+	 * Removes the element having the specified rank in <em>O(log(n))</em> time.
+	 * @param index the rank of the element
+	 * @return the removed element
+	 */
+	public E removeAt(int index) {
+		return elements.remove(index);
+	}
+
+	/**
+	 * Returns the rank of an element, i.e., the number of the elements of the set less than the specified one,
+	 * in <em>O(log(n))</em> time. The element need not belong to the set.
+	 * @param o the element to find the rank of
+	 * @return the rank of the element
+	 */
+	public int rank(Object o) {
+		return order.countLess(o, false);
+	}
+
+	/**
+	 * Returns the rank of the element if the set contains it (of its first occurrence in the case
+	 * of a multiset) in <em>O(log(n))</em> time.
+	 * @param o the element to find
+	 * @return the rank of the element or {@code -1} if the set does not contain it
+	 */
+	public int indexOf(Object o) {
+		int rank = order.countLess(o, false);
+		return rank < elements.size() && order.compare(o, elements.get(rank)) == 0 ? rank : -1;
+	}
+
+	/**
+	 * Returns the number of occurrences of an element in <em>O(log(n))</em> time
+	 * (at most 1 unless the set is a multiset).
+	 * @param o the element to count the occurrences of
+	 * @return the number of occurrences of the element
+	 */
+	public int count(Object o) {
+		return order.countLess(o, true) - order.countLess(o, false);
+	}
+
+	/**
+	 * Returns the number of the elements less than the specified one in <em>O(log(n))</em> time.
+	 * This is the size of {@link #headSet(Object)}.
+	 * @param toElement the upper bound (exclusive) of the counted elements
+	 * @return the number of the elements less than the specified one
+	 */
+	public int headSetSize(E toElement) {
+		return order.countLess(toElement, false);
+	}
+
+	/**
+	 * Returns the number of the elements less than (or equal to, if {@code inclusive} is {@code true})
+	 * the specified one in <em>O(log(n))</em> time. This is the size of {@link #headSet(Object, boolean)}.
+	 * @param toElement the upper bound of the counted elements
+	 * @param inclusive the flag showing if the elements equal to the upper bound are counted
+	 * @return the number of the elements in the range
+	 */
+	public int headSetSize(E toElement, boolean inclusive) {
+		return order.countLess(toElement, inclusive);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new RangeIterator(0, elements.size(), false);
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new RangeIterator(0, elements.size(), true);
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return allowsDuplicates
+			? Spliterators.spliterator(this, Spliterator.ORDERED)
+			: NavigableSet.super.spliterator();
+	}
+
+	@Override
+	public Object[] toArray() {
+		return elements.toArray();
+	}
+
+	@Override
+	public E first() {
+		return elementAt(0);
+	}
+
+	@Override
+	public E last() {
+		return elementAt(elements.size() - 1);
+	}
+
+	@Override
+	public E lower(E e) {
+		return floorInRange(e, false, 0, elements.size());
+	}
+
+	@Override
+	public E floor(E e) {
+		return floorInRange(e, true, 0, elements.size());
+	}
+
+	@Override
+	public E ceiling(E e) {
+		return ceilingInRange(e, true, 0, elements.size());
+	}
+
+	@Override
+	public E higher(E e) {
+		return ceilingInRange(e, false, 0, elements.size());
+	}
+
+	@Override
+	public E pollFirst() {
+		return elements.isEmpty() ? null : elements.remove(0);
+	}
+
+	@Override
+	public E pollLast() {
+		return elements.isEmpty() ? null : elements.remove(elements.size() - 1);
+	}
+
+	@Override
+	public NavigableSet<E> descendingSet() {
+		return new SubSet(null, null, true);
+	}
+
+	@Override
+	public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+		order.checkBounds(fromElement, toElement);
+		return new SubSet(new Bound<>(fromElement, fromInclusive), new Bound<>(toElement, toInclusive), false);
+	}
+
+	@Override
+	public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+		order.compare(toElement, toElement);
+		return new SubSet(null, new Bound<>(toElement, inclusive), false);
+	}
+
+	@Override
+	public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+		order.compare(fromElement, fromElement);
+		return new SubSet(new Bound<>(fromElement, inclusive), null, false);
+	}
+
+	@Override
+	public SortedSet<E> subSet(E fromElement, E toElement) {
+		return subSet(fromElement, true, toElement, false);
+	}
+
+	@Override
+	public SortedSet<E> headSet(E toElement) {
+		return headSet(toElement, false);
+	}
+
+	@Override
+	public SortedSet<E> tailSet(E fromElement) {
+		return tailSet(fromElement, true);
+	}
+
+	/**
+	 * Bulk-loads the sorted elements of the given {@link Collection} into a new set after checking their order.
+	 * @param source the source collection
+	 * @param comparator the comparator ordering the set or {@code null} if the natural ordering is used
+	 * @param allowsDuplicates the flag showing if the set is a multiset
+	 * @param <Q> the type of elements maintained by the set
+	 * @return the new set
+	 */
+	private static <Q> IndexedTreeSet<Q> fromSorted(
+		Collection<? extends Q> source, Comparator<? super Q> comparator, boolean allowsDuplicates) {
+
+		IndexedTreeSet<Q> result = new IndexedTreeSet<>(new TreeList<>(source), comparator, allowsDuplicates);
+		Iterator<? extends Q> iterator = source.iterator();
+		if (iterator.hasNext()) {
+			Q previous = iterator.next();
+			result.order.compare(previous, previous);
+			while (iterator.hasNext()) {
+				Q current = iterator.next();
+				int comparison = result.order.compare(previous, current);
+				if (comparison > 0 || comparison == 0 && !allowsDuplicates) {
+					throw new IllegalArgumentException(String.format(
+						"The source elements are not in %s order.",
+						allowsDuplicates ? "non-descending" : "strictly ascending"));
+				}
+				previous = current;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the greatest element less than (or, optionally, equal to) the specified one
+	 * among the elements having the ranks within the specified range.
+	 * @param e the element to search for
+	 * @param inclusive the flag showing if an element equal to the specified one may be returned
+	 * @param from the rank of the first element of the range
+	 * @param to the rank following the last element of the range
+	 * @return the found element or {@code null} if there is no such element
+	 */
+	private E floorInRange(E e, boolean inclusive, int from, int to) {
+		int rank = order.floorRank(e, inclusive, from, to);
+		return rank >= 0 ? elements.get(rank) : null;
+	}
+
+	/**
+	 * Returns the least element greater than (or, optionally, equal to) the specified one
+	 * among the elements having the ranks within the specified range.
+	 * @param e the element to search for
+	 * @param inclusive the flag showing if an element equal to the specified one may be returned
+	 * @param from the rank of the first element of the range
+	 * @param to the rank following the last element of the range
+	 * @return the found element or {@code null} if there is no such element
+	 */
+	private E ceilingInRange(E e, boolean inclusive, int from, int to) {
+		int rank = order.ceilingRank(e, inclusive, from, to);
+		return rank >= 0 ? elements.get(rank) : null;
+	}
+
+	/**
+	 * Returns the element having the specified rank, which is expected to be the first or the last one.
+	 * @param rank the rank of the element
+	 * @return the element
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	private E elementAt(int rank) {
+		if (rank < 0 || rank >= elements.size()) {
+			throw new NoSuchElementException();
+		}
+		return elements.get(rank);
+	}
+}
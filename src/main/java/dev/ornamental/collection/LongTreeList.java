@@ -0,0 +1,311 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a random access {@link java.util.List} implementation storing {@code long} values
+ * without boxing them; it provides the same time complexities as {@link TreeList} does.<br>
+ * Apart from the {@link java.util.List} methods operating on boxed values, it provides their
+ * unboxed counterparts: {@link #getLong(int)}, {@link #setLong(int, long)}, {@link #addLong(long)},
+ * {@link #addLong(int, long)}, {@link #removeLong(int)}, the primitive iterator and spliterator, and the
+ * <em>O(n)</em> bulk-loading from {@code long[]} arrays and {@link LongStream} instances.
+ */
+public class LongTreeList extends AbstractPrimitiveTreeList<Long, LongTreeList.Node> {
+
+	/**
+	 * This is the node class used by {@link LongTreeList}.
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The value held by the node
+		 */
+		private long value;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the value held by the node.
+		 * @return the node's value
+		 */
+		public long getValue() {
+			return value;
+		}
+
+		/**
+		 * Replaces the value of the node.
+		 * @param value the new value
+		 * @return this node
+		 */
+		public Node withValue(long value) {
+			this.value = value;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			value = ((Node)source).value;
+		}
+
+		@Override
+		public void dropPayload() {
+			// the primitive value does not prevent any objects from being GC-ed
+		}
+	}
+
+	/**
+	 * This class implements a {@link PrimitiveIterator.OfLong} over the values stored by the list.
+	 */
+	protected class LongIteratorImpl extends PrimitiveIteratorBase implements PrimitiveIterator.OfLong {
+
+		/**
+		 * Creates a new iterator based on the supplied tree node iterator.
+		 * @param nodeListIterator the underlying list iterator over the nodes of a tree
+		 */
+		public LongIteratorImpl(TreeNodeListIterator<Node> nodeListIterator) {
+			super(nodeListIterator);
+		}
+
+		@Override
+		public long nextLong() {
+			return nextNode().value;
+		}
+	}
+
+	/**
+	 * This class is a {@link Spliterator.OfLong} implementation for the tree-based list.
+	 */
+	protected class SpliteratorImpl extends PrimitiveSpliteratorBase implements Spliterator.OfLong {
+
+		/**
+		 * Creates a spliterator based on the specified node pseudo-spliterator.
+		 * @param nodeSpliterator the underlying node pseudo-spliterator
+		 * @param expectedModCount the last tree modification identifier
+		 */
+		public SpliteratorImpl(TreeNodeSpliteratorPrototype<Node> nodeSpliterator, int expectedModCount) {
+			super(nodeSpliterator, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			Node node = tryAdvanceNode();
+			if (node != null) {
+				action.accept(node.value);
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public Spliterator.OfLong trySplit() {
+			TreeNodeSpliteratorPrototype<Node> prefixSpliterator = trySplitNodes();
+			return prefixSpliterator == null
+				? null : new SpliteratorImpl(prefixSpliterator, expectedModCount);
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link LongTreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * Creates an empty {@link LongTreeList} instance.
+	 */
+	public LongTreeList() {
+		super(new Tree<>(COMMON_NIL, Node::new));
+	}
+
+	/**
+	 * Bulk-loads the elements of the given array into a new {@link LongTreeList} in <em>O(n)</em> time.
+	 * @param values the source array
+	 */
+	public LongTreeList(long[] values) {
+		this();
+		PrimitiveIterator.OfLong source = Arrays.stream(values).iterator();
+		load(() -> new Node(BLACK).withValue(source.nextLong()), values.length);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link LongTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection; must not contain {@code null} elements
+	 */
+	public LongTreeList(Collection<? extends Long> source) {
+		this();
+		Iterator<? extends Long> values = source.iterator();
+		load(() -> new Node(BLACK).withValue(values.next()), source.size());
+	}
+
+	/**
+	 * Creates a {@link LongTreeList} with the specified underlying tree.
+	 * @param tree the backing tree for the new list
+	 */
+	protected LongTreeList(Tree<Node> tree) {
+		super(tree);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given stream into a new {@link LongTreeList} in <em>O(n)</em> time.
+	 * The elements of a stream of a known size are loaded into the tree directly; as the shape
+	 * of the tree depends on the number of the elements, a stream of an unknown size is first
+	 * collected to an array.
+	 * @param values the source stream
+	 * @return the new list containing the stream elements in the encounter order
+	 */
+	public static LongTreeList of(LongStream values) {
+		Spliterator.OfLong source = values.spliterator();
+		if (!source.hasCharacteristics(Spliterator.SIZED)) {
+			return new LongTreeList(StreamSupport.longStream(source, false).toArray());
+		}
+
+		LongTreeList result = new LongTreeList();
+		PrimitiveIterator.OfLong iterator = Spliterators.iterator(source);
+		result.load(() -> new Node(BLACK).withValue(iterator.nextLong()), sizeOf(source));
+		return result;
+	}
+
+	/**
+	 * Returns the value at the specified position of the list without boxing it.
+	 * @param index the index of the value
+	 * @return the value at the specified position
+	 */
+	public long getLong(int index) {
+		return findNode(index).value;
+	}
+
+	/**
+	 * Replaces the value at the specified position of the list.
+	 * @param index the index of the value
+	 * @param value the new value
+	 * @return the previous value at the specified position
+	 */
+	public long setLong(int index, long value) {
+		Node node = findNode(index);
+		long oldValue = node.value;
+		node.value = value;
+		return oldValue;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 * @param value the value to append
+	 */
+	public void addLong(long value) {
+		insertNode(size(), new Node(RED).withValue(value));
+	}
+
+	/**
+	 * Inserts a value into the specified position of the list.
+	 * @param index the index of the new value
+	 * @param value the value to insert
+	 */
+	public void addLong(int index, long value) {
+		insertNode(index, new Node(RED).withValue(value));
+	}
+
+	/**
+	 * Removes the value at the specified position of the list.
+	 * @param index the index of the value to remove
+	 * @return the removed value
+	 */
+	public long removeLong(int index) {
+		long value = findNodeForRemoval(index).value;
+		removeFoundNode();
+		return value;
+	}
+
+	/**
+	 * Returns an iterator over the values of the list which does not box them.
+	 * @return the primitive iterator over the values of the list
+	 */
+	public PrimitiveIterator.OfLong longIterator() {
+		return new LongIteratorImpl(nodeListIterator(0));
+	}
+
+	@Override
+	public Spliterator.OfLong spliterator() {
+		TreeNodeSpliteratorPrototype<Node> nodeSpliterator = nodeSpliterator();
+		return nodeSpliterator == null
+			? Spliterators.emptyLongSpliterator() : new SpliteratorImpl(nodeSpliterator, modCount);
+	}
+
+	/**
+	 * Returns a sequential stream of the values of the list.
+	 * @return the stream of the values of the list
+	 */
+	public LongStream longStream() {
+		return StreamSupport.longStream(spliterator(), false);
+	}
+
+	/**
+	 * Copies the values of the list to a new array.
+	 * @return the array containing the values of the list in the list order
+	 */
+	public long[] toLongArray() {
+		long[] result = new long[size()];
+		PrimitiveIterator.OfLong values = longIterator();
+		for (int i = 0; i < result.length; i++) {
+			result[i] = values.nextLong();
+		}
+		return result;
+	}
+
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list.
+	 * @param index the index of the first element to be moved to the returned list
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public LongTreeList split(int index) {
+		return new LongTreeList((Tree<Node>)splitTree(index));
+	}
+
+	/**
+	 * Concatenates two different {@link LongTreeList} instances in
+	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists.
+	 * Both original lists are cleared.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static LongTreeList concat(LongTreeList prefix, LongTreeList suffix) {
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+		LongTreeList result = new LongTreeList();
+		result.append(prefix);
+		result.append(suffix);
+		return result;
+	}
+
+	@Override
+	protected Long getValue(Node node) {
+		return node.value;
+	}
+
+	@Override
+	protected void setValue(Node node, Long value) {
+		node.value = value;
+	}
+}
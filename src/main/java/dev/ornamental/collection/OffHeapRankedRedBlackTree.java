@@ -0,0 +1,382 @@
+package dev.ornamental.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class represents a red-black tree storing a subtree size with each node, having the same
+ * semantics as {@link RankedRedBlackTree}, but storing its nodes as fixed-width slots of direct
+ * {@link ByteBuffer} chunks outside of the Java heap. Each slot holds the child node indices,
+ * the marker of the node and the binary record produced by a {@link RecordCodec}.
+ * The slots of the removed nodes are linked into a free slot list and reused by the subsequent insertions.
+ * @param <T> the type of values stored by the tree
+ */
+final class OffHeapRankedRedBlackTree<T> extends SlotRankedRedBlackTree {
+
+	/**
+	 * The maximum record size for which a chunk still fits into a single buffer
+	 */
+	public static final int MAX_RECORD_SIZE =
+		(Integer.MAX_VALUE >> OffHeapRankedRedBlackTree.CHUNK_SHIFT) - OffHeapRankedRedBlackTree.RECORD_OFFSET;
+
+	/**
+	 * The binary logarithm of the number of slots in a chunk
+	 */
+	private static final int CHUNK_SHIFT = 12;
+
+	/**
+	 * The number of slots in a chunk
+	 */
+	private static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+
+	/**
+	 * The offset of the left child index within a slot
+	 */
+	private static final int LEFT_OFFSET = 0;
+
+	/**
+	 * The offset of the right child index within a slot
+	 */
+	private static final int RIGHT_OFFSET = 4;
+
+	/**
+	 * The offset of the marker within a slot
+	 */
+	private static final int MARKER_OFFSET = 8;
+
+	/**
+	 * The offset of the record within a slot
+	 */
+	private static final int RECORD_OFFSET = 12;
+
+	/**
+	 * The codec converting the values to records and back
+	 */
+	private final RecordCodec<T> codec;
+
+	/**
+	 * The size of the record in bytes
+	 */
+	private final int recordSize;
+
+	/**
+	 * The size of the slot in bytes
+	 */
+	private final int slotSize;
+
+	/**
+	 * The direct buffers holding the slots; {@code null} after the tree is closed
+	 */
+	private ByteBuffer[] chunks;
+
+	/**
+	 * The index of the first free slot, or {@link #NIL} if all the slots below {@link #usedSlots} are occupied
+	 */
+	private int freeSlot = NIL;
+
+	/**
+	 * The number of slots ever occupied, including the {@link #NIL} one
+	 */
+	private int usedSlots;
+
+	/**
+	 * Creates a new empty tree.
+	 * @param codec the codec converting the values to fixed-width records and back
+	 */
+	public OffHeapRankedRedBlackTree(RecordCodec<T> codec) {
+		int size = codec.recordSize();
+		if (size < 0 || size > MAX_RECORD_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The record size must be in the range [0; %s], but is %s.", MAX_RECORD_SIZE, size));
+		}
+
+		this.codec = codec;
+		this.recordSize = size;
+		this.slotSize = RECORD_OFFSET + size;
+		resetStorage(0);
+	}
+
+	/**
+	 * Returns the value of the node having the specified rank.
+	 * @param rank the rank of the node
+	 * @return the value of the node
+	 */
+	public T get(int rank) {
+		checkOpen();
+		return read(find(rank));
+	}
+
+	/**
+	 * Replaces the value of the node having the specified rank.
+	 * @param rank the rank of the node
+	 * @param value the new value of the node
+	 * @return the previous value of the node
+	 */
+	public T set(int rank, T value) {
+		checkOpen();
+		int node = find(rank);
+		T oldValue = read(node);
+		write(node, value);
+		return oldValue;
+	}
+
+	/**
+	 * Inserts a new node so that it has the specified rank.
+	 * @param rank the rank of the new node
+	 * @param value the value of the new node
+	 */
+	public void insert(int rank, T value) {
+		checkOpen();
+		int node = newNode();
+		try {
+			write(node, value);
+		} catch (RuntimeException e) {
+			releaseSlot(node);
+			throw e;
+		}
+		insert(rank, node);
+	}
+
+	/**
+	 * Removes the node having the specified rank.
+	 * @param rank the rank of the node to remove
+	 * @return the value of the removed node
+	 */
+	public T remove(int rank) {
+		checkOpen();
+		int node = unlink(rank);
+		T value = read(node);
+		releaseSlot(node);
+		return value;
+	}
+
+	/**
+	 * Replaces the contents of the tree with the given number of iterator elements
+	 * in <em>O(n)</em> time so that any two of its leave nodes have depths differing by no more than 1.
+	 * @param source the value source
+	 * @param length the number of elements to fetch from the source
+	 */
+	public void load(Iterator<? extends T> source, int length) {
+		checkOpen();
+		load(node -> write(node, source.next()), length);
+	}
+
+	/**
+	 * Returns an iterator over the values of the nodes starting from the specified rank.
+	 * The iterator does not detect any modifications of the tree.
+	 * @param rank the rank of the first node to be visited
+	 * @return the in-order iterator over the node values
+	 */
+	public Iterator<T> valueIterator(int rank) {
+		checkOpen();
+		PrimitiveIterator.OfInt nodes = iterator(rank);
+		return new Iterator<T>() {
+
+			@Override
+			public boolean hasNext() {
+				return nodes.hasNext();
+			}
+
+			@Override
+			public T next() {
+				checkOpen();
+				return read(nodes.nextInt());
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of bytes of direct memory held by the tree.
+	 * @return the number of bytes of direct memory held by the tree
+	 */
+	public long getCapacity() {
+		int chunkCount = 0;
+		if (chunks != null) {
+			while (chunkCount < chunks.length && chunks[chunkCount] != null) {
+				chunkCount++;
+			}
+		}
+		return (long)chunkCount * CHUNK_SLOTS * slotSize;
+	}
+
+	/**
+	 * Drops the references to all the chunks so that the direct memory they occupy can be reclaimed.
+	 * Any subsequent access to the values of the tree results in an {@link IllegalStateException}.
+	 */
+	public void close() {
+		chunks = null;
+		usedSlots = 0;
+		freeSlot = NIL;
+	}
+
+	/**
+	 * Determines if the tree is closed.
+	 * @return {@code true} if the tree has been closed, {@code false} otherwise
+	 */
+	public boolean isClosed() {
+		return chunks == null;
+	}
+
+	/**
+	 * Returns the number of nodes in the tree.
+	 * @return the number of nodes in the tree
+	 */
+	@Override
+	public int size() {
+		checkOpen();
+		return super.size();
+	}
+
+	/**
+	 * Removes all the nodes from the tree.
+	 */
+	@Override
+	public void clear() {
+		checkOpen();
+		super.clear();
+	}
+
+	@Override
+	public void releaseSlot(int slot) {
+		setLeft(slot, freeSlot);
+		freeSlot = slot;
+	}
+
+	@Override
+	protected int getLeft(int node) {
+		return chunk(node).getInt(offset(node) + LEFT_OFFSET);
+	}
+
+	@Override
+	protected void setLeft(int node, int child) {
+		chunk(node).putInt(offset(node) + LEFT_OFFSET, child);
+	}
+
+	@Override
+	protected int getRight(int node) {
+		return chunk(node).getInt(offset(node) + RIGHT_OFFSET);
+	}
+
+	@Override
+	protected void setRight(int node, int child) {
+		chunk(node).putInt(offset(node) + RIGHT_OFFSET, child);
+	}
+
+	@Override
+	protected int getMarker(int node) {
+		return chunk(node).getInt(offset(node) + MARKER_OFFSET);
+	}
+
+	@Override
+	protected void setMarker(int node, int marker) {
+		chunk(node).putInt(offset(node) + MARKER_OFFSET, marker);
+	}
+
+	@Override
+	protected int allocateSlot() {
+		int slot;
+		if (freeSlot != NIL) {
+			slot = freeSlot;
+			freeSlot = getLeft(slot);
+		} else {
+			int chunkIndex = usedSlots >>> CHUNK_SHIFT;
+			if (chunkIndex == chunks.length) {
+				chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+			}
+			if (chunks[chunkIndex] == null) {
+				chunks[chunkIndex] = allocateChunk();
+			}
+			slot = usedSlots++;
+		}
+		return slot;
+	}
+
+	@Override
+	protected void swapPayloads(int first, int second) {
+		ByteBuffer firstChunk = chunk(first);
+		ByteBuffer secondChunk = chunk(second);
+		int firstOffset = offset(first) + RECORD_OFFSET;
+		int secondOffset = offset(second) + RECORD_OFFSET;
+		int i = 0;
+		for (; i + Long.BYTES <= recordSize; i += Long.BYTES) {
+			long value = firstChunk.getLong(firstOffset + i);
+			firstChunk.putLong(firstOffset + i, secondChunk.getLong(secondOffset + i));
+			secondChunk.putLong(secondOffset + i, value);
+		}
+		for (; i < recordSize; i++) {
+			byte value = firstChunk.get(firstOffset + i);
+			firstChunk.put(firstOffset + i, secondChunk.get(secondOffset + i));
+			secondChunk.put(secondOffset + i, value);
+		}
+	}
+
+	@Override
+	protected void resetStorage(int expectedSize) {
+		// the first chunk is retained, all the other ones are dropped
+		ByteBuffer first = chunks == null ? allocateChunk() : chunks[0];
+		chunks = new ByteBuffer[Math.max(1, Integer.highestOneBit(expectedSize >>> CHUNK_SHIFT) << 1)];
+		chunks[0] = first;
+		setLeft(NIL, NIL);
+		setRight(NIL, NIL);
+		setMarker(NIL, NIL_MARKER);
+		usedSlots = 1;
+		freeSlot = NIL;
+	}
+
+	/**
+	 * Ensures that the tree has not been closed.
+	 * @throws IllegalStateException if the tree has been closed
+	 */
+	private void checkOpen() {
+		if (chunks == null) {
+			throw new IllegalStateException("The tree has been closed.");
+		}
+	}
+
+	/**
+	 * Decodes the record of a node.
+	 * @param node the index of the node
+	 * @return the value of the node
+	 */
+	private T read(int node) {
+		return codec.decode(chunk(node), offset(node) + RECORD_OFFSET);
+	}
+
+	/**
+	 * Encodes a value into the record of a node.
+	 * @param node the index of the node
+	 * @param value the new value of the node
+	 */
+	private void write(int node, T value) {
+		codec.encode(value, chunk(node), offset(node) + RECORD_OFFSET);
+	}
+
+	/**
+	 * Returns the chunk holding a slot.
+	 * @param slot the index of the slot
+	 * @return the chunk holding the slot
+	 */
+	private ByteBuffer chunk(int slot) {
+		return chunks[slot >>> CHUNK_SHIFT];
+	}
+
+	/**
+	 * Returns the offset of a slot within its chunk.
+	 * @param slot the index of the slot
+	 * @return the offset of the first byte of the slot
+	 */
+	private int offset(int slot) {
+		return (slot & (CHUNK_SLOTS - 1)) * slotSize;
+	}
+
+	/**
+	 * Allocates a new direct buffer for a chunk of slots.
+	 * @return the new chunk
+	 */
+	private ByteBuffer allocateChunk() {
+		return ByteBuffer.allocateDirect(CHUNK_SLOTS * slotSize).order(ByteOrder.nativeOrder());
+	}
+}
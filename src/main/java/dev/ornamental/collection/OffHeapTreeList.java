@@ -0,0 +1,219 @@
+package dev.ornamental.collection;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+/**
+ * This class is a random access {@link java.util.List} implementation having the same time complexities
+ * of the single-element operations as {@link TreeList}, but keeping its elements outside of the Java heap.
+ * The nodes of the backing {@link OffHeapRankedRedBlackTree} are fixed-width slots of direct
+ * {@link java.nio.ByteBuffer} chunks, each holding the child node indices, the colour and weight marker
+ * and the element encoded as a binary record by a {@link RecordCodec}. Thus a list of any size consists
+ * of a handful of heap objects, which is suitable for large lists of fixed-size records such as identifiers,
+ * offsets or timestamps.<br>
+ * The elements are decoded anew on each access, so the list holds no references to them: storing an element
+ * and getting it back yields an equal but generally not the same object.<br>
+ * The list must be {@link #close() closed} when no longer needed. Closing the list drops its
+ * references to the direct buffers so that their memory is reclaimed as soon as the buffers
+ * are garbage collected; any operation on a closed list throws {@link IllegalStateException}.
+ * @param <T> the type of values stored by the list
+ */
+public class OffHeapTreeList<T> extends AbstractList<T> implements AutoCloseable {
+
+	/**
+	 * The codec converting the elements to records and back
+	 */
+	protected final RecordCodec<T> codec;
+
+	/**
+	 * The underlying off-heap ranked red-black tree
+	 */
+	protected final OffHeapRankedRedBlackTree<T> tree;
+
+	/**
+	 * Creates an empty {@link OffHeapTreeList} instance.
+	 * @param codec the codec converting the elements to fixed-width records and back
+	 */
+	public OffHeapTreeList(RecordCodec<T> codec) {
+		this.codec = codec;
+		this.tree = new OffHeapRankedRedBlackTree<>(codec);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link OffHeapTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param codec the codec converting the elements to fixed-width records and back
+	 * @param source the source collection
+	 */
+	public OffHeapTreeList(RecordCodec<T> codec, Collection<? extends T> source) {
+		this(codec);
+		int size = source.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		tree.load(source.iterator(), size);
+	}
+
+	/**
+	 * Creates a new {@link OffHeapTreeList} holding the elements of the first list followed
+	 * by the elements of the second one, in <em>O(n<sub>1</sub> + n<sub>2</sub>)</em> time.
+	 * The records are copied to the storage of the new list as the storages of the lists cannot be shared;
+	 * both the source lists are closed afterwards.
+	 * @param first the first source list
+	 * @param second the second source list
+	 * @param <Q> the type of values stored by the lists
+	 * @return the new list holding the elements of both the source lists
+	 */
+	public static <Q> OffHeapTreeList<Q> concat(OffHeapTreeList<Q> first, OffHeapTreeList<Q> second) {
+		if (first == second) {
+			throw new IllegalArgumentException("The lists to concatenate must be distinct.");
+		}
+		first.checkOpen();
+		second.checkOpen();
+		long size = (long)first.size() + second.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The concatenation result must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		OffHeapTreeList<Q> result = new OffHeapTreeList<>(first.codec);
+		Iterator<Q> firstValues = first.tree.valueIterator(0);
+		Iterator<Q> secondValues = second.tree.valueIterator(0);
+		result.tree.load(new Iterator<Q>() {
+
+			@Override
+			public boolean hasNext() {
+				return firstValues.hasNext() || secondValues.hasNext();
+			}
+
+			@Override
+			public Q next() {
+				return firstValues.hasNext() ? firstValues.next() : secondValues.next();
+			}
+		}, (int)size);
+
+		first.close();
+		second.close();
+		return result;
+	}
+
+	@Override
+	public T get(int index) {
+		checkOpen();
+		return tree.get(index);
+	}
+
+	@Override
+	public T set(int index, T element) {
+		checkOpen();
+		return tree.set(index, element);
+	}
+
+	@Override
+	public void add(int index, T element) {
+		checkOpen();
+		tree.insert(index, element);
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		checkOpen();
+		T value = tree.remove(index);
+		modCount++;
+		return value;
+	}
+
+	@Override
+	public int size() {
+		checkOpen();
+		return tree.size();
+	}
+
+	@Override
+	public void clear() {
+		checkOpen();
+		tree.clear();
+		modCount++;
+	}
+
+	/**
+	 * Releases the off-heap storage of the list. Subsequent invocations have no effect.
+	 */
+	@Override
+	public void close() {
+		if (!tree.isClosed()) {
+			tree.close();
+			modCount++;
+		}
+	}
+
+	/**
+	 * Determines if the list is closed.
+	 * @return {@code true} if the list has been closed, {@code false} otherwise
+	 */
+	public boolean isClosed() {
+		return tree.isClosed();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		checkOpen();
+		return new Iterator<T>() {
+
+			private Iterator<T> values = tree.valueIterator(0);
+
+			private int nextIndex = 0;
+
+			private boolean removalPossible = false;
+
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return values.hasNext();
+			}
+
+			@Override
+			public T next() {
+				checkModCount();
+				T value = values.next();
+				nextIndex++;
+				removalPossible = true;
+				return value;
+			}
+
+			@Override
+			public void remove() {
+				checkModCount();
+				if (!removalPossible) {
+					throw new IllegalStateException();
+				}
+
+				OffHeapTreeList.this.remove(--nextIndex);
+				values = tree.valueIterator(nextIndex); // the removal may have restructured the tree
+				removalPossible = false;
+				expectedModCount = modCount;
+			}
+
+			private void checkModCount() {
+				if (expectedModCount != modCount) {
+					throw new ConcurrentModificationException();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Ensures the list has not been closed.
+	 */
+	private void checkOpen() {
+		if (tree.isClosed()) {
+			throw new IllegalStateException("The list has been closed.");
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package dev.ornamental.collection;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * This class implements the key comparisons and the rank queries shared by the sorted collections
+ * holding their keys in ascending order in a {@link RankedRedBlackTree} ({@link IndexedTreeSet}
+ * and {@link IndexedTreeMap}), including the bounds checks and the positional bounds of their range views.
+ * @param <K> the type of the keys
+ * @param <N> the type of the tree nodes
+ */
+final class OrderedKeys<K, N extends WeightedNode<N>> {
+
+	/**
+	 * This class is a bound of a range view of a sorted collection.
+	 * @param <K> the type of the bounding key
+	 */
+	static final class Bound<K> {
+
+		/**
+		 * The bounding key
+		 */
+		private final K key;
+
+		/**
+		 * The flag showing if the bounding key itself belongs to the range
+		 */
+		private final boolean inclusive;
+
+		/**
+		 * Creates a new range bound.
+		 * @param key the bounding key
+		 * @param inclusive the flag showing if the bounding key belongs to the range
+		 */
+		Bound(K key, boolean inclusive) {
+			this.key = key;
+			this.inclusive = inclusive;
+		}
+	}
+
+	/**
+	 * The tree holding the keys in ascending order
+	 */
+	private final RankedRedBlackTree<N> tree;
+
+	/**
+	 * The function extracting the key from a tree node
+	 */
+	private final Function<N, Object> keyOf;
+
+	/**
+	 * The comparator ordering the keys or {@code null} if the natural ordering is used
+	 */
+	private final Comparator<? super K> comparator;
+
+	/**
+	 * Creates the key operations of a sorted collection.
+	 * @param tree the tree holding the keys in ascending order
+	 * @param keyOf the function extracting the key from a tree node
+	 * @param comparator the comparator ordering the keys or {@code null} if the natural ordering is used
+	 */
+	OrderedKeys(RankedRedBlackTree<N> tree, Function<N, Object> keyOf, Comparator<? super K> comparator) {
+		this.tree = tree;
+		this.keyOf = keyOf;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns the comparator ordering the keys.
+	 * @return the comparator or {@code null} if the natural ordering is used
+	 */
+	Comparator<? super K> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Compares two keys using the comparator or the natural ordering.
+	 * @param a the first key
+	 * @param b the second key
+	 * @return the result of the comparison
+	 */
+	@SuppressWarnings("unchecked")
+	int compare(Object a, Object b) {
+		return comparator == null
+			? ((Comparable<Object>)a).compareTo(b)
+			: ((Comparator<Object>)comparator).compare(a, b);
+	}
+
+	/**
+	 * Counts the keys less than (or, optionally, equal to) the specified one in <em>O(log(n))</em> time.
+	 * @param key the key bounding the counted ones
+	 * @param inclusive the flag showing if the keys equal to the specified one are counted
+	 * @return the number of the keys in the range
+	 */
+	int countLess(Object key, boolean inclusive) {
+		int count = 0;
+		N current = tree.root;
+		while (current != tree.nil) {
+			int comparison = compare(key, keyOf.apply(current));
+			if (comparison < 0 || comparison == 0 && !inclusive) {
+				current = current.getLeft();
+			} else {
+				count += current.getLeft().getWeight() + 1;
+				current = current.getRight();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the rank of the first key of a range.
+	 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+	 * @return the rank of the first key of the range
+	 */
+	int startRank(Bound<K> low) {
+		return low == null ? 0 : countLess(low.key, !low.inclusive);
+	}
+
+	/**
+	 * Returns the rank following the last key of a range.
+	 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+	 * @param high the upper bound of the range or {@code null} if the range is not bounded from above
+	 * @return the rank following the last key of the range
+	 */
+	int endRank(Bound<K> low, Bound<K> high) {
+		int end = high == null ? tree.root.getWeight() : countLess(high.key, high.inclusive);
+		return Math.max(end, startRank(low));
+	}
+
+	/**
+	 * Returns the rank of the greatest key less than (or, optionally, equal to) the specified one
+	 * among the keys having the ranks within the specified range.
+	 * @param key the key to search for
+	 * @param inclusive the flag showing if the specified key itself may be found
+	 * @param from the rank of the first key of the range
+	 * @param to the rank following the last key of the range
+	 * @return the rank of the found key or {@code -1} if there is no such key
+	 */
+	int floorRank(Object key, boolean inclusive, int from, int to) {
+		int rank = Math.min(countLess(key, inclusive), to) - 1;
+		return rank >= from ? rank : -1;
+	}
+
+	/**
+	 * Returns the rank of the least key greater than (or, optionally, equal to) the specified one
+	 * among the keys having the ranks within the specified range.
+	 * @param key the key to search for
+	 * @param inclusive the flag showing if the specified key itself may be found
+	 * @param from the rank of the first key of the range
+	 * @param to the rank following the last key of the range
+	 * @return the rank of the found key or {@code -1} if there is no such key
+	 */
+	int ceilingRank(Object key, boolean inclusive, int from, int to) {
+		int rank = Math.max(countLess(key, !inclusive), from);
+		return rank < to ? rank : -1;
+	}
+
+	/**
+	 * Checks if a key lies within the bounds of a range.
+	 * @param key the key to check
+	 * @param low the lower bound of the range or {@code null} if the range is not bounded from below
+	 * @param high the upper bound of the range or {@code null} if the range is not bounded from above
+	 * @return {@code true} if and only if the key lies within the range
+	 */
+	boolean inRange(Object key, Bound<K> low, Bound<K> high) {
+		if (low != null) {
+			int comparison = compare(key, low.key);
+			if (comparison < 0 || comparison == 0 && !low.inclusive) {
+				return false;
+			}
+		}
+		if (high != null) {
+			int comparison = compare(key, high.key);
+			return comparison < 0 || comparison == 0 && high.inclusive;
+		}
+		return true;
+	}
+
+	/**
+	 * Makes sure a bound of a nested view does not extend the range of the enclosing view.
+	 * @param bound the bound of the nested view
+	 * @param low the lower bound of the enclosing view or {@code null} if it is not bounded from below
+	 * @param high the upper bound of the enclosing view or {@code null} if it is not bounded from above
+	 * @return the bound
+	 */
+	Bound<K> checkNestedBound(Bound<K> bound, Bound<K> low, Bound<K> high) {
+		boolean outside = bound.inclusive
+			? !inRange(bound.key, low, high)
+			: !inRange(bound.key,
+				low == null ? null : new Bound<>(low.key, true), high == null ? null : new Bound<>(high.key, true));
+		if (outside) {
+			throw new IllegalArgumentException("The bound is out of the range of the view.");
+		}
+		return bound;
+	}
+
+	/**
+	 * Makes sure the bounds of a range view are ordered.
+	 * @param fromKey the lower bound
+	 * @param toKey the upper bound
+	 */
+	void checkBounds(K fromKey, K toKey) {
+		if (compare(fromKey, toKey) > 0) {
+			throw new IllegalArgumentException("The lower bound of the range exceeds its upper bound.");
+		}
+	}
+}
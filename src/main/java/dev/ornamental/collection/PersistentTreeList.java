@@ -0,0 +1,813 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * This class is an immutable random access {@link java.util.List} implementation based on a ranked
+ * red-black tree whose nodes are never modified once the list is created. The modification operations
+ * ({@link #plus(int, Object)}, {@link #with(int, Object)}, {@link #minus(int)}) return new lists
+ * sharing all the nodes of the original one but <em>O(log(n))</em> nodes they allocate, and run
+ * in <em>O(log(n))</em> time. Two lists may be concatenated (see {@link #concat(PersistentTreeList,
+ * PersistentTreeList)}) and a range of a list may be extracted (see {@link #subList(int, int)})
+ * in <em>O(log(n))</em> time as well, both of the original lists remaining intact.<br>
+ * A list may be safely shared between threads without synchronization.<br>
+ * The restructuring is based on the join operation (joining two trees and a middle element)
+ * and the split operation implemented using it, which allow inserting and removing elements
+ * at arbitrary positions without modifying the existing nodes.<br>
+ * For bulk modifications, a {@link Transient} list modifies in place the nodes it has allocated itself
+ * and copies only the nodes it shares with other lists; {@link Transient#snapshot()} returns
+ * its current state as a {@link PersistentTreeList} in <em>O(1)</em> time, after which the transient
+ * list may be modified further without affecting the snapshot.
+ * @param <T> the type of values stored by the list
+ */
+public class PersistentTreeList<T> extends AbstractList<T> implements RandomAccess {
+
+	/**
+	 * This is the node class used by {@link PersistentTreeList}.
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The value held by the node
+		 */
+		private Object value;
+
+		/**
+		 * The token of the operation or the {@link Transient} list which has allocated the node
+		 * and may modify it in place
+		 */
+		private Object owner;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the value held by the node.
+		 * @return the value of the node
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			value = ((Node)source).value;
+		}
+
+		@Override
+		public void dropPayload() {
+			value = null;
+		}
+	}
+
+	/**
+	 * This class is a mutable random access {@link java.util.List} sharing the nodes with
+	 * the {@link PersistentTreeList} instances it has been created from or has produced.
+	 * The nodes allocated by the list itself are modified in place, the shared ones are copied
+	 * on modification. The positional operations run in <em>O(log(n))</em> time;
+	 * a range of elements is removed (e.g., using {@code subList(from, to).clear()}) and
+	 * {@link #addAll(int, Collection)} runs in <em>O(m + log(n))</em> time, where <em>m</em>
+	 * is the number of elements added.
+	 * @param <T> the type of values stored by the list
+	 */
+	public static final class Transient<T> extends AbstractList<T> implements RandomAccess {
+
+		/**
+		 * The root of the tree
+		 */
+		private Node root;
+
+		/**
+		 * The token marking the nodes that may be modified in place
+		 */
+		private Object owner = new Object();
+
+		/**
+		 * Creates an empty {@link Transient} list.
+		 */
+		public Transient() {
+			this(COMMON_NIL);
+		}
+
+		/**
+		 * Creates a {@link Transient} list having the specified tree.
+		 * @param root the root of the tree
+		 */
+		private Transient(Node root) {
+			this.root = root;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T get(int index) {
+			return (T)find(root, index).value;
+		}
+
+		@Override
+		public int size() {
+			return root.getWeight();
+		}
+
+		@Override
+		public T set(int index, T element) {
+			@SuppressWarnings("unchecked")
+			T oldValue = (T)find(root, index).value;
+			root = replace(owner, root, index, element);
+			return oldValue;
+		}
+
+		@Override
+		public void add(int index, T element) {
+			root = insert(owner, root, index, element);
+			modCount++;
+		}
+
+		@Override
+		public T remove(int index) {
+			@SuppressWarnings("unchecked")
+			T value = (T)find(root, index).value;
+			root = delete(owner, root, index);
+			modCount++;
+			return value;
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends T> c) {
+			if (index < 0 || index > root.getWeight()) {
+				throw new IndexOutOfBoundsException();
+			}
+			checkSize((long)root.getWeight() + c.size());
+			if (c.isEmpty()) {
+				return false;
+			}
+
+			Node[] parts = splitAt(owner, root, index);
+			root = blacken(owner, concat(owner, concat(owner, parts[0], load(owner, c)), parts[1]));
+			modCount++;
+			return true;
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends T> c) {
+			return addAll(root.getWeight(), c);
+		}
+
+		@Override
+		public void clear() {
+			root = COMMON_NIL;
+			modCount++;
+		}
+
+		/**
+		 * Returns the current state of the list as a {@link PersistentTreeList} in <em>O(1)</em> time.
+		 * Further modifications of this list do not affect the returned one.
+		 * @return the persistent list having the same elements as this one
+		 */
+		public PersistentTreeList<T> snapshot() {
+			owner = new Object(); // the nodes become shared with the snapshot
+			return new PersistentTreeList<>(root);
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			if (fromIndex < 0 || toIndex > root.getWeight() || fromIndex > toIndex) {
+				throw new IndexOutOfBoundsException();
+			}
+			if (fromIndex == toIndex) {
+				return;
+			}
+
+			Node[] suffixParts = splitAt(owner, root, toIndex);
+			Node[] prefixParts = splitAt(owner, suffixParts[0], fromIndex);
+			root = blacken(owner, concat(owner, prefixParts[0], suffixParts[1]));
+			modCount++;
+		}
+	}
+
+	/**
+	 * This class implements an {@link Iterator} walking the nodes of a tree in order.
+	 * @param <T> the type of values stored by the tree
+	 */
+	protected static final class IteratorImpl<T> implements Iterator<T> {
+
+		/**
+		 * The nodes to be visited, the next one on the top
+		 */
+		private final Node[] stack;
+
+		/**
+		 * The number of nodes in {@link #stack}
+		 */
+		private int size;
+
+		/**
+		 * Creates an iterator over the values of the tree.
+		 * @param root the root of the tree
+		 */
+		protected IteratorImpl(Node root) {
+			this.stack = new Node[1 + RankedRedBlackTree.maxTreeDepth(root.getWeight())];
+			pushLeftSpine(root);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return size > 0;
+		}
+
+		@Override
+		public T next() {
+			if (size == 0) {
+				throw new NoSuchElementException("The iteration has reached the end of the list.");
+			}
+
+			Node node = stack[--size];
+			pushLeftSpine(node.getRight());
+			@SuppressWarnings("unchecked")
+			T value = (T)node.value;
+			return value;
+		}
+
+		/**
+		 * Pushes the leftmost path of a subtree to the stack.
+		 * @param subtreeRoot the root of the subtree
+		 */
+		private void pushLeftSpine(Node subtreeRoot) {
+			for (Node current = subtreeRoot; current != COMMON_NIL; current = current.getLeft()) {
+				stack[size++] = current;
+			}
+		}
+	}
+
+	/**
+	 * This class holds the result of splitting a tree at a node: the trees of the values preceding
+	 * and following the node, their black heights and the node itself. The black height of a tree
+	 * is counted as if its root were black (see {@link #blackHeight(Node)}).
+	 */
+	private static final class Split {
+
+		/**
+		 * The root of the tree of the values preceding the separating node
+		 */
+		private Node prefix;
+
+		/**
+		 * The black height of the {@link #prefix} tree
+		 */
+		private int prefixHeight;
+
+		/**
+		 * The separating node
+		 */
+		private Node node;
+
+		/**
+		 * The root of the tree of the values following the separating node
+		 */
+		private Node suffix;
+
+		/**
+		 * The black height of the {@link #suffix} tree
+		 */
+		private int suffixHeight;
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link PersistentTreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The empty list
+	 */
+	private static final PersistentTreeList<?> EMPTY = new PersistentTreeList<>(COMMON_NIL);
+
+	/**
+	 * The root of the tree
+	 */
+	protected final Node root;
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link PersistentTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection
+	 */
+	public PersistentTreeList(Collection<? extends T> source) {
+		this(load(new Object(), source));
+	}
+
+	/**
+	 * Creates a {@link PersistentTreeList} having the specified tree.
+	 * @param root the root of the tree; the nodes of the tree must never be modified afterwards
+	 */
+	protected PersistentTreeList(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns the empty {@link PersistentTreeList}.
+	 * @param <Q> the list generic type argument
+	 * @return the empty list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <Q> PersistentTreeList<Q> empty() {
+		return (PersistentTreeList<Q>)EMPTY;
+	}
+
+	/**
+	 * Concatenates two lists in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists;
+	 * the original lists remain unchanged.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @param <Q> the output list generic type argument
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static <Q> PersistentTreeList<Q> concat(
+		PersistentTreeList<? extends Q> prefix, PersistentTreeList<? extends Q> suffix) {
+
+		checkSize((long)prefix.size() + suffix.size());
+		Object owner = new Object();
+		return new PersistentTreeList<>(blacken(owner, concat(owner, prefix.root, suffix.root)));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		return (T)find(root, index).value;
+	}
+
+	@Override
+	public int size() {
+		return root.getWeight();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == COMMON_NIL;
+	}
+
+	/**
+	 * Returns a new list having the specified value appended to the elements of this list.
+	 * @param value the value to append
+	 * @return the new list
+	 */
+	public PersistentTreeList<T> plus(T value) {
+		return plus(root.getWeight(), value);
+	}
+
+	/**
+	 * Returns a new list having the specified value inserted into the specified position
+	 * of this list.
+	 * @param index the index of the new value
+	 * @param value the value to insert
+	 * @return the new list
+	 */
+	public PersistentTreeList<T> plus(int index, T value) {
+		return new PersistentTreeList<>(insert(new Object(), root, index, value));
+	}
+
+	/**
+	 * Returns a new list having the value at the specified position of this list replaced.
+	 * @param index the index of the value to replace
+	 * @param value the new value
+	 * @return the new list
+	 */
+	public PersistentTreeList<T> with(int index, T value) {
+		return new PersistentTreeList<>(replace(new Object(), root, index, value));
+	}
+
+	/**
+	 * Returns a new list having the value at the specified position of this list removed.
+	 * @param index the index of the value to remove
+	 * @return the new list
+	 */
+	public PersistentTreeList<T> minus(int index) {
+		return new PersistentTreeList<>(delete(new Object(), root, index));
+	}
+
+	/**
+	 * Returns a new list containing the elements of this list from {@code fromIndex}, inclusive,
+	 * to {@code toIndex}, exclusive, in <em>O(log(n))</em> time. Unlike the usual {@link java.util.List}
+	 * views, the returned list does not depend on this one, as neither of them may be modified.
+	 * @param fromIndex the index of the first element of the range
+	 * @param toIndex the index after the last element of the range
+	 * @return the list of the elements of the range
+	 */
+	@Override
+	public PersistentTreeList<T> subList(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Object owner = new Object();
+		Node[] prefixParts = splitAt(owner, root, toIndex);
+		return new PersistentTreeList<>(blacken(owner, splitAt(owner, prefixParts[0], fromIndex)[1]));
+	}
+
+	/**
+	 * Creates a {@link Transient} list having the same elements as this one in <em>O(1)</em> time.
+	 * @return the new transient list
+	 */
+	public Transient<T> toTransient() {
+		return new Transient<>(root);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new IteratorImpl<>(root);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+
+	/**
+	 * Finds the node having the specified index.
+	 * @param root the root of the tree
+	 * @param index the index of the node
+	 * @return the node having the specified index
+	 */
+	private static Node find(Node root, int index) {
+		if (index < 0 || index >= root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Node current = root;
+		while (true) {
+			int leftWeight = current.getLeft().getWeight();
+			if (index < leftWeight) {
+				current = current.getLeft();
+			} else if (index == leftWeight) {
+				return current;
+			} else {
+				index -= leftWeight + 1;
+				current = current.getRight();
+			}
+		}
+	}
+
+	/**
+	 * Makes sure a list of the specified size may be created.
+	 * @param size the size of the list
+	 */
+	private static void checkSize(long size) {
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalStateException(
+				String.format("The collection size limit of %s is reached.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+	}
+
+	/**
+	 * Inserts a value into a tree.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the tree
+	 * @param index the index of the new value
+	 * @param value the value to insert
+	 * @return the root of the resulting tree
+	 */
+	private static Node insert(Object owner, Node root, int index, Object value) {
+		if (index < 0 || index > root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+		checkSize(root.getWeight() + 1L);
+
+		Node[] parts = splitAt(owner, root, index);
+		return blacken(owner, join(owner, parts[0], value, parts[1], blackHeight(parts[0]) - blackHeight(parts[1])));
+	}
+
+	/**
+	 * Replaces a value of a tree copying the path to its node.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the tree
+	 * @param index the index of the value
+	 * @param value the new value
+	 * @return the root of the resulting tree
+	 */
+	private static Node replace(Object owner, Node root, int index, Object value) {
+		if (index < 0 || index >= root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Node result = edit(owner, root);
+		Node current = result;
+		while (true) {
+			int leftWeight = current.getLeft().getWeight();
+			if (index < leftWeight) {
+				Node child = edit(owner, current.getLeft());
+				current.withLeft(child);
+				current = child;
+			} else if (index == leftWeight) {
+				current.value = value;
+				return result;
+			} else {
+				index -= leftWeight + 1;
+				Node child = edit(owner, current.getRight());
+				current.withRight(child);
+				current = child;
+			}
+		}
+	}
+
+	/**
+	 * Removes a value from a tree.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the tree
+	 * @param index the index of the value
+	 * @return the root of the resulting tree
+	 */
+	private static Node delete(Object owner, Node root, int index) {
+		if (index < 0 || index >= root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Split parts = split(owner, root, index);
+		return blacken(owner, concat(owner, parts.prefix, parts.suffix));
+	}
+
+	/**
+	 * Splits a tree in two.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the tree
+	 * @param index the number of values to be held by the first resulting tree
+	 * @return the roots of the two resulting trees
+	 */
+	private static Node[] splitAt(Object owner, Node root, int index) {
+		if (index == root.getWeight()) {
+			return new Node[] {root, COMMON_NIL};
+		}
+
+		Split parts = split(owner, root, index);
+		return new Node[] {
+			parts.prefix, join(owner, COMMON_NIL, parts.node.value, parts.suffix, -parts.suffixHeight)};
+	}
+
+	/**
+	 * Splits a tree into the tree of the values preceding the one at the specified index,
+	 * the node holding that value and the tree of the values following it in <em>O(log(n))</em> time.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the tree
+	 * @param index the index of the value separating the resulting trees
+	 * @return the resulting trees, their black heights and the separating node
+	 */
+	private static Split split(Object owner, Node root, int index) {
+		Split parts = new Split();
+		split(owner, root, blackHeight(root), index, parts);
+		return parts;
+	}
+
+	/**
+	 * Splits a subtree into the tree of the values preceding the one at the specified index,
+	 * the node holding that value and the tree of the values following it. The black heights
+	 * of the subtrees are derived on the way down, so each of the joins on the way up runs
+	 * in time proportional to the difference of the heights of the joined trees.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param root the root of the subtree
+	 * @param height the black height of the subtree
+	 * @param index the index of the value separating the resulting trees
+	 * @param parts the holder to store the resulting trees, their black heights and the separating node to
+	 */
+	private static void split(Object owner, Node root, int height, int index, Split parts) {
+		Node left = root.getLeft();
+		Node right = root.getRight();
+		int leftHeight = childHeight(left, height);
+		int rightHeight = childHeight(right, height);
+		int leftWeight = left.getWeight();
+		if (index < leftWeight) {
+			split(owner, left, leftHeight, index, parts);
+			parts.suffix = join(owner, parts.suffix, root.value, right, parts.suffixHeight - rightHeight);
+			parts.suffixHeight = joinedHeight(parts.suffix, Math.max(parts.suffixHeight, rightHeight));
+		} else if (index == leftWeight) {
+			parts.prefix = left;
+			parts.prefixHeight = leftHeight;
+			parts.node = root;
+			parts.suffix = right;
+			parts.suffixHeight = rightHeight;
+		} else {
+			split(owner, right, rightHeight, index - leftWeight - 1, parts);
+			parts.prefix = join(owner, left, root.value, parts.prefix, leftHeight - parts.prefixHeight);
+			parts.prefixHeight = joinedHeight(parts.prefix, Math.max(leftHeight, parts.prefixHeight));
+		}
+	}
+
+	/**
+	 * Concatenates two trees.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param left the root of the first tree
+	 * @param right the root of the second tree
+	 * @return the root of the resulting tree
+	 */
+	private static Node concat(Object owner, Node left, Node right) {
+		if (left == COMMON_NIL) {
+			return right;
+		} else if (right == COMMON_NIL) {
+			return left;
+		}
+
+		Split parts = split(owner, right, 0);
+		return join(owner, left, parts.node.value, parts.suffix, blackHeight(left) - parts.suffixHeight);
+	}
+
+	/**
+	 * Joins two trees and a value to be placed between them into a tree in <em>O(|h<sub>1</sub> -
+	 * h<sub>2</sub>| + 1)</em> time, where <em>h<sub>1</sub></em> and <em>h<sub>2</sub></em> are
+	 * the black heights of the trees. The root of the resulting tree may be red; as the roots of the joined
+	 * trees are made black, the root of the higher tree is never in a red-red violation, so the black height
+	 * of the resulting tree is that of the higher tree (see {@link #joinedHeight(Node, int)}).
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param left the root of the first tree
+	 * @param value the value
+	 * @param right the root of the second tree
+	 * @param excess the black height of the first tree minus the black height of the second tree
+	 * @return the root of the resulting tree
+	 */
+	private static Node join(Object owner, Node left, Object value, Node right, int excess) {
+		left = blacken(owner, left);
+		right = blacken(owner, right);
+		if (excess > 0) {
+			return joinRight(owner, left, excess, value, right);
+		} else if (excess < 0) {
+			return joinLeft(owner, left, value, right, -excess);
+		} else {
+			return produceNode(owner, RED, left, value, right);
+		}
+	}
+
+	/**
+	 * Returns the black height of a tree produced by {@link #join(Object, Node, Object, Node, int)}.
+	 * @param joined the root of the resulting tree
+	 * @param height the greater of the black heights of the joined trees
+	 * @return the black height of the resulting tree
+	 */
+	private static int joinedHeight(Node joined, int height) {
+		return joined.isRed() ? height + 1 : height;
+	}
+
+	/**
+	 * Returns the black height of a child subtree.
+	 * @param child the root of the subtree
+	 * @param parentHeight the black height of the subtree rooted at the parent of the child
+	 * @return the black height of the subtree
+	 */
+	private static int childHeight(Node child, int parentHeight) {
+		return child.isRed() ? parentHeight : parentHeight - 1;
+	}
+
+	/**
+	 * Joins a black-rooted tree and a value to the right spine of a higher tree.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param node the root of the subtree of the higher tree
+	 * @param excess the black height of the subtree minus the black height of the lower tree
+	 * @param value the value
+	 * @param right the root of the lower tree
+	 * @return the root of the resulting subtree, whose red right child may have a red right child
+	 */
+	private static Node joinRight(Object owner, Node node, int excess, Object value, Node right) {
+		if (node.isBlack() && excess == 0) {
+			return produceNode(owner, RED, node, value, right);
+		}
+
+		Node joined = joinRight(owner, node.getRight(), node.isBlack() ? excess - 1 : excess, value, right);
+		Node result = attach(edit(owner, node), node.getLeft(), joined);
+		if (result.isBlack() && joined.isRed() && joined.getRight().isRed()) {
+			Node grandchild = edit(owner, joined.getRight());
+			grandchild.makeBlack();
+			// rotate left
+			attach(result, result.getLeft(), joined.getLeft());
+			return attach(joined, result, grandchild);
+		}
+		return result;
+	}
+
+	/**
+	 * Joins a black-rooted tree and a value to the left spine of a higher tree.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param left the root of the lower tree
+	 * @param value the value
+	 * @param node the root of the subtree of the higher tree
+	 * @param excess the black height of the subtree minus the black height of the lower tree
+	 * @return the root of the resulting subtree, whose red left child may have a red left child
+	 */
+	private static Node joinLeft(Object owner, Node left, Object value, Node node, int excess) {
+		if (node.isBlack() && excess == 0) {
+			return produceNode(owner, RED, left, value, node);
+		}
+
+		Node joined = joinLeft(owner, left, value, node.getLeft(), node.isBlack() ? excess - 1 : excess);
+		Node result = attach(edit(owner, node), joined, node.getRight());
+		if (result.isBlack() && joined.isRed() && joined.getLeft().isRed()) {
+			Node grandchild = edit(owner, joined.getLeft());
+			grandchild.makeBlack();
+			// rotate right
+			attach(result, joined.getRight(), result.getRight());
+			return attach(joined, grandchild, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the black height of a tree (not counting the NIL leaves) in <em>O(log(n))</em> time;
+	 * the root of the tree is counted as black.
+	 * @param root the root of the tree
+	 * @return the black height of the tree
+	 */
+	private static int blackHeight(Node root) {
+		int height = root.isRed() ? 1 : 0;
+		for (Node current = root; current != COMMON_NIL; current = current.getLeft()) {
+			if (current.isBlack()) {
+				height++;
+			}
+		}
+		return height;
+	}
+
+	/**
+	 * Returns a black node having the same children and value as the specified one,
+	 * which is the node itself if it is black or may be modified in place.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param node the node
+	 * @return the black node
+	 */
+	private static Node blacken(Object owner, Node node) {
+		if (node.isBlack()) {
+			return node;
+		}
+
+		Node result = edit(owner, node);
+		result.makeBlack();
+		return result;
+	}
+
+	/**
+	 * Returns the node itself if it may be modified in place, or its copy otherwise.
+	 * @param owner the token of the nodes which may be modified in place
+	 * @param node the node; must not be the NIL node
+	 * @return the node which may be modified in place
+	 */
+	private static Node edit(Object owner, Node node) {
+		if (node.owner == owner) {
+			return node;
+		}
+
+		Node copy = new Node(node.isRed()).withLeft(node.getLeft()).withRight(node.getRight())
+			.withWeight(node.getWeight());
+		copy.value = node.value;
+		copy.owner = owner;
+		return copy;
+	}
+
+	/**
+	 * Creates a new node.
+	 * @param owner the token of the operation or the list allocating the node
+	 * @param isRed the flag showing if the node is red
+	 * @param left the left child of the node
+	 * @param value the value of the node
+	 * @param right the right child of the node
+	 * @return the new node
+	 */
+	private static Node produceNode(Object owner, boolean isRed, Node left, Object value, Node right) {
+		Node node = new Node(isRed);
+		node.value = value;
+		node.owner = owner;
+		return attach(node, left, right);
+	}
+
+	/**
+	 * Sets the children of a node, updating its weight.
+	 * @param node the node which may be modified in place
+	 * @param left the new left child
+	 * @param right the new right child
+	 * @return the node
+	 */
+	private static Node attach(Node node, Node left, Node right) {
+		return node.withLeft(left).withRight(right).withWeight(left.getWeight() + right.getWeight() + 1);
+	}
+
+	/**
+	 * Bulk-loads the elements of a collection into a new tree in <em>O(n)</em> time.
+	 * @param owner the token of the operation or the list allocating the nodes
+	 * @param source the source collection
+	 * @return the root of the new tree
+	 */
+	private static Node load(Object owner, Collection<?> source) {
+		int length = source.size();
+		checkSize(length);
+		Iterator<?> values = source.iterator();
+		return RankedRedBlackTree.buildTree(
+			() -> produceNode(owner, BLACK, COMMON_NIL, values.next(), COMMON_NIL), length, COMMON_NIL, null);
+	}
+}
@@ -2,6 +2,9 @@ package dev.ornamental.collection;
 
 import static dev.ornamental.collection.NodeColour.RED;
 
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
  * This class represents a red-black tree storing a subtree size with each node.
  */
@@ -130,6 +133,37 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 	 */
 	protected abstract T produceNode(boolean isRed);
 
+	/**
+	 * Checks if the tree maintains any data for its nodes which depend on the contents of their subtrees,
+	 * other than the subtree weights. Such data are kept up to date by {@link #refresh(WeightedNode)}.
+	 * @return {@code true} if {@link #refresh(WeightedNode)} must be invoked for the nodes
+	 * whose subtrees change; {@code false} by default
+	 */
+	protected boolean isAugmented() {
+		return false;
+	}
+
+	/**
+	 * Recomputes the data maintained for a node (see {@link #isAugmented()}) from its own payload
+	 * and the data of its children, which must already be up to date. Does nothing by default.
+	 * @param node the node whose subtree has changed
+	 */
+	protected void refresh(T node) { }
+
+	/**
+	 * Recomputes the data maintained for the nodes on a path (see {@link #isAugmented()}) from the bottom up,
+	 * if the tree is augmented.
+	 * @param path the node buffer where each element is a child of the previous one
+	 * @param lastIndex the index of the lowest node on the path to be refreshed
+	 */
+	protected void refreshPath(NodeBuffer<T> path, int lastIndex) {
+		if (isAugmented()) {
+			for (int i = lastIndex; i >= 0; i--) {
+				refresh(path.get(i));
+			}
+		}
+	}
+
 	/**
 	 * Checks if an element may be added to the tree.
 	 */
@@ -142,7 +176,8 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 
 	/**
 	 * Performs red-black tree invariant corrections after a new node is inserted.
-	 * The newly inserted element must be a red node with weight of 1 and nil children.
+	 * The newly inserted element must be a red node with nil children and the weight equal
+	 * to its {@link WeightedNode#getOwnWeight() own weight}.
 	 * It must not be the root node (in which case no invariant correction is needed
 	 * as long as the inserted node is black).
 	 * @param nodeStack the nodeBuffer of nodes where the first element is the tree root,
@@ -151,10 +186,12 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 	protected void afterInsert(NodeBuffer<T> nodeStack) {
 		assert nodeStack.size() > 1;
 
+		int weightIncrement = nodeStack.get(nodeStack.size() - 1).getOwnWeight();
 		for (int i = 0; i < nodeStack.size() - 1; i++) {
 			T current = nodeStack.get(i);
-			current.withWeight(current.getWeight() + 1);
+			current.withWeight(current.getWeight() + weightIncrement);
 		}
+		refreshPath(nodeStack, nodeStack.size() - 1);
 
 		insertFixup(nodeStack);
 	}
@@ -168,6 +205,9 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 	 */
 	protected void remove(NodeBuffer<T> nodeStack) {
 		T node = nodeStack.get(nodeStack.size() - 1);
+		int nodeIndex = nodeStack.size() - 1;
+		int removedWeight = node.getOwnWeight();
+		int successorWeight = removedWeight;
 
 		if (node.getLeft() != nil && node.getRight() != nil) {
 			// find the successor node
@@ -180,13 +220,15 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 
 			// the successor node will be deleted instead of the node previously destined for it
 			// must move the payload from the successor to preserve it
+			successorWeight = current.getOwnWeight();
 			node.copyPayload(current);
 			node = current;
 		}
 
+		// the subtrees down to the node lose the removed payload, the ones below lose the moved payload
 		for (int i = 0; i < nodeStack.size(); i++) {
 			T current = nodeStack.get(i);
-			current.withWeight(current.getWeight() - 1);
+			current.withWeight(current.getWeight() - (i <= nodeIndex ? removedWeight : successorWeight));
 		}
 
 		T child = node.getLeft();
@@ -207,6 +249,7 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 			}
 		}
 
+		refreshPath(nodeStack, nodeStack.size() - 1);
 		nodeStack.add(child);
 
 		if (root != nil) {
@@ -224,8 +267,10 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 	 * Restores the red-black tree invariants after a node insertion.
 	 * @param nodeStack the path to the inserted node;
 	 * each element is the child node of the previous element
+	 * @return {@code true} if the root node has been recoloured from red to black, i.e., if the black height
+	 * of the tree has increased
 	 */
-	private void insertFixup(NodeBuffer<T> nodeStack) {
+	private boolean insertFixup(NodeBuffer<T> nodeStack) {
 		int currentIndex = nodeStack.size() - 1;
 		T parent;
 		while (currentIndex > 0
@@ -287,7 +332,9 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 			}
 		}
 
+		boolean rootRecoloured = root.isRed();
 		root.makeBlack();
+		return rootRecoloured;
 	}
 
 	/**
@@ -398,7 +445,11 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 		}
 
 		rt.withWeight(node.getWeight());
-		node.withWeight(1 + node.getLeft().getWeight() + node.getRight().getWeight());
+		node.withWeight(node.getOwnWeight() + node.getLeft().getWeight() + node.getRight().getWeight());
+		if (isAugmented()) {
+			refresh(node);
+			refresh(rt);
+		}
 	}
 
 	/**
@@ -423,7 +474,11 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 		}
 
 		lf.withWeight(node.getWeight());
-		node.withWeight(1 + node.getLeft().getWeight() + node.getRight().getWeight());
+		node.withWeight(node.getOwnWeight() + node.getLeft().getWeight() + node.getRight().getWeight());
+		if (isAugmented()) {
+			refresh(node);
+			refresh(lf);
+		}
 	}
 
 	/**
@@ -500,97 +555,202 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 			int leftBlackHeight = getBlackHeight(left, leftBuffer, true); // memorize the rightmost node path
 			int rightBlackHeight = getBlackHeight(right, rightBuffer, false); // memorize the leftmost node path
 
+			// the node joining the two trees is taken from the lower one (the removal is cheaper there);
+			// it is either the leftmost node of the right tree or the rightmost node of the left tree
+			Q pivot = result.produceNode(RED);
 			if (leftBlackHeight >= rightBlackHeight) {
-				// the right tree will be appended to the right of this one
 				Q nodeToRemove = rightBuffer.get(rightBuffer.size() - 1);
-				Q leftmost = result.produceNode(RED);
-				leftmost.copyPayload(nodeToRemove);
+				pivot.copyPayload(nodeToRemove);
 				right.remove(rightBuffer);
 
 				if (nodeToRemove.isBlack()) { // the black height of the right tree may have decreased
 					rightBlackHeight = getBlackHeight(right, rightBuffer, false);
 				}
-
-				if (leftBlackHeight == rightBlackHeight) {
-					leftmost.makeBlack();
-					leftmost.withLeft(left.root);
-					leftmost.withRight(right.root);
-					leftmost.withWeight((int)newRootWeight);
-					result.root = leftmost;
-				} else {
-					// find the rightmost black vertex having the same black height as the right tree
-					int cursor = leftBuffer.size() - 1;
-					while (rightBlackHeight > 1) { // the black leaves are not on the stacks, so compare to 1
-						if (leftBuffer.get(cursor).isBlack()) {
-							rightBlackHeight--;
-						}
-						cursor--;
-					}
-					cursor++;
-
-					leftmost.makeRed();
-					leftmost.withLeft(cursor == leftBuffer.size() ? left.nil : leftBuffer.get(cursor));
-					leftmost.withRight(right.root);
-
-					// the cursor is not on the root because leftBlackHeight > rightBlackHeight;
-					// also, the cursor points to the right child of its parent
-					leftBuffer.get(cursor - 1).withRight(leftmost);
-					leftBuffer.set(cursor, leftmost);
-					leftBuffer.truncate(cursor + 1);
-
-					// update weights up the stack
-					for (int i = cursor; i >= 0; i--) {
-						Q node = leftBuffer.get(i);
-						node.withWeight(1 + node.getLeft().getWeight() + node.getRight().getWeight());
-					}
-
-					// the only invariant violation possible is that the new red node has a red parent;
-					// this can be handled just like in case with node insertion
-					left.insertFixup(leftBuffer);
-					result.root = left.root;
-				}
 			} else {
-				// left tree will be prepended to the left of the right tree; the code is symmetric to the above
-				// except that the case leftBlackHeight == rightBlackHeight is not possible
 				Q nodeToRemove = leftBuffer.get(leftBuffer.size() - 1);
-				Q rightmost = result.produceNode(RED);
-				rightmost.copyPayload(nodeToRemove);
+				pivot.copyPayload(nodeToRemove);
 				left.remove(leftBuffer);
 
 				if (nodeToRemove.isBlack()) {
 					leftBlackHeight = getBlackHeight(left, leftBuffer, true);
 				}
+			}
 
-				int cursor = rightBuffer.size() - 1;
-				while (leftBlackHeight > 1) {
-					if (rightBuffer.get(cursor).isBlack()) {
-						leftBlackHeight--;
-					}
-					cursor--;
+			result.root = left.root;
+			result.join(leftBlackHeight, pivot, right.root, rightBlackHeight, leftBuffer);
+		}
+
+		// the original trees have to be cleared
+		left.root = left.nil;
+		right.root = right.nil;
+	}
+
+	/**
+	 * Splits a tree in two so that the nodes having ranks lower than the specified one form
+	 * the first tree, and the rest of the nodes form the second tree. The operation executes
+	 * in <em>O(log(n))</em> time, n being the size of the original tree: the path to the split
+	 * location is cut out, and the subtrees hanging off it are joined back together
+	 * on either side of the cut, from the bottom up, which costs <em>O(1)</em> per
+	 * black height unit overall.<br>
+	 * The original tree will be emptied as the result of this operation.
+	 * All the arguments must be different tree instances.
+	 * @param source the tree to split
+	 * @param rank the rank of the first node to be placed to the suffix tree; may be equal to the
+	 * size of the source tree, in which case the suffix tree will be empty; if the nodes have own weights
+	 * other than 1, the rank must be equal to the total own weight of some number of the first nodes
+	 * @param prefix the recipient tree instance for the nodes having ranks lower than {@code rank};
+	 * the current contents of this tree will be lost
+	 * @param suffix the recipient tree instance for the rest of the nodes; the ranks of the nodes will be
+	 * decreased by {@code rank}; the current contents of this tree will be lost
+	 * @param <Q> the type of the node used by the original and resulting trees
+	 */
+	protected static <Q extends WeightedNode<Q>> void split(RankedRedBlackTree<Q> source, int rank,
+		RankedRedBlackTree<Q> prefix, RankedRedBlackTree<Q> suffix) {
+
+		if (source == prefix || prefix == suffix || suffix == source) {
+			throw new IllegalArgumentException("All the three trees must be different instances.");
+		}
+		if (rank < 0 || rank > source.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		int depth = maxTreeDepth(source.root.getWeight());
+		NodeBuffer<Q> path = new NodeBuffer<>(depth);
+		int blackHeight = getBlackHeight(source, path, false);
+		path.clear();
+
+		// descend to the split location memorizing the black heights of the nodes on the path
+		// and which of the resulting trees each of the nodes will belong to
+		int[] blackHeights = new int[depth + 1];
+		boolean[] toSuffix = new boolean[depth + 1];
+		Q current = source.root;
+		while (current != source.nil) {
+			blackHeights[path.size()] = blackHeight;
+			if (current.isBlack()) {
+				blackHeight--;
+			}
+
+			int leftWeight = current.getLeft().getWeight();
+			toSuffix[path.size()] = rank <= leftWeight;
+			path.add(current);
+			if (rank <= leftWeight) {
+				current = current.getLeft();
+			} else {
+				rank -= leftWeight + current.getOwnWeight();
+				current = current.getRight();
+			}
+		}
+
+		prefix.root = prefix.nil;
+		suffix.root = suffix.nil;
+		int prefixBlackHeight = 1;
+		int suffixBlackHeight = 1;
+		NodeBuffer<Q> joinBuffer = new NodeBuffer<>(depth);
+		for (int i = path.size() - 1; i >= 0; i--) {
+			Q node = path.get(i);
+			int childBlackHeight = node.isBlack() ? blackHeights[i] - 1 : blackHeights[i];
+			if (toSuffix[i]) {
+				// the node and its right subtree follow the nodes already in the suffix tree
+				Q right = node.getRight();
+				if (right.isRed()) {
+					right.makeBlack();
+					childBlackHeight++;
+				}
+				suffixBlackHeight = suffix.join(suffixBlackHeight, node, right, childBlackHeight, joinBuffer);
+			} else {
+				// the node and its left subtree precede the nodes already in the prefix tree
+				Q left = node.getLeft();
+				if (left.isRed()) {
+					left.makeBlack();
+					childBlackHeight++;
 				}
-				cursor++;
+				Q prefixRoot = prefix.root;
+				prefix.root = left;
+				prefixBlackHeight = prefix.join(childBlackHeight, node, prefixRoot, prefixBlackHeight, joinBuffer);
+			}
+		}
 
-				rightmost.makeRed();
-				rightmost.withLeft(left.root);
-				rightmost.withRight(cursor == rightBuffer.size() ? right.nil : rightBuffer.get(cursor));
+		source.root = source.nil;
+	}
 
-				rightBuffer.get(cursor - 1).withLeft(rightmost);
-				rightBuffer.set(cursor, rightmost);
-				rightBuffer.truncate(cursor + 1);
+	/**
+	 * Joins the current contents of this tree, a standalone node and another tree (in this order)
+	 * into a single tree which replaces the contents of this one. The operation executes
+	 * in <em>O(|h<sub>1</sub> - h<sub>2</sub>| + 1)</em> time, h<sub>1</sub> and h<sub>2</sub> being
+	 * the black heights of the joined trees.<br>
+	 * The roots of both joined trees must be black.
+	 * @param blackHeight the black height of this tree (including the black leaf NIL nodes)
+	 * @param pivot the node to be placed between the joined trees; its child references, colour
+	 * and weight are overwritten
+	 * @param suffixRoot the root of the tree to be appended to this one; the tree must use
+	 * the same NIL node as this one
+	 * @param suffixBlackHeight the black height of the appended tree (including the black leaf NIL nodes)
+	 * @param path a buffer to store the path to the pivot node in
+	 * @return the black height of the resulting tree (including the black leaf NIL nodes)
+	 */
+	protected int join(int blackHeight, T pivot, T suffixRoot, int suffixBlackHeight, NodeBuffer<T> path) {
+		T prefixRoot = root;
+		path.clear();
+
+		if (blackHeight == suffixBlackHeight) {
+			pivot.makeBlack();
+			pivot.withLeft(prefixRoot).withRight(suffixRoot)
+				.withWeight(pivot.getOwnWeight() + prefixRoot.getWeight() + suffixRoot.getWeight());
+			if (isAugmented()) {
+				refresh(pivot);
+			}
+			root = pivot;
+			return blackHeight + 1;
+		}
 
-				for (int i = cursor; i >= 0; i--) {
-					Q node = rightBuffer.get(i);
-					node.withWeight(1 + node.getLeft().getWeight() + node.getRight().getWeight());
+		int weightIncrement;
+		if (blackHeight > suffixBlackHeight) {
+			// find the rightmost black node having the same black height as the suffix tree
+			T current = prefixRoot;
+			int height = blackHeight;
+			while (current.isRed() || height > suffixBlackHeight) {
+				path.add(current);
+				if (current.isBlack()) {
+					height--;
 				}
+				current = current.getRight();
+			}
 
-				right.insertFixup(rightBuffer);
-				result.root = right.root;
+			// the pivot node substitutes the found node, which becomes the pivot's left child
+			pivot.withLeft(current).withRight(suffixRoot);
+			path.get(path.size() - 1).withRight(pivot);
+			weightIncrement = pivot.getOwnWeight() + suffixRoot.getWeight();
+		} else {
+			// symmetrical case: find the leftmost black node having the same black height as this tree
+			root = suffixRoot;
+			T current = suffixRoot;
+			int height = suffixBlackHeight;
+			while (current.isRed() || height > blackHeight) {
+				path.add(current);
+				if (current.isBlack()) {
+					height--;
+				}
+				current = current.getLeft();
 			}
+
+			pivot.withLeft(prefixRoot).withRight(current);
+			path.get(path.size() - 1).withLeft(pivot);
+			weightIncrement = pivot.getOwnWeight() + prefixRoot.getWeight();
 		}
 
-		// the original trees have to be cleared
-		left.root = left.nil;
-		right.root = right.nil;
+		pivot.makeRed();
+		pivot.withWeight(pivot.getOwnWeight() + pivot.getLeft().getWeight() + pivot.getRight().getWeight());
+		for (int i = 0; i < path.size(); i++) {
+			T node = path.get(i);
+			node.withWeight(node.getWeight() + weightIncrement);
+		}
+		path.add(pivot);
+		refreshPath(path, path.size() - 1);
+
+		// the only invariant violation possible is that the new red node has a red parent;
+		// this can be handled just like in case with node insertion
+		boolean rootRecoloured = insertFixup(path);
+		return Math.max(blackHeight, suffixBlackHeight) + (rootRecoloured ? 1 : 0);
 	}
 
 	/**
@@ -603,6 +763,90 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 		return 2 * (32 - Integer.numberOfLeadingZeros(size));
 	}
 
+	/**
+	 * Computes the black height of the root of a tree bulk-loaded by
+	 * {@link #buildTree(Supplier, int, int, WeightedNode, Consumer)} with the given number of nodes.
+	 * @param length the number of nodes (must be positive)
+	 * @return the black height of the root (not including the black leaf NIL nodes)
+	 */
+	protected static int loadedBlackHeight(int length) {
+		return length == 1 ? 1 : 31 - Integer.numberOfLeadingZeros(length);
+	}
+
+	/**
+	 * Bulk-loads the given number of nodes into a new tree in <em>O(n)</em> time so that any two
+	 * of its leave nodes have depths differing by no more than 1.
+	 * @param nodes the source of the new black nodes with their payloads set, in the tree order
+	 * @param length the number of nodes to fetch from the source
+	 * @param nil the NIL node of the tree
+	 * @param refresh the action recomputing the augmented data of a node once its children are set
+	 * (see {@link #refresh(WeightedNode)}), or {@code null} if the tree is not augmented
+	 * @param <Q> the type of the tree nodes
+	 * @return the root node of the new tree ({@code nil} if the length is zero)
+	 */
+	protected static <Q extends WeightedNode<Q>> Q buildTree(
+		Supplier<? extends Q> nodes, int length, Q nil, Consumer<? super Q> refresh) {
+
+		return length == 0 ? nil : buildTree(nodes, length, loadedBlackHeight(length), nil, refresh);
+	}
+
+	/**
+	 * Bulk-loads the given number of nodes into a new subtree so that any two of its leave nodes
+	 * have depths differing by no more than 1. The nodes are fetched from the source in order,
+	 * so the subtrees of a node may be built separately provided that the source is advanced accordingly.
+	 * @param nodes the source of the new black nodes with their payloads set, in the tree order
+	 * @param length the number of nodes to fetch from the source (must be positive)
+	 * @param blackHeight the black height of the subtree root (see {@link #loadedBlackHeight(int)})
+	 * @param nil the NIL node of the tree
+	 * @param refresh the action recomputing the augmented data of a node once its children are set,
+	 * or {@code null} if the tree is not augmented
+	 * @param <Q> the type of the tree nodes
+	 * @return the root node of the new subtree
+	 */
+	protected static <Q extends WeightedNode<Q>> Q buildTree(
+		Supplier<? extends Q> nodes, int length, int blackHeight, Q nil, Consumer<? super Q> refresh) {
+
+		Q left;
+		Q root;
+		Q right;
+
+		if (blackHeight == 1) { // the subtrees are either red leaves or NIL
+			left = length > 1 ? loadRedLeaf(nodes, nil, refresh) : nil;
+			root = nodes.get();
+			right = length == 3 ? loadRedLeaf(nodes, nil, refresh) : nil;
+		} else { // has both subtrees
+			left = buildTree(nodes, length / 2, blackHeight - 1, nil, refresh);
+			root = nodes.get();
+			right = buildTree(nodes, length - 1 - length / 2, blackHeight - 1, nil, refresh);
+		}
+
+		root.withLeft(left).withRight(right)
+			.withWeight(root.getOwnWeight() + left.getWeight() + right.getWeight());
+		if (refresh != null) {
+			refresh.accept(root);
+		}
+		return root;
+	}
+
+	/**
+	 * Creates a red leaf node of a bulk-loaded tree.
+	 * @param nodes the source of the new black nodes with their payloads set
+	 * @param nil the NIL node of the tree
+	 * @param refresh the action recomputing the augmented data of a node, or {@code null}
+	 * @param <Q> the type of the tree nodes
+	 * @return the new red leaf node
+	 */
+	private static <Q extends WeightedNode<Q>> Q loadRedLeaf(
+		Supplier<? extends Q> nodes, Q nil, Consumer<? super Q> refresh) {
+
+		Q leaf = nodes.get();
+		leaf.withLeft(nil).withRight(nil).withWeight(leaf.getOwnWeight()).makeRed();
+		if (refresh != null) {
+			refresh.accept(leaf);
+		}
+		return leaf;
+	}
+
 	/**
 	 * Descends to the rightmost of the leftmost node of the tree counting the black height of its root
 	 * at the same time.
@@ -617,7 +861,7 @@ abstract class RankedRedBlackTree<T extends WeightedNode<T>> {
 
 		buffer.clear();
 		if (tree.root == tree.nil) {
-			return 0;
+			return 1;
 		}
 
 		Q current = tree.root;
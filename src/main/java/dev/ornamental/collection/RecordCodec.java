@@ -0,0 +1,36 @@
+package dev.ornamental.collection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This interface defines the conversion of values to and from fixed-width binary records
+ * stored by an {@link OffHeapTreeList}.<br>
+ * The buffers passed to the methods are shared by many records, so the implementations must
+ * use the absolute (index-based) access methods only and must neither modify the buffer position
+ * and limit nor access the bytes outside of the record.
+ * @param <T> the type of values converted by the codec
+ */
+public interface RecordCodec<T> {
+
+	/**
+	 * Returns the size of a record in bytes; it must not change over the lifetime of the codec.
+	 * @return the size of a record in bytes
+	 */
+	int recordSize();
+
+	/**
+	 * Writes a value as a record starting at the specified buffer offset.
+	 * @param value the value to write
+	 * @param buffer the buffer to write the record to
+	 * @param offset the offset of the first byte of the record
+	 */
+	void encode(T value, ByteBuffer buffer, int offset);
+
+	/**
+	 * Reads a value from a record starting at the specified buffer offset.
+	 * @param buffer the buffer to read the record from
+	 * @param offset the offset of the first byte of the record
+	 * @return the value represented by the record
+	 */
+	T decode(ByteBuffer buffer, int offset);
+}
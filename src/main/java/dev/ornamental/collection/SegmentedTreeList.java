@@ -0,0 +1,530 @@
+package dev.ornamental.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * This class is a thread-safe random access {@link java.util.List} whose elements are distributed
+ * between a fixed number of consecutive segments, each of them being a {@link TreeList} guarded by
+ * its own lock, so that the threads modifying different segments do not block one another.<br>
+ * A positional operation is routed to a segment by the prefix sums of the segment sizes. The sizes
+ * are read without locking: each segment publishes its size along with a version number which is odd
+ * while the segment is being modified, and the prefix sums are computed again until the versions
+ * of all the segments are even and unchanged by the end of the computation, i.e., the sizes form
+ * a consistent state. {@link #size()} is computed the same way.
+ * A positional operation locks the segment, computes the prefix sums again and resolves the index
+ * against them: the operation is atomic with respect to the operations on the same segment, and
+ * its index refers to a consistent state of the list, although the preceding segments may be
+ * modified concurrently before the operation completes.<br>
+ * When the size of a segment deviates from the average one by more than a half of the average
+ * (and by more than {@link #MIN_REBALANCE_SIZE}), the list is rebalanced: with all the segments locked,
+ * they are concatenated and partitioned anew, which takes <em>O(k log(n))</em> time for <em>k</em>
+ * segments. The operations not addressing the elements by their positions ({@link #remove(Object)},
+ * {@link #removeIf(Predicate)}, {@link #removeAll(Collection)}, {@link #retainAll(Collection)},
+ * {@link #clear()} and the range removal) lock all the segments in the same way.<br>
+ * The iterators, the spliterators, the search operations and {@link #equals(Object)} work on
+ * a {@link #snapshot()} of the list, which is taken in <em>O(n)</em> time holding the locks
+ * of all the segments. The iterators do not support modifications.
+ * @param <T> the type of values stored by the list
+ */
+public class SegmentedTreeList<T> extends AbstractList<T> implements RandomAccess {
+
+	/**
+	 * This class is a segment of the list.
+	 * @param <T> the type of values stored by the segment
+	 */
+	protected static final class Segment<T> {
+
+		/**
+		 * The elements of the segment
+		 */
+		private final TreeList<T> list;
+
+		/**
+		 * The lock guarding the modifications of the segment
+		 */
+		private final ReentrantLock lock = new ReentrantLock();
+
+		/**
+		 * The size of the segment published for the routing
+		 */
+		private volatile int size;
+
+		/**
+		 * The version of the published size; odd while the segment is being modified
+		 */
+		private volatile int version;
+
+		/**
+		 * The index of the first element of the segment in the list, valid while the segment is locked
+		 * by the thread which has routed an operation to it
+		 */
+		private int start;
+
+		/**
+		 * Creates a segment holding the elements of the specified list.
+		 * @param list the elements of the segment
+		 */
+		private Segment(TreeList<T> list) {
+			this.list = list;
+			this.size = list.size();
+		}
+
+		/**
+		 * Returns the list of the elements of the segment; the segment must be locked.
+		 * @return the list of the elements
+		 */
+		public TreeList<T> getList() {
+			return list;
+		}
+	}
+
+	/**
+	 * The minimum deviation of a segment size from the average one which causes the list to be rebalanced
+	 */
+	public static final int MIN_REBALANCE_SIZE = 1024;
+
+	/**
+	 * The lock guarding the replacement of the segments; the positional operations validate
+	 * its optimistic read stamps, while the restructuring operations hold its write lock
+	 */
+	private final StampedLock directoryLock = new StampedLock();
+
+	/**
+	 * The segments of the list
+	 */
+	protected volatile Segment<T>[] segments;
+
+	/**
+	 * Creates an empty {@link SegmentedTreeList} instance having as many segments as there are
+	 * available processors.
+	 */
+	public SegmentedTreeList() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an empty {@link SegmentedTreeList} instance.
+	 * @param segmentCount the number of segments
+	 */
+	public SegmentedTreeList(int segmentCount) {
+		this(Collections.emptyList(), segmentCount);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link SegmentedTreeList}
+	 * in <em>O(n)</em> time, distributing them evenly between the segments.
+	 * @param source the source collection
+	 * @param segmentCount the number of segments
+	 */
+	public SegmentedTreeList(Collection<? extends T> source, int segmentCount) {
+		if (segmentCount < 1) {
+			throw new IllegalArgumentException("The number of segments must be positive.");
+		}
+		this.segments = produceSegments(new TreeList<T>(source).partition(segmentCount));
+	}
+
+	/**
+	 * Returns the number of segments of the list.
+	 * @return the number of segments
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	@Override
+	public T get(int index) {
+		Segment<T> segment = acquire(index, false, false);
+		try {
+			return segment.list.get(index - segment.start);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	@Override
+	public T set(int index, T element) {
+		Segment<T> segment = acquire(index, false, false);
+		try {
+			return segment.list.set(index - segment.start, element);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		while (true) {
+			long stamp = directoryLock.tryOptimisticRead();
+			if (stamp != 0) {
+				Segment<T>[] current = segments;
+				int size = prefixSums(current)[current.length];
+				if (directoryLock.validate(stamp)) {
+					return size;
+				}
+			}
+			Thread.yield(); // the list is being restructured
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean add(T element) {
+		Segment<T> segment = acquire(0, true, true);
+		modify(segment, list -> list.add(element));
+		return true;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		Segment<T> segment = acquire(index, true, false);
+		modify(segment, list -> {
+			list.add(index - segment.start, element);
+			return null;
+		});
+	}
+
+	@Override
+	public T remove(int index) {
+		Segment<T> segment = acquire(index, false, false);
+		return modify(segment, list -> list.remove(index - segment.start));
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		List<T> values = copyOf(c);
+		Segment<T> segment = acquire(0, true, true);
+		return modify(segment, list -> list.addAll(values));
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c) {
+		List<T> values = copyOf(c);
+		Segment<T> segment = acquire(index, true, false);
+		return modify(segment, list -> list.addAll(index - segment.start, values));
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return exclusive(list -> list.remove(o));
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		return exclusive(list -> list.removeIf(filter));
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return exclusive(list -> list.removeAll(c));
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return exclusive(list -> list.retainAll(c));
+	}
+
+	@Override
+	public void clear() {
+		exclusive(list -> {
+			list.clear();
+			return null;
+		});
+	}
+
+	/**
+	 * Copies the list into a new {@link TreeList} in <em>O(n)</em> time, holding the locks
+	 * of all the segments.
+	 * @return the copy of the list
+	 */
+	public TreeList<T> snapshot() {
+		long stamp = directoryLock.readLock();
+		try {
+			Segment<T>[] current = segments;
+			for (Segment<T> segment : current) {
+				segment.lock.lock();
+			}
+			try {
+				TreeList<T> result = new TreeList<>();
+				for (Segment<T> segment : current) {
+					result.addAll(segment.list);
+				}
+				return result;
+			} finally {
+				for (Segment<T> segment : current) {
+					segment.lock.unlock();
+				}
+			}
+		} finally {
+			directoryLock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		return snapshot().toArray();
+	}
+
+	@Override
+	public <E> E[] toArray(E[] a) {
+		return snapshot().toArray(a);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		return Collections.unmodifiableList(snapshot()).listIterator(index);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return snapshot().spliterator();
+	}
+
+	@Override
+	public int hashCode() {
+		return snapshot().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o == this || snapshot().equals(o);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		exclusive(list -> {
+			list.subList(fromIndex, toIndex).clear();
+			return null;
+		});
+	}
+
+	/**
+	 * Locks the segment to which an operation on the specified index has to be routed
+	 * and stores the index of its first element to {@link Segment#start}.
+	 * @param index the index of the element
+	 * @param insertion the flag showing if the index is the insertion location, which may be equal
+	 * to the size of the list
+	 * @param append the flag showing if the last segment has to be locked for appending regardless of the index
+	 * @return the locked segment
+	 */
+	private Segment<T> acquire(int index, boolean insertion, boolean append) {
+		while (true) {
+			long stamp = directoryLock.tryOptimisticRead();
+			if (stamp == 0) {
+				Thread.yield(); // the list is being restructured
+				continue;
+			}
+
+			Segment<T>[] current = segments;
+			int[] sums = prefixSums(current);
+			int size = sums[current.length];
+			if (!append && (index < 0 || index > size || index == size && !insertion)) {
+				if (directoryLock.validate(stamp)) {
+					throw new IndexOutOfBoundsException();
+				}
+				continue;
+			}
+
+			int position = append ? current.length - 1 : route(sums, index);
+			Segment<T> segment = current[position];
+			segment.lock.lock();
+			if (directoryLock.validate(stamp)) {
+				// the preceding segments may have been modified meanwhile
+				sums = prefixSums(current);
+				int start = sums[position];
+				if (append || index >= start
+					&& (index < start + segment.size || insertion && index == start + segment.size)) {
+
+					if (insertion && sums[current.length] == RankedRedBlackTree.MAX_TREE_SIZE) {
+						segment.lock.unlock();
+						throw new IllegalStateException(String.format(
+							"The collection size limit of %s is reached.", RankedRedBlackTree.MAX_TREE_SIZE));
+					}
+					segment.start = start;
+					return segment;
+				}
+			}
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Performs a modification of a locked segment, publishes its new size, unlocks it and rebalances
+	 * the list if needed.
+	 * @param segment the locked segment
+	 * @param modification the modification operation
+	 * @param <R> the type of the result of the modification
+	 * @return the result of the modification
+	 */
+	private <R> R modify(Segment<T> segment, Function<TreeList<T>, R> modification) {
+		try {
+			segment.version++; // the published size becomes inconsistent
+			return modification.apply(segment.list);
+		} finally {
+			int size = segment.list.size();
+			segment.size = size;
+			segment.version++;
+			segment.lock.unlock();
+			Segment<T>[] current = segments;
+			int average = prefixSums(current)[current.length] / current.length;
+			if (Math.abs(size - average) > Math.max(average / 2, MIN_REBALANCE_SIZE)) {
+				rebalance();
+			}
+		}
+	}
+
+	/**
+	 * Rebalances the segments unless the list is being restructured by another thread.
+	 */
+	private void rebalance() {
+		long stamp = directoryLock.tryWriteLock();
+		if (stamp != 0) {
+			try {
+				restructure(list -> null);
+			} finally {
+				directoryLock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	/**
+	 * Performs an operation on the whole list holding the locks of all the segments,
+	 * and rebalances the segments afterwards.
+	 * @param operation the operation
+	 * @param <R> the type of the result of the operation
+	 * @return the result of the operation
+	 */
+	private <R> R exclusive(Function<TreeList<T>, R> operation) {
+		long stamp = directoryLock.writeLock();
+		try {
+			return restructure(operation);
+		} finally {
+			directoryLock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Locks all the segments, concatenates them, performs an operation on the concatenated list
+	 * and replaces the segments with the parts of the list of equal sizes. The directory write lock
+	 * must be held.
+	 * @param operation the operation
+	 * @param <R> the type of the result of the operation
+	 * @return the result of the operation
+	 */
+	private <R> R restructure(Function<TreeList<T>, R> operation) {
+		Segment<T>[] current = segments;
+		for (Segment<T> segment : current) {
+			segment.lock.lock(); // waits for the operations in progress
+		}
+		try {
+			TreeList<T> list = new TreeList<>();
+			for (Segment<T> segment : current) {
+				list = TreeList.concat(list, segment.list);
+			}
+			try {
+				return operation.apply(list);
+			} finally {
+				segments = produceSegments(list.partition(current.length));
+			}
+		} finally {
+			for (Segment<T> segment : current) {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Computes the prefix sums of the sizes of the segments, making sure the sizes are
+	 * consistent (see {@link SegmentedTreeList}).
+	 * @param segments the segments
+	 * @return the array whose <em>i</em>-th element is the total size of the first <em>i</em> segments
+	 */
+	private static int[] prefixSums(Segment<?>[] segments) {
+		int[] sums = new int[segments.length + 1];
+		while (true) {
+			int versionSum = 0;
+			boolean stable = true;
+			for (int i = 0; i < segments.length && stable; i++) {
+				int version = segments[i].version;
+				versionSum += version;
+				sums[i + 1] = sums[i] + segments[i].size;
+				stable = (version & 1) == 0;
+			}
+			if (stable) {
+				// the versions only grow, so their sum is unchanged if and only if each of them is
+				for (Segment<?> segment : segments) {
+					versionSum -= segment.version;
+				}
+				if (versionSum == 0) {
+					return sums;
+				}
+			}
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Finds the segment holding the element having the specified index, or the last segment
+	 * if the index is equal to the size of the list.
+	 * @param sums the prefix sums of the segment sizes
+	 * @param index the index of the element
+	 * @return the index of the segment
+	 */
+	private static int route(int[] sums, int index) {
+		int last = sums.length - 2;
+		int position = 0;
+		while (position < last && index >= sums[position + 1]) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Creates the segments holding the elements of the specified lists.
+	 * @param parts the lists of the elements of the segments
+	 * @param <Q> the type of values stored by the segments
+	 * @return the array of the segments
+	 */
+	private static <Q> Segment<Q>[] produceSegments(List<TreeList<Q>> parts) {
+		@SuppressWarnings("unchecked")
+		Segment<Q>[] result = (Segment<Q>[])new Segment<?>[parts.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = new Segment<>(parts.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Copies a collection before any lock is acquired, so that it is neither modified nor locked
+	 * while a segment of this list is locked.
+	 * @param c the collection
+	 * @param <Q> the type of the elements
+	 * @return the copy of the collection
+	 */
+	private static <Q> List<Q> copyOf(Collection<? extends Q> c) {
+		@SuppressWarnings("unchecked")
+		List<Q> values = (List<Q>)Arrays.asList(Objects.requireNonNull(c).toArray());
+		return values;
+	}
+}
@@ -0,0 +1,660 @@
+package dev.ornamental.collection;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * This class represents a red-black tree storing a subtree size with each node, having the same
+ * semantics as {@link RankedRedBlackTree}, but storing its nodes in numbered slots of some storage
+ * rather than as separate objects. A node is addressed by the index of its slot; the slot {@link #NIL}
+ * is reserved for the common black leaf node. The subclasses define how the child indices, the markers
+ * and the payloads of the slots are stored.<br>
+ * The colour and weight of a node are encoded in its marker exactly like in {@link WeightedNode}.
+ */
+abstract class SlotRankedRedBlackTree {
+
+	/**
+	 * The index of the black leaf node slot
+	 */
+	public static final int NIL = 0;
+
+	/**
+	 * The marker of the black leaf node (black, zero weight)
+	 */
+	protected static final int NIL_MARKER = -1;
+
+	/**
+	 * The maximum tree depth for the maximum tree size, with a margin for the successor node search
+	 */
+	private static final int MAX_PATH_LENGTH = 2 + RankedRedBlackTree.maxTreeDepth(RankedRedBlackTree.MAX_TREE_SIZE);
+
+	/**
+	 * The index of the root node
+	 */
+	private int root = NIL;
+
+	/**
+	 * The path from the root to the modification location
+	 */
+	private final int[] path = new int[MAX_PATH_LENGTH];
+
+	/**
+	 * The number of nodes in {@link #path}
+	 */
+	private int pathSize;
+
+	/**
+	 * Returns the number of nodes in the tree.
+	 * @return the number of nodes in the tree
+	 */
+	public int size() {
+		return weight(root);
+	}
+
+	/**
+	 * Removes all the nodes from the tree and resets the storage.
+	 */
+	public void clear() {
+		resetStorage(0);
+		root = NIL;
+	}
+
+	/**
+	 * Occupies a slot for a red node having no children and the weight of 1;
+	 * the payload of the node is to be set by the caller.
+	 * @return the index of the new node
+	 */
+	public int newNode() {
+		int slot = allocateSlot();
+		setLeft(slot, NIL);
+		setRight(slot, NIL);
+		setMarker(slot, 2);
+		return slot;
+	}
+
+	/**
+	 * Links a node created by {@link #newNode()} into the tree so that it has the specified rank;
+	 * if the node cannot be inserted, its slot is released.
+	 * @param rank the rank of the new node
+	 * @param node the index of the new node
+	 */
+	public void insert(int rank, int node) {
+		if (rank < 0 || rank > weight(root)) {
+			releaseSlot(node);
+			throw new IndexOutOfBoundsException();
+		}
+		if (weight(root) == RankedRedBlackTree.MAX_TREE_SIZE) {
+			releaseSlot(node);
+			throw new IllegalStateException(String.format(
+				"The collection size limit of %s is reached.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		if (root == NIL) {
+			makeBlack(node);
+			root = node;
+			return;
+		}
+
+		// search for the insertion point (nil leaf to substitute with the new node)
+		pathSize = 0;
+		int current = root;
+		while (current != NIL) {
+			path[pathSize++] = current;
+			int leftChild = getLeft(current);
+			int leftWeight = weight(leftChild);
+			if (rank <= leftWeight) {
+				if (leftChild == NIL) {
+					setLeft(current, node);
+				}
+				current = leftChild;
+			} else {
+				rank -= leftWeight + 1;
+				int rightChild = getRight(current);
+				if (rightChild == NIL) {
+					setRight(current, node);
+				}
+				current = rightChild;
+			}
+		}
+
+		for (int i = 0; i < pathSize; i++) {
+			withWeight(path[i], weight(path[i]) + 1);
+		}
+		path[pathSize++] = node;
+
+		insertFixup();
+	}
+
+	/**
+	 * Unlinks the node having the specified rank from the tree. The payload of the node
+	 * is preserved in the returned slot, which must be released with {@link #releaseSlot(int)}
+	 * after the payload is read.
+	 * @param rank the rank of the node to remove
+	 * @return the index of the slot holding the payload of the removed node
+	 */
+	public int unlink(int rank) {
+		if (rank < 0 || rank >= weight(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		pathSize = 0;
+		int node = root;
+		while (true) {
+			path[pathSize++] = node;
+			int leftWeight = weight(getLeft(node));
+			if (rank == leftWeight) {
+				break;
+			} else if (rank < leftWeight) {
+				node = getLeft(node);
+			} else {
+				rank -= leftWeight + 1;
+				node = getRight(node);
+			}
+		}
+
+		if (getLeft(node) != NIL && getRight(node) != NIL) {
+			// the successor node will be unlinked instead, it exchanges the payload with the node
+			int current = getRight(node);
+			path[pathSize++] = current;
+			while (getLeft(current) != NIL) {
+				current = getLeft(current);
+				path[pathSize++] = current;
+			}
+
+			swapPayloads(node, current);
+			node = current;
+		}
+
+		for (int i = 0; i < pathSize; i++) {
+			withWeight(path[i], weight(path[i]) - 1);
+		}
+
+		int child = getLeft(node) == NIL ? getRight(node) : getLeft(node);
+		if (node == root) {
+			root = child;
+			pathSize = 0;
+		} else {
+			pathSize--;
+			int parent = path[pathSize - 1];
+			if (getLeft(parent) == node) {
+				setLeft(parent, child);
+			} else {
+				setRight(parent, child);
+			}
+		}
+		path[pathSize++] = child;
+
+		if (root != NIL && !isRed(node)) {
+			removeFixup();
+		}
+
+		return node;
+	}
+
+	/**
+	 * Replaces the contents of the tree with the given number of new nodes
+	 * in <em>O(n)</em> time so that any two of its leave nodes have depths differing by no more than 1.
+	 * @param payloadLoader the procedure setting the payloads of the new nodes in the order of their ranks
+	 * @param length the number of nodes to create
+	 */
+	public void load(IntConsumer payloadLoader, int length) {
+		resetStorage(length);
+		root = NIL;
+		if (length > 0) {
+			int blackHeight = length == 1 ? 1 : 31 - Integer.numberOfLeadingZeros(length);
+			root = buildTree(payloadLoader, length, blackHeight);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the indices of the nodes in the order of their ranks, starting from
+	 * the specified rank. The iterator does not detect any modifications of the tree.
+	 * @param rank the rank of the first node to be visited
+	 * @return the in-order iterator over the node indices
+	 */
+	public PrimitiveIterator.OfInt iterator(int rank) {
+		if (rank < 0 || rank > weight(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		// the stack of the nodes whose left subtrees have been visited, the next one on the top
+		int[] stack = new int[MAX_PATH_LENGTH];
+		int stackSize = 0;
+		int current = root;
+		while (current != NIL) {
+			int leftWeight = weight(getLeft(current));
+			if (rank <= leftWeight) {
+				stack[stackSize++] = current;
+				if (rank == leftWeight) {
+					break;
+				}
+				current = getLeft(current);
+			} else {
+				rank -= leftWeight + 1;
+				current = getRight(current);
+			}
+		}
+
+		int initialStackSize = stackSize;
+		return new PrimitiveIterator.OfInt() {
+
+			private int size = initialStackSize;
+
+			@Override
+			public boolean hasNext() {
+				return size > 0;
+			}
+
+			@Override
+			public int nextInt() {
+				if (size == 0) {
+					throw new NoSuchElementException("The iteration has reached the end of the tree.");
+				}
+
+				int node = stack[--size];
+				for (int next = getRight(node); next != NIL; next = getLeft(next)) {
+					stack[size++] = next;
+				}
+				return node;
+			}
+		};
+	}
+
+	/**
+	 * Finds a node by its rank in the tree.
+	 * @param rank the rank of the node to find
+	 * @return the index of the node having the requested rank
+	 */
+	public int find(int rank) {
+		if (rank < 0 || rank >= weight(root)) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		int current = root;
+		while (true) {
+			int leftWeight = weight(getLeft(current));
+			if (rank == leftWeight) {
+				return current;
+			} else if (rank < leftWeight) {
+				current = getLeft(current);
+			} else {
+				rank -= leftWeight + 1;
+				current = getRight(current);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the root node.
+	 * @return the index of the root node
+	 */
+	int getRoot() {
+		return root;
+	}
+
+	/**
+	 * Determines if a node is red.
+	 * @param node the index of the node
+	 * @return {@code true} if the node is a red one, {@code false} if it is black
+	 */
+	boolean isRed(int node) {
+		return getMarker(node) > 0;
+	}
+
+	/**
+	 * Returns the weight of a node.
+	 * @param node the index of the node
+	 * @return the weight of the node
+	 */
+	int weight(int node) {
+		return Math.abs(getMarker(node)) - 1;
+	}
+
+	/**
+	 * Returns the index of the left child of a node.
+	 * @param node the index of the node
+	 * @return the index of the left child
+	 */
+	protected abstract int getLeft(int node);
+
+	/**
+	 * Sets the left child of a node.
+	 * @param node the index of the node
+	 * @param child the index of the new left child
+	 */
+	protected abstract void setLeft(int node, int child);
+
+	/**
+	 * Returns the index of the right child of a node.
+	 * @param node the index of the node
+	 * @return the index of the right child
+	 */
+	protected abstract int getRight(int node);
+
+	/**
+	 * Sets the right child of a node.
+	 * @param node the index of the node
+	 * @param child the index of the new right child
+	 */
+	protected abstract void setRight(int node, int child);
+
+	/**
+	 * Returns the marker of a node indicating both its colour and weight;
+	 * the red nodes have positive markers, the black ones have negative markers.
+	 * @param node the index of the node
+	 * @return the marker of the node
+	 */
+	protected abstract int getMarker(int node);
+
+	/**
+	 * Sets the marker of a node.
+	 * @param node the index of the node
+	 * @param marker the new marker of the node
+	 */
+	protected abstract void setMarker(int node, int marker);
+
+	/**
+	 * Occupies a free slot of the storage, growing the storage if needed.
+	 * @return the index of the occupied slot
+	 */
+	protected abstract int allocateSlot();
+
+	/**
+	 * Returns the slot of a node which is not linked into the tree to the storage,
+	 * releasing its payload.
+	 * @param slot the slot to release
+	 */
+	public abstract void releaseSlot(int slot);
+
+	/**
+	 * Exchanges the payloads of two slots.
+	 * @param first the index of the first slot
+	 * @param second the index of the second slot
+	 */
+	protected abstract void swapPayloads(int first, int second);
+
+	/**
+	 * Discards all the slots of the storage except the {@link #NIL} one, which must have
+	 * the {@link #NIL_MARKER} marker afterwards.
+	 * @param expectedSize the number of nodes expected to be allocated next
+	 */
+	protected abstract void resetStorage(int expectedSize);
+
+	/**
+	 * Restores the red-black tree invariants after a node insertion; the {@link #path} must
+	 * contain the path to the inserted node.
+	 */
+	private void insertFixup() {
+		int currentIndex = pathSize - 1;
+		int parent;
+		while (currentIndex > 0 && isRed(parent = path[currentIndex - 1])) {
+			// grandparent must exist because the root is black
+			int grandparent = path[currentIndex - 2];
+			int greatGrandparent = currentIndex > 2 ? path[currentIndex - 3] : NIL;
+			int current = path[currentIndex];
+			if (getLeft(grandparent) == parent) {
+				int uncle = getRight(grandparent);
+				if (isRed(uncle)) {
+					makeBlack(parent);
+					makeBlack(uncle);
+					makeRed(grandparent);
+					currentIndex -= 2; // consider grandparent at the next step
+				} else {
+					if (getRight(parent) == current) {
+						leftRotate(parent, grandparent);
+						parent = current;
+					}
+
+					makeBlack(parent);
+					makeRed(grandparent);
+					rightRotate(grandparent, greatGrandparent);
+					break;
+				}
+			} else {
+				// symmetrical case
+				int uncle = getLeft(grandparent);
+				if (isRed(uncle)) {
+					makeBlack(parent);
+					makeBlack(uncle);
+					makeRed(grandparent);
+					currentIndex -= 2;
+				} else {
+					if (getLeft(parent) == current) {
+						rightRotate(parent, grandparent);
+						parent = current;
+					}
+
+					makeBlack(parent);
+					makeRed(grandparent);
+					leftRotate(grandparent, greatGrandparent);
+					break;
+				}
+			}
+		}
+
+		makeBlack(root);
+	}
+
+	/**
+	 * Restores the red-black tree invariants after a node removal; the {@link #path} must contain
+	 * the path to the node which has replaced the removed one.
+	 */
+	private void removeFixup() {
+		int index = pathSize - 1;
+		int current;
+		while (index != 0 && !isRed(current = path[index])) {
+			int parent = path[index - 1];
+			int grandparent = index > 1 ? path[index - 2] : NIL;
+			if (getLeft(parent) == current) {
+				int sibling = getRight(parent);
+				if (isRed(sibling)) {
+					makeBlack(sibling);
+					makeRed(parent);
+					leftRotate(parent, grandparent);
+					// the former sibling is inserted into the path as the parent's new parent
+					path[index + 1] = current;
+					path[index] = parent;
+					path[index - 1] = sibling;
+					pathSize = Math.max(pathSize, index + 2);
+					index++;
+
+					sibling = getRight(parent);
+				}
+				if (!isRed(getLeft(sibling)) && !isRed(getRight(sibling))) {
+					makeRed(sibling);
+					index--;
+				} else {
+					if (!isRed(getRight(sibling))) {
+						makeBlack(getLeft(sibling));
+						makeRed(sibling);
+						rightRotate(sibling, parent);
+						sibling = getRight(parent);
+					}
+					copyColour(sibling, parent);
+					makeBlack(parent);
+					makeBlack(getRight(sibling));
+					leftRotate(parent, index > 1 ? path[index - 2] : NIL);
+					index = 0;
+				}
+			} else {
+				// symmetrical case
+				int sibling = getLeft(parent);
+				if (isRed(sibling)) {
+					makeBlack(sibling);
+					makeRed(parent);
+					rightRotate(parent, grandparent);
+					path[index + 1] = current;
+					path[index] = parent;
+					path[index - 1] = sibling;
+					pathSize = Math.max(pathSize, index + 2);
+					index++;
+
+					sibling = getLeft(parent);
+				}
+				if (!isRed(getRight(sibling)) && !isRed(getLeft(sibling))) {
+					makeRed(sibling);
+					index--;
+				} else {
+					if (!isRed(getLeft(sibling))) {
+						makeBlack(getRight(sibling));
+						makeRed(sibling);
+						leftRotate(sibling, parent);
+						sibling = getLeft(parent);
+					}
+					copyColour(sibling, parent);
+					makeBlack(parent);
+					makeBlack(getLeft(sibling));
+					rightRotate(parent, index > 1 ? path[index - 2] : NIL);
+					index = 0;
+				}
+			}
+		}
+
+		makeBlack(path[index]);
+	}
+
+	/**
+	 * Performs the left rotation of a node.
+	 * @param node the node
+	 * @param parent the node's parent node ({@link #NIL} for the root)
+	 */
+	private void leftRotate(int node, int parent) {
+		int rt = getRight(node);
+
+		setRight(node, getLeft(rt));
+		setLeft(rt, node);
+		if (parent != NIL) {
+			if (getLeft(parent) == node) {
+				setLeft(parent, rt);
+			} else {
+				setRight(parent, rt);
+			}
+		} else {
+			root = rt;
+		}
+
+		withWeight(rt, weight(node));
+		withWeight(node, 1 + weight(getLeft(node)) + weight(getRight(node)));
+	}
+
+	/**
+	 * Performs the right rotation of a node.
+	 * @param node the node
+	 * @param parent the node's parent node ({@link #NIL} for the root)
+	 */
+	private void rightRotate(int node, int parent) {
+		int lf = getLeft(node);
+
+		setLeft(node, getRight(lf));
+		setRight(lf, node);
+		if (parent != NIL) {
+			if (getLeft(parent) == node) {
+				setLeft(parent, lf);
+			} else {
+				setRight(parent, lf);
+			}
+		} else {
+			root = lf;
+		}
+
+		withWeight(lf, weight(node));
+		withWeight(node, 1 + weight(getLeft(node)) + weight(getRight(node)));
+	}
+
+	/**
+	 * Bulk-loads the given number of new nodes.
+	 * @param payloadLoader the procedure setting the payloads of the new nodes in the order of their ranks
+	 * @param length the number of nodes to create
+	 * @param blackHeight the black height of the node
+	 * @return the index of the root node of the built subtree
+	 */
+	private int buildTree(IntConsumer payloadLoader, int length, int blackHeight) {
+		int node;
+
+		if (blackHeight == 1) {
+			if (length == 1) {
+				node = newLoadedNode(payloadLoader, false);
+			} else if (length == 2) {
+				int leftChild = newLoadedNode(payloadLoader, true);
+				node = newLoadedNode(payloadLoader, false);
+				setLeft(node, leftChild);
+			} else { // length == 3
+				int leftChild = newLoadedNode(payloadLoader, true);
+				node = newLoadedNode(payloadLoader, false);
+				int rightChild = newLoadedNode(payloadLoader, true);
+				setLeft(node, leftChild);
+				setRight(node, rightChild);
+			}
+		} else { // has both subtrees
+			blackHeight--;
+			int leftChild = buildTree(payloadLoader, length / 2, blackHeight);
+			node = newLoadedNode(payloadLoader, false);
+			int rightChild = buildTree(payloadLoader, length - 1 - length / 2, blackHeight);
+			setLeft(node, leftChild);
+			setRight(node, rightChild);
+		}
+
+		withWeight(node, length);
+		return node;
+	}
+
+	/**
+	 * Occupies a slot for a new node having no children and the weight of 1, and sets its payload.
+	 * @param payloadLoader the procedure setting the payload of the node
+	 * @param isRed the flag showing if the node must be red
+	 * @return the index of the new node
+	 */
+	private int newLoadedNode(IntConsumer payloadLoader, boolean isRed) {
+		int node = newNode();
+		if (!isRed) {
+			makeBlack(node);
+		}
+		payloadLoader.accept(node);
+		return node;
+	}
+
+	/**
+	 * Sets the weight of a node preserving its colour.
+	 * @param node the index of the node
+	 * @param weight the new weight of the node
+	 */
+	private void withWeight(int node, int weight) {
+		setMarker(node, getMarker(node) > 0 ? (weight + 1) : -(weight + 1));
+	}
+
+	/**
+	 * Renders a node red.
+	 * @param node the index of the node
+	 */
+	private void makeRed(int node) {
+		int marker = getMarker(node);
+		if (marker < 0) {
+			setMarker(node, -marker);
+		}
+	}
+
+	/**
+	 * Renders a node black.
+	 * @param node the index of the node
+	 */
+	private void makeBlack(int node) {
+		int marker = getMarker(node);
+		if (marker > 0) {
+			setMarker(node, -marker);
+		}
+	}
+
+	/**
+	 * Makes a node's colour the same as another one's.
+	 * @param node the index of the node to recolour
+	 * @param source the index of the node to copy the colour from
+	 */
+	private void copyColour(int node, int source) {
+		int marker = getMarker(node);
+		int sourceMarker = getMarker(source);
+		if (marker > 0 && sourceMarker < 0 || marker < 0 && sourceMarker > 0) {
+			setMarker(node, -marker);
+		}
+	}
+}
@@ -4,13 +4,25 @@ import static dev.ornamental.collection.NodeColour.BLACK;
 import static dev.ornamental.collection.NodeColour.RED;
 
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 
 /**
@@ -23,12 +35,19 @@ import java.util.stream.Stream;
  * Two different {@link TreeList} instances may be concatenated
  * in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where <em>n<sub>1</sub></em>
  * and <em>n<sub>2</sub></em> are the sizes of the original lists
- * (both of which are cleared).<br>
- * Although {@link #addAll(int, Collection)} method
- * generally requires <em>O(m log(m + n))</em> time, it runs in <em>O(m + log(m + n))</em> time if
- * the insertion location is either before the first or past the last element of the list
- * (<em>m</em> is the size of the added collection, <em>n</em> is the size of the list).
- * The better time complexity naturally applies to the {@link #addAll(Collection)} method.
+ * (both of which are cleared); conversely, a list may be split in two in <em>O(log(n))</em> time.<br>
+ * The {@link #addAll(int, Collection)} and {@link #addAll(Collection)} methods run
+ * in <em>O(m + log(m + n))</em> time
+ * (<em>m</em> is the size of the added collection, <em>n</em> is the size of the list).<br>
+ * A range of elements is removed (e.g., using {@code subList(from, to).clear()}) in <em>O(log(n))</em> time.
+ * Bulk removals by {@link #removeIf(Predicate)}, {@link #removeAll(Collection)} and {@link #retainAll(Collection)}
+ * rebuild the list in <em>O(n)</em> time if many elements are removed.
+ * A batch of <em>k</em> positional modifications is applied using {@link #applyEdits(EditBatch)}
+ * in <em>O(k log(n/k + 1))</em> time.
+ * An optional finger (see {@link #setFingerEnabled(boolean)}) makes the positional access to the elements
+ * close to the previously accessed one cheaper than a search from the root.
+ * A list augmented with an {@link Aggregator} (see {@link #TreeList(Aggregator)}) keeps a summary
+ * of each subtree, which allows aggregating any range of elements in <em>O(log(n))</em> time.
  * @param <T> the type of values stored by the list
  */
 public class TreeList<T> extends AbstractList<T> {
@@ -45,6 +64,11 @@ public class TreeList<T> extends AbstractList<T> {
 		 */
 		private Object value;
 
+		/**
+		 * The summary of the values of the subtree if the list is augmented with an {@link Aggregator}
+		 */
+		private Object summary;
+
 		/**
 		 * Creates a new node with the specified colour and subtree weight.
 		 * @param isRed the flag showing if the node is red
@@ -69,6 +93,7 @@ public class TreeList<T> extends AbstractList<T> {
 		@Override
 		public void dropPayload() {
 			value = null;
+			summary = null;
 		}
 
 		/**
@@ -87,8 +112,44 @@ public class TreeList<T> extends AbstractList<T> {
 	 */
 	protected static final class Tree extends RankedRedBlackTree<Node> {
 
+		/**
+		 * The aggregator maintaining the subtree summaries, or {@code null} if the tree is not augmented
+		 */
+		protected final Aggregator<Object, Object> aggregator;
+
 		protected Tree() {
+			this(null);
+		}
+
+		/**
+		 * Creates a new empty tree maintaining the subtree summaries by means of the specified aggregator.
+		 * @param aggregator the aggregator or {@code null} if the tree is not augmented
+		 */
+		@SuppressWarnings("unchecked")
+		protected Tree(Aggregator<?, ?> aggregator) {
 			super(COMMON_NIL);
+			this.aggregator = (Aggregator<Object, Object>)aggregator;
+		}
+
+		@Override
+		protected boolean isAugmented() {
+			return aggregator != null;
+		}
+
+		@Override
+		protected void refresh(Node node) {
+			if (aggregator == null) {
+				return;
+			}
+
+			Object summary = aggregator.summarize(node.value);
+			if (node.getLeft() != nil) {
+				summary = aggregator.combine(node.getLeft().summary, summary);
+			}
+			if (node.getRight() != nil) {
+				summary = aggregator.combine(summary, node.getRight().summary);
+			}
+			node.summary = summary;
 		}
 
 		@Override
@@ -166,6 +227,8 @@ public class TreeList<T> extends AbstractList<T> {
 
 			// modification is possible -> the current node cannot be null
 			nodeListIterator.getCurrentNode().withValue(t);
+			RankedRedBlackTree.NodeBuffer<Node> path = nodeListIterator.getCurrentPath();
+			tree.refreshPath(path, path.size() - 1);
 		}
 
 		@Override
@@ -208,15 +271,15 @@ public class TreeList<T> extends AbstractList<T> {
 	}
 
 	/**
-	 * This class is a {@link Spliterator} implementation for the tree-based list.
+	 * This class is a {@link Spliterator} implementation for the tree-based list. It serves a range
+	 * of indices within a subtree and splits along the tree structure at the topmost node inside the range,
+	 * which becomes the first element of the suffix part; both parts are described by the roots
+	 * of the subtrees containing them rather than by node paths. Neither splitting
+	 * nor {@link #forEachRemaining(Consumer)} use a node stack; a stack is only built on the first
+	 * {@link #tryAdvance(Consumer)} invocation.
 	 */
 	protected class SpliteratorImpl implements Spliterator<T> {
 
-		/**
-		 * The underlying pseudo-spliterator over the sequence of tree nodes
-		 */
-		protected final TreeNodeSpliteratorPrototype<Node> nodeSpliterator;
-
 		/**
 		 * The modification counter used to detect the list modifications performed
 		 * without using this iterator
@@ -224,50 +287,171 @@ public class TreeList<T> extends AbstractList<T> {
 		protected final int expectedModCount;
 
 		/**
-		 * Creates a spliterator based on the specified node pseudo-spliterator.
-		 * @param nodeSpliterator the underlying node pseudo-spliterator
+		 * The root of the subtree containing all the remaining elements
+		 */
+		private Node root;
+
+		/**
+		 * The index of the first element of the subtree rooted at {@link #root}
+		 */
+		private int rootStart;
+
+		/**
+		 * The index of the next element to be returned
+		 */
+		private int from;
+
+		/**
+		 * The index after the last element to be returned
+		 */
+		private final int to;
+
+		/**
+		 * The nodes to be returned by {@link #tryAdvance(Consumer)}, the next one on the top,
+		 * along with the left spines of their right subtrees; {@code null} until needed
+		 */
+		private RankedRedBlackTree.NodeBuffer<Node> stack;
+
+		/**
+		 * Creates a spliterator over a range of indices within a subtree.
+		 * @param root the root of the subtree containing the range
+		 * @param rootStart the index of the first element of the subtree
+		 * @param from the index of the first element to be returned
+		 * @param to the index after the last element to be returned
 		 * @param expectedModCount the last tree modification identifier
 		 */
-		public SpliteratorImpl(TreeNodeSpliteratorPrototype<Node> nodeSpliterator, int expectedModCount) {
-			this.nodeSpliterator = nodeSpliterator;
+		public SpliteratorImpl(Node root, int rootStart, int from, int to, int expectedModCount) {
+			this.root = root;
+			this.rootStart = rootStart;
+			this.from = from;
+			this.to = to;
 			this.expectedModCount = expectedModCount;
 		}
 
 		@Override
 		public boolean tryAdvance(Consumer<? super T> action) {
 			checkModCount();
-			Node node = nodeSpliterator.tryAdvance();
-			if (node != null) {
-				@SuppressWarnings("unchecked")
-				T value = (T)node.getValue();
-				action.accept(value);
-				return true;
-			} else {
+			if (from >= to) {
 				return false;
 			}
+
+			if (stack == null) {
+				stack = new RankedRedBlackTree.NodeBuffer<>(1 + RankedRedBlackTree.maxTreeDepth(root.getWeight()));
+				Node current = root;
+				int start = rootStart;
+				while (true) {
+					int rank = start + current.getLeft().getWeight();
+					if (from <= rank) {
+						stack.add(current);
+						if (from == rank) {
+							break;
+						}
+						current = current.getLeft();
+					} else {
+						start = rank + 1;
+						current = current.getRight();
+					}
+				}
+			}
+
+			Node node = stack.get(stack.size() - 1);
+			stack.removeLast();
+			for (Node next = node.getRight(); next != tree.nil; next = next.getLeft()) {
+				stack.add(next);
+			}
+			from++;
+
+			@SuppressWarnings("unchecked")
+			T value = (T)node.getValue();
+			action.accept(value);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			checkModCount();
+			forEachInRange(root, rootStart, action);
+			from = to;
+			stack = null;
+			checkModCount();
 		}
 
 		@Override
 		public Spliterator<T> trySplit() {
 			checkModCount();
-			TreeNodeSpliteratorPrototype<Node> prefixSpliterator = nodeSpliterator.trySplit();
-			return prefixSpliterator == null
-				? null : new SpliteratorImpl(prefixSpliterator, expectedModCount);
+			if (to - from < 2) {
+				return null;
+			}
+
+			// find the topmost node inside the range, not counting the first element of the range;
+			// the prefix part is in its left subtree unless the first element is one of its ancestors
+			Node current = root;
+			int start = rootStart;
+			Node prefixRoot = null;
+			int prefixRootStart = 0;
+			while (true) {
+				int rank = start + current.getLeft().getWeight();
+				if (rank <= from) {
+					if (rank == from) {
+						prefixRoot = current;
+						prefixRootStart = start;
+					}
+					start = rank + 1;
+					current = current.getRight();
+				} else if (rank >= to) {
+					current = current.getLeft();
+				} else {
+					SpliteratorImpl prefix = prefixRoot == null
+						? new SpliteratorImpl(current.getLeft(), start, from, rank, expectedModCount)
+						: new SpliteratorImpl(prefixRoot, prefixRootStart, from, rank, expectedModCount);
+					root = current;
+					rootStart = start;
+					from = rank;
+					stack = null;
+					return prefix;
+				}
+			}
 		}
 
 		@Override
 		public long estimateSize() {
-			return nodeSpliterator.estimateSize();
+			return to - from;
 		}
 
 		@Override
 		public long getExactSizeIfKnown() {
-			return nodeSpliterator.getExactSizeIfKnown();
+			return to - from;
 		}
 
 		@Override
 		public int characteristics() {
-			return nodeSpliterator.characteristics();
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		/**
+		 * Performs an action for each value of a subtree whose index is within the remaining range.
+		 * @param node the root of the subtree
+		 * @param start the index of the first element of the subtree
+		 * @param action the action to perform
+		 */
+		private void forEachInRange(Node node, int start, Consumer<? super T> action) {
+			while (node != tree.nil) {
+				int rank = start + node.getLeft().getWeight();
+				if (from < rank) {
+					forEachInRange(node.getLeft(), start, action);
+				}
+				if (rank >= to) {
+					return;
+				}
+				if (rank >= from) {
+					@SuppressWarnings("unchecked")
+					T value = (T)node.getValue();
+					action.accept(value);
+				}
+				start = rank + 1;
+				node = node.getRight();
+			}
 		}
 
 		/**
@@ -282,210 +466,994 @@ public class TreeList<T> extends AbstractList<T> {
 	}
 
 	/**
-	 * The common NIL node used across all the instances of {@link TreeList}
+	 * This class is a fork/join task searching a subtree for the lowest (or the highest) index of a value
+	 * matching a predicate. The absolute index of each node is derived from the weights of the subtrees,
+	 * so that the subtrees are searched independently; all the tasks of a search share the best index found
+	 * so far and skip the subtrees which cannot contain a better one.
+	 * @param <T> the type of values stored by the list
 	 */
-	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+	private static final class SearchTask<T> extends RecursiveAction {
 
-	/**
-	 * The initial size of the node stack buffer
-	 */
-	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+		private static final long serialVersionUID = 1L;
 
-	/**
-	 * This number indicates how big must the collection be so that its appending or
-	 * prepending to the list using {@link #addAll(int, Collection)} use the
-	 * bulk load into a new list + list concatenation operations instead of adding
-	 * elements one by one.
-	 */
-	private static final int MIN_BULK_LOAD_ELEMENTS = 16;
+		/**
+		 * The maximum size of a subtree searched without splitting the task
+		 */
+		private static final int MAX_SEQUENTIAL_SEARCH_SIZE = 1 << 12;
 
-	/**
-	 * The underlying ranked red-black tree
-	 */
-	protected final Tree tree;
+		/**
+		 * The root of the subtree to search
+		 */
+		private final Node node;
 
-	/**
-	 * Pre-allocated node list used in modification operations; the references to nodes
-	 * are not explicitly freed after modifications, so this list may be storing nodes
-	 * after their deletion; the deletion method(s) must therefore nullify the value reference
-	 * of the deleted node manually; the list size grows automatically when needed and is limited
-	 * by the maximum tree depth (which cannot exceed 2 * log2(MAX_INTEGER)) so there is no unlimited
-	 * leak of {@link WeightedNode} objects.
-	 */
-	private final RankedRedBlackTree.NodeBuffer<Node> nodeBuffer;
+		/**
+		 * The index of the first value of the subtree
+		 */
+		private final int offset;
 
-	/**
-	 * Creates an empty {@link TreeList} instance.
-	 */
-	public TreeList() {
-		this.tree = new Tree();
-		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
-	}
+		/**
+		 * The predicate to be satisfied by the value
+		 */
+		private final Predicate<? super T> predicate;
 
-	/**
-	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link TreeList}
-	 * in <em>O(n)</em> time (compared to <em>O(n log(n))</em> when inserting the elements one by one).
-	 * @param source the source collection
-	 */
-	public TreeList(Collection<? extends T> source) {
-		int size = source.size();
-		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
-			throw new IllegalArgumentException(String.format(
-				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		/**
+		 * {@code true} if the highest index is searched for, {@code false} if the lowest one is
+		 */
+		private final boolean backward;
+
+		/**
+		 * The best index found so far by any of the tasks of the search
+		 */
+		private final AtomicInteger found;
+
+		/**
+		 * Creates the root task of a search.
+		 * @param root the root of the tree
+		 * @param predicate the predicate to be satisfied by the value
+		 * @param backward {@code true} if the highest index is searched for, {@code false} if the lowest one is
+		 */
+		public SearchTask(Node root, Predicate<? super T> predicate, boolean backward) {
+			this.node = root;
+			this.offset = 0;
+			this.predicate = predicate;
+			this.backward = backward;
+			this.found = new AtomicInteger(backward ? -1 : Integer.MAX_VALUE);
 		}
 
-		this.tree = new Tree();
-		if (size > 0) {
-			int blackHeight = size == 1 ? 1 : 31 - Integer.numberOfLeadingZeros(size);
-			this.tree.root = buildTree(source.iterator(), size, blackHeight);
+		/**
+		 * Creates a subtask of a search.
+		 * @param parent the parent task
+		 * @param node the root of the subtree to search
+		 * @param offset the index of the first value of the subtree
+		 */
+		private SearchTask(SearchTask<T> parent, Node node, int offset) {
+			this.node = node;
+			this.offset = offset;
+			this.predicate = parent.predicate;
+			this.backward = parent.backward;
+			this.found = parent.found;
+		}
+
+		/**
+		 * Returns the result of the search after the task has been completed.
+		 * @return the index found or -1 if no value matches the predicate
+		 */
+		public int getIndex() {
+			int index = found.get();
+			return index == Integer.MAX_VALUE ? -1 : index;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected void compute() {
+			int weight = node.getWeight();
+			if (!canImprove(offset, weight)) {
+				return;
+			}
+			if (weight <= MAX_SEQUENTIAL_SEARCH_SIZE) {
+				int index = backward
+					? lastIndexOfMatching(node, offset, predicate) : indexOfMatching(node, offset, predicate);
+				if (index >= 0) {
+					update(index);
+				}
+				return;
+			}
+
+			int rank = offset + node.getLeft().getWeight();
+			SearchTask<T> left = new SearchTask<>(this, node.getLeft(), offset);
+			SearchTask<T> right = new SearchTask<>(this, node.getRight(), rank + 1);
+			// the subtree to be searched last is forked, so that it may be skipped as soon as a match is found
+			SearchTask<T> later = backward ? left : right;
+			later.fork();
+			(backward ? right : left).compute();
+			if (canImprove(rank, 1) && predicate.test((T)node.getValue())) {
+				update(rank);
+			}
+			later.join();
+		}
+
+		/**
+		 * Checks if a range of indices may contain a better match than the one found so far.
+		 * @param start the first index of the range
+		 * @param length the length of the range
+		 * @return {@code true} if and only if a match in the range would improve the result
+		 */
+		private boolean canImprove(int start, int length) {
+			int index = found.get();
+			return backward ? index < start + length - 1 : index > start;
+		}
+
+		/**
+		 * Records a match unless a better one has already been found.
+		 * @param index the index of the matching value
+		 */
+		private void update(int index) {
+			found.accumulateAndGet(index, backward ? Math::max : Math::min);
 		}
-		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(
-			1 + RankedRedBlackTree.maxTreeDepth(this.tree.root.getWeight()));
 	}
 
 	/**
-	 * Creates a {@link TreeList} with the specified underlying {@link RankedRedBlackTree} instance.
-	 * @param tree the backing tree for the new list
+	 * This class is a fork/join task bulk-loading a range of elements of a random access list
+	 * into a new subtree. The subtree has the same shape, colouring and weights as the one built
+	 * sequentially by {@link #buildTree(Iterator, int)}: the left and the right subtrees of the large
+	 * ranges are built concurrently, the small ranges are built sequentially.
 	 */
-	protected TreeList(Tree tree) {
-		this.tree = tree;
-		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(
-			1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight()));
-	}
+	private final class BuildTask extends RecursiveTask<Node> {
 
-	@Override
-	public T get(int index) {
-		if (index < 0 || index >= tree.root.getWeight()) {
-			throw new IndexOutOfBoundsException();
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The maximum number of elements loaded into a subtree without splitting the task
+		 */
+		private static final int MAX_SEQUENTIAL_BUILD_SIZE = 1 << 13;
+
+		/**
+		 * The source of the values
+		 */
+		private final List<? extends T> values;
+
+		/**
+		 * The index of the first value of the range
+		 */
+		private final int from;
+
+		/**
+		 * The number of values in the range
+		 */
+		private final int length;
+
+		/**
+		 * The black height of the subtree root
+		 */
+		private final int blackHeight;
+
+		/**
+		 * Creates a task loading a range of elements into a new subtree.
+		 * @param values the source of the values
+		 * @param from the index of the first value of the range
+		 * @param length the number of values in the range (must be positive)
+		 * @param blackHeight the black height of the subtree root
+		 */
+		public BuildTask(List<? extends T> values, int from, int length, int blackHeight) {
+			this.values = values;
+			this.from = from;
+			this.length = length;
+			this.blackHeight = blackHeight;
 		}
 
-		@SuppressWarnings("unchecked")
-		T value = (T)tree.find(index, null).getValue();
-		return value;
-	}
+		@Override
+		protected Node compute() {
+			if (blackHeight == 1 || length <= MAX_SEQUENTIAL_BUILD_SIZE) {
+				Iterator<? extends T> range = values.subList(from, from + length).iterator();
+				return RankedRedBlackTree.buildTree(
+					() -> produceNode(range), length, blackHeight, tree.nil, tree::refresh);
+			}
 
-	@Override
-	public int size() {
-		return tree.root.getWeight();
+			int leftLength = length / 2;
+			BuildTask left = new BuildTask(values, from, leftLength, blackHeight - 1);
+			left.fork();
+			Node right = new BuildTask(values, from + leftLength + 1, length - 1 - leftLength, blackHeight - 1)
+				.compute();
+			Node root = new Node(BLACK).withValue(values.get(from + leftLength));
+			return root.withLeft(left.join()).withRight(right).withWeight(length);
+		}
 	}
 
-	@Override
-	public boolean isEmpty() {
-		return tree.root == tree.nil;
-	}
+	/**
+	 * This class applies the modifications of an {@link EditBatch} to the tree in a single in-order walk
+	 * visiting only the subtrees containing modified positions. A subtree whose nodes are only replaced
+	 * keeps its structure; a subtree containing insertions or removals is reassembled from its modified
+	 * subtrees by the join operation, which costs <em>O(log(s))</em> for a subtree of size <em>s</em>.
+	 * Thus, a batch of <em>k</em> modifications is applied in <em>O(k log(n/k + 1))</em> time,
+	 * not counting the bulk-loading of the runs of insertions at the same position.
+	 */
+	private final class EditWalk {
 
-	@Override
-	public void clear() {
-		tree.root = tree.nil;
-		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
-		modCount++;
-	}
+		/**
+		 * The modifications of the batch in the order of their indices
+		 */
+		private final List<EditBatch.Edit> edits;
 
-	@Override
-	public void add(int index, T value) {
-		if (index < 0 || index > tree.root.getWeight()) {
-			throw new IndexOutOfBoundsException();
+		/**
+		 * The buffer for the paths to the pivot nodes of the joins
+		 */
+		private final RankedRedBlackTree.NodeBuffer<Node> joinBuffer;
+
+		/**
+		 * The index of the first modification not applied yet
+		 */
+		private int next;
+
+		/**
+		 * The number of insertions and removals applied so far
+		 */
+		private int structuralEdits;
+
+		/**
+		 * Creates a walk applying the modifications of a batch.
+		 * @param edits the modifications in the order of their indices
+		 * @param maxSize the greatest size of the list before, during and after the modification
+		 */
+		EditWalk(List<EditBatch.Edit> edits, int maxSize) {
+			this.edits = edits;
+			this.joinBuffer = new RankedRedBlackTree.NodeBuffer<>(1 + RankedRedBlackTree.maxTreeDepth(maxSize));
 		}
-		tree.checkSizeLimit();
 
-		if (tree.root == tree.nil) {
-			tree.root = new Node(BLACK)
-				.withLeft(tree.nil).withRight(tree.nil).withValue(value);
-		} else {
-			Node node = new Node(RED)
-				.withLeft(tree.nil).withRight(tree.nil).withValue(value);
+		/**
+		 * Applies the modifications to the elements of a subtree and the insertions preceding them.
+		 * @param node the root of the subtree
+		 * @param offset the original index of the first element of the subtree
+		 * @return the root of the modified subtree; may be red
+		 */
+		Node apply(Node node, int offset) {
+			if (next == edits.size() || edits.get(next).getIndex() >= offset + node.getWeight()) {
+				return node; // no modifications within the subtree
+			}
 
-			// search for the insertion point (nil leaf to substitute with a value-node)
-			nodeBuffer.clear();
-			RankedRedBlackTree.NodeBuffer<Node> nodeStack = nodeBuffer;
-			Node current = tree.root;
-			while (current != tree.nil) {
-				nodeStack.add(current);
-				Node left = current.getLeft();
-				int leftWeight = left.getWeight();
-				if (index <= leftWeight) {
-					if (left == tree.nil) {
-						current.withLeft(node);
-					}
-					current = left;
+			int position = offset + node.getLeft().getWeight();
+			int structuralEditsBefore = structuralEdits;
+			Node left = apply(node.getLeft(), offset);
+			Node inserted = insertedValues(position);
+			boolean removed = false;
+			if (next < edits.size() && edits.get(next).getIndex() == position) {
+				EditBatch.Edit edit = edits.get(next++);
+				if (edit.getOperation() == EditBatch.Operation.REMOVE) {
+					removed = true;
+					structuralEdits++;
 				} else {
-					index -= leftWeight + 1;
-					Node right = current.getRight();
-					if (right == tree.nil) {
-						current.withRight(node);
-					}
-					current = right;
+					node.withValue(edit.getValue());
 				}
 			}
+			Node right = apply(node.getRight(), position + 1);
 
-			nodeStack.add(node);
-			tree.afterInsert(nodeStack);
-		}
-
-		modCount++;
-	}
+			if (structuralEdits == structuralEditsBefore) { // only replacements, so the structure is kept
+				tree.refresh(node);
+				return node;
+			}
 
-	@Override
-	public T remove(int index) {
-		if (index < 0 || index >= tree.root.getWeight()) {
-			throw new IndexOutOfBoundsException();
+			left = concat(left, inserted);
+			return removed ? concat(left, right) : join(left, node, right);
+		}
+
+		/**
+		 * Bulk-loads the values of the insertions at the specified position.
+		 * @param position the original index of the element the values are inserted before
+		 * @return the root of the tree of the inserted values ({@link Tree#nil} if there are none)
+		 */
+		Node insertedValues(int position) {
+			int start = next;
+			while (next < edits.size() && edits.get(next).getIndex() == position
+				&& edits.get(next).getOperation() == EditBatch.Operation.INSERT) {
+
+				next++;
+			}
+			structuralEdits += next - start;
+			@SuppressWarnings("unchecked")
+			Iterator<T> values = edits.subList(start, next).stream().map(edit -> (T)edit.getValue()).iterator();
+			return buildTree(values, next - start);
+		}
+
+		/**
+		 * Concatenates two subtrees in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time.
+		 * @param left the root of the first subtree; may be red
+		 * @param right the root of the second subtree; may be red
+		 * @return the root of the resulting subtree
+		 */
+		private Node concat(Node left, Node right) {
+			if (left == tree.nil) {
+				return right;
+			} else if (right == tree.nil) {
+				return left;
+			}
+
+			Tree prefix = new Tree(tree.aggregator);
+			prefix.root = blacken(left);
+			Tree suffix = new Tree(tree.aggregator);
+			suffix.root = blacken(right);
+			Tree result = new Tree(tree.aggregator);
+			RankedRedBlackTree.merge(prefix, suffix, result);
+			return result.root;
+		}
+
+		/**
+		 * Joins two subtrees and a node placed between them
+		 * in <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time.
+		 * @param left the root of the first subtree; may be red
+		 * @param pivot the node to place between the subtrees
+		 * @param right the root of the second subtree; may be red
+		 * @return the root of the resulting subtree
+		 */
+		private Node join(Node left, Node pivot, Node right) {
+			Tree result = new Tree(tree.aggregator);
+			result.root = blacken(left);
+			right = blacken(right);
+			result.join(blackHeight(result.root), pivot, right, blackHeight(right), joinBuffer);
+			return result.root;
+		}
+
+		/**
+		 * Makes the root of a subtree black, which keeps the subtree valid.
+		 * @param root the root of the subtree
+		 * @return the root
+		 */
+		private Node blacken(Node root) {
+			root.makeBlack();
+			return root;
+		}
+
+		/**
+		 * Computes the black height of a subtree having a black root.
+		 * @param root the root of the subtree
+		 * @return the black height of the subtree (including the black leaf NIL nodes)
+		 */
+		private int blackHeight(Node root) {
+			int height = 1;
+			for (Node current = root; current != tree.nil; current = current.getLeft()) {
+				if (current.isBlack()) {
+					height++;
+				}
+			}
+			return height;
+		}
+	}
+
+	/**
+	 * This class accumulates elements one at a time and bulk-loads them into a new {@link TreeList}
+	 * without knowing their number in advance and without an intermediate collection.<br>
+	 * The added elements form a spine of perfect all-black subtrees of strictly decreasing heights separated
+	 * by standalone nodes, much like the digits of a binary counter: an added element either becomes
+	 * a separator or a new single-node subtree, and two subtrees of equal heights are merged together
+	 * with their separator into a subtree one level higher. Thus, an element is added in amortized
+	 * <em>O(1)</em> time, and {@link #build()} joins the spine into a red-black tree in <em>O(log(n))</em> time.
+	 * Another builder's elements may be appended in <em>O(log(n))</em> time
+	 * using {@link #addAll(Builder)}, which makes the builder suitable for parallel stream collection
+	 * (see {@link TreeList#toTreeList()}).
+	 * @param <T> the type of values stored by the list
+	 */
+	public static final class Builder<T> {
+
+		/**
+		 * The maximum number of subtrees on the spine
+		 */
+		private static final int MAX_SPINE_SIZE = 32;
+
+		/**
+		 * The perfect subtrees of the spine
+		 */
+		private final Node[] subtrees = new Node[MAX_SPINE_SIZE];
+
+		/**
+		 * The black heights of the spine subtrees (including the black leaf NIL nodes)
+		 */
+		private final int[] blackHeights = new int[MAX_SPINE_SIZE];
+
+		/**
+		 * The nodes following the respective spine subtrees; the last subtree may have no separator yet
+		 */
+		private final Node[] separators = new Node[MAX_SPINE_SIZE];
+
+		/**
+		 * The number of subtrees on the spine
+		 */
+		private int spineSize = 0;
+
+		/**
+		 * The elements appended by {@link #addAll(Builder)}, which precede the elements of the spine
+		 */
+		private Tree prefix = new Tree();
+
+		/**
+		 * The total number of the accumulated elements
+		 */
+		private int size = 0;
+
+		/**
+		 * Creates an empty builder.
+		 */
+		public Builder() { }
+
+		/**
+		 * Appends an element in amortized <em>O(1)</em> time.
+		 * @param value the element to append
+		 * @return this builder
+		 */
+		public Builder<T> add(T value) {
+			if (size == RankedRedBlackTree.MAX_TREE_SIZE) {
+				throw new IllegalStateException(String.format(
+					"The list must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+			}
+			size++;
+
+			Node node = new Node(BLACK).withValue(value);
+			if (spineSize > 0 && separators[spineSize - 1] == null) {
+				separators[spineSize - 1] = node;
+				return this;
+			}
+
+			Node subtree = node.withLeft(COMMON_NIL).withRight(COMMON_NIL).withWeight(1);
+			int blackHeight = 2;
+			while (spineSize > 0 && blackHeights[spineSize - 1] == blackHeight) {
+				spineSize--;
+				subtree = separators[spineSize].withLeft(subtrees[spineSize]).withRight(subtree)
+					.withWeight(2 * subtree.getWeight() + 1);
+				subtrees[spineSize] = null;
+				separators[spineSize] = null;
+				blackHeight++;
+			}
+			subtrees[spineSize] = subtree;
+			blackHeights[spineSize] = blackHeight;
+			spineSize++;
+			return this;
+		}
+
+		/**
+		 * Appends all the remaining elements of an iterator.
+		 * @param values the iterator over the elements to append
+		 * @return this builder
+		 */
+		public Builder<T> addAll(Iterator<? extends T> values) {
+			values.forEachRemaining(this::add);
+			return this;
+		}
+
+		/**
+		 * Appends the elements accumulated by another builder in <em>O(log(n))</em> time;
+		 * the other builder is emptied.
+		 * @param other the builder whose elements are to be appended
+		 * @return this builder
+		 */
+		public Builder<T> addAll(Builder<? extends T> other) {
+			if (other == this) {
+				throw new IllegalArgumentException("A builder cannot be appended to itself.");
+			}
+			if ((long)size + other.size > RankedRedBlackTree.MAX_TREE_SIZE) {
+				throw new IllegalStateException(String.format(
+					"The list must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+			}
+
+			Tree head = buildTree();
+			Tree tail = other.buildTree();
+			prefix = new Tree();
+			RankedRedBlackTree.merge(head, tail, prefix);
+			size = prefix.root.getWeight();
+			return this;
+		}
+
+		/**
+		 * Returns the number of the accumulated elements.
+		 * @return the number of elements
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Creates a list containing the accumulated elements in <em>O(log(n))</em> time.
+		 * The builder is emptied and may be reused.
+		 * @return the new list
+		 */
+		public TreeList<T> build() {
+			return new TreeList<>(buildTree());
+		}
+
+		/**
+		 * Joins the spine subtrees and the separators from right to left, then appends the result
+		 * to the prefix tree, and empties the builder.
+		 * @return the tree containing the accumulated elements
+		 */
+		private Tree buildTree() {
+			Tree spine = new Tree();
+			int blackHeight = 1;
+			int i = spineSize - 1;
+			if (i >= 0 && separators[i] == null) {
+				spine.root = subtrees[i];
+				blackHeight = blackHeights[i];
+				i--;
+			}
+
+			RankedRedBlackTree.NodeBuffer<Node> path =
+				new RankedRedBlackTree.NodeBuffer<>(1 + RankedRedBlackTree.maxTreeDepth(size));
+			for (; i >= 0; i--) {
+				Node suffixRoot = spine.root;
+				spine.root = subtrees[i];
+				blackHeight = spine.join(blackHeights[i], separators[i], suffixRoot, blackHeight, path);
+			}
+
+			Tree result = new Tree();
+			RankedRedBlackTree.merge(prefix, spine, result);
+			Arrays.fill(subtrees, 0, spineSize, null);
+			Arrays.fill(separators, 0, spineSize, null);
+			spineSize = 0;
+			size = 0;
+			return result;
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link TreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The initial size of the node stack buffer
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 1 + RankedRedBlackTree.maxTreeDepth(31);
+
+	/**
+	 * This number indicates how big must the collection be so that its insertion
+	 * into the list using {@link #addAll(int, Collection)} use the
+	 * bulk load into a new list + list split and concatenation operations instead of adding
+	 * elements one by one.
+	 */
+	private static final int MIN_BULK_LOAD_ELEMENTS = 16;
+
+	/**
+	 * The minimum number of elements in each of the parts a list is partitioned into
+	 * by {@link #parallelRemoveIf(Predicate)}; the lists having fewer elements are searched sequentially
+	 * by {@link #parallelIndexOfMatching(Predicate)} and {@link #parallelLastIndexOfMatching(Predicate)},
+	 * and loaded sequentially by {@link #parallelFrom(List)}
+	 */
+	private static final int MIN_PARALLEL_PART_SIZE = 1 << 15;
+
+	/**
+	 * The underlying ranked red-black tree
+	 */
+	protected final Tree tree;
+
+	/**
+	 * Pre-allocated node list used in modification operations; the references to nodes
+	 * are not explicitly freed after modifications, so this list may be storing nodes
+	 * after their deletion; the deletion method(s) must therefore nullify the value reference
+	 * of the deleted node manually; the list size grows automatically when needed and is limited
+	 * by the maximum tree depth (which cannot exceed 2 * log2(MAX_INTEGER)) so there is no unlimited
+	 * leak of {@link WeightedNode} objects.
+	 */
+	private final RankedRedBlackTree.NodeBuffer<Node> nodeBuffer;
+
+	/**
+	 * The flag showing if the positional operations use the {@link #finger}
+	 */
+	private boolean fingerEnabled = false;
+
+	/**
+	 * The path from the root to the most recently accessed node; valid only while {@link #modCount}
+	 * is equal to {@link #fingerModCount}
+	 */
+	private RankedRedBlackTree.NodeBuffer<Node> finger;
+
+	/**
+	 * The indices of the first elements of the subtrees rooted at the {@link #finger} nodes
+	 */
+	private int[] fingerStarts;
+
+	/**
+	 * The value of {@link #modCount} at the moment the {@link #finger} was built
+	 */
+	private int fingerModCount;
+
+	/**
+	 * Creates an empty {@link TreeList} instance.
+	 */
+	public TreeList() {
+		this.tree = new Tree();
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link TreeList}
+	 * in <em>O(n)</em> time (compared to <em>O(n log(n))</em> when inserting the elements one by one).
+	 * @param source the source collection
+	 */
+	public TreeList(Collection<? extends T> source) {
+		this(source, null);
+	}
+
+	/**
+	 * Creates an empty {@link TreeList} instance augmented with the specified {@link Aggregator}:
+	 * each subtree of the list keeps the summary of its values, which allows aggregating any range
+	 * of the list using {@link #aggregate(Aggregator, int, int)} in <em>O(log(n))</em> time.
+	 * The summaries are updated by all the modification operations at the cost of <em>O(log(n))</em>
+	 * additional aggregator invocations per element modified.
+	 * @param aggregator the aggregator maintaining the subtree summaries
+	 */
+	public TreeList(Aggregator<? super T, ?> aggregator) {
+		this.tree = new Tree(Objects.requireNonNull(aggregator));
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new empty {@link TreeList}
+	 * augmented with the specified {@link Aggregator} (see {@link #TreeList(Aggregator)}) in <em>O(n)</em> time.
+	 * @param source the source collection
+	 * @param aggregator the aggregator maintaining the subtree summaries, or {@code null}
+	 * if the list is not to be augmented
+	 */
+	public TreeList(Collection<? extends T> source, Aggregator<? super T, ?> aggregator) {
+		int size = source.size();
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		this.tree = new Tree(aggregator);
+		this.tree.root = buildTree(source.iterator(), size);
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(
+			1 + RankedRedBlackTree.maxTreeDepth(this.tree.root.getWeight()));
+	}
+
+	/**
+	 * Creates a {@link TreeList} with the specified underlying {@link RankedRedBlackTree} instance.
+	 * @param tree the backing tree for the new list
+	 */
+	protected TreeList(Tree tree) {
+		this.tree = tree;
+		this.nodeBuffer = new RankedRedBlackTree.NodeBuffer<>(
+			1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight()));
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		@SuppressWarnings("unchecked")
+		T value = (T)(fingerEnabled ? findWithFinger(index) : tree.find(index, null)).getValue();
+		return value;
+	}
+
+	@Override
+	public int size() {
+		return tree.root.getWeight();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tree.root == tree.nil;
+	}
+
+	@Override
+	public void clear() {
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+	}
+
+	@Override
+	public void add(int index, T value) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+		tree.checkSizeLimit();
+
+		if (tree.root == tree.nil) {
+			tree.root = new Node(BLACK)
+				.withLeft(tree.nil).withRight(tree.nil).withValue(value);
+			tree.refresh(tree.root);
+		} else {
+			Node node = new Node(RED)
+				.withLeft(tree.nil).withRight(tree.nil).withValue(value);
+			if (fingerEnabled) {
+				insertWithFinger(index, node);
+				modCount++;
+				return;
+			}
+
+			// search for the insertion point (nil leaf to substitute with a value-node)
+			nodeBuffer.clear();
+			RankedRedBlackTree.NodeBuffer<Node> nodeStack = nodeBuffer;
+			Node current = tree.root;
+			while (current != tree.nil) {
+				nodeStack.add(current);
+				Node left = current.getLeft();
+				int leftWeight = left.getWeight();
+				if (index <= leftWeight) {
+					if (left == tree.nil) {
+						current.withLeft(node);
+					}
+					current = left;
+				} else {
+					index -= leftWeight + 1;
+					Node right = current.getRight();
+					if (right == tree.nil) {
+						current.withRight(node);
+					}
+					current = right;
+				}
+			}
+
+			nodeStack.add(node);
+			tree.afterInsert(nodeStack);
+		}
+
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		if (index < 0 || index >= tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
 		}
 
 		// search for the deletion point
-		Node node = tree.find(index, nodeBuffer);
+		Node node = fingerEnabled ? findWithFinger(index) : tree.find(index, nodeBuffer);
+		// the finger may have been allocated by the search
+		RankedRedBlackTree.NodeBuffer<Node> path = fingerEnabled ? finger : nodeBuffer;
 		@SuppressWarnings("unchecked")
 		T value = (T)node.getValue();
-		tree.remove(nodeBuffer);
+		tree.remove(path);
+
+		modCount++;
+		return value;
+	}
+
+	/**
+	 * Removes the elements having indices from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive,
+	 * in <em>O(log(n))</em> time, where <em>n</em> is the size of the list: the range is cut out of the tree
+	 * and the remaining parts are concatenated. This method is used by {@code subList(from, to).clear()}.
+	 * @param fromIndex the index of the first element to be removed
+	 * @param toIndex the index after the last element to be removed
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > tree.root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (fromIndex == toIndex) {
+			return;
+		}
+
+		Tree prefixTree = new Tree(tree.aggregator);
+		Tree remainderTree = new Tree(tree.aggregator);
+		RankedRedBlackTree.split(tree, fromIndex, prefixTree, remainderTree);
+		Tree removedTree = new Tree(tree.aggregator);
+		Tree suffixTree = new Tree(tree.aggregator);
+		RankedRedBlackTree.split(remainderTree, toIndex - fromIndex, removedTree, suffixTree);
+		// the nodes of the removed tree are simply dropped
+		RankedRedBlackTree.merge(prefixTree, suffixTree, tree);
+
+		modCount++;
+	}
+
+	@Override
+	public T set(int index, T element) {
+		if (fingerEnabled && (index < 0 || index >= tree.root.getWeight())) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		// the path to the node is only needed to update the subtree summaries
+		Node node = fingerEnabled ? findWithFinger(index) : tree.find(index, tree.isAugmented() ? nodeBuffer : null);
+		RankedRedBlackTree.NodeBuffer<Node> path = fingerEnabled ? finger : nodeBuffer;
+		@SuppressWarnings("unchecked")
+		T oldValue = (T)node.getValue();
+		node.withValue(element);
+		tree.refreshPath(path, path.size() - 1);
+		return oldValue;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		RankedRedBlackTree.NodeBuffer<Node> cursor =
+			new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
+		boolean before = true;
+		if (tree.root != tree.nil) {
+			if (index == tree.root.getWeight()) {
+				before = false;
+				index--;
+			}
+			tree.find(index, cursor);
+		}
+
+		return new ListIteratorImpl(new TreeNodeListIterator<>(tree, cursor, before));
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return new SpliteratorImpl(tree.root, 0, 0, tree.root.getWeight(), modCount);
+	}
+
+	/**
+	 * Creates a {@link Spliterator} over a range of the elements of the list in <em>O(1)</em> time;
+	 * locating the first element takes <em>O(log(n))</em> time, where <em>n</em> is the size of the list,
+	 * and the preceding elements are never visited. The spliterator is fail-fast
+	 * like the one returned by {@link #spliterator()}.
+	 * @param fromIndex the index of the first element to be returned by the spliterator
+	 * @param toIndex the index after the last element to be returned by the spliterator
+	 * @return the spliterator over the specified range of the elements
+	 */
+	public Spliterator<T> spliterator(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > tree.root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		return new SpliteratorImpl(tree.root, 0, fromIndex, toIndex, modCount);
+	}
+
+	/**
+	 * Returns the summary of the elements having indices from {@code fromIndex}, inclusive,
+	 * to {@code toIndex}, exclusive, in <em>O(log(n))</em> time, where <em>n</em> is the size of the list:
+	 * the summaries of at most two subtrees and one element per tree level are combined.
+	 * The list must be augmented with the specified aggregator (see {@link #TreeList(Aggregator)}).
+	 * @param aggregator the aggregator the list is augmented with
+	 * @param fromIndex the index of the first element of the range
+	 * @param toIndex the index after the last element of the range
+	 * @param <A> the type of the summary
+	 * @return the summary of the range; the {@link Aggregator#identity() identity} summary if the range is empty
+	 * @throws IllegalArgumentException if the list is not augmented with the specified aggregator
+	 */
+	@SuppressWarnings("unchecked")
+	public <A> A aggregate(Aggregator<? super T, A> aggregator, int fromIndex, int toIndex) {
+		if (aggregator == null || aggregator != tree.aggregator) {
+			throw new IllegalArgumentException("The list is not augmented with the specified aggregator.");
+		}
+		if (fromIndex < 0 || toIndex > tree.root.getWeight() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		return fromIndex == toIndex ? aggregator.identity() : (A)aggregate(tree.root, 0, fromIndex, toIndex);
+	}
+
+	/**
+	 * Returns the aggregator the list is augmented with.
+	 * @return the aggregator maintaining the subtree summaries or {@code null} if the list is not augmented
+	 */
+	public Aggregator<? super T, ?> getAggregator() {
+		return tree.aggregator;
+	}
+
+	/**
+	 * Performs the given action for each element of the list in order, walking the tree directly
+	 * without creating an iterator.
+	 * @param action the action to be performed for each element
+	 * @throws ConcurrentModificationException if the action modifies the list structurally
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		forEach(tree.root, action, modCount);
+	}
 
-		modCount++;
-		return value;
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[tree.root.getWeight()];
+		fill(tree.root, result, 0);
+		return result;
 	}
 
 	@Override
-	public T set(int index, T element) {
-		Node node = tree.find(index, null);
-		@SuppressWarnings("unchecked")
-		T oldValue = (T)node.getValue();
-		node.withValue(element);
-		return oldValue;
+	public <E> E[] toArray(E[] a) {
+		int size = tree.root.getWeight();
+		E[] result = a.length >= size ? a : Arrays.copyOf(a, size);
+		fill(tree.root, result, 0);
+		if (result.length > size) {
+			result[size] = null;
+		}
+		return result;
 	}
 
 	@Override
-	public Iterator<T> iterator() {
-		return listIterator(0);
+	public int hashCode() {
+		return hashCode(tree.root, 1);
 	}
 
 	@Override
-	public ListIterator<T> listIterator(int index) {
-		if (index < 0 || index > tree.root.getWeight()) {
-			throw new IndexOutOfBoundsException();
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof List)) {
+			return false;
 		}
 
-		RankedRedBlackTree.NodeBuffer<Node> cursor =
-			new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
-		boolean before = true;
-		if (tree.root != tree.nil) {
-			if (index == tree.root.getWeight()) {
-				before = false;
-				index--;
-			}
-			tree.find(index, cursor);
+		List<?> other = (List<?>)o;
+		if (other.size() != tree.root.getWeight()) {
+			return false;
 		}
+		Iterator<?> otherValues = other.iterator();
+		return equals(tree.root, otherValues) && !otherValues.hasNext();
+	}
 
-		return new ListIteratorImpl(new TreeNodeListIterator<>(tree, cursor, before));
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
 	}
 
 	@Override
-	public Spliterator<T> spliterator() {
-		if (tree.root == tree.nil) {
-			return Spliterators.emptySpliterator();
-		} else {
-			RankedRedBlackTree.NodeBuffer<Node> buffer =
-				new RankedRedBlackTree.NodeBuffer<>(nodeBuffer.getCapacity());
-			tree.find(0, buffer);
-			return new SpliteratorImpl(
-				new TreeNodeSpliteratorPrototype<>(buffer, tree.root.getWeight()), modCount);
-		}
+	public int indexOf(Object o) {
+		return indexOfMatching(tree.root, 0, value -> Objects.equals(o, value));
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return lastIndexOfMatching(tree.root, 0, value -> Objects.equals(o, value));
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in this list, or -1 if the list
+	 * does not contain the element, searching different subtrees concurrently as described
+	 * in {@link #parallelIndexOfMatching(Predicate)}.
+	 * @param o the element to search for
+	 * @return the index of the first occurrence of the element or -1 if the list does not contain it
+	 */
+	public int parallelIndexOf(Object o) {
+		return parallelIndexOfMatching(value -> Objects.equals(o, value));
+	}
+
+	/**
+	 * Returns the lowest index of an element satisfying the given predicate, or -1 if there is no such element.
+	 * The disjoint subtrees of the tree are searched concurrently using the common {@link ForkJoinPool},
+	 * the index of each element being computed from the subtree weights; the subtrees located entirely
+	 * after an already found match are skipped. Small lists are searched sequentially.<br>
+	 * The predicate must be safe to be invoked concurrently; it may be invoked for any elements of the list,
+	 * including the ones following the match, in any order.
+	 * @param predicate the predicate to be satisfied by the element
+	 * @return the index of the first matching element or -1 if there is no such element
+	 * @throws ConcurrentModificationException if the list is structurally modified during the search
+	 */
+	public int parallelIndexOfMatching(Predicate<? super T> predicate) {
+		return parallelSearch(Objects.requireNonNull(predicate), false);
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the specified element in this list, or -1 if the list
+	 * does not contain the element, searching different subtrees concurrently as described
+	 * in {@link #parallelLastIndexOfMatching(Predicate)}.
+	 * @param o the element to search for
+	 * @return the index of the last occurrence of the element or -1 if the list does not contain it
+	 */
+	public int parallelLastIndexOf(Object o) {
+		return parallelLastIndexOfMatching(value -> Objects.equals(o, value));
+	}
+
+	/**
+	 * Returns the highest index of an element satisfying the given predicate, or -1 if there is no such element.
+	 * This method is the mirror image of {@link #parallelIndexOfMatching(Predicate)}: the subtrees located
+	 * entirely before an already found match are skipped.
+	 * @param predicate the predicate to be satisfied by the element
+	 * @return the index of the last matching element or -1 if there is no such element
+	 * @throws ConcurrentModificationException if the list is structurally modified during the search
+	 */
+	public int parallelLastIndexOfMatching(Predicate<? super T> predicate) {
+		return parallelSearch(Objects.requireNonNull(predicate), true);
+	}
+
+	/**
+	 * Checks if the list contains the specified element, searching different subtrees concurrently
+	 * as described in {@link #parallelIndexOfMatching(Predicate)}.
+	 * @param o the element to search for
+	 * @return {@code true} if and only if the list contains the element
+	 */
+	public boolean parallelContains(Object o) {
+		return parallelIndexOf(o) >= 0;
 	}
 
 	/**
@@ -493,35 +1461,48 @@ public class TreeList<T> extends AbstractList<T> {
 	 * position, preserving the order of collection elements as returned by its iterator. The
 	 * original elements whose indices start the insertion position will have their indices
 	 * increased by the size of the collection.<br>
-	 * If the collection is prepended ({@code index == 0}) or appended ({@code index == size()})
-	 * to this list, the operation runs in <em>O(m + log(m + n))</em> time, where <em>n</em> is the
-	 * size of this list and <em>m</em> is the size of the collection. Otherwise, the operation runs in
-	 * <em>O(m log(m + n))</em> time.
+	 * The operation runs in <em>O(m + log(m + n))</em> time, where <em>n</em> is the
+	 * size of this list and <em>m</em> is the size of the collection: the collection is bulk-loaded
+	 * into a new tree, and unless it is prepended ({@code index == 0}) or appended ({@code index == size()})
+	 * to this list, the list is split at the insertion position, and the three parts are concatenated.
+	 * The list remains unchanged if the collection iterator fails or the size limit would be exceeded.
 	 * @param index the index at which the first element of the collection will be inserted
 	 * @param c the collection whose elements are to be added to this list
 	 * @return {@code true} if and only if the passed collection is not empty
 	 */
 	@Override
 	public boolean addAll(int index, Collection<? extends T> c) {
-		if (index != 0 && index != tree.root.getWeight()
-			|| c.size() < MIN_BULK_LOAD_ELEMENTS) {
-
+		if (c.size() < MIN_BULK_LOAD_ELEMENTS) {
 			return super.addAll(index, c);
 		} else {
-			TreeList<T> adfix = new TreeList<>(c);
-			Tree resultTree = new Tree();
+			if (index < 0 || index > tree.root.getWeight()) {
+				throw new IndexOutOfBoundsException();
+			}
+
+			// the collection is loaded and the resulting size is checked before the list is split,
+			// so that a failure leaves the list intact
+			TreeList<T> adfix = new TreeList<>(c, tree.aggregator);
+			if ((long)tree.root.getWeight() + adfix.tree.root.getWeight() > RankedRedBlackTree.MAX_TREE_SIZE) {
+				throw new IllegalStateException(String.format(
+					"The resulting collection size limit of %s would be exceeded.", RankedRedBlackTree.MAX_TREE_SIZE));
+			}
+			Tree resultTree = new Tree(tree.aggregator);
 
 			if (index == 0) {
 				RankedRedBlackTree.merge(adfix.tree, tree, resultTree);
-			} else { // index == tree.root.getWeight()
+			} else if (index == tree.root.getWeight()) {
 				RankedRedBlackTree.merge(tree, adfix.tree, resultTree);
+			} else {
+				Tree prefixTree = new Tree(tree.aggregator);
+				Tree suffixTree = new Tree(tree.aggregator);
+				RankedRedBlackTree.split(tree, index, prefixTree, suffixTree);
+				Tree headTree = new Tree(tree.aggregator);
+				RankedRedBlackTree.merge(prefixTree, adfix.tree, headTree);
+				RankedRedBlackTree.merge(headTree, suffixTree, resultTree);
 			}
 			tree.root = resultTree.root;
 
-			int bufferCapacity = 1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight());
-			if (bufferCapacity > nodeBuffer.getCapacity()) {
-				nodeBuffer.reinitialize(bufferCapacity);
-			}
+			ensureBufferCapacity();
 
 			modCount++;
 			return true;
@@ -533,6 +1514,218 @@ public class TreeList<T> extends AbstractList<T> {
 		return addAll(tree.root.getWeight(), c);
 	}
 
+	/**
+	 * Removes all the elements of the list satisfying the given predicate. The predicate is evaluated
+	 * exactly once for each element, in the order of the elements. If a large fraction of the elements
+	 * is removed, the list is rebuilt from the remaining elements in <em>O(n)</em> time, where <em>n</em>
+	 * is the size of the list; otherwise, the elements are removed one by one in <em>O(k log(n))</em> time,
+	 * where <em>k</em> is the number of removed elements.
+	 * @param filter the predicate returning {@code true} for the elements to be removed
+	 * @return {@code true} if and only if any elements were removed
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+
+		int size = tree.root.getWeight();
+		BitSet removed = new BitSet(size);
+		int index = 0;
+		for (T value : this) {
+			if (filter.test(value)) {
+				removed.set(index);
+			}
+			index++;
+		}
+
+		return removeMarked(removed);
+	}
+
+	/**
+	 * Removes all the elements of the list satisfying the given predicate, evaluating the predicate
+	 * concurrently for different parts of the list. The predicate is evaluated for the parts using
+	 * the common {@link ForkJoinPool}, and the marked elements are then removed as described
+	 * in {@link #removeIf(Predicate)}. Small lists are filtered sequentially. If the predicate fails,
+	 * the failure is rethrown once all the parts have been processed, and the list remains unchanged.<br>
+	 * The predicate must be safe to be invoked concurrently; no assumptions are to be made
+	 * about the order of the predicate invocations.
+	 * @param filter the predicate returning {@code true} for the elements to be removed
+	 * @return {@code true} if and only if any elements were removed
+	 */
+	public boolean parallelRemoveIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+
+		int size = tree.root.getWeight();
+		int parts = Math.min(4 * ForkJoinPool.getCommonPoolParallelism(), size / MIN_PARALLEL_PART_SIZE);
+		if (parts < 2) {
+			return removeIf(filter);
+		}
+
+		List<ForkJoinTask<BitSet>> tasks = new ArrayList<>(parts);
+		for (int i = 0; i < parts; i++) {
+			int from = (int)((long)size * i / parts);
+			Spliterator<T> values = spliterator(from, (int)((long)size * (i + 1) / parts));
+			tasks.add(ForkJoinTask.adapt(() -> {
+				BitSet marked = new BitSet();
+				int[] index = {from};
+				values.forEachRemaining(value -> {
+					if (filter.test(value)) {
+						marked.set(index[0]);
+					}
+					index[0]++;
+				});
+				return marked;
+			}).fork());
+		}
+
+		for (ForkJoinTask<BitSet> task : tasks) {
+			task.quietlyJoin(); // none of the parts may be accessed once this method returns
+		}
+		BitSet removed = new BitSet(size);
+		for (ForkJoinTask<BitSet> task : tasks) {
+			removed.or(task.join()); // rethrows the failure of the first failed part
+		}
+
+		return removeMarked(removed);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(value -> !c.contains(value));
+	}
+
+	/**
+	 * Applies a batch of positional modifications to the list in <em>O(k log(n/k + 1))</em> time,
+	 * where <em>k</em> is the number of modifications and <em>n</em> is the size of the list
+	 * (a run of <em>c</em> insertions at the same position adds <em>O(c)</em>).
+	 * The indices of the modifications refer to the positions of the elements before the batch is applied.<br>
+	 * The batch is applied in a single walk over the tree descending only into the subtrees containing
+	 * modified positions: the replacements are made in place, and the subtrees affected by insertions
+	 * and removals are joined back together on the way up. If the batch is invalid for this list,
+	 * the list is not modified.
+	 * @param batch the modifications to apply
+	 */
+	public void applyEdits(EditBatch<? extends T> batch) {
+		List<EditBatch.Edit> edits = batch.getEdits();
+		if (edits.isEmpty()) {
+			return;
+		}
+
+		EditBatch.Edit last = edits.get(edits.size() - 1);
+		int size = tree.root.getWeight();
+		if (last.getIndex() > size || last.getIndex() == size && last.getOperation() != EditBatch.Operation.INSERT) {
+			throw new IndexOutOfBoundsException();
+		}
+		long insertions = edits.stream().filter(edit -> edit.getOperation() == EditBatch.Operation.INSERT).count();
+		if (size + insertions > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalStateException(
+				String.format("The collection size limit of %s is reached.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		EditWalk walk = new EditWalk(edits, (int)(size + insertions));
+		Node root = walk.apply(tree.root, 0);
+		root = walk.concat(root, walk.insertedValues(size)); // the insertions at the end of the list
+		root.makeBlack();
+		tree.root = root;
+
+		ensureBufferCapacity();
+		modCount++;
+	}
+
+	/**
+	 * Enables or disables the finger: a cached path to the most recently accessed node.
+	 * When the finger is enabled, {@link #get(int)}, {@link #set(int, Object)}, {@link #add(int, Object)}
+	 * and {@link #remove(int)} start the node search from the lowest node of the cached path whose subtree
+	 * contains the requested index rather than from the root, so accessing the elements close to the
+	 * previously accessed one, e.g., in an index loop, takes amortized <em>O(1)</em> time
+	 * instead of <em>O(log(n))</em>.
+	 * Any structural modification of the list invalidates the finger.
+	 * As {@link #get(int)} updates the finger, the list must not be read by several threads concurrently
+	 * while the finger is enabled.
+	 * @param enabled {@code true} to enable the finger, {@code false} to disable it
+	 */
+	public void setFingerEnabled(boolean enabled) {
+		fingerEnabled = enabled;
+		finger = null;
+		fingerStarts = null;
+	}
+
+	/**
+	 * Determines if the finger is enabled for this list.
+	 * @return {@code true} if the finger is enabled, {@code false} otherwise
+	 * @see #setFingerEnabled(boolean)
+	 */
+	public boolean isFingerEnabled() {
+		return fingerEnabled;
+	}
+
+	/**
+	 * Bulk-loads the elements of the given array into a new {@link TreeList} in <em>O(n)</em> time,
+	 * building different subtrees concurrently as described in {@link #parallelFrom(List)}.
+	 * @param values the source array
+	 * @param <Q> the output list generic type argument
+	 * @return the new list containing the array elements
+	 */
+	public static <Q> TreeList<Q> ofArray(Q[] values) {
+		return parallelFrom(Arrays.asList(values));
+	}
+
+	/**
+	 * Bulk-loads the elements of the given list into a new {@link TreeList} in <em>O(n)</em> time.
+	 * If the source list implements {@link RandomAccess}, the left and the right subtrees of the large
+	 * index ranges are built concurrently using the common {@link ForkJoinPool}; the resulting tree
+	 * is identical to the one built by {@link #TreeList(Collection)}. Other lists, as well as the small ones,
+	 * are loaded sequentially.<br>
+	 * The source list must not be modified while it is being loaded.
+	 * @param source the source list
+	 * @param <Q> the output list generic type argument
+	 * @return the new list containing the source list elements
+	 */
+	public static <Q> TreeList<Q> parallelFrom(List<? extends Q> source) {
+		int size = source.size();
+		if (!(source instanceof RandomAccess) || size < MIN_PARALLEL_PART_SIZE) {
+			return new TreeList<>(source);
+		}
+		if (size > RankedRedBlackTree.MAX_TREE_SIZE) {
+			throw new IllegalArgumentException(String.format(
+				"The source collection must not contain more than %s elements.", RankedRedBlackTree.MAX_TREE_SIZE));
+		}
+
+		TreeList<Q> list = new TreeList<>();
+		int blackHeight = RankedRedBlackTree.loadedBlackHeight(size);
+		list.tree.root = ForkJoinPool.commonPool().invoke(list.new BuildTask(source, 0, size, blackHeight));
+		list.ensureBufferCapacity();
+		return list;
+	}
+
+	/**
+	 * Bulk-loads the elements of the given stream into a new {@link TreeList} in <em>O(n)</em> time
+	 * using a {@link Builder}, so the stream elements are neither counted nor buffered beforehand.
+	 * @param values the source stream
+	 * @param <Q> the output list generic type argument
+	 * @return the new list containing the stream elements in the encounter order
+	 */
+	public static <Q> TreeList<Q> of(Stream<? extends Q> values) {
+		return values.collect(toTreeList());
+	}
+
+	/**
+	 * Returns a {@link Collector} accumulating the input elements into a new {@link TreeList}
+	 * in the encounter order. The elements are accumulated by {@link Builder} instances, whose partial
+	 * results are combined in <em>O(log(n))</em> time, so the total collection time is <em>O(n)</em>.
+	 * @param <Q> the type of the input elements
+	 * @return the collector producing a {@link TreeList}
+	 */
+	public static <Q> Collector<Q, ?, TreeList<Q>> toTreeList() {
+		return Collector.of(Builder<Q>::new, Builder::add, Builder::addAll, Builder::build);
+	}
+
 	/**
 	 * Concatenates two different {@link TreeList} instances in
 	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
@@ -547,8 +1740,12 @@ public class TreeList<T> extends AbstractList<T> {
 		if (prefix == suffix) {
 			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
 		}
+		if (prefix.tree.aggregator != suffix.tree.aggregator) {
+			throw new IllegalArgumentException(
+				"The prefix and suffix lists must be augmented with the same aggregator.");
+		}
 
-		Tree mergedTree = new Tree();
+		Tree mergedTree = new Tree(prefix.tree.aggregator);
 		RankedRedBlackTree.merge(prefix.tree, suffix.tree, mergedTree);
 		Stream.of(prefix, suffix).forEachOrdered(list -> {
 			list.modCount++;
@@ -557,43 +1754,368 @@ public class TreeList<T> extends AbstractList<T> {
 		return new TreeList<>(mergedTree);
 	}
 
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list. This is the inverse of {@link #concat(TreeList, TreeList)}.
+	 * @param index the index of the first element to be moved to the returned list;
+	 * may be equal to the size of the list, in which case the returned list is empty
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public TreeList<T> split(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Tree prefixTree = new Tree(tree.aggregator);
+		Tree suffixTree = new Tree(tree.aggregator);
+		RankedRedBlackTree.split(tree, index, prefixTree, suffixTree);
+		tree.root = prefixTree.root;
+
+		modCount++;
+		return new TreeList<>(suffixTree);
+	}
+
+	/**
+	 * Splits this list into the specified number of consecutive parts whose sizes differ by no more than 1,
+	 * in <em>O(k log(n))</em> time, where <em>k</em> is the number of parts and <em>n</em> is the size
+	 * of the list. The parts precede one another in the returned list in the order of their elements
+	 * in this list; the parts having more elements come first. If the number of parts exceeds the size
+	 * of the list, the trailing parts are empty, so exactly the requested number of parts is always
+	 * returned. This list is cleared.
+	 * @param parts the number of parts to split the list into
+	 * @return the list of the parts of this list, each of them being a new {@link TreeList} instance
+	 */
+	public List<TreeList<T>> partition(int parts) {
+		if (parts < 1) {
+			throw new IllegalArgumentException("The number of parts must be positive.");
+		}
+
+		int size = tree.root.getWeight();
+		List<TreeList<T>> result = new ArrayList<>(Math.min(parts, size + 1));
+		Tree remainder = new Tree(tree.aggregator);
+		remainder.root = tree.root;
+		for (int i = 0; i < parts - 1; i++) {
+			Tree part = new Tree(tree.aggregator);
+			Tree suffix = new Tree(tree.aggregator);
+			RankedRedBlackTree.split(remainder, size / parts + (i < size % parts ? 1 : 0), part, suffix);
+			result.add(new TreeList<>(part));
+			remainder = suffix;
+		}
+		result.add(new TreeList<>(remainder));
+
+		tree.root = tree.nil;
+		nodeBuffer.reinitialize(DEFAULT_BUFFER_SIZE);
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Finds a node by its index starting from the lowest {@link #finger} node whose subtree contains it;
+	 * the finger is rebuilt from the root if it is not valid. The finger is updated to contain the path
+	 * to the found node.
+	 * @param index the index of the node; must be valid
+	 * @return the node having the specified index
+	 */
+	private Node findWithFinger(int index) {
+		int level = 0;
+		if (finger == null || fingerModCount != modCount || finger.size() == 0) {
+			int depth = 1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight());
+			if (finger == null || fingerStarts.length < depth) {
+				finger = new RankedRedBlackTree.NodeBuffer<>(depth);
+				fingerStarts = new int[depth];
+			}
+			finger.clear();
+			finger.add(tree.root);
+			fingerStarts[0] = 0;
+			fingerModCount = modCount;
+		} else {
+			// climb to the lowest node whose subtree contains the requested index
+			level = finger.size() - 1;
+			while (level > 0 && (index < fingerStarts[level]
+				|| index >= fingerStarts[level] + finger.get(level).getWeight())) {
+
+				level--;
+			}
+			finger.truncate(level + 1);
+		}
+
+		Node current = finger.get(level);
+		int start = fingerStarts[level];
+		while (true) {
+			int rank = start + current.getLeft().getWeight();
+			if (index == rank) {
+				return current;
+			} else if (index < rank) {
+				current = current.getLeft();
+			} else {
+				start = rank + 1;
+				current = current.getRight();
+			}
+			fingerStarts[finger.size()] = start;
+			finger.add(current);
+		}
+	}
+
+	/**
+	 * Inserts a new node so that it has the specified index, searching for the insertion point
+	 * using the {@link #finger}. The tree must not be empty.
+	 * @param index the index of the new node
+	 * @param node the new red node having no children
+	 */
+	private void insertWithFinger(int index, Node node) {
+		int size = tree.root.getWeight();
+		Node current = findWithFinger(index < size ? index : size - 1);
+		if (index == size) {
+			current.withRight(node); // the last node has no right child
+		} else if (current.getLeft() == tree.nil) {
+			current.withLeft(node);
+		} else {
+			// the new node becomes the right child of the predecessor
+			current = current.getLeft();
+			finger.add(current);
+			while (current.getRight() != tree.nil) {
+				current = current.getRight();
+				finger.add(current);
+			}
+			current.withRight(node);
+		}
+
+		finger.add(node);
+		tree.afterInsert(finger);
+	}
+
+	/**
+	 * Removes the elements whose indices are marked. If a large fraction of the elements is removed,
+	 * the list is rebuilt from the remaining elements in <em>O(n)</em> time; otherwise, the elements
+	 * are removed one by one in <em>O(k log(n))</em> time, where <em>k</em> is the number of removed elements.
+	 * @param removed the indices of the elements to remove
+	 * @return {@code true} if and only if any elements were removed
+	 */
+	private boolean removeMarked(BitSet removed) {
+		int size = tree.root.getWeight();
+		int removedCount = removed.cardinality();
+		if (removedCount == 0) {
+			return false;
+		}
+
+		if ((long)removedCount * (32 - Integer.numberOfLeadingZeros(size)) < size) {
+			for (int i = removed.length() - 1; i >= 0; i = removed.previousSetBit(i - 1)) {
+				remove(i);
+			}
+		} else {
+			ListIterator<T> values = listIterator();
+			Iterator<T> survivors = new Iterator<T>() {
+				@Override
+				public boolean hasNext() {
+					return removed.nextClearBit(values.nextIndex()) < size;
+				}
+
+				@Override
+				public T next() {
+					T value;
+					do {
+						value = values.next();
+					} while (removed.get(values.previousIndex()));
+					return value;
+				}
+			};
+
+			tree.root = buildTree(survivors, size - removedCount);
+			modCount++;
+		}
+
+		return true;
+	}
+
 	/**
 	 * Bulk-loads the given number of iterator elements into a new tree so that any two
 	 * of its leave nodes have depths differing by no more than 1.
 	 * @param values the value source
 	 * @param length the number of elements to fetch from the source
-	 * @param blackHeight the black height of the node
-	 * @return the root node of the new tree
-	 */
-	private Node buildTree(Iterator<? extends T> values, int length, int blackHeight) {
-
-		Node root;
-
-		if (blackHeight == 1) {
-			if (length == 1) {
-				root = produceNode(values).withLeft(tree.nil).withRight(tree.nil);
-			} else if (length == 2) {
-				Node left = produceNode(values);
-				left.withLeft(tree.nil).withRight(tree.nil).makeRed();
-				root = produceNode(values).withLeft(left).withRight(tree.nil);
-			} else { // length == 3
-				Node left = produceNode(values).withLeft(tree.nil).withRight(tree.nil);
-				left.makeRed();
-				root = produceNode(values);
-				Node right = produceNode(values).withLeft(tree.nil).withRight(tree.nil);
-				right.makeRed();
-				root.withLeft(left).withRight(right);
-			}
-		} else { // has both subtrees
-			blackHeight--;
-			Node left = buildTree(values, length / 2, blackHeight);
-			root = produceNode(values);
-			Node right = buildTree(values, length - 1 - length / 2, blackHeight);
-			root.withLeft(left).withRight(right);
-		}
-
-		root.withWeight(length);
-		return root;
+	 * @return the root node of the new tree ({@link Tree#nil} if the length is zero)
+	 */
+	private Node buildTree(Iterator<? extends T> values, int length) {
+		return RankedRedBlackTree.buildTree(() -> produceNode(values), length, tree.nil, tree::refresh);
+	}
+
+	/**
+	 * Performs an action for each value of a subtree in order.
+	 * @param node the root of the subtree
+	 * @param action the action to perform
+	 * @param expectedModCount the modification count of the list at the beginning of the walk
+	 */
+	private void forEach(Node node, Consumer<? super T> action, int expectedModCount) {
+		while (node != tree.nil) {
+			forEach(node.getLeft(), action, expectedModCount);
+			@SuppressWarnings("unchecked")
+			T value = (T)node.getValue();
+			action.accept(value);
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			node = node.getRight();
+		}
+	}
+
+	/**
+	 * Copies the values of a subtree to an array placing each value according to its rank.
+	 * @param node the root of the subtree
+	 * @param array the array to fill
+	 * @param offset the array index of the first value of the subtree
+	 */
+	private void fill(Node node, Object[] array, int offset) {
+		while (node != tree.nil) {
+			int leftWeight = node.getLeft().getWeight();
+			fill(node.getLeft(), array, offset);
+			array[offset + leftWeight] = node.getValue();
+			offset += leftWeight + 1;
+			node = node.getRight();
+		}
+	}
+
+	/**
+	 * Accumulates the values of a subtree into a hash code as defined by {@link List#hashCode()}.
+	 * @param node the root of the subtree
+	 * @param hashCode the hash code of the preceding values
+	 * @return the hash code of the preceding values and the values of the subtree
+	 */
+	private int hashCode(Node node, int hashCode) {
+		while (node != tree.nil) {
+			hashCode = hashCode(node.getLeft(), hashCode);
+			Object value = node.getValue();
+			hashCode = 31 * hashCode + (value == null ? 0 : value.hashCode());
+			node = node.getRight();
+		}
+		return hashCode;
+	}
+
+	/**
+	 * Compares the values of a subtree with the values returned by an iterator in order.
+	 * @param node the root of the subtree
+	 * @param otherValues the iterator over the values to compare with
+	 * @return {@code true} if the iterator returns as many values as there are in the subtree
+	 * and the values are equal pairwise, {@code false} otherwise
+	 */
+	private boolean equals(Node node, Iterator<?> otherValues) {
+		while (node != tree.nil) {
+			if (!equals(node.getLeft(), otherValues)
+				|| !otherValues.hasNext() || !Objects.equals(node.getValue(), otherValues.next())) {
+
+				return false;
+			}
+			node = node.getRight();
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the lowest index of a value matching the predicate in a subtree.
+	 * @param node the root of the subtree
+	 * @param offset the index of the first value of the subtree
+	 * @param predicate the predicate to be satisfied by the value
+	 * @param <Q> the type of values stored by the list
+	 * @return the index of the first matching value or -1 if there is no such value in the subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private static <Q> int indexOfMatching(Node node, int offset, Predicate<? super Q> predicate) {
+		while (node.getWeight() > 0) {
+			int index = indexOfMatching(node.getLeft(), offset, predicate);
+			if (index >= 0) {
+				return index;
+			}
+			offset += node.getLeft().getWeight();
+			if (predicate.test((Q)node.getValue())) {
+				return offset;
+			}
+			offset++;
+			node = node.getRight();
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the highest index of a value matching the predicate in a subtree.
+	 * @param node the root of the subtree
+	 * @param offset the index of the first value of the subtree
+	 * @param predicate the predicate to be satisfied by the value
+	 * @param <Q> the type of values stored by the list
+	 * @return the index of the last matching value or -1 if there is no such value in the subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private static <Q> int lastIndexOfMatching(Node node, int offset, Predicate<? super Q> predicate) {
+		while (node.getWeight() > 0) {
+			int rank = offset + node.getLeft().getWeight();
+			int index = lastIndexOfMatching(node.getRight(), rank + 1, predicate);
+			if (index >= 0) {
+				return index;
+			}
+			if (predicate.test((Q)node.getValue())) {
+				return rank;
+			}
+			node = node.getLeft();
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the lowest or the highest index of an element satisfying the predicate, searching
+	 * the large lists concurrently.
+	 * @param predicate the predicate to be satisfied by the element
+	 * @param backward {@code true} if the highest index is searched for, {@code false} if the lowest one is
+	 * @return the index found or -1 if there is no matching element
+	 */
+	private int parallelSearch(Predicate<? super T> predicate, boolean backward) {
+		Node root = tree.root;
+		if (root.getWeight() < MIN_PARALLEL_PART_SIZE) {
+			return backward ? lastIndexOfMatching(root, 0, predicate) : indexOfMatching(root, 0, predicate);
+		}
+
+		int expectedModCount = modCount;
+		SearchTask<T> task = new SearchTask<>(root, predicate, backward);
+		ForkJoinPool.commonPool().invoke(task);
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+		return task.getIndex();
+	}
+
+	/**
+	 * Computes the summary of a non-empty range of the values of a subtree.
+	 * @param node the root of the subtree
+	 * @param start the index of the first value of the subtree
+	 * @param fromIndex the index of the first value of the range (may precede the subtree)
+	 * @param toIndex the index after the last value of the range (may follow the subtree)
+	 * @return the summary of the intersection of the range with the subtree, which must not be empty
+	 */
+	private Object aggregate(Node node, int start, int fromIndex, int toIndex) {
+		if (fromIndex <= start && start + node.getWeight() <= toIndex) {
+			return node.summary;
+		}
+
+		Aggregator<Object, Object> aggregator = tree.aggregator;
+		int rank = start + node.getLeft().getWeight();
+		Object summary = aggregator.identity();
+		if (fromIndex < rank && rank > start) {
+			summary = aggregate(node.getLeft(), start, fromIndex, toIndex);
+		}
+		if (fromIndex <= rank && rank < toIndex) {
+			summary = aggregator.combine(summary, aggregator.summarize(node.getValue()));
+		}
+		if (rank + 1 < toIndex && rank + 1 < start + node.getWeight()) {
+			summary = aggregator.combine(summary, aggregate(node.getRight(), rank + 1, fromIndex, toIndex));
+		}
+		return summary;
+	}
+
+	/**
+	 * Makes sure the node buffer is sufficient to store a path from the root to any node of the tree.
+	 */
+	private void ensureBufferCapacity() {
+		int bufferCapacity = 1 + RankedRedBlackTree.maxTreeDepth(tree.root.getWeight());
+		if (bufferCapacity > nodeBuffer.getCapacity()) {
+			nodeBuffer.reinitialize(bufferCapacity);
+		}
 	}
 
 	/**
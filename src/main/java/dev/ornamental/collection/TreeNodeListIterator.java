@@ -279,4 +279,14 @@ final class TreeNodeListIterator<T extends WeightedNode<T>> implements ListItera
 		int size = currentNode.size();
 		return size == 0 ? null : currentNode.get(size - 1);
 	}
+
+	/**
+	 * Returns the path from the root to the node the iterator is positioned on (see {@link #getCurrentNode()}).
+	 * The returned buffer is used by the iterator and must not be modified.
+	 * @return the node buffer where the first element is the tree root, each element is a child
+	 * of the previous one, and the last one is the current node
+	 */
+	public RankedRedBlackTree.NodeBuffer<T> getCurrentPath() {
+		return currentNode;
+	}
 }
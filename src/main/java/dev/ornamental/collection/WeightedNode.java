@@ -113,6 +113,15 @@ abstract class WeightedNode<S extends WeightedNode<S>> {
 		return Math.abs(marker) - 1;
 	}
 
+	/**
+	 * Returns the weight contributed to the subtree weight by the node itself, i.e., the number
+	 * of collection elements the node holds. This implementation returns 1.
+	 * @return the weight of the node not including the weights of its subtrees
+	 */
+	public int getOwnWeight() {
+		return 1;
+	}
+
 	/**
 	 * Sets the weight of the node.
 	 * @param weight the new weight of the node
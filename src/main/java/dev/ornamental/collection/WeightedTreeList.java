@@ -0,0 +1,389 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.NodeColour.BLACK;
+import static dev.ornamental.collection.NodeColour.RED;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class is a random access {@link java.util.List} implementation where each element carries
+ * a non-negative {@code long} weight (e.g., the length of an item stored in a file or the duration
+ * of an event). The elements may be thought of as consecutive segments of the weight axis: an element
+ * occupies the offsets from the total weight of the preceding elements, inclusive, to that total plus
+ * its own weight, exclusive. Along with the subtree size, each tree node keeps the total weight
+ * of its subtree, so that both {@link #offsetOf(int)} and its inverse {@link #indexOfOffset(long)} run
+ * in <em>O(log(n))</em> time, as do the single-element operations of {@link TreeList}.<br>
+ * The weights of the elements inserted or replaced using the {@link java.util.List} methods are computed
+ * by the weigher function passed to the constructor; {@link #add(int, Object, long)},
+ * {@link #set(int, Object, long)} and {@link #setWeight(int, long)} assign the weights explicitly.
+ * The total weight of the list must not exceed {@link Long#MAX_VALUE}.
+ * @param <T> the type of values stored by the list
+ */
+public class WeightedTreeList<T> extends AbstractNodeTreeList<T, WeightedTreeList.Node> {
+
+	/**
+	 * This is the node class used by {@link WeightedTreeList}.
+	 */
+	protected static final class Node extends WeightedNode<Node> {
+
+		/**
+		 * The value held by the node
+		 */
+		private Object value;
+
+		/**
+		 * The weight of the value held by the node
+		 */
+		private long weight;
+
+		/**
+		 * The total weight of the values held by the subtree
+		 */
+		private long totalWeight;
+
+		/**
+		 * Creates a new node with the specified colour and subtree weight.
+		 * @param isRed the flag showing if the node is red
+		 */
+		public Node(boolean isRed) {
+			super(isRed);
+		}
+
+		/**
+		 * Returns the total weight of the values held by the subtree of the node.
+		 * @return the total weight of the subtree values
+		 */
+		public long getTotalWeight() {
+			return totalWeight;
+		}
+
+		/**
+		 * Replaces the value of the node and its weight.
+		 * @param value the new value
+		 * @param weight the weight of the new value
+		 * @return this node
+		 */
+		public Node withValue(Object value, long weight) {
+			this.value = value;
+			this.weight = weight;
+			return this;
+		}
+
+		@Override
+		public void copyPayload(WeightedNode<Node> source) {
+			value = ((Node)source).value;
+			weight = ((Node)source).weight;
+		}
+
+		@Override
+		public void dropPayload() {
+			value = null;
+		}
+	}
+
+	/**
+	 * This class is a {@link RankedRedBlackTree} specification for the custom {@link Node} type
+	 * maintaining the total weights of the subtrees.
+	 */
+	protected static final class Tree extends RankedRedBlackTree<Node> {
+
+		protected Tree() {
+			super(COMMON_NIL);
+		}
+
+		@Override
+		protected Node produceNode(boolean isRed) {
+			return new Node(isRed);
+		}
+
+		@Override
+		protected boolean isAugmented() {
+			return true;
+		}
+
+		@Override
+		protected void refresh(Node node) {
+			node.totalWeight = node.weight + node.getLeft().totalWeight + node.getRight().totalWeight;
+		}
+	}
+
+	/**
+	 * The common NIL node used across all the instances of {@link WeightedTreeList}
+	 */
+	protected static final Node COMMON_NIL = new Node(BLACK).withWeight(0);
+
+	/**
+	 * The function computing the weights of the elements inserted using the {@link java.util.List} methods
+	 */
+	private final ToLongFunction<? super T> weigher;
+
+	/**
+	 * Creates an empty {@link WeightedTreeList} instance.
+	 * @param weigher the function computing the weights of the elements inserted or replaced
+	 * using the {@link java.util.List} methods
+	 */
+	public WeightedTreeList(ToLongFunction<? super T> weigher) {
+		this(new Tree(), weigher);
+	}
+
+	/**
+	 * Bulk-loads the elements of the given {@link Collection} into a new {@link WeightedTreeList}
+	 * in <em>O(n)</em> time.
+	 * @param source the source collection
+	 * @param weigher the function computing the weights of the elements
+	 */
+	public WeightedTreeList(Collection<? extends T> source, ToLongFunction<? super T> weigher) {
+		this(weigher);
+		Iterator<? extends T> values = source.iterator();
+		long[] totalWeight = new long[1];
+		load(() -> {
+			T value = values.next();
+			long weight = checkWeight(weigher.applyAsLong(value));
+			if (weight > Long.MAX_VALUE - totalWeight[0]) {
+				throw new IllegalStateException(
+					String.format("The total weight of the list must not exceed %s.", Long.MAX_VALUE));
+			}
+			totalWeight[0] += weight;
+			return new Node(BLACK).withValue(value, weight);
+		}, source.size());
+	}
+
+	/**
+	 * Creates a {@link WeightedTreeList} with the specified underlying tree.
+	 * @param tree the backing tree for the new list
+	 * @param weigher the function computing the weights of the elements
+	 */
+	protected WeightedTreeList(Tree tree, ToLongFunction<? super T> weigher) {
+		super(tree);
+		this.weigher = Objects.requireNonNull(weigher);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	/**
+	 * Inserts a value having the specified weight into the specified position of the list.
+	 * @param index the index of the new value
+	 * @param value the value to insert
+	 * @param weight the weight of the value; must not be negative
+	 */
+	public void add(int index, T value, long weight) {
+		checkWeightChange(checkWeight(weight));
+		insertNode(index, new Node(RED).withValue(value, weight));
+	}
+
+	/**
+	 * Replaces the value at the specified position of the list and its weight.
+	 * @param index the index of the value
+	 * @param value the new value
+	 * @param weight the weight of the new value; must not be negative
+	 * @return the previous value at the specified position
+	 */
+	@SuppressWarnings("unchecked")
+	public T set(int index, T value, long weight) {
+		checkWeight(weight);
+		Node node = findNodeForRemoval(index);
+		checkWeightChange(weight - node.weight);
+		T oldValue = (T)node.value;
+		node.withValue(value, weight);
+		refreshFoundPath();
+		return oldValue;
+	}
+
+	/**
+	 * Returns the weight of the value at the specified position of the list.
+	 * @param index the index of the value
+	 * @return the weight of the value
+	 */
+	public long weightOf(int index) {
+		return findNode(index).weight;
+	}
+
+	/**
+	 * Replaces the weight of the value at the specified position of the list.
+	 * @param index the index of the value
+	 * @param weight the new weight of the value; must not be negative
+	 * @return the previous weight of the value
+	 */
+	public long setWeight(int index, long weight) {
+		checkWeight(weight);
+		Node node = findNodeForRemoval(index);
+		long oldWeight = node.weight;
+		checkWeightChange(weight - oldWeight);
+		node.weight = weight;
+		refreshFoundPath();
+		return oldWeight;
+	}
+
+	/**
+	 * Returns the total weight of the values of the list in <em>O(1)</em> time.
+	 * @return the total weight of the list
+	 */
+	public long totalWeight() {
+		return tree.root.totalWeight;
+	}
+
+	/**
+	 * Returns the offset of the value at the specified position of the list, i.e., the total weight
+	 * of the preceding values, in <em>O(log(n))</em> time.
+	 * @param index the index of the value; may be equal to the size of the list,
+	 * in which case the total weight of the list is returned
+	 * @return the offset of the value
+	 */
+	public long offsetOf(int index) {
+		if (index < 0 || index > tree.root.getWeight()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		long offset = 0;
+		Node current = tree.root;
+		while (current != tree.nil) {
+			int leftWeight = current.getLeft().getWeight();
+			if (index <= leftWeight) {
+				current = current.getLeft();
+			} else {
+				index -= leftWeight + 1;
+				offset += current.getLeft().totalWeight + current.weight;
+				current = current.getRight();
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Finds the value occupying the specified offset in <em>O(log(n))</em> time: the returned index
+	 * is the one of the value whose offset does not exceed the specified one, while the offset
+	 * of the next value does. The values having zero weights occupy no offsets.
+	 * @param offset the offset; must be non-negative and less than the {@link #totalWeight() total weight}
+	 * @return the index of the value occupying the offset
+	 */
+	public int indexOfOffset(long offset) {
+		if (offset < 0 || offset >= tree.root.totalWeight) {
+			throw new IndexOutOfBoundsException(String.format(
+				"The offset %s is out of the range from 0 to %s.", offset, tree.root.totalWeight));
+		}
+
+		int index = 0;
+		Node current = tree.root;
+		while (true) {
+			long leftTotalWeight = current.getLeft().totalWeight;
+			if (offset < leftTotalWeight) {
+				current = current.getLeft();
+			} else {
+				offset -= leftTotalWeight;
+				index += current.getLeft().getWeight();
+				if (offset < current.weight) {
+					return index;
+				}
+				offset -= current.weight;
+				index++;
+				current = current.getRight();
+			}
+		}
+	}
+
+	/**
+	 * Picks a random value with the probability proportional to its weight in <em>O(log(n))</em> time.
+	 * @param random the source of randomness
+	 * @return the index of the picked value
+	 * @throws IllegalStateException if the total weight of the list is zero
+	 */
+	public int sampleIndex(Random random) {
+		long bound = tree.root.totalWeight;
+		if (bound == 0) {
+			throw new IllegalStateException("The list has no elements of positive weight.");
+		}
+
+		// a uniformly distributed offset below the bound, rejecting the incomplete last range of the values
+		long bits;
+		long offset;
+		do {
+			bits = random.nextLong() >>> 1;
+			offset = bits % bound;
+		} while (bits - offset + (bound - 1) < 0);
+		return indexOfOffset(offset);
+	}
+
+	/**
+	 * Splits this list in two in <em>O(log(n))</em> time, where <em>n</em> is the size of the list.
+	 * This list retains the elements preceding the specified index; the rest of the elements
+	 * are moved to the returned new list, which uses the same weigher.
+	 * @param index the index of the first element to be moved to the returned list
+	 * @return the new list containing the elements of this list starting from the specified index
+	 */
+	public WeightedTreeList<T> split(int index) {
+		return new WeightedTreeList<>((Tree)splitTree(index), weigher);
+	}
+
+	/**
+	 * Concatenates two different {@link WeightedTreeList} instances in
+	 * <em>O(log(n<sub>1</sub> + n<sub>2</sub>))</em> time, where
+	 * <em>n<sub>1</sub></em> and <em>n<sub>2</sub></em> are the sizes of the two lists.
+	 * Both original lists are cleared; the resulting list uses the weigher of the prefix list.
+	 * @param prefix the list containing the head portion of the expected result
+	 * @param suffix the list containing the tail portion of the expected result
+	 * @param <Q> the output list generic type argument
+	 * @return the new list being a concatenation of the two original lists
+	 */
+	public static <Q> WeightedTreeList<Q> concat(WeightedTreeList<Q> prefix, WeightedTreeList<Q> suffix) {
+		if (prefix == suffix) {
+			throw new IllegalArgumentException("The prefix and suffix lists must be different instances.");
+		}
+		if (prefix.totalWeight() > Long.MAX_VALUE - suffix.totalWeight()) {
+			throw new IllegalStateException(
+				String.format("The total weight of the list must not exceed %s.", Long.MAX_VALUE));
+		}
+
+		WeightedTreeList<Q> result = new WeightedTreeList<>(prefix.weigher);
+		result.append(prefix);
+		result.append(suffix);
+		return result;
+	}
+
+	@Override
+	protected RankedRedBlackTree<Node> produceTree() {
+		return new Tree();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T getValue(Node node) {
+		return (T)node.value;
+	}
+
+	@Override
+	protected void setValue(Node node, T value) {
+		long weight = checkWeight(weigher.applyAsLong(value));
+		checkWeightChange(weight - node.weight);
+		node.withValue(value, weight);
+	}
+
+	/**
+	 * Makes sure a weight is not negative.
+	 * @param weight the weight to check
+	 * @return the weight
+	 */
+	private static long checkWeight(long weight) {
+		if (weight < 0) {
+			throw new IllegalArgumentException(String.format("The weight %s is negative.", weight));
+		}
+		return weight;
+	}
+
+	/**
+	 * Makes sure the total weight of the list does not overflow if changed by the specified amount.
+	 * @param delta the change of the total weight
+	 */
+	private void checkWeightChange(long delta) {
+		if (delta > 0 && delta > Long.MAX_VALUE - tree.root.totalWeight) {
+			throw new IllegalStateException(
+				String.format("The total weight of the list must not exceed %s.", Long.MAX_VALUE));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class ArrayTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		ArrayTreeList<Integer> list = new ArrayTreeList<>();
+		List<Integer> reference = new ArrayList<>();
+
+		int count = 10_000 + random.nextInt(10_000);
+		testParameters.put("count", count);
+		for (int i = 0; i < count; i++) {
+			int position = random.nextInt(reference.size() + 1);
+			list.add(position, i);
+			reference.add(position, i);
+			if (random.nextInt(3) == 0) {
+				position = random.nextInt(reference.size());
+				assertEquals(reference.remove(position), list.remove(position));
+			}
+		}
+		checkTreeInvariants(list);
+		assertEquals(reference, list);
+
+		for (int i = 0; i < reference.size(); i++) {
+			assertEquals(reference.get(i), list.get(i));
+			reference.set(i, -i);
+			list.set(i, -i);
+		}
+
+		while (!reference.isEmpty()) {
+			int position = random.nextInt(reference.size());
+			assertEquals(reference.remove(position), list.remove(position));
+			if (reference.size() % 1_000 == 0) {
+				checkTreeInvariants(list);
+			}
+		}
+		checkTreeInvariants(list);
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void bulkLoadTest() {
+		Random random = new Random();
+		int size = random.nextInt(1 << (1 + random.nextInt(15)));
+		List<Integer> source = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		ArrayTreeList<Integer> copy = new ArrayTreeList<>(source);
+		assertEquals(source, copy);
+		checkTreeInvariants(copy);
+	}
+
+	@Test
+	public void iteratorRemoveTest() {
+		List<Integer> source = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+		ArrayTreeList<Integer> list = new ArrayTreeList<>(source);
+		Iterator<Integer> iterator = list.iterator();
+		int expected = 0;
+		while (iterator.hasNext()) {
+			assertEquals(expected++, iterator.next().intValue());
+			if (expected % 3 != 0) {
+				iterator.remove();
+			}
+		}
+		checkTreeInvariants(list);
+		assertEquals(source.stream().filter(i -> i % 3 == 2).collect(Collectors.toList()), list);
+	}
+}
@@ -0,0 +1,151 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class AugmentedTreeListTest {
+
+	private static final long MODULUS = 1_000_000_007L;
+
+	private static final long BASE = 31L;
+
+	/**
+	 * A non-commutative aggregator: the polynomial hash of a sequence and the power of the base
+	 */
+	private static final Aggregator<Integer, long[]> HASH =
+		Aggregator.of(new long[] {0L, 1L}, AugmentedTreeListTest::hashOf, AugmentedTreeListTest::concatHashes);
+
+	private static final Aggregator<Integer, Long> SUM = Aggregator.of(0L, Integer::longValue, Long::sum);
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("initialSize", initialSize);
+		List<Integer> reference = random.ints(initialSize, -1_000, 1_000).boxed().collect(Collectors.toList());
+		TreeList<Integer> list = new TreeList<>(reference, HASH);
+		list.setFingerEnabled(random.nextBoolean());
+		checkAggregates(random, reference, list);
+
+		for (int i = 0; i < 2_000; i++) {
+			int operation = random.nextInt(8);
+			int size = reference.size();
+			int index = random.nextInt(size + 1);
+			int value = random.nextInt(2_000) - 1_000;
+			if (operation < 2 || size == 0) {
+				reference.add(index, value);
+				list.add(index, value);
+			} else if (operation == 2) {
+				assertEquals(reference.remove(index % size), list.remove(index % size));
+			} else if (operation == 3) {
+				assertEquals(reference.set(index % size, value), list.set(index % size, value));
+			} else if (operation == 4) {
+				List<Integer> inserted = IntStream.range(0, 20 + random.nextInt(20)).boxed()
+					.collect(Collectors.toList());
+				reference.addAll(index, inserted);
+				list.addAll(index, inserted);
+			} else if (operation == 5) {
+				int to = index + random.nextInt(size - index + 1);
+				reference.subList(index, to).clear();
+				list.subList(index, to).clear();
+			} else if (operation == 6) {
+				ListIterator<Integer> iterator = list.listIterator(index % size);
+				iterator.next();
+				iterator.set(value);
+				reference.set(index % size, value);
+			} else {
+				TreeList<Integer> suffix = list.split(index);
+				list = TreeList.concat(list, suffix);
+			}
+
+			if (i % 100 == 0) {
+				checkTreeInvariants(list);
+				checkAggregates(random, reference, list);
+			}
+		}
+
+		list.removeIf(v -> v % 3 == 0);
+		reference.removeIf(v -> v % 3 == 0);
+		checkAggregates(random, reference, list);
+
+		while (reference.size() < 3) {
+			reference.add(0);
+			list.add(0);
+		}
+		list.applyEdits(new EditBatch<Integer>().insert(0, 7).set(1, 8).remove(list.size() - 1));
+		reference.set(1, 8); // the edits are addressed by the original indices
+		reference.remove(reference.size() - 1);
+		reference.add(0, 7);
+		checkAggregates(random, reference, list);
+
+		EditBatch<Integer> replacements = new EditBatch<>();
+		for (int i = 0; i < reference.size(); i += 1 + random.nextInt(50)) {
+			replacements.set(i, -i);
+			reference.set(i, -i);
+		}
+		list.applyEdits(replacements);
+		checkTreeInvariants(list);
+		checkAggregates(random, reference, list);
+	}
+
+	@Test
+	public void rangeSumTest() {
+		int size = 10_000;
+		TreeList<Integer> list = new TreeList<>(SUM);
+		IntStream.range(0, size).forEach(list::add);
+		assertEquals(Long.valueOf((long)size * (size - 1) / 2), list.aggregate(SUM, 0, size));
+		assertEquals(Long.valueOf(0L), list.aggregate(SUM, 5, 5));
+		for (int from = 0; from < size; from += 997) {
+			for (int to = from; to <= size; to += 331) {
+				long expected = (long)to * (to - 1) / 2 - (long)from * (from - 1) / 2;
+				assertEquals(Long.valueOf(expected), list.aggregate(SUM, from, to));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void foreignAggregatorTest() {
+		new TreeList<>(SUM).aggregate(Aggregator.of(0L, Integer::longValue, Long::sum), 0, 0);
+	}
+
+	private static void checkAggregates(Random random, List<Integer> reference, TreeList<Integer> list) {
+		assertEquals(reference, list);
+		int size = reference.size();
+		assertArrayEquals(hash(reference), list.aggregate(HASH, 0, size));
+		for (int i = 0; i < 50; i++) {
+			int from = random.nextInt(size + 1);
+			int to = from + random.nextInt(size - from + 1);
+			assertArrayEquals(hash(reference.subList(from, to)), list.aggregate(HASH, from, to));
+		}
+	}
+
+	private static long[] hashOf(Integer value) {
+		return new long[] {Math.floorMod(value, MODULUS), BASE};
+	}
+
+	private static long[] concatHashes(long[] left, long[] right) {
+		return new long[] {(left[0] * right[1] + right[0]) % MODULUS, left[1] * right[1] % MODULUS};
+	}
+
+	private static long[] hash(List<Integer> values) {
+		long[] summary = HASH.identity();
+		for (Integer value : values) {
+			summary = HASH.combine(summary, HASH.summarize(value));
+		}
+		return summary;
+	}
+}
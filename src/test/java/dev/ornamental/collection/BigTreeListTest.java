@@ -0,0 +1,143 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class BigTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(5_000);
+		testParameters.put("initialSize", initialSize);
+		List<Integer> reference = IntStream.range(0, initialSize).boxed().collect(Collectors.toList());
+		BigTreeList<Integer> list = new BigTreeList<>(reference);
+
+		for (int i = 0; i < 50_000; i++) {
+			int size = reference.size();
+			int operation = random.nextInt(8);
+			if (operation < 3 || size == 0) {
+				int index = random.nextInt(size + 1);
+				reference.add(index, i);
+				list.add(index, i);
+			} else if (operation == 3) {
+				reference.add(i);
+				list.add(i);
+			} else if (operation < 6) {
+				int index = random.nextInt(size);
+				assertEquals(reference.remove(index), list.remove(index));
+			} else if (operation == 6) {
+				int index = random.nextInt(size);
+				assertEquals(reference.set(index, -i), list.set(index, -i));
+			} else {
+				int index = random.nextInt(size);
+				assertEquals(reference.get(index), list.get(index));
+			}
+
+			if (i % 5_000 == 0) {
+				checkTreeInvariants(list);
+				checkList(reference, list);
+			}
+		}
+
+		checkTreeInvariants(list);
+		checkList(reference, list);
+		while (!reference.isEmpty()) {
+			int index = random.nextInt(reference.size());
+			assertEquals(reference.remove(index), list.remove(index));
+		}
+		assertTrue(list.isEmpty());
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void splitConcatTest() {
+		Random random = new Random();
+		int size = 1 + random.nextInt(20_000);
+		int index = random.nextInt(size + 1);
+		testParameters.put("size", size);
+		testParameters.put("index", index);
+		List<Integer> source = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		BigTreeList<Integer> list = new BigTreeList<>(source);
+
+		BigTreeList<Integer> suffix = list.split(index);
+		checkTreeInvariants(list);
+		checkTreeInvariants(suffix);
+		checkList(source.subList(0, index), list);
+		checkList(source.subList(index, size), suffix);
+
+		BigTreeList<Integer> concatenated = BigTreeList.concat(suffix, list);
+		assertTrue(list.isEmpty());
+		assertTrue(suffix.isEmpty());
+		checkTreeInvariants(concatenated);
+		List<Integer> expected = new ArrayList<>(source.subList(index, size));
+		expected.addAll(source.subList(0, index));
+		checkList(expected, concatenated);
+	}
+
+	@Test
+	public void iterationTest() {
+		List<Integer> source = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+		BigTreeList<Integer> list = new BigTreeList<>(source);
+
+		Spliterator<Integer> spliterator = list.spliterator();
+		assertEquals(100_000L, spliterator.getExactSizeIfKnown());
+		Spliterator<Integer> prefix = spliterator.trySplit();
+		assertEquals(50_000L, prefix.estimateSize());
+		assertEquals(50_000L, spliterator.estimateSize());
+		assertTrue(prefix.tryAdvance(i -> assertEquals(0, i.intValue())));
+		assertTrue(spliterator.tryAdvance(i -> assertEquals(50_000, i.intValue())));
+		assertEquals(source.stream().mapToLong(i -> i).sum(), list.parallelStream().mapToLong(i -> i).sum());
+
+		Iterator<Integer> iterator = list.iterator(10);
+		int expected = 10;
+		while (iterator.hasNext()) {
+			assertEquals(expected++, iterator.next().intValue());
+			if (expected % 3 != 0) {
+				iterator.remove();
+			}
+		}
+		checkTreeInvariants(list);
+		List<Integer> remaining = source.stream().filter(i -> i < 10 || i % 3 == 2).collect(Collectors.toList());
+		checkList(remaining, list);
+	}
+
+	@Test
+	public void concurrentReadsTest() {
+		int size = 1_000_000;
+		List<Integer> source = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		BigTreeList<Integer> list = new BigTreeList<>(source);
+		// every reader must find the element it has requested
+		assertEquals(0, IntStream.range(0, size).parallel().filter(i -> list.get(i) != i).count());
+		for (int i = 0; i < 10; i++) {
+			assertEquals((long)size * (size - 1) / 2, list.parallelStream().mapToLong(v -> v).sum());
+		}
+	}
+
+	private static void checkList(List<Integer> reference, BigTreeList<Integer> list) {
+		assertEquals(reference.size(), list.size());
+		assertEquals(reference, list.stream().collect(Collectors.toList()));
+		List<Integer> iterated = new ArrayList<>();
+		list.forEach(iterated::add);
+		assertEquals(reference, iterated);
+		for (int i = 0; i < reference.size(); i += 97) {
+			assertEquals(reference.get(i), list.get(i));
+		}
+	}
+}
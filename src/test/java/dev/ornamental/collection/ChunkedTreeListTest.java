@@ -0,0 +1,126 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class ChunkedTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		ChunkedTreeList<Integer> list = new ChunkedTreeList<>();
+		List<Integer> reference = new ArrayList<>();
+
+		int count = 10_000 + random.nextInt(10_000);
+		testParameters.put("count", count);
+		for (int i = 0; i < count; i++) {
+			int position = random.nextInt(reference.size() + 1);
+			list.add(position, i);
+			reference.add(position, i);
+			if (random.nextInt(3) == 0) {
+				position = random.nextInt(reference.size());
+				assertEquals(reference.remove(position), list.remove(position));
+			}
+		}
+		checkTreeInvariants(list);
+		assertEquals(reference, list);
+
+		for (int i = 0; i < reference.size(); i++) {
+			assertEquals(reference.get(i), list.get(i));
+			assertEquals(reference.set(i, -i), list.set(i, -i));
+		}
+
+		while (!reference.isEmpty()) {
+			int position = random.nextInt(reference.size());
+			assertEquals(reference.remove(position), list.remove(position));
+			if (reference.size() % 1_000 == 0) {
+				checkTreeInvariants(list);
+				assertEquals(reference, list);
+			}
+		}
+		assertTrue(list.isEmpty());
+		list.add(1);
+		assertEquals(1, list.get(0).intValue());
+	}
+
+	@Test
+	public void bulkLoadTest() {
+		Random random = new Random();
+		int size = random.nextInt(1 << (1 + random.nextInt(17)));
+		testParameters.put("size", size);
+		List<Integer> source = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		ChunkedTreeList<Integer> copy = new ChunkedTreeList<>(source);
+		checkTreeInvariants(copy);
+		assertEquals(source, copy);
+
+		copy.add(size / 2, -1);
+		source.add(size / 2, -1);
+		checkTreeInvariants(copy);
+		assertEquals(source, copy);
+	}
+
+	@Test
+	public void concurrentReadsTest() {
+		int size = 1_000_000;
+		ChunkedTreeList<Integer> list = new ChunkedTreeList<>(
+			IntStream.range(0, size).boxed().collect(Collectors.toList()));
+		// every reader must find the element it has requested
+		assertEquals(0, IntStream.range(0, size).parallel().filter(i -> list.get(i) != i).count());
+	}
+
+	@Test
+	public void splitConcatTest() {
+		Random random = new Random();
+		int size = 1 + random.nextInt(10_000);
+		int index = random.nextInt(size + 1);
+		testParameters.put("size", size);
+		testParameters.put("index", index);
+		List<Integer> source = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		ChunkedTreeList<Integer> list = new ChunkedTreeList<>(source);
+
+		ChunkedTreeList<Integer> suffix = list.split(index);
+		checkTreeInvariants(list);
+		checkTreeInvariants(suffix);
+		assertEquals(source.subList(0, index), list);
+		assertEquals(source.subList(index, size), suffix);
+
+		ChunkedTreeList<Integer> concatenated = ChunkedTreeList.concat(suffix, list);
+		assertTrue(list.isEmpty());
+		assertTrue(suffix.isEmpty());
+		checkTreeInvariants(concatenated);
+		List<Integer> expected = new ArrayList<>(source.subList(index, size));
+		expected.addAll(source.subList(0, index));
+		assertEquals(expected, concatenated);
+	}
+
+	@Test
+	public void iteratorRemoveTest() {
+		List<Integer> source = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+		ChunkedTreeList<Integer> list = new ChunkedTreeList<>(source);
+		Iterator<Integer> iterator = list.iterator();
+		int expected = 0;
+		while (iterator.hasNext()) {
+			assertEquals(expected++, iterator.next().intValue());
+			if (expected % 3 != 0) {
+				iterator.remove();
+			}
+		}
+		checkTreeInvariants(list);
+		assertEquals(source.stream().filter(i -> i % 3 == 2).collect(Collectors.toList()), list);
+	}
+}
@@ -0,0 +1,172 @@
+package dev.ornamental.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class ConcurrentTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void singleThreadedTest() {
+		Random random = new Random();
+		List<Integer> reference = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+		ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>(reference);
+
+		for (int i = 0; i < 5_000; i++) {
+			int index = random.nextInt(reference.size());
+			switch (random.nextInt(4)) {
+				case 0:
+					reference.add(index, i);
+					list.add(index, i);
+					break;
+				case 1:
+					assertEquals(reference.remove(index), list.remove(index));
+					break;
+				case 2:
+					assertEquals(reference.set(index, i), list.set(index, i));
+					break;
+				default:
+					assertEquals(reference.get(index), list.get(index));
+			}
+		}
+
+		assertEquals(reference, list);
+		assertEquals(reference, new ArrayList<>(list));
+		assertEquals(reference.subList(100, 300), list.getRange(100, 300));
+		assertEquals(reference.stream().mapToInt(i -> i).sum(), list.stream().mapToInt(i -> i).sum());
+		assertEquals(reference.indexOf(reference.get(500)), list.indexOf(reference.get(500)));
+
+		list.subList(10, 20).clear();
+		reference.subList(10, 20).clear();
+		list.addAll(5, reference.subList(0, 50));
+		reference.addAll(5, reference.subList(0, 50));
+		assertEquals(reference, list);
+
+		ConcurrentTreeList<Integer> suffix = list.split(500);
+		ConcurrentTreeList<Integer> concatenated = ConcurrentTreeList.concat(suffix, list);
+		assertTrue(list.isEmpty());
+		List<Integer> expected = new ArrayList<>(reference.subList(500, reference.size()));
+		expected.addAll(reference.subList(0, 500));
+		assertEquals(expected, concatenated);
+	}
+
+	@Test
+	public void concurrentReadsTest() throws Exception {
+		int size = 100_000;
+		int readers = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+		testParameters.put("readers", readers);
+		// the list is always sorted, and its elements are even, between the modifications
+		ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>(
+			IntStream.range(0, size).map(i -> 2 * i).boxed().collect(Collectors.toList()));
+		AtomicBoolean stopped = new AtomicBoolean();
+
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < readers; i++) {
+				futures.add(executor.submit(() -> {
+					Random random = new Random();
+					while (!stopped.get()) {
+						int currentSize = list.size();
+						assertTrue(currentSize == size || currentSize == size - 1);
+						int value = list.get(random.nextInt(size - 1));
+						assertTrue(value % 2 == 0 && value >= 0 && value < 2 * size);
+						int from = random.nextInt(size - 100);
+						List<Integer> range = list.getRange(from, from + 100);
+						for (int j = 1; j < range.size(); j++) {
+							assertTrue(range.get(j - 1) < range.get(j));
+						}
+					}
+				}));
+			}
+
+			Random random = new Random();
+			for (int i = 0; i < 200_000; i++) {
+				int index = random.nextInt(size);
+				list.add(index, list.remove(index));
+			}
+			stopped.set(true);
+			for (Future<?> future : futures) {
+				future.get(); // rethrows the assertion failures of the readers
+			}
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		assertEquals(IntStream.range(0, size).map(i -> 2 * i).boxed().collect(Collectors.toList()), list);
+	}
+
+	/**
+	 * Compares the throughput of {@link ConcurrentTreeList} with that of a synchronized {@link TreeList}
+	 * under mixed read/write workloads. This is a benchmark rather than a test, so it only runs
+	 * if the {@code benchmark} system property is set to {@code true}.
+	 */
+	@Test
+	public void throughputComparisonTest() throws Exception {
+		Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		List<Integer> source = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+		for (int writePercentage : new int[] {1, 10, 50}) {
+			long[] elapsed = new long[2];
+			for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT compiler
+				elapsed[0] = measureWorkload(new ConcurrentTreeList<>(source), threads, writePercentage);
+				elapsed[1] = measureWorkload(
+					Collections.synchronizedList(new TreeList<>(source)), threads, writePercentage);
+			}
+			System.out.printf("%d threads, %d%% writes: ConcurrentTreeList %d ms, synchronized TreeList %d ms%n",
+				threads, writePercentage,
+				TimeUnit.NANOSECONDS.toMillis(elapsed[0]), TimeUnit.NANOSECONDS.toMillis(elapsed[1]));
+		}
+	}
+
+	private static long measureWorkload(List<Integer> list, int threads, int writePercentage) throws Exception {
+		int operations = 200_000;
+		int size = list.size();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int j = 0; j < operations; j++) {
+						int index = random.nextInt(size - threads); // the writers keep the size within the bound
+						if (random.nextInt(100) < writePercentage) {
+							list.add(index, list.remove(index));
+						} else {
+							list.get(index);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - start;
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
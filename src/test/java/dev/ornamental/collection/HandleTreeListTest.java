@@ -0,0 +1,132 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class HandleTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		boolean valueIndexEnabled = random.nextBoolean();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("valueIndexEnabled", valueIndexEnabled);
+		testParameters.put("initialSize", initialSize);
+		List<Integer> reference = random.ints(initialSize, 0, 500).boxed().collect(Collectors.toList());
+		HandleTreeList<Integer> list = new HandleTreeList<>(reference, valueIndexEnabled);
+		List<HandleTreeList.Handle<Integer>> handles = new ArrayList<>();
+		for (int i = 0; i < list.size(); i++) {
+			handles.add(list.handleAt(i));
+		}
+		List<HandleTreeList.Handle<Integer>> removed = new ArrayList<>();
+
+		for (int i = 0; i < 5_000; i++) {
+			int size = reference.size();
+			int index = random.nextInt(size + 1);
+			int value = random.nextInt(500);
+			int operation = random.nextInt(9);
+			if (operation < 3 || size == 0) {
+				reference.add(index, value);
+				handles.add(index, list.addHandle(index, value));
+			} else if (operation == 3) {
+				assertEquals(reference.remove(index % size), list.remove(index % size));
+				removed.add(handles.remove(index % size));
+			} else if (operation == 4) {
+				int position = reference.indexOf(value);
+				assertEquals(position >= 0, list.remove(Integer.valueOf(value)));
+				if (position >= 0) {
+					reference.remove(position);
+					removed.add(handles.remove(position));
+				}
+			} else if (operation == 5) {
+				assertEquals(reference.set(index % size, value), list.set(index % size, value));
+			} else if (operation == 6) {
+				HandleTreeList.Handle<Integer> handle = handles.remove(index % size);
+				reference.remove(index % size);
+				assertTrue(handle.remove());
+				assertFalse(handle.remove());
+				removed.add(handle);
+			} else if (operation == 7) {
+				ListIterator<Integer> iterator = list.listIterator(index);
+				if (iterator.hasNext()) {
+					iterator.next();
+					iterator.set(value);
+					reference.set(index, value);
+				}
+				iterator.add(value);
+				reference.add(iterator.previousIndex(), value);
+				handles.add(iterator.previousIndex(), list.handleAt(iterator.previousIndex()));
+			} else {
+				int to = index + random.nextInt(Math.min(size - index, 30) + 1);
+				list.subList(index, to).clear();
+				reference.subList(index, to).clear();
+				removed.addAll(handles.subList(index, to));
+				handles.subList(index, to).clear();
+			}
+
+			if (i % 500 == 0) {
+				checkTreeInvariants(list);
+				checkHandles(reference, handles, removed, list);
+			}
+		}
+
+		checkTreeInvariants(list);
+		checkHandles(reference, handles, removed, list);
+		list.clear();
+		removed.addAll(handles);
+		handles.clear();
+		reference.clear();
+		checkHandles(reference, handles, removed, list);
+	}
+
+	@Test(timeout = 10_000)
+	public void equalValuesRangeRemovalTest() {
+		// the handles of the equal values are removed from the value index one by one
+		HandleTreeList<Integer> list = new HandleTreeList<>(Collections.nCopies(500_000, 1), true);
+		list.add(2);
+		HandleTreeList.Handle<Integer> last = list.addHandle(1);
+		list.subList(0, 500_000).clear();
+		checkTreeInvariants(list);
+		assertEquals(Arrays.asList(2, 1), list);
+		assertEquals(1, list.indexOf(1));
+		assertEquals(1, last.index());
+		assertTrue(list.remove((Object)1));
+		assertFalse(list.contains(1));
+	}
+
+	private static void checkHandles(List<Integer> reference, List<HandleTreeList.Handle<Integer>> handles,
+		List<HandleTreeList.Handle<Integer>> removed, HandleTreeList<Integer> list) {
+
+		assertEquals(reference, list);
+		for (int i = 0; i < handles.size(); i++) {
+			assertEquals(i, handles.get(i).index());
+			assertEquals(reference.get(i), handles.get(i).get());
+		}
+		for (HandleTreeList.Handle<Integer> handle : removed) {
+			assertFalse(handle.isValid());
+			assertEquals(-1, handle.index());
+		}
+		for (int value = -1; value <= 500; value += 7) {
+			assertEquals(reference.indexOf(value), list.indexOf(value));
+			assertEquals(reference.lastIndexOf(value), list.lastIndexOf(value));
+			assertEquals(reference.contains(value), list.contains(value));
+		}
+	}
+}
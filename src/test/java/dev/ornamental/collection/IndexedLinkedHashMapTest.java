@@ -0,0 +1,94 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class IndexedLinkedHashMapTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		IndexedLinkedHashMap<Integer, Integer> map = new IndexedLinkedHashMap<>();
+		List<Integer> keys = new ArrayList<>();
+		List<Integer> values = new ArrayList<>();
+
+		for (int i = 0; i < 10_000; i++) {
+			int key = random.nextInt(2_000);
+			int value = random.nextInt();
+			int size = keys.size();
+			int position = keys.indexOf(key);
+			int operation = random.nextInt(8);
+			if (operation < 2) {
+				assertEquals(position < 0 ? null : values.set(position, value), map.put(key, value));
+				if (position < 0) {
+					keys.add(key);
+					values.add(value);
+				}
+			} else if (operation < 4) {
+				int index = random.nextInt(position < 0 ? size + 1 : size);
+				Integer oldValue = null;
+				if (position >= 0) {
+					keys.remove(position);
+					oldValue = values.remove(position);
+				}
+				keys.add(index, key);
+				values.add(index, value);
+				assertEquals(oldValue, map.putAt(index, key, value));
+			} else if (operation == 4) {
+				assertEquals(position < 0 ? null : values.remove(position), map.remove(key));
+				if (position >= 0) {
+					keys.remove(position);
+				}
+			} else if (operation == 5 && size > 0) {
+				int index = random.nextInt(size);
+				Map.Entry<Integer, Integer> entry = map.removeAt(index);
+				assertEquals(keys.remove(index), entry.getKey());
+				assertEquals(values.remove(index), entry.getValue());
+			} else if (operation == 6) {
+				Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+				for (int j = 0; j < keys.size(); j++) {
+					assertEquals(keys.get(j), iterator.next().getKey());
+					if (random.nextInt(50) == 0) {
+						iterator.remove();
+						keys.remove(j);
+						values.remove(j--);
+					}
+				}
+			} else {
+				assertEquals(position, map.indexOf(key));
+			}
+
+			if (i % 1_000 == 0) {
+				checkTreeInvariants(map);
+				checkMap(keys, values, map);
+			}
+		}
+
+		checkTreeInvariants(map);
+		checkMap(keys, values, map);
+	}
+
+	private static void checkMap(List<Integer> keys, List<Integer> values, IndexedLinkedHashMap<Integer, Integer> map) {
+		assertEquals(keys.size(), map.size());
+		assertEquals(keys, new ArrayList<>(map.keySet()));
+		assertEquals(values, new ArrayList<>(map.values()));
+		for (int i = 0; i < keys.size(); i++) {
+			assertEquals(i, map.indexOf(keys.get(i)));
+			assertEquals(values.get(i), map.get(keys.get(i)));
+			assertEquals(keys.get(i), map.getAt(i).getKey());
+		}
+	}
+}
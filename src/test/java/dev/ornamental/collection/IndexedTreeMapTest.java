@@ -0,0 +1,172 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class IndexedTreeMapTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("initialSize", initialSize);
+		TreeMap<Integer, String> reference = new TreeMap<>();
+		random.ints(initialSize, 0, 10_000).forEach(k -> reference.put(k, Integer.toString(k)));
+		IndexedTreeMap<Integer, String> map = new IndexedTreeMap<>(reference);
+		checkTreeInvariants(map);
+		checkMap(random, reference, map);
+
+		for (int i = 0; i < 5_000; i++) {
+			int key = random.nextInt(10_000);
+			String value = Integer.toString(random.nextInt());
+			int operation = random.nextInt(8);
+			int size = reference.size();
+			if (operation < 3 || size == 0) {
+				assertEquals(reference.put(key, value), map.put(key, value));
+			} else if (operation == 3) {
+				assertEquals(reference.remove(key), map.remove(key));
+			} else if (operation == 4) {
+				assertEquals(reference.pollFirstEntry(), map.pollFirstEntry());
+				assertEquals(reference.pollLastEntry(), map.pollLastEntry());
+			} else if (operation == 5) {
+				Map.Entry<Integer, String> entry = map.removeAt(key % size);
+				assertEquals(reference.remove(entry.getKey()), entry.getValue());
+			} else if (operation == 6) {
+				int from = key % size;
+				int to = from + random.nextInt(Math.min(size - from, 20) + 1);
+				new ArrayList<>(reference.keySet()).subList(from, to).forEach(reference::remove);
+				map.removeRange(from, to);
+			} else {
+				Iterator<Map.Entry<Integer, String>> iterator = map.tailMap(key, true).descendingMap()
+					.entrySet().iterator();
+				if (iterator.hasNext()) {
+					Map.Entry<Integer, String> entry = iterator.next();
+					if (random.nextBoolean()) {
+						reference.remove(entry.getKey());
+						iterator.remove();
+					} else {
+						reference.put(entry.getKey(), value);
+						entry.setValue(value);
+					}
+				}
+			}
+
+			if (i % 500 == 0) {
+				checkTreeInvariants(map);
+				checkMap(random, reference, map);
+			}
+		}
+
+		int from = random.nextInt(10_000);
+		int to = from + random.nextInt(10_000 - from + 1);
+		map.subMap(from, to).clear();
+		reference.subMap(from, to).clear();
+		checkTreeInvariants(map);
+		checkMap(random, reference, map);
+	}
+
+	@Test
+	public void positionalViewTest() {
+		TreeMap<Integer, Integer> reference = new TreeMap<>();
+		IntStream.range(0, 100_000).forEach(i -> reference.put(2 * i, i));
+		IndexedTreeMap<Integer, Integer> map = new IndexedTreeMap<>(reference);
+		List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(reference.entrySet());
+
+		NavigableMap<Integer, Integer> page = map.subMapByIndex(50_000, 50_100);
+		assertEquals(100, page.size());
+		assertEquals(entries.subList(50_000, 50_100), new ArrayList<>(page.entrySet()));
+		assertEquals(entries.get(50_000), map.entryAt(50_000));
+		assertEquals(50_000, map.indexOfKey(100_000));
+		assertEquals(-1, map.indexOfKey(100_001));
+		assertEquals(50_001, map.rank(100_001));
+
+		page.put(100_001, -1); // tracks the key range
+		assertEquals(101, page.size());
+		assertEquals(entries.subList(99_989, 100_000), new ArrayList<>(map.subMapByIndex(99_990, 100_001).entrySet()));
+		assertEquals(0, map.subMapByIndex(100_001, 100_001).size());
+
+		page.clear();
+		assertEquals(99_900, map.size());
+		assertEquals(entries.get(50_100), map.entryAt(50_000));
+		checkTreeInvariants(map);
+	}
+
+	private static void checkMap(
+		Random random, TreeMap<Integer, String> reference, IndexedTreeMap<Integer, String> map) {
+
+		assertEquals(reference, map);
+		List<Map.Entry<Integer, String>> entries = new ArrayList<>(reference.entrySet());
+		assertEquals(entries, new ArrayList<>(map.entrySet()));
+		assertEquals(new ArrayList<>(reference.descendingKeySet()), new ArrayList<>(map.descendingKeySet()));
+		for (int i = 0; i < entries.size(); i += 1 + random.nextInt(50)) {
+			assertEquals(entries.get(i), map.entryAt(i));
+			assertEquals(i, map.indexOfKey(entries.get(i).getKey()));
+		}
+
+		for (int i = 0; i < 20; i++) {
+			int key = random.nextInt(10_001) - 1;
+			int rank = reference.headMap(key).size();
+			assertEquals(rank, map.rank(key));
+			assertEquals(reference.containsKey(key) ? rank : -1, map.indexOfKey(key));
+			checkNavigation(random, reference, map);
+
+			int from = random.nextInt(10_000);
+			int to = from + random.nextInt(10_000 - from + 1);
+			boolean fromInclusive = random.nextBoolean();
+			boolean toInclusive = random.nextBoolean();
+			NavigableMap<Integer, String> expected = reference.subMap(from, fromInclusive, to, toInclusive);
+			NavigableMap<Integer, String> actual = map.subMap(from, fromInclusive, to, toInclusive);
+			if (random.nextBoolean()) {
+				expected = expected.descendingMap();
+				actual = actual.descendingMap();
+			}
+			assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+			checkNavigation(random, expected, actual);
+			if (!expected.isEmpty()) {
+				Integer bound = expected.firstKey();
+				assertEquals(new ArrayList<>(expected.tailMap(bound, false).entrySet()),
+					new ArrayList<>(actual.tailMap(bound, false).entrySet()));
+				assertEquals(new ArrayList<>(expected.headMap(expected.lastKey(), true).descendingKeySet()),
+					new ArrayList<>(actual.headMap(expected.lastKey(), true).descendingKeySet()));
+			}
+
+			int fromIndex = random.nextInt(entries.size() + 1);
+			int toIndex = fromIndex + random.nextInt(entries.size() - fromIndex + 1);
+			assertEquals(entries.subList(fromIndex, toIndex),
+				new ArrayList<>(map.subMapByIndex(fromIndex, toIndex).entrySet()));
+		}
+	}
+
+	private static void checkNavigation(
+		Random random, NavigableMap<Integer, String> expected, NavigableMap<Integer, String> actual) {
+
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.firstEntry(), actual.firstEntry());
+		assertEquals(expected.lastEntry(), actual.lastEntry());
+		for (int i = 0; i < 5; i++) {
+			int key = random.nextInt(10_002) - 1;
+			assertEquals(expected.containsKey(key), actual.containsKey(key));
+			assertEquals(expected.get(key), actual.get(key));
+			assertEquals(expected.lowerEntry(key), actual.lowerEntry(key));
+			assertEquals(expected.floorKey(key), actual.floorKey(key));
+			assertEquals(expected.ceilingEntry(key), actual.ceilingEntry(key));
+			assertEquals(expected.higherKey(key), actual.higherKey(key));
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class IndexedTreeSetTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomSetTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("initialSize", initialSize);
+		TreeSet<Integer> reference = random.ints(initialSize, 0, 10_000).boxed()
+			.collect(Collectors.toCollection(TreeSet::new));
+		IndexedTreeSet<Integer> set = new IndexedTreeSet<>(reference);
+		checkSet(random, reference, set);
+
+		for (int i = 0; i < 5_000; i++) {
+			int value = random.nextInt(10_000);
+			int operation = random.nextInt(6);
+			if (operation < 3) {
+				assertEquals(reference.add(value), set.add(value));
+			} else if (operation == 3) {
+				assertEquals(reference.remove(value), set.remove(value));
+			} else if (operation == 4) {
+				assertEquals(reference.pollFirst(), set.pollFirst());
+				assertEquals(reference.pollLast(), set.pollLast());
+			} else {
+				Iterator<Integer> iterator = set.tailSet(value, random.nextBoolean()).iterator();
+				if (iterator.hasNext()) {
+					reference.remove(iterator.next());
+					iterator.remove();
+				}
+			}
+
+			if (i % 500 == 0) {
+				checkTreeInvariants(set);
+				checkSet(random, reference, set);
+			}
+		}
+
+		int from = random.nextInt(10_000);
+		int to = from + random.nextInt(10_000 - from + 1);
+		set.subSet(from, to).clear();
+		reference.subSet(from, to).clear();
+		checkTreeInvariants(set);
+		checkSet(random, reference, set);
+	}
+
+	@Test
+	public void multisetTest() {
+		Random random = new Random();
+		IndexedTreeSet<Integer> set = IndexedTreeSet.multiset(Comparator.reverseOrder());
+		List<Integer> reference = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			Integer value = random.nextInt(500);
+			if (random.nextInt(3) > 0) {
+				assertTrue(set.add(value));
+				reference.add(value);
+			} else {
+				assertEquals(reference.remove(value), set.remove(value));
+			}
+		}
+		reference.sort(Comparator.reverseOrder());
+		checkTreeInvariants(set);
+		assertEquals(reference, new ArrayList<>(set));
+
+		for (int value = -1; value <= 500; value++) {
+			int expectedRank = 0;
+			for (Integer element : reference) {
+				expectedRank += element > value ? 1 : 0; // the reverse ordering
+			}
+			assertEquals(expectedRank, set.rank(value));
+			assertEquals(expectedRank, set.headSetSize(value));
+			assertEquals(reference.indexOf(value), set.indexOf(value));
+			assertEquals(Collections.frequency(reference, value), set.count(value));
+			assertEquals(Collections.frequency(reference, value), set.subSet(value, true, value, true).size());
+		}
+	}
+
+	@Test
+	public void bulkLoadTest() {
+		List<String> values = IntStream.range(0, 10_000).mapToObj(i -> String.format("%05d", i))
+			.collect(Collectors.toList());
+		IndexedTreeSet<String> set = IndexedTreeSet.fromSorted(values, null);
+		checkTreeInvariants(set);
+		assertEquals(values, new ArrayList<>(set));
+		assertEquals(1234, set.rank("01234"));
+		assertEquals("04321", set.get(4321));
+
+		List<String> duplicates = new ArrayList<>(values);
+		duplicates.addAll(values);
+		duplicates.sort(null);
+		IndexedTreeSet<String> multiset = IndexedTreeSet.multisetFromSorted(duplicates, null);
+		assertEquals(20_000, multiset.size());
+		assertEquals(2, multiset.count("00007"));
+		assertEquals(14, multiset.headSetSize("00007"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsortedBulkLoadTest() {
+		IndexedTreeSet.fromSorted(Arrays.asList(1, 2, 2, 3), null);
+	}
+
+	private static void checkSet(Random random, TreeSet<Integer> reference, IndexedTreeSet<Integer> set) {
+		assertEquals(reference, set);
+		assertEquals(new ArrayList<>(reference), new ArrayList<>(set));
+		assertEquals(new ArrayList<>(reference.descendingSet()), new ArrayList<>(set.descendingSet()));
+		for (int i = 0; i < 20; i++) {
+			int value = random.nextInt(10_001) - 1;
+			int rank = reference.headSet(value).size();
+			assertEquals(rank, set.rank(value));
+			assertEquals(reference.headSet(value, true).size(), set.headSetSize(value, true));
+			if (rank < reference.size()) {
+				assertEquals(reference.ceiling(value), set.get(rank));
+			}
+			assertEquals(reference.contains(value) ? rank : -1, set.indexOf(value));
+			checkNavigation(random, reference, set);
+
+			int from = random.nextInt(10_000);
+			int to = from + random.nextInt(10_000 - from + 1);
+			boolean fromInclusive = random.nextBoolean();
+			boolean toInclusive = random.nextBoolean();
+			NavigableSet<Integer> expected = reference.subSet(from, fromInclusive, to, toInclusive);
+			NavigableSet<Integer> actual = set.subSet(from, fromInclusive, to, toInclusive);
+			if (random.nextBoolean()) {
+				expected = expected.descendingSet();
+				actual = actual.descendingSet();
+			}
+			assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+			checkNavigation(random, expected, actual);
+			if (!expected.isEmpty()) {
+				Integer bound = expected.first();
+				assertEquals(new ArrayList<>(expected.tailSet(bound, false)),
+					new ArrayList<>(actual.tailSet(bound, false)));
+				assertEquals(new ArrayList<>(expected.headSet(expected.last(), true).descendingSet()),
+					new ArrayList<>(actual.headSet(expected.last(), true).descendingSet()));
+			}
+		}
+	}
+
+	private static void checkNavigation(Random random, NavigableSet<Integer> expected, NavigableSet<Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		if (expected.isEmpty()) {
+			assertNull(actual.pollFirst());
+			assertFalse(actual.iterator().hasNext());
+		} else {
+			assertEquals(expected.first(), actual.first());
+			assertEquals(expected.last(), actual.last());
+		}
+
+		for (int i = 0; i < 5; i++) {
+			int value = random.nextInt(10_002) - 1;
+			assertEquals(expected.contains(value), actual.contains(value));
+			assertEquals(expected.lower(value), actual.lower(value));
+			assertEquals(expected.floor(value), actual.floor(value));
+			assertEquals(expected.ceiling(value), actual.ceiling(value));
+			assertEquals(expected.higher(value), actual.higher(value));
+		}
+	}
+}
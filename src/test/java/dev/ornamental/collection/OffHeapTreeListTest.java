@@ -0,0 +1,127 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class OffHeapTreeListTest {
+
+	/**
+	 * The codec of nullable {@link Long} values: a presence flag followed by the value
+	 */
+	private static final RecordCodec<Long> NULLABLE_LONG_CODEC = new RecordCodec<Long>() {
+
+		@Override
+		public int recordSize() {
+			return 1 + Long.BYTES;
+		}
+
+		@Override
+		public void encode(Long value, ByteBuffer buffer, int offset) {
+			buffer.put(offset, (byte)(value == null ? 0 : 1));
+			buffer.putLong(offset + 1, value == null ? 0L : value);
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer, int offset) {
+			return buffer.get(offset) == 0 ? null : buffer.getLong(offset + 1);
+		}
+	};
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		List<Long> reference = new ArrayList<>();
+		try (OffHeapTreeList<Long> list = new OffHeapTreeList<>(NULLABLE_LONG_CODEC)) {
+			int count = 10_000 + random.nextInt(10_000);
+			testParameters.put("count", count);
+			for (int i = 0; i < count; i++) {
+				int position = random.nextInt(reference.size() + 1);
+				Long value = i % 10 == 0 ? null : (long)i << 32 | i;
+				list.add(position, value);
+				reference.add(position, value);
+				if (random.nextInt(3) == 0) {
+					position = random.nextInt(reference.size());
+					assertEquals(reference.remove(position), list.remove(position));
+				}
+			}
+			checkTreeInvariants(list.tree);
+			assertEquals(reference, list);
+
+			for (int i = 0; i < reference.size(); i += 7) {
+				assertEquals(reference.set(i, (long)-i), list.set(i, (long)-i));
+			}
+
+			while (!reference.isEmpty()) {
+				int position = random.nextInt(reference.size());
+				assertEquals(reference.remove(position), list.remove(position));
+				if (reference.size() % 1_000 == 0) {
+					checkTreeInvariants(list.tree);
+				}
+			}
+			assertTrue(list.isEmpty());
+		}
+	}
+
+	@Test
+	public void bulkLoadAndConcatTest() {
+		List<Long> source = LongStream.range(0, 10_000).boxed().collect(Collectors.toList());
+		OffHeapTreeList<Long> first = new OffHeapTreeList<>(NULLABLE_LONG_CODEC, source.subList(0, 3_000));
+		OffHeapTreeList<Long> second = new OffHeapTreeList<>(NULLABLE_LONG_CODEC, source.subList(3_000, 10_000));
+		checkTreeInvariants(first.tree);
+		checkTreeInvariants(second.tree);
+
+		try (OffHeapTreeList<Long> concatenated = OffHeapTreeList.concat(first, second)) {
+			assertTrue(first.isClosed());
+			assertTrue(second.isClosed());
+			checkTreeInvariants(concatenated.tree);
+			assertEquals(source, concatenated);
+
+			Iterator<Long> iterator = concatenated.iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() % 2 == 0) {
+					iterator.remove();
+				}
+			}
+			checkTreeInvariants(concatenated.tree);
+			assertEquals(source.stream().filter(i -> i % 2 == 1).collect(Collectors.toList()), concatenated);
+
+			concatenated.clear();
+			concatenated.add(null);
+			assertNull(concatenated.get(0));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void closedListTest() {
+		OffHeapTreeList<Long> list = new OffHeapTreeList<>(NULLABLE_LONG_CODEC);
+		list.add(1L);
+		list.close();
+		list.close();
+		list.get(0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void closedTreeTest() {
+		OffHeapRankedRedBlackTree<Long> tree = new OffHeapRankedRedBlackTree<>(NULLABLE_LONG_CODEC);
+		tree.insert(0, 1L);
+		tree.close();
+		tree.get(0);
+	}
+}
@@ -0,0 +1,133 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class PersistentTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomVersionsTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("initialSize", initialSize);
+		List<List<Integer>> references = new ArrayList<>();
+		List<PersistentTreeList<Integer>> versions = new ArrayList<>();
+		references.add(IntStream.range(0, initialSize).boxed().collect(Collectors.toList()));
+		versions.add(new PersistentTreeList<>(references.get(0)));
+
+		for (int i = 0; i < 5_000; i++) {
+			int version = random.nextInt(versions.size());
+			List<Integer> reference = new ArrayList<>(references.get(version));
+			PersistentTreeList<Integer> list = versions.get(version);
+			int size = reference.size();
+			int operation = random.nextInt(6);
+			if (operation < 2 || size == 0) {
+				int index = random.nextInt(size + 1);
+				reference.add(index, -i);
+				list = list.plus(index, -i);
+			} else if (operation == 2) {
+				int index = random.nextInt(size);
+				reference.remove(index);
+				list = list.minus(index);
+			} else if (operation == 3) {
+				int index = random.nextInt(size);
+				reference.set(index, i);
+				list = list.with(index, i);
+			} else if (operation == 4) {
+				int from = random.nextInt(size + 1);
+				int to = from + random.nextInt(size - from + 1);
+				reference = new ArrayList<>(reference.subList(from, to));
+				list = list.subList(from, to);
+			} else {
+				int other = random.nextInt(versions.size());
+				reference.addAll(references.get(other));
+				list = PersistentTreeList.concat(list, versions.get(other));
+			}
+
+			if (reference.size() > 10_000) { // keeps the concatenations from growing the lists exponentially
+				reference = new ArrayList<>(reference.subList(0, 1_000));
+				list = list.subList(0, 1_000);
+			}
+			references.add(reference);
+			versions.add(list);
+			if (i % 500 == 0) {
+				checkTreeInvariants(list);
+				assertEquals(reference, list);
+			}
+		}
+
+		for (int i = 0; i < versions.size(); i += 1 + random.nextInt(50)) {
+			checkTreeInvariants(versions.get(i));
+			assertEquals(references.get(i), versions.get(i));
+			assertEquals(references.get(i), new ArrayList<>(versions.get(i)));
+		}
+	}
+
+	@Test
+	public void transientTest() {
+		Random random = new Random();
+		List<Integer> source = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+		PersistentTreeList<Integer> original = new PersistentTreeList<>(source);
+		PersistentTreeList.Transient<Integer> list = original.toTransient();
+		List<Integer> reference = new ArrayList<>(source);
+		List<List<Integer>> snapshotReferences = new ArrayList<>();
+		List<PersistentTreeList<Integer>> snapshots = new ArrayList<>();
+
+		for (int i = 0; i < 20_000; i++) {
+			int size = reference.size();
+			int operation = random.nextInt(10);
+			if (operation < 4 || size == 0) {
+				int index = random.nextInt(size + 1);
+				reference.add(index, -i);
+				list.add(index, -i);
+			} else if (operation < 7) {
+				int index = random.nextInt(size);
+				assertEquals(reference.remove(index), list.remove(index));
+			} else if (operation == 7) {
+				int index = random.nextInt(size);
+				assertEquals(reference.set(index, i), list.set(index, i));
+			} else if (operation == 8) {
+				int from = random.nextInt(size + 1);
+				int to = from + random.nextInt(Math.min(size - from, 50) + 1);
+				reference.subList(from, to).clear();
+				list.subList(from, to).clear();
+				int index = random.nextInt(reference.size() + 1);
+				List<Integer> added = IntStream.range(0, random.nextInt(50)).boxed().collect(Collectors.toList());
+				reference.addAll(index, added);
+				list.addAll(index, added);
+			} else {
+				snapshotReferences.add(new ArrayList<>(reference));
+				snapshots.add(list.snapshot());
+			}
+		}
+
+		PersistentTreeList<Integer> result = list.snapshot();
+		checkTreeInvariants(result);
+		assertEquals(reference, result);
+		assertEquals(reference, list);
+		assertEquals(source, original);
+		for (int i = 0; i < snapshots.size(); i++) {
+			checkTreeInvariants(snapshots.get(i));
+			assertEquals(snapshotReferences.get(i), snapshots.get(i));
+		}
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(reference, result);
+		assertEquals(0, PersistentTreeList.empty().size());
+	}
+}
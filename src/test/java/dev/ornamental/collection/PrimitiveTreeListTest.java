@@ -0,0 +1,161 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+public final class PrimitiveTreeListTest {
+
+	@Test
+	public void intListTest() {
+		Random random = new Random();
+		IntTreeList list = new IntTreeList();
+		List<Integer> reference = new ArrayList<>();
+
+		int count = 10_000 + random.nextInt(10_000);
+		for (int i = 0; i < count; i++) {
+			int position = random.nextInt(i + 1);
+			list.addInt(position, i);
+			reference.add(position, i);
+		}
+		checkTreeInvariants(list.tree);
+		assertEquals(reference, list);
+
+		for (int i = 0; i < count; i++) {
+			assertEquals(reference.get(i).intValue(), list.getInt(i));
+		}
+
+		for (int i = count - 1; i >= 0; i -= 2) {
+			assertEquals(reference.remove(i).intValue(), list.removeInt(i));
+		}
+		checkTreeInvariants(list.tree);
+		assertEquals(reference, list);
+
+		assertEquals(reference.get(0).intValue(), list.setInt(0, -1));
+		assertEquals(-1, list.getInt(0));
+	}
+
+	@Test
+	public void intBulkLoadTest() {
+		int[] values = IntStream.range(0, 1_000).map(i -> i * 7).toArray();
+		IntTreeList list = new IntTreeList(values);
+		checkTreeInvariants(list.tree);
+		assertArrayEquals(values, list.toIntArray());
+		assertEquals(IntStream.of(values).boxed().collect(Collectors.toList()), list);
+
+		IntTreeList streamed = IntTreeList.of(IntStream.of(values));
+		assertArrayEquals(values, streamed.toIntArray());
+		assertEquals(IntStream.of(values).sum(), streamed.intStream().sum());
+		assertEquals(IntStream.of(values).sum(), streamed.parallelStream().mapToInt(Integer::intValue).sum());
+		IntTreeList unsized = IntTreeList.of(IntStream.of(values).filter(i -> i % 2 == 0));
+		checkTreeInvariants(unsized.tree);
+		assertArrayEquals(IntStream.of(values).filter(i -> i % 2 == 0).toArray(), unsized.toIntArray());
+
+		assertTrue(new IntTreeList(new int[0]).isEmpty());
+	}
+
+	@Test
+	public void intSplitConcatTest() {
+		int[] values = IntStream.range(0, 500).toArray();
+		IntTreeList list = new IntTreeList(values);
+		IntTreeList suffix = list.split(123);
+		checkTreeInvariants(list.tree);
+		checkTreeInvariants(suffix.tree);
+		assertEquals(123, list.size());
+		assertEquals(123, suffix.getInt(0));
+
+		IntTreeList concatenated = IntTreeList.concat(list, suffix);
+		assertTrue(list.isEmpty());
+		assertTrue(suffix.isEmpty());
+		checkTreeInvariants(concatenated.tree);
+		assertArrayEquals(values, concatenated.toIntArray());
+
+		concatenated.subList(100, 400).clear();
+		checkTreeInvariants(concatenated.tree);
+		assertEquals(200, concatenated.size());
+		assertEquals(400, concatenated.getInt(100));
+	}
+
+	@Test
+	public void selfConcatenationTest() {
+		IntTreeList intList = new IntTreeList(IntStream.range(0, 10).toArray());
+		LongTreeList longList = new LongTreeList(LongStream.range(0, 10).toArray());
+		DoubleTreeList doubleList = new DoubleTreeList(DoubleStream.of(1.0, 2.0).toArray());
+		for (Runnable concatenation : new Runnable[] {
+			() -> IntTreeList.concat(intList, intList),
+			() -> LongTreeList.concat(longList, longList),
+			() -> DoubleTreeList.concat(doubleList, doubleList) }) {
+
+			try {
+				concatenation.run();
+				fail();
+			} catch (IllegalArgumentException e) {
+				// the list must remain intact
+			}
+		}
+		assertEquals(10, intList.size());
+		assertEquals(10, longList.size());
+		assertEquals(2, doubleList.size());
+	}
+
+	@Test
+	public void intIteratorTest() {
+		IntTreeList list = new IntTreeList(IntStream.range(0, 100).toArray());
+		PrimitiveIterator.OfInt iterator = list.intIterator();
+		int expected = 0;
+		while (iterator.hasNext()) {
+			int value = iterator.nextInt();
+			assertEquals(expected++, value);
+			if (value % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		assertFalse(iterator.hasNext());
+		assertEquals(50, list.size());
+		assertEquals(IntStream.range(0, 50).map(i -> 2 * i + 1).boxed().collect(Collectors.toList()), list);
+	}
+
+	@Test
+	public void longListTest() {
+		long[] values = LongStream.range(0, 1_000).map(i -> i << 33).toArray();
+		LongTreeList list = new LongTreeList(values);
+		checkTreeInvariants(list.tree);
+		assertArrayEquals(values, list.toLongArray());
+
+		list.addLong(0, -1L);
+		list.addLong(Long.MAX_VALUE);
+		assertEquals(-1L, list.removeLong(0));
+		assertEquals(Long.MAX_VALUE, list.getLong(list.size() - 1));
+		assertEquals(LongStream.of(values).sum() + Long.MAX_VALUE, list.longStream().sum());
+		checkTreeInvariants(list.tree);
+	}
+
+	@Test
+	public void doubleListTest() {
+		double[] values = DoubleStream.iterate(0.5, d -> d * 1.5).limit(100).toArray();
+		DoubleTreeList list = DoubleTreeList.of(DoubleStream.of(values));
+		checkTreeInvariants(list.tree);
+		assertArrayEquals(values, list.toDoubleArray(), 0.0);
+
+		list.setDouble(10, Double.NaN);
+		assertTrue(Double.isNaN(list.get(10)));
+		list.add(3, 3.0);
+		assertEquals(3.0, list.getDouble(3), 0.0);
+		assertEquals(101, list.size());
+		checkTreeInvariants(list.tree);
+	}
+}
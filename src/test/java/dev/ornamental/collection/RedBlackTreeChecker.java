@@ -1,5 +1,8 @@
 package dev.ornamental.collection;
 
+import java.util.Arrays;
+import java.util.function.Function;
+
 /**
  * This utility class checks the ranked red-black tree invariants.
  */
@@ -31,11 +34,123 @@ public final class RedBlackTreeChecker {
 		RedBlackTreeChecker.checkTreeInvariants(list.tree);
 	}
 
+	/**
+	 * Checks the red-black tree backing the supplied {@link IndexedTreeSet}.
+	 * @param set the set to check the backing tree of
+	 */
+	public static void checkTreeInvariants(IndexedTreeSet<?> set) {
+		RedBlackTreeChecker.checkTreeInvariants(set.elements.tree);
+	}
+
+	/**
+	 * Checks the red-black tree backing the supplied {@link IndexedTreeMap}.
+	 * @param map the map to check the backing tree of
+	 */
+	public static void checkTreeInvariants(IndexedTreeMap<?, ?> map) {
+		RedBlackTreeChecker.checkTreeInvariants(map.tree);
+	}
+
+	/**
+	 * Checks the red-black tree backing the supplied {@link IndexedLinkedHashMap},
+	 * including the parent references of its nodes.
+	 * @param map the map to check the backing tree of
+	 */
+	public static void checkTreeInvariants(IndexedLinkedHashMap<?, ?> map) {
+		RedBlackTreeChecker.checkTreeInvariants(map.tree);
+		if (map.tree.root != map.tree.nil) {
+			checkParents(map.tree.root, map.tree.nil, IndexedLinkedHashMap.Node::getParent);
+		}
+	}
+
+	/**
+	 * Checks the red-black tree backing the supplied {@link HandleTreeList},
+	 * including the parent references of its nodes.
+	 * @param list the list to check the backing tree of
+	 */
+	public static void checkTreeInvariants(HandleTreeList<?> list) {
+		RedBlackTreeChecker.checkTreeInvariants(list.tree);
+		if (list.tree.root != list.tree.nil) {
+			checkParents(list.tree.root, list.tree.nil, HandleTreeList.Node::getParent);
+		}
+	}
+
+	/**
+	 * Checks the red-black tree of blocks backing the supplied {@link ChunkedTreeList}.
+	 * @param list the list to check the backing tree of
+	 */
+	public static void checkTreeInvariants(ChunkedTreeList<?> list) {
+		RedBlackTreeChecker.checkTreeInvariants(list.tree);
+	}
+
+	/**
+	 * Checks the red-black tree of chunks backing the supplied {@link BigTreeList}
+	 * and makes sure the sequence contains no empty chunks.
+	 * @param list the list to check the backing tree of
+	 */
+	public static void checkTreeInvariants(BigTreeList<?> list) {
+		RedBlackTreeChecker.checkTreeInvariants(list.chunks.tree);
+		for (int i = 0; i < list.chunks.size(); i++) {
+			if (list.chunks.get(i).size() == 0 || list.chunks.weightOf(i) != list.chunks.get(i).size()) {
+				throw new AssertionError("The chunk weight is inconsistent.");
+			}
+		}
+	}
+
+	/**
+	 * Checks the red-black tree of the supplied {@link PersistentTreeList}.
+	 * @param list the list to check the tree of
+	 */
+	public static void checkTreeInvariants(PersistentTreeList<?> list) {
+		if (list.root == PersistentTreeList.COMMON_NIL) {
+			return;
+		}
+		if (!list.root.isBlack()) {
+			throw new AssertionError("The root is not black.");
+		}
+		checkSubtree(list.root, PersistentTreeList.COMMON_NIL);
+	}
+
+	/**
+	 * Checks the red-black trees of the segments of the supplied {@link SegmentedTreeList}.
+	 * @param list the list to check the trees of
+	 */
+	public static void checkTreeInvariants(SegmentedTreeList<?> list) {
+		for (SegmentedTreeList.Segment<?> segment : list.segments) {
+			checkTreeInvariants(segment.getList().tree);
+		}
+	}
+
+	/**
+	 * Checks the array-based red-black tree backing the supplied {@link ArrayTreeList}.
+	 * @param list the list to check the backing tree of
+	 */
+	public static void checkTreeInvariants(ArrayTreeList<?> list) {
+		RedBlackTreeChecker.checkTreeInvariants(list.tree);
+	}
+
+	/**
+	 * Performs the invariant checking for the specified slot-based tree.
+	 * @param tree the tree to subject to invariant checking
+	 * @throws AssertionError if a ranked red-black tree invariant violation is detected
+	 */
+	public static void checkTreeInvariants(SlotRankedRedBlackTree tree) {
+		if (tree.getRoot() == SlotRankedRedBlackTree.NIL) {
+			return;
+		}
+		if (tree.isRed(tree.getRoot())) {
+			throw new AssertionError("The root is not black.");
+		}
+		checkSubtree(tree, tree.getRoot());
+	}
+
 	private static <Q extends WeightedNode<Q>> int checkSubtree(Q node, Q nil) {
 		int leftBlackHeight = node.getLeft() == nil ? 0 : checkSubtree(node.getLeft(), nil);
 		int rightBlackHeight = node.getRight() == nil ? 0 : checkSubtree(node.getRight(), nil);
 
-		if (node.getLeft().getWeight() + node.getRight().getWeight() + 1 != node.getWeight()) {
+		if (node.getOwnWeight() <= 0) {
+			throw new AssertionError("The node holds no elements.");
+		}
+		if (node.getLeft().getWeight() + node.getRight().getWeight() + node.getOwnWeight() != node.getWeight()) {
 			throw new AssertionError("Node weight does not match child nodes' weights.");
 		}
 
@@ -54,4 +169,41 @@ public final class RedBlackTreeChecker {
 			return leftBlackHeight;
 		}
 	}
+
+	private static int checkSubtree(SlotRankedRedBlackTree tree, int node) {
+		int left = tree.getLeft(node);
+		int right = tree.getRight(node);
+		int leftBlackHeight = left == SlotRankedRedBlackTree.NIL ? 0 : checkSubtree(tree, left);
+		int rightBlackHeight = right == SlotRankedRedBlackTree.NIL ? 0 : checkSubtree(tree, right);
+
+		if (tree.weight(left) + tree.weight(right) + 1 != tree.weight(node)) {
+			throw new AssertionError("Node weight does not match child nodes' weights.");
+		}
+		if (leftBlackHeight != rightBlackHeight) {
+			throw new AssertionError("The black height invariant does not hold.");
+		}
+		if (tree.isRed(node) && (tree.isRed(left) || tree.isRed(right))) {
+			throw new AssertionError("There is a red node having a red parent node in the tree.");
+		}
+
+		return tree.isRed(node) ? leftBlackHeight : leftBlackHeight + 1;
+	}
+
+	/**
+	 * Checks that the children of each node of a subtree refer to the node as their parent.
+	 * @param node the root of the subtree
+	 * @param nil the nil node of the tree
+	 * @param parentOf the function returning the parent reference of a node
+	 * @param <T> the node type used by the tree
+	 */
+	private static <T extends WeightedNode<T>> void checkParents(T node, T nil, Function<T, T> parentOf) {
+		for (T child : Arrays.asList(node.getLeft(), node.getRight())) {
+			if (child != nil) {
+				if (parentOf.apply(child) != node) {
+					throw new AssertionError("The parent reference of a node is inconsistent.");
+				}
+				checkParents(child, nil, parentOf);
+			}
+		}
+	}
 }
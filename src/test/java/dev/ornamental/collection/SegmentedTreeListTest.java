@@ -0,0 +1,159 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class SegmentedTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void singleThreadedTest() {
+		Random random = new Random();
+		int segmentCount = 1 + random.nextInt(8);
+		testParameters.put("segmentCount", segmentCount);
+		List<Integer> reference = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+		SegmentedTreeList<Integer> list = new SegmentedTreeList<>(reference, segmentCount);
+
+		for (int i = 0; i < 20_000; i++) {
+			int size = reference.size();
+			int operation = random.nextInt(10);
+			if (operation < 3 || size == 0) {
+				int index = random.nextInt(size + 1);
+				reference.add(index, i);
+				list.add(index, i);
+			} else if (operation == 3) {
+				reference.add(i);
+				list.add(i);
+			} else if (operation < 6) {
+				int index = random.nextInt(size);
+				assertEquals(reference.remove(index), list.remove(index));
+			} else if (operation == 6) {
+				int index = random.nextInt(size);
+				assertEquals(reference.set(index, -i), list.set(index, -i));
+			} else if (operation == 7) {
+				int index = random.nextInt(size);
+				assertEquals(reference.get(index), list.get(index));
+			} else if (operation == 8) {
+				// the large insertions into a single segment make the list rebalance
+				int index = random.nextInt(size + 1);
+				List<Integer> added = IntStream.range(0, random.nextInt(2_000)).boxed().collect(Collectors.toList());
+				reference.addAll(index, added);
+				list.addAll(index, added);
+			} else {
+				int from = random.nextInt(size + 1);
+				int to = from + random.nextInt(Math.min(size - from, 2_000) + 1);
+				reference.subList(from, to).clear();
+				list.subList(from, to).clear();
+			}
+			assertEquals(reference.size(), list.size());
+
+			if (i % 1_000 == 0) {
+				checkTreeInvariants(list);
+				assertEquals(reference, list);
+			}
+		}
+
+		checkTreeInvariants(list);
+		assertEquals(reference, list);
+		assertEquals(reference, new ArrayList<>(list));
+		assertEquals(reference, list.snapshot());
+		assertEquals(reference.hashCode(), list.hashCode());
+
+		list.removeIf(v -> v < 0);
+		reference.removeIf(v -> v < 0);
+		checkTreeInvariants(list);
+		assertEquals(reference, list);
+		assertEquals(segmentCount, list.getSegmentCount());
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		list.add(1);
+		assertEquals(Collections.singletonList(1), list);
+	}
+
+	@Test
+	public void concurrentWritersTest() throws Exception {
+		int size = 100_000;
+		int writers = Math.max(2, Runtime.getRuntime().availableProcessors());
+		int operations = 50_000;
+		testParameters.put("writers", writers);
+		List<Integer> initial = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		SegmentedTreeList<Integer> list = new SegmentedTreeList<>(initial, writers);
+
+		ExecutorService executor = Executors.newFixedThreadPool(writers);
+		try {
+			List<Future<List<Integer>>> futures = new ArrayList<>();
+			for (int i = 0; i < writers; i++) {
+				int writer = i;
+				futures.add(executor.submit(() -> {
+					// collects the values which must remain in the list
+					List<Integer> expected = new ArrayList<>();
+					Random random = new Random();
+					for (int j = 0; j < operations; j++) {
+						// the list never shrinks below the initial size minus the number of writers
+						int index = random.nextInt(size / 2);
+						if (random.nextBoolean()) {
+							int value = size + writer * operations + j;
+							list.add(index, value);
+							expected.add(value);
+						} else {
+							expected.add(-1 - list.remove(index)); // marks the value as removed
+						}
+					}
+					return expected;
+				}));
+			}
+
+			List<Integer> expected = new ArrayList<>(initial);
+			List<Integer> removed = new ArrayList<>();
+			for (Future<List<Integer>> future : futures) {
+				for (int value : future.get()) {
+					if (value < 0) {
+						removed.add(-1 - value);
+					} else {
+						expected.add(value);
+					}
+				}
+			}
+			Collections.sort(removed);
+			Collections.sort(expected);
+			List<Integer> remaining = new ArrayList<>();
+			int position = 0;
+			for (int value : expected) { // every value is removed at most once
+				if (position < removed.size() && removed.get(position) == value) {
+					position++;
+				} else {
+					remaining.add(value);
+				}
+			}
+			assertEquals(removed.size(), position);
+
+			List<Integer> actual = new ArrayList<>(list);
+			Collections.sort(actual);
+			checkTreeInvariants(list);
+			assertEquals(remaining.size(), list.size());
+			assertEquals(remaining, actual);
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -2,10 +2,16 @@ package dev.ornamental.collection;
 
 import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -53,6 +59,158 @@ public final class TreeListDeterministicTest {
 		checkTreeInvariants(receptacle);
 	}
 
+	@Test
+	public void addAllToMiddleTest() {
+		List<Object> source = IntStream.range(0, 32).boxed().collect(Collectors.toList());
+		List<Object> reference = IntStream.range(-20, 0).boxed().collect(Collectors.toList());
+
+		for (int index = 0; index <= reference.size(); index++) {
+			List<Object> expected = new ArrayList<>(reference);
+			expected.addAll(index, source);
+			TreeList<Object> receptacle = new TreeList<>(reference);
+			receptacle.addAll(index, source);
+			assertEquals(expected, receptacle);
+			checkTreeInvariants(receptacle);
+		}
+	}
+
+	@Test
+	public void addAllFailureTest() {
+		List<Object> reference = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		TreeList<Object> receptacle = new TreeList<>(reference);
+		Collection<Object> failing = new AbstractCollection<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				return IntStream.range(0, 64).<Object>mapToObj(i -> {
+					if (i == 50) {
+						throw new IllegalStateException();
+					}
+					return i;
+				}).iterator();
+			}
+
+			@Override
+			public int size() {
+				return 64;
+			}
+		};
+
+		try {
+			receptacle.addAll(50, failing);
+			fail();
+		} catch (IllegalStateException e) {
+			// the list must remain intact
+		}
+		assertEquals(reference, receptacle);
+		checkTreeInvariants(receptacle);
+	}
+
+	@Test
+	public void removeRangeTest() {
+		int listSize = 40;
+		List<Integer> referenceList = IntStream.range(0, listSize).boxed().collect(Collectors.toList());
+
+		for (int from = 0; from <= listSize; from++) {
+			for (int to = from; to <= listSize; to++) {
+				List<Integer> expected = new ArrayList<>(referenceList);
+				expected.subList(from, to).clear();
+				TreeList<Integer> list = new TreeList<>(referenceList);
+				list.subList(from, to).clear();
+				assertEquals(expected, list);
+				checkTreeInvariants(list);
+			}
+		}
+	}
+
+	@Test
+	public void removeIfTest() {
+		List<Integer> referenceList = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+		for (int divisor : new int[] {1, 2, 3, 500, 2000}) {
+			List<Integer> expected = new ArrayList<>(referenceList);
+			expected.removeIf(i -> (i + 1) % divisor == 0);
+			TreeList<Integer> list = new TreeList<>(referenceList);
+			assertEquals(divisor < 2000, list.removeIf(i -> (i + 1) % divisor == 0));
+			assertEquals(expected, list);
+			checkTreeInvariants(list);
+		}
+
+		TreeList<Integer> list = new TreeList<>(referenceList);
+		list.retainAll(Arrays.asList(10, 20, 30));
+		assertEquals(Arrays.asList(10, 20, 30), list);
+		checkTreeInvariants(list);
+
+		list.removeAll(Collections.singleton(20));
+		assertEquals(Arrays.asList(10, 30), list);
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void parallelRemoveIfTest() {
+		List<Integer> referenceList = IntStream.range(0, 300_000).boxed().collect(Collectors.toList());
+		TreeList<Integer> list = new TreeList<>(referenceList);
+		assertFalse(list.parallelRemoveIf(i -> i < 0));
+		try {
+			list.parallelRemoveIf(i -> {
+				if (i == 250_000) {
+					throw new IllegalStateException();
+				}
+				return i % 2 == 0;
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			// the list must remain intact
+		}
+		assertEquals(referenceList, list);
+
+		assertTrue(list.parallelRemoveIf(i -> i % 3 != 0));
+		assertEquals(100_000, list.size());
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(3 * i, list.get(i).intValue());
+		}
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void applyEditsTest() {
+		List<Integer> referenceList = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+		EditBatch<Integer> batch = new EditBatch<Integer>()
+			.insert(0, -1).set(0, -2).remove(1).insert(5, -3).insert(5, -4).remove(5);
+		for (int i = 40; i < 60; i++) {
+			batch.insert(i, -i).remove(i);
+		}
+		batch.set(70, -70).insert(100, -100).insert(100, -101);
+
+		List<Integer> expected = new ArrayList<>(referenceList);
+		expected.addAll(100, Arrays.asList(-100, -101));
+		expected.set(70, -70);
+		for (int i = 59; i >= 40; i--) {
+			expected.set(i, -i);
+		}
+		expected.remove(5);
+		expected.addAll(5, Arrays.asList(-3, -4));
+		expected.remove(1);
+		expected.set(0, -2);
+		expected.add(0, -1);
+
+		TreeList<Integer> list = new TreeList<>(referenceList);
+		list.applyEdits(batch);
+		assertEquals(expected, list);
+		checkTreeInvariants(list);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unorderedEditBatch() {
+		new EditBatch<Object>().remove(3).insert(3, null);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void editBatchOutOfBounds() {
+		TreeList<Object> list = new TreeList<>(Arrays.asList(1, 2, 3));
+		list.applyEdits(new EditBatch<>().remove(0).remove(3));
+	}
+
 	@Test
 	public void concatTest() {
 		int leastListSize = 50;
@@ -73,6 +231,41 @@ public final class TreeListDeterministicTest {
 		}
 	}
 
+	@Test
+	public void splitTest() {
+		int listSize = 70;
+		List<Integer> referenceList = IntStream.range(0, listSize).boxed().collect(Collectors.toList());
+
+		for (int index = 0; index <= listSize; index++) {
+			TreeList<Integer> prefix = new TreeList<>(referenceList);
+			TreeList<Integer> suffix = prefix.split(index);
+			assertEquals(referenceList.subList(0, index), prefix);
+			assertEquals(referenceList.subList(index, listSize), suffix);
+			checkTreeInvariants(prefix);
+			checkTreeInvariants(suffix);
+		}
+	}
+
+	@Test
+	public void partitionTest() {
+		List<Integer> referenceList = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+		for (int parts : new int[] {1, 3, 7, 100, 150}) {
+			TreeList<Integer> list = new TreeList<>(referenceList);
+			List<TreeList<Integer>> partition = list.partition(parts);
+			assertTrue(list.isEmpty());
+			assertEquals(parts, partition.size());
+
+			List<Integer> joined = new ArrayList<>();
+			for (TreeList<Integer> part : partition) {
+				assertTrue(Math.abs(part.size() - partition.get(0).size()) <= 1);
+				checkTreeInvariants(part);
+				joined.addAll(part);
+			}
+			assertEquals(referenceList, joined);
+		}
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void concatWithSelf() {
 		TreeList<Object> list1 = new TreeList<>();
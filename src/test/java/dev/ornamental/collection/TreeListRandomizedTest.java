@@ -1,12 +1,16 @@
 package dev.ornamental.collection;
 
 import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -14,6 +18,7 @@ import java.util.Random;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import dev.ornamental.test.ValueCollectorRule;
 import org.junit.Rule;
@@ -168,6 +173,26 @@ public final class TreeListRandomizedTest {
 		}
 	}
 
+	@Test
+	public void addAllToMiddleTest() {
+		Random random = new Random();
+		TreeList<Object> receptacle = produceRandomList(Object::new);
+		List<Object> reference = new ArrayList<>(receptacle);
+
+		for (int j = 0; j < 100; j++) {
+			int sourceSize = random.nextInt(1_000);
+			int index = random.nextInt(receptacle.size() + 1);
+			testParameters.put("sourceSize", sourceSize);
+			testParameters.put("index", index);
+			List<Object> source = Stream.generate(Object::new).limit(sourceSize).collect(Collectors.toList());
+
+			receptacle.addAll(index, source);
+			reference.addAll(index, source);
+			checkTreeInvariants(receptacle);
+		}
+		assertEquals(reference, receptacle);
+	}
+
 	@org.junit.Test
 	public void concat() {
 		Random random = new Random();
@@ -210,6 +235,219 @@ public final class TreeListRandomizedTest {
 		assertEquals(leftCount + rightCount, i);
 	}
 
+	@Test
+	public void split() {
+		Random random = new Random();
+		TreeList<Integer> list = new TreeList<>();
+		int count = random.nextInt(30_000);
+		IntStream
+			.range(0, count)
+			.map(i -> random.nextInt(i + 1))
+			.forEachOrdered(i -> list.add(i, null));
+		for (int i = 0; i < count; i++) {
+			list.set(i, i);
+		}
+
+		int index = random.nextInt(count + 1);
+		testParameters.put("count", count);
+		testParameters.put("index", index);
+		TreeList<Integer> suffix = list.split(index);
+		assertEquals(index, list.size());
+		assertEquals(count - index, suffix.size());
+		checkTreeInvariants(list);
+		checkTreeInvariants(suffix);
+
+		for (int i = 0; i < index; i++) {
+			assertEquals(i, list.get(i).intValue());
+		}
+		for (int i = index; i < count; i++) {
+			assertEquals(i, suffix.get(i - index).intValue());
+		}
+
+		TreeList<Integer> concatenated = TreeList.concat(list, suffix);
+		assertEquals(count, concatenated.size());
+		checkTreeInvariants(concatenated);
+	}
+
+	@Test
+	public void removeRange() {
+		Random random = new Random();
+		TreeList<Integer> list = produceRandomList(() -> null);
+		List<Integer> reference = new ArrayList<>();
+		for (int i = 0; i < list.size(); i++) {
+			list.set(i, i);
+			reference.add(i);
+		}
+
+		while (!list.isEmpty()) {
+			int from = random.nextInt(list.size());
+			int to = from + random.nextInt(Math.min(list.size() - from, 5_000) + 1);
+			testParameters.put("size", list.size());
+			testParameters.put("from", from);
+			testParameters.put("to", to);
+
+			list.subList(from, to).clear();
+			reference.subList(from, to).clear();
+			assertEquals(reference, list);
+			checkTreeInvariants(list);
+		}
+		assertTrue(reference.isEmpty());
+	}
+
+	@Test
+	public void removeIf() {
+		Random random = new Random();
+		TreeList<Integer> list = produceRandomList(random::nextInt);
+		List<Integer> reference = new ArrayList<>(list);
+
+		int modulus = 1 + random.nextInt(1_000);
+		testParameters.put("modulus", modulus);
+		list.removeIf(i -> i % modulus == 0);
+		reference.removeIf(i -> i % modulus == 0);
+		assertEquals(reference, list);
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void applyEdits() {
+		Random random = new Random();
+		TreeList<Object> list = produceRandomList(Object::new);
+		List<Object> reference = new ArrayList<>(list);
+
+		// the reference list is modified starting from the end so that the original indices remain valid
+		EditBatch<Object> batch = new EditBatch<>();
+		List<Runnable> referenceEdits = new ArrayList<>();
+		int index = 0;
+		while (index <= reference.size()) {
+			for (int i = random.nextInt(3); i > 0; i--) {
+				Object value = new Object();
+				int position = index;
+				batch.insert(position, value);
+				referenceEdits.add(() -> reference.add(position, value));
+			}
+			if (index < reference.size()) {
+				int position = index;
+				int operation = random.nextInt(3);
+				if (operation == 0) {
+					batch.remove(position);
+					referenceEdits.add(() -> reference.remove(position));
+				} else if (operation == 1) {
+					Object value = new Object();
+					batch.set(position, value);
+					referenceEdits.add(() -> reference.set(position, value));
+				}
+			}
+			index += random.nextInt(2) == 0 ? 1 : 1 + random.nextInt(100);
+		}
+
+		list.applyEdits(batch);
+		for (int i = referenceEdits.size() - 1; i >= 0; i--) {
+			referenceEdits.get(i).run();
+		}
+		assertEquals(reference, list);
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void finger() {
+		Random random = new Random();
+		TreeList<Integer> list = produceRandomList(random::nextInt);
+		List<Integer> reference = new ArrayList<>(list);
+		list.setFingerEnabled(true);
+
+		for (int i = 0; i < reference.size(); i++) {
+			assertEquals(reference.get(i), list.get(i));
+		}
+		for (int i = reference.size() - 1; i >= 0; i -= 1 + random.nextInt(3)) {
+			assertEquals(reference.set(i, -i), list.set(i, -i));
+		}
+
+		int position = random.nextInt(reference.size());
+		for (int i = 0; i < 10_000; i++) {
+			position = Math.max(0, Math.min(reference.size(), position + random.nextInt(9) - 4));
+			int operation = random.nextInt(3);
+			if (operation == 0 || position == reference.size()) {
+				list.add(position, i);
+				reference.add(position, i);
+			} else if (operation == 1) {
+				assertEquals(reference.remove(position), list.remove(position));
+			} else {
+				assertEquals(reference.get(position), list.get(position));
+			}
+		}
+		assertEquals(reference, list);
+		checkTreeInvariants(list);
+	}
+
+	@Test
+	public void bulkQueries() {
+		Random random = new Random();
+		TreeList<Integer> list = produceRandomList(() -> random.nextInt(1_000));
+		List<Integer> reference = new ArrayList<>(list);
+
+		List<Integer> visited = new ArrayList<>();
+		list.forEach(visited::add);
+		assertEquals(reference, visited);
+
+		assertArrayEquals(reference.toArray(), list.toArray());
+		assertArrayEquals(reference.toArray(new Integer[0]), list.toArray(new Integer[0]));
+		Integer[] larger = new Integer[reference.size() + 2];
+		Arrays.fill(larger, -1);
+		assertSame(larger, list.toArray(larger));
+		assertNull(larger[reference.size()]);
+		assertEquals(-1, larger[reference.size() + 1].intValue());
+
+		assertEquals(reference.hashCode(), list.hashCode());
+		assertEquals(list, reference);
+		assertEquals(reference, list);
+		int changed = random.nextInt(reference.size());
+		Integer original = reference.set(changed, -1);
+		assertNotEquals(list, reference);
+		reference.set(changed, original);
+		assertNotEquals(list, reference.subList(1, reference.size()));
+
+		for (int i = 0; i < 100; i++) {
+			Integer value = random.nextInt(1_100);
+			assertEquals(reference.indexOf(value), list.indexOf(value));
+			assertEquals(reference.lastIndexOf(value), list.lastIndexOf(value));
+			assertEquals(reference.contains(value), list.contains(value));
+		}
+		assertEquals(-1, list.indexOf(null));
+	}
+
+	@Test
+	public void parallelSearch() {
+		Random random = new Random();
+		int size = 100_000 + random.nextInt(100_000);
+		TreeList<Integer> list = new TreeList<>(random.ints(size, 0, 50_000).boxed().collect(Collectors.toList()));
+		testParameters.put("size", size);
+		List<Integer> reference = new ArrayList<>(list);
+
+		for (int i = 0; i < 50; i++) {
+			Integer value = random.nextInt(55_000);
+			assertEquals(reference.indexOf(value), list.parallelIndexOf(value));
+			assertEquals(reference.lastIndexOf(value), list.parallelLastIndexOf(value));
+			assertEquals(reference.contains(value), list.parallelContains(value));
+		}
+
+		int threshold = 49_990;
+		assertEquals(
+			IntStream.range(0, size).filter(i -> reference.get(i) >= threshold).findFirst().orElse(-1),
+			list.parallelIndexOfMatching(v -> v >= threshold));
+		assertEquals(
+			IntStream.range(0, size).map(i -> size - 1 - i).filter(i -> reference.get(i) >= threshold)
+				.findFirst().orElse(-1),
+			list.parallelLastIndexOfMatching(v -> v >= threshold));
+		assertEquals(-1, list.parallelIndexOfMatching(v -> v < 0));
+		assertEquals(-1, new TreeList<Integer>().parallelLastIndexOf(null));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void forEachModification() {
+		TreeList<Integer> list = new TreeList<>(Arrays.asList(1, 2, 3));
+		list.forEach(list::add);
+	}
+
 	@Test
 	public void bulkLoadTest() {
 		Random random = new Random();
@@ -220,6 +458,70 @@ public final class TreeListRandomizedTest {
 		checkTreeInvariants(copy);
 	}
 
+	@Test
+	public void parallelBulkLoadTest() {
+		Random random = new Random();
+		int size = 100_000 + random.nextInt(200_000);
+		testParameters.put("size", size);
+		Integer[] source = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+		TreeList<Integer> sequential = new TreeList<>(Arrays.asList(source));
+		TreeList<Integer> parallel = TreeList.ofArray(source);
+		assertEquals(sequential, parallel);
+		checkTreeInvariants(parallel);
+		assertSameStructure(sequential.tree.root, parallel.tree.root);
+
+		parallel.add(size / 2, -1);
+		parallel.remove(0);
+		checkTreeInvariants(parallel);
+		assertTrue(TreeList.parallelFrom(new ArrayList<>()).isEmpty());
+	}
+
+	@Test
+	public void builderTest() {
+		Random random = new Random();
+		TreeList.Builder<Integer> builder = new TreeList.Builder<>();
+		for (int size = 0; size < 300; size++) {
+			IntStream.range(0, size).forEach(builder::add);
+			assertEquals(size, builder.size());
+			TreeList<Integer> list = builder.build();
+			checkTreeInvariants(list);
+			assertEquals(IntStream.range(0, size).boxed().collect(Collectors.toList()), list);
+			assertEquals(0, builder.size());
+		}
+
+		int size = 100_000 + random.nextInt(100_000);
+		testParameters.put("size", size);
+		List<Integer> reference = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		TreeList<Integer> streamed = TreeList.of(IntStream.range(0, size).boxed());
+		checkTreeInvariants(streamed);
+		assertEquals(reference, streamed);
+
+		TreeList<Integer> collected = IntStream.range(0, size).parallel().boxed().collect(TreeList.toTreeList());
+		checkTreeInvariants(collected);
+		assertEquals(reference, collected);
+
+		int cut = random.nextInt(size);
+		TreeList.Builder<Integer> head = new TreeList.Builder<Integer>().addAll(reference.subList(0, cut).iterator());
+		TreeList.Builder<Integer> tail = new TreeList.Builder<>();
+		tail.addAll(reference.subList(cut, size).iterator());
+		head.addAll(tail).add(size);
+		assertEquals(0, tail.size());
+		TreeList<Integer> combined = head.build();
+		checkTreeInvariants(combined);
+		assertEquals(size + 1, combined.size());
+		assertEquals(reference, combined.subList(0, size));
+		assertEquals(size, combined.get(size).intValue());
+	}
+
+	private static void assertSameStructure(TreeList.Node expected, TreeList.Node actual) {
+		assertEquals(expected.getWeight(), actual.getWeight());
+		assertEquals(expected.isRed(), actual.isRed());
+		if (expected.getWeight() > 0) {
+			assertSameStructure(expected.getLeft(), actual.getLeft());
+			assertSameStructure(expected.getRight(), actual.getRight());
+		}
+	}
+
 	private static <T> TreeList<T> produceRandomList(Supplier<T> valueSupplier) {
 		TreeList<T> result = new TreeList<>();
 
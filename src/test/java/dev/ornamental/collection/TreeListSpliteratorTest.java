@@ -5,10 +5,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import org.junit.Test;
 
@@ -63,6 +67,31 @@ public final class TreeListSpliteratorTest {
 		assertFalse(spliterator.tryAdvance(o -> { }));
 	}
 
+	@Test
+	public void rangeSpliteratorTest() {
+		Random random = new Random();
+		int n = 1 + random.nextInt(100_000);
+		int from = random.nextInt(n);
+		int to = from + random.nextInt(n - from + 1);
+		TreeList<Integer> list = IntStream.range(0, n).boxed().collect(Collectors.toCollection(TreeList::new));
+
+		Spliterator<Integer> spliterator = list.spliterator(from, to);
+		assertEquals(to - from, spliterator.getExactSizeIfKnown());
+		List<Integer> collected = new ArrayList<>();
+		if (spliterator.tryAdvance(collected::add)) {
+			Spliterator<Integer> prefix = spliterator.trySplit();
+			if (prefix != null) {
+				prefix.forEachRemaining(collected::add);
+			}
+			spliterator.forEachRemaining(collected::add);
+		}
+		assertEquals(list.subList(from, to), collected);
+
+		assertEquals(
+			list.subList(from, to),
+			StreamSupport.stream(list.spliterator(from, to), true).collect(Collectors.toList()));
+	}
+
 	private void sumRecursively(
 		SumAccumulator sumAccumulator, Spliterator<Integer> spliterator) {
 
@@ -0,0 +1,146 @@
+package dev.ornamental.collection;
+
+import static dev.ornamental.collection.RedBlackTreeChecker.checkTreeInvariants;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import dev.ornamental.test.ValueCollectorRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class WeightedTreeListTest {
+
+	@Rule
+	public final ValueCollectorRule testParameters = new ValueCollectorRule();
+
+	@Test
+	public void randomModificationsTest() {
+		Random random = new Random();
+		int initialSize = random.nextInt(1_000);
+		testParameters.put("initialSize", initialSize);
+		List<String> reference = random.ints(initialSize, 0, 1_000)
+			.mapToObj(Integer::toString).collect(Collectors.toList());
+		WeightedTreeList<String> list = new WeightedTreeList<>(reference, String::length);
+		List<Long> weights = reference.stream().map(s -> (long)s.length()).collect(Collectors.toList());
+		checkOffsets(reference, weights, list);
+
+		for (int i = 0; i < 3_000; i++) {
+			int size = reference.size();
+			int index = random.nextInt(size + 1);
+			String value = Integer.toString(random.nextInt(100_000));
+			long weight = random.nextInt(4) == 0 ? 0 : random.nextInt(1_000);
+			int operation = random.nextInt(7);
+			if (operation < 2 || size == 0) {
+				reference.add(index, value);
+				weights.add(index, weight);
+				list.add(index, value, weight);
+			} else if (operation == 2) {
+				reference.add(index, value);
+				weights.add(index, (long)value.length());
+				list.add(index, value);
+			} else if (operation == 3) {
+				weights.remove(index % size);
+				assertEquals(reference.remove(index % size), list.remove(index % size));
+			} else if (operation == 4) {
+				weights.set(index % size, weight);
+				assertEquals(reference.set(index % size, value), list.set(index % size, value, weight));
+			} else if (operation == 5) {
+				assertEquals(weights.set(index % size, weight).longValue(), list.setWeight(index % size, weight));
+			} else {
+				ListIterator<String> iterator = list.listIterator(index % size);
+				iterator.next();
+				iterator.set(value);
+				reference.set(index % size, value);
+				weights.set(index % size, (long)value.length());
+			}
+
+			if (i % 300 == 0) {
+				checkTreeInvariants(list.tree);
+				checkOffsets(reference, weights, list);
+			}
+		}
+
+		int cut = random.nextInt(reference.size() + 1);
+		WeightedTreeList<String> suffix = list.split(cut);
+		checkOffsets(reference.subList(0, cut), weights.subList(0, cut), list);
+		checkOffsets(reference.subList(cut, reference.size()), weights.subList(cut, weights.size()), suffix);
+		list = WeightedTreeList.concat(list, suffix);
+		checkTreeInvariants(list.tree);
+		checkOffsets(reference, weights, list);
+
+		int from = random.nextInt(reference.size() + 1);
+		int to = from + random.nextInt(reference.size() - from + 1);
+		list.subList(from, to).clear();
+		reference.subList(from, to).clear();
+		weights.subList(from, to).clear();
+		checkOffsets(reference, weights, list);
+	}
+
+	@Test
+	public void samplingTest() {
+		WeightedTreeList<Integer> list = new WeightedTreeList<>(Integer::longValue);
+		IntStream.of(0, 1, 0, 3, 0, 6, 0).forEach(list::add);
+		assertEquals(10, list.totalWeight());
+
+		Random random = new Random();
+		int[] counts = new int[list.size()];
+		int samples = 100_000;
+		for (int i = 0; i < samples; i++) {
+			counts[list.sampleIndex(random)]++;
+		}
+		for (int i = 0; i < counts.length; i++) {
+			double expected = samples * list.get(i) / 10.0;
+			assertEquals(expected, counts[i], 0.05 * samples);
+		}
+		assertEquals(0, counts[0] + counts[2] + counts[4] + counts[6]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeWeightTest() {
+		new WeightedTreeList<Integer>(Integer::longValue).add(-1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void weightOverflowTest() {
+		WeightedTreeList<Long> list = new WeightedTreeList<>(Long::longValue);
+		list.add(Long.MAX_VALUE - 1);
+		list.add(1L);
+		assertTrue(list.totalWeight() == Long.MAX_VALUE);
+		list.add(1L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void selfConcatenationTest() {
+		WeightedTreeList<Integer> list = new WeightedTreeList<>(Integer::longValue);
+		list.add(1);
+		WeightedTreeList.concat(list, list);
+	}
+
+	private static void checkOffsets(List<String> reference, List<Long> weights, WeightedTreeList<String> list) {
+		assertEquals(reference, list);
+		long offset = 0;
+		List<Integer> expectedIndices = new ArrayList<>();
+		List<Integer> actualIndices = new ArrayList<>();
+		for (int i = 0; i < reference.size(); i++) {
+			assertEquals(offset, list.offsetOf(i));
+			assertEquals(weights.get(i).longValue(), list.weightOf(i));
+			if (weights.get(i) > 0) {
+				expectedIndices.add(i);
+				actualIndices.add(list.indexOfOffset(offset));
+				expectedIndices.add(i);
+				actualIndices.add(list.indexOfOffset(offset + weights.get(i) - 1));
+			}
+			offset += weights.get(i);
+		}
+		assertEquals(expectedIndices, actualIndices);
+		assertEquals(offset, list.offsetOf(reference.size()));
+		assertEquals(offset, list.totalWeight());
+	}
+}